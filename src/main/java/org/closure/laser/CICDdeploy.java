@@ -1,176 +0,0 @@
-package org.closure.laser;
-
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Objects;
-
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
-import org.springframework.util.StringUtils;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.multipart.MultipartFile;
-
-
-@RestController
-@RequestMapping("/api")
-public class CICDdeploy {
-
-    @PostMapping("/upload-flutter-release")
-    public ResponseEntity<FileUploadResponse> uploadFile(
-            @RequestParam("file") MultipartFile multipartFile)
-                    throws IOException {
-         
-        String fileName = StringUtils.cleanPath(multipartFile.getOriginalFilename());
-        long size = multipartFile.getSize();
-         
-        String filecode = FileUploadUtil.saveFile(fileName, multipartFile);
-         
-        FileUploadResponse response = new FileUploadResponse();
-        response.setFileName(fileName);
-        response.setSize(size);
-        response.setDownloadUri("/download-flutter-release/laser-release");
-         
-        return new ResponseEntity<>(response, HttpStatus.OK);
-    }
-
-    @GetMapping("/download-flutter-release/{fileCode}")
-    public ResponseEntity<?> downloadFile(@PathVariable("fileCode") String fileCode) {
-        FileDownloadUtil downloadUtil = new FileDownloadUtil();
-         
-        Resource resource = null;
-        try {
-            resource = downloadUtil.getFileAsResource(fileCode);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
-        }
-         
-        if (resource == null) {
-            return new ResponseEntity<>("File not found", HttpStatus.NOT_FOUND);
-        }
-         
-        String contentType = "application/octet-stream";
-        String headerValue = "attachment; filename=\"" + resource.getFilename() + "\"";
-         
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, headerValue)
-                .body(resource);       
-    }
-}
-    
-
-class FileDownloadUtil {
-    private Path foundFile;
-     
-    public Resource getFileAsResource(String fileCode) throws IOException {
-        Path dirPath = Paths.get("Files-Upload");
-         
-        Files.list(dirPath).forEach(file -> {
-            if (file.getFileName().toString().startsWith(fileCode)) {
-                foundFile = file;
-                return;
-            }
-        });
- 
-        if (foundFile != null) {
-            return new UrlResource(foundFile.toUri());
-        }
-         
-        return null;
-    }
-}
-
-class FileUploadResponse {
-    private String fileName;
-    private String downloadUri;
-    private long size;
-
-
-    public FileUploadResponse() {
-    }
-
-    public FileUploadResponse(String fileName, String downloadUri, long size) {
-        this.fileName = fileName;
-        this.downloadUri = downloadUri;
-        this.size = size;
-    }
-
-    public String getFileName() {
-        return this.fileName;
-    }
-
-    public void setFileName(String fileName) {
-        this.fileName = fileName;
-    }
-
-    public String getDownloadUri() {
-        return this.downloadUri;
-    }
-
-    public void setDownloadUri(String downloadUri) {
-        this.downloadUri = downloadUri;
-    }
-
-    public long getSize() {
-        return this.size;
-    }
-
-    public void setSize(long size) {
-        this.size = size;
-    }
-
-    public FileUploadResponse fileName(String fileName) {
-        setFileName(fileName);
-        return this;
-    }
-
-    public FileUploadResponse downloadUri(String downloadUri) {
-        setDownloadUri(downloadUri);
-        return this;
-    }
-
-    public FileUploadResponse size(long size) {
-        setSize(size);
-        return this;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        if (o == this)
-            return true;
-        if (!(o instanceof FileUploadResponse)) {
-            return false;
-        }
-        FileUploadResponse fileUploadResponse = (FileUploadResponse) o;
-        return Objects.equals(fileName, fileUploadResponse.fileName) && Objects.equals(downloadUri, fileUploadResponse.downloadUri) && size == fileUploadResponse.size;
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(fileName, downloadUri, size);
-    }
-
-    @Override
-    public String toString() {
-        return "{" +
-            " fileName='" + getFileName() + "'" +
-            ", downloadUri='" + getDownloadUri() + "'" +
-            ", size='" + getSize() + "'" +
-            "}";
-    }
-
- 
-    
- 
-}
\ No newline at end of file
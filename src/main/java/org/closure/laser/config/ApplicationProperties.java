@@ -1,6 +1,12 @@
 package org.closure.laser.config;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Laser.
@@ -9,4 +15,502 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Cache cache = new Cache();
+
+    private final Push push = new Push();
+
+    private final Capacity capacity = new Capacity();
+
+    private final Release release = new Release();
+
+    private final Upload upload = new Upload();
+
+    private final Search search = new Search();
+
+    private final Airports airports = new Airports();
+
+    private final Articles articles = new Articles();
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Push getPush() {
+        return push;
+    }
+
+    public Capacity getCapacity() {
+        return capacity;
+    }
+
+    public Release getRelease() {
+        return release;
+    }
+
+    public Upload getUpload() {
+        return upload;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Airports getAirports() {
+        return airports;
+    }
+
+    public Articles getArticles() {
+        return articles;
+    }
+
+    public static class Cache {
+
+        /**
+         * Directory of the disk tier, required as soon as one region has a {@code disk} size.
+         */
+        private String diskPath;
+
+        /**
+         * Per-region settings, keyed by cache name without the {@code org.closure.laser.domain.} prefix
+         * (for instance {@code Location.tripSources}). Regions not listed here use {@code jhipster.cache.ehcache}.
+         */
+        private final Map<String, Region> regions = new HashMap<>();
+
+        public String getDiskPath() {
+            return diskPath;
+        }
+
+        public void setDiskPath(String diskPath) {
+            this.diskPath = diskPath;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+    }
+
+    public static class Region {
+
+        /**
+         * Entries kept on heap, defaults to {@code jhipster.cache.ehcache.max-entries}.
+         */
+        private Long heapEntries;
+
+        /**
+         * Size of the off-heap tier, none when not set.
+         */
+        private DataSize offHeap;
+
+        /**
+         * Size of the disk tier, none when not set. The disk tier is not persistent across restarts.
+         */
+        private DataSize disk;
+
+        /**
+         * Expiry after creation or update, defaults to {@code jhipster.cache.ehcache.time-to-live-seconds}.
+         */
+        private Duration timeToLive;
+
+        /**
+         * Expiry after last access, replaces {@code time-to-live} when set.
+         */
+        private Duration timeToIdle;
+
+        /**
+         * Never expire entries, for reference tables.
+         */
+        private boolean eternal;
+
+        public Long getHeapEntries() {
+            return heapEntries;
+        }
+
+        public void setHeapEntries(Long heapEntries) {
+            this.heapEntries = heapEntries;
+        }
+
+        public DataSize getOffHeap() {
+            return offHeap;
+        }
+
+        public void setOffHeap(DataSize offHeap) {
+            this.offHeap = offHeap;
+        }
+
+        public DataSize getDisk() {
+            return disk;
+        }
+
+        public void setDisk(DataSize disk) {
+            this.disk = disk;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getTimeToIdle() {
+            return timeToIdle;
+        }
+
+        public void setTimeToIdle(Duration timeToIdle) {
+            this.timeToIdle = timeToIdle;
+        }
+
+        public boolean isEternal() {
+            return eternal;
+        }
+
+        public void setEternal(boolean eternal) {
+            this.eternal = eternal;
+        }
+    }
+
+    public static class Push {
+
+        /**
+         * Delay between two dispatches of the queued push notifications.
+         */
+        private Duration dispatchInterval = Duration.ofSeconds(2);
+
+        /**
+         * Notifications claimed and sent at once, Firebase sends at most 500 messages per request.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Attempts before a notification is given up.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Delay before the first retry, doubled after each attempt.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        /**
+         * Maximum delay between two attempts.
+         */
+        private Duration maxBackoff = Duration.ofMinutes(30);
+
+        /**
+         * Time after which a claimed notification is sent again when its dispatch did not complete.
+         */
+        private Duration lease = Duration.ofMinutes(2);
+
+        public Duration getDispatchInterval() {
+            return dispatchInterval;
+        }
+
+        public void setDispatchInterval(Duration dispatchInterval) {
+            this.dispatchInterval = dispatchInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getLease() {
+            return lease;
+        }
+
+        public void setLease(Duration lease) {
+            this.lease = lease;
+        }
+    }
+
+    /**
+     * Read by {@code CapacityReservationService}.
+     */
+    public static class Capacity {
+
+        /**
+         * Time a pending offer holds its weight on the trip deal.
+         */
+        private Duration reservationTimeToLive = Duration.ofDays(1);
+
+        /**
+         * Delay between two releases of the expired reservations.
+         */
+        private Duration expiryCheckInterval = Duration.ofMinutes(1);
+
+        public Duration getReservationTimeToLive() {
+            return reservationTimeToLive;
+        }
+
+        public void setReservationTimeToLive(Duration reservationTimeToLive) {
+            this.reservationTimeToLive = reservationTimeToLive;
+        }
+
+        public Duration getExpiryCheckInterval() {
+            return expiryCheckInterval;
+        }
+
+        public void setExpiryCheckInterval(Duration expiryCheckInterval) {
+            this.expiryCheckInterval = expiryCheckInterval;
+        }
+    }
+
+    /**
+     * Read by {@code ReleaseService}.
+     */
+    public static class Release {
+
+        /**
+         * Directory of the releases of the mobile application.
+         */
+        private Path directory = Paths.get("Files-Upload");
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+    }
+
+    /**
+     * Read by {@code UploadConfiguration}, {@code UserApplicationService}, {@code ImageStoreService} and
+     * {@code ThumbnailService}.
+     */
+    public static class Upload {
+
+        /**
+         * Directory of the uploaded images: stored by content in "blobs", and in a sub-directory per type for the
+         * images uploaded before.
+         */
+        private Path directory = Paths.get("assets/images");
+
+        /**
+         * Time an image no longer referenced is kept before being deleted.
+         */
+        private Duration unreferencedRetention = Duration.ofHours(1);
+
+        /**
+         * Delay between two deletions of the unreferenced images.
+         */
+        private Duration deleteUnreferencedInterval = Duration.ofHours(1);
+
+        /**
+         * Threads writing the uploaded files, shared by all the requests.
+         */
+        private int threads = 4;
+
+        /**
+         * Files waiting for a thread. When full, the request thread writes its files itself.
+         */
+        private int queueCapacity = 64;
+
+        /**
+         * Threads creating the thumbnails.
+         */
+        private int thumbnailThreads = 1;
+
+        /**
+         * Images waiting for their thumbnail. When full, new images get no thumbnail.
+         */
+        private int thumbnailQueueCapacity = 1000;
+
+        /**
+         * Largest width and height of the thumbnails, in pixels.
+         */
+        private int thumbnailSize = 320;
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        public Duration getUnreferencedRetention() {
+            return unreferencedRetention;
+        }
+
+        public void setUnreferencedRetention(Duration unreferencedRetention) {
+            this.unreferencedRetention = unreferencedRetention;
+        }
+
+        public Duration getDeleteUnreferencedInterval() {
+            return deleteUnreferencedInterval;
+        }
+
+        public void setDeleteUnreferencedInterval(Duration deleteUnreferencedInterval) {
+            this.deleteUnreferencedInterval = deleteUnreferencedInterval;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getThumbnailThreads() {
+            return thumbnailThreads;
+        }
+
+        public void setThumbnailThreads(int thumbnailThreads) {
+            this.thumbnailThreads = thumbnailThreads;
+        }
+
+        public int getThumbnailQueueCapacity() {
+            return thumbnailQueueCapacity;
+        }
+
+        public void setThumbnailQueueCapacity(int thumbnailQueueCapacity) {
+            this.thumbnailQueueCapacity = thumbnailQueueCapacity;
+        }
+
+        public int getThumbnailSize() {
+            return thumbnailSize;
+        }
+
+        public void setThumbnailSize(int thumbnailSize) {
+            this.thumbnailSize = thumbnailSize;
+        }
+    }
+
+    /**
+     * Read by {@code SearchIndexService}.
+     */
+    public static class Search {
+
+        /**
+         * Directory of the full-text index, rebuilt in a new sub-directory at each start. Unset, the index is kept in
+         * memory.
+         */
+        private Path directory;
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+    }
+
+    /**
+     * Read by {@code Scheduler} and {@code LocationImportService}.
+     */
+    public static class Airports {
+
+        /**
+         * Airports list of the flight API, a JSON array, with its access key. The airports are not imported when it
+         * is not set.
+         */
+        private String url;
+
+        /**
+         * Delay before the first scheduled import after start.
+         */
+        private Duration initialDelay = Duration.ZERO;
+
+        /**
+         * Delay between two scheduled imports.
+         */
+        private Duration importInterval = Duration.ofHours(6);
+
+        /**
+         * Airports inserted or updated per transaction, and per JDBC batch.
+         */
+        private int batchSize = 500;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public Duration getInitialDelay() {
+            return initialDelay;
+        }
+
+        public void setInitialDelay(Duration initialDelay) {
+            this.initialDelay = initialDelay;
+        }
+
+        public Duration getImportInterval() {
+            return importInterval;
+        }
+
+        public void setImportInterval(Duration importInterval) {
+            this.importInterval = importInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Read by {@code ArticleViewCounter}.
+     */
+    public static class Articles {
+
+        /**
+         * Delay between two writes of the article views counted in memory.
+         */
+        private Duration viewFlushInterval = Duration.ofSeconds(10);
+
+        public Duration getViewFlushInterval() {
+            return viewFlushInterval;
+        }
+
+        public void setViewFlushInterval(Duration viewFlushInterval) {
+            this.viewFlushInterval = viewFlushInterval;
+        }
+    }
+}
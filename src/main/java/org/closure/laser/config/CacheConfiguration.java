@@ -1,9 +1,21 @@
 package org.closure.laser.config;
 
+import java.io.File;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import javax.cache.Caching;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
@@ -19,22 +31,107 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 @EnableCaching
 public class CacheConfiguration {
 
+    private static final String DOMAIN_PREFIX = "org.closure.laser.domain.";
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Cache cacheProperties;
+    private final Map<String, javax.cache.configuration.Configuration<Object, Object>> regionConfigurations = new HashMap<>();
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        ehcache = jHipsterProperties.getCache().getEhcache();
+        cacheProperties = applicationProperties.getCache();
 
+        ClassLoader classLoader = getClass().getClassLoader();
+        cacheProperties
+            .getRegions()
+            .forEach((name, region) ->
+                regionConfigurations.put(
+                    name,
+                    Eh107Configuration.fromEhcacheCacheConfiguration(
+                        regionConfiguration(name, region, ehcache, cacheProperties.getDiskPath(), classLoader)
+                    )
+                )
+            );
         jcacheConfiguration =
             Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
+                regionConfiguration("default", new ApplicationProperties.Region(), ehcache, null, classLoader)
             );
     }
 
+    /**
+     * Build the Ehcache configuration of one region, falling back to {@code jhipster.cache.ehcache} for
+     * the heap size and time to live.
+     * <p>
+     * Off-heap and disk tiers store serialized copies, so they use plain Java serialization for keys
+     * and values, which all Hibernate cache entries support.
+     */
+    static org.ehcache.config.CacheConfiguration<Object, Object> regionConfiguration(
+        String name,
+        ApplicationProperties.Region region,
+        JHipsterProperties.Cache.Ehcache ehcache,
+        String diskPath,
+        ClassLoader classLoader
+    ) {
+        if (region.getTimeToLive() != null && region.getTimeToIdle() != null) {
+            throw new IllegalStateException("Cache region " + name + " can't have both a time-to-live and a time-to-idle");
+        }
+        if (region.isEternal() && (region.getTimeToLive() != null || region.getTimeToIdle() != null)) {
+            throw new IllegalStateException("Cache region " + name + " is eternal, it can't have a time-to-live or a time-to-idle");
+        }
+        if (region.getDisk() != null && diskPath == null) {
+            throw new IllegalStateException("Cache region " + name + " has a disk tier but application.cache.disk-path is not set");
+        }
+
+        long heapEntries = region.getHeapEntries() != null ? region.getHeapEntries() : ehcache.getMaxEntries();
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.newResourcePoolsBuilder().heap(heapEntries, EntryUnit.ENTRIES);
+        if (region.getOffHeap() != null) {
+            resourcePools = resourcePools.offheap(region.getOffHeap().toKilobytes(), MemoryUnit.KB);
+        }
+        if (region.getDisk() != null) {
+            resourcePools = resourcePools.disk(region.getDisk().toKilobytes(), MemoryUnit.KB, false);
+        }
+
+        ExpiryPolicy<Object, Object> expiry;
+        if (region.isEternal()) {
+            expiry = ExpiryPolicyBuilder.noExpiration();
+        } else if (region.getTimeToIdle() != null) {
+            expiry = ExpiryPolicyBuilder.timeToIdleExpiration(region.getTimeToIdle());
+        } else if (region.getTimeToLive() != null) {
+            expiry = ExpiryPolicyBuilder.timeToLiveExpiration(region.getTimeToLive());
+        } else {
+            expiry = ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds()));
+        }
+
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+            .withExpiry(expiry);
+        if (region.getOffHeap() != null || region.getDisk() != null) {
+            builder =
+                builder
+                    .withKeySerializer(new PlainJavaSerializer<>(classLoader))
+                    .withValueSerializer(new PlainJavaSerializer<>(classLoader));
+        }
+        return builder.build();
+    }
+
+    /**
+     * The JCache manager, created here instead of by Spring Boot so that the disk tier gets its directory.
+     */
+    @Bean
+    public javax.cache.CacheManager jCacheCacheManager(ObjectProvider<JCacheManagerCustomizer> cacheManagerCustomizers) {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        ClassLoader classLoader = getClass().getClassLoader();
+        DefaultConfiguration configuration = cacheProperties.getDiskPath() == null
+            ? new DefaultConfiguration(classLoader)
+            : new DefaultConfiguration(classLoader, new DefaultPersistenceConfiguration(new File(cacheProperties.getDiskPath())));
+        javax.cache.CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), configuration);
+        cacheManagerCustomizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
+        return cacheManager;
+    }
+
     @Bean
     public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
         return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
@@ -45,6 +142,7 @@ public class CacheConfiguration {
         return cm -> {
             createCache(cm, org.closure.laser.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, org.closure.laser.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, org.closure.laser.repository.UserApplicationRepository.IDS_BY_LOGIN_CACHE);
             createCache(cm, org.closure.laser.domain.User.class.getName());
             createCache(cm, org.closure.laser.domain.Authority.class.getName());
             createCache(cm, org.closure.laser.domain.User.class.getName() + ".authorities");
@@ -82,7 +180,8 @@ public class CacheConfiguration {
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            String region = cacheName.startsWith(DOMAIN_PREFIX) ? cacheName.substring(DOMAIN_PREFIX.length()) : cacheName;
+            cm.createCache(cacheName, regionConfigurations.getOrDefault(region, jcacheConfiguration));
         }
     }
 
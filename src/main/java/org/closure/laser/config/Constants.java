@@ -11,5 +11,8 @@ public final class Constants {
     public static final String SYSTEM = "system";
     public static final String DEFAULT_LANGUAGE = "en";
 
+    // Profile for instances that must serve traffic soon after they start, see FastStartConfiguration
+    public static final String SPRING_PROFILE_FAST_START = "fast-start";
+
     private Constants() {}
 }
@@ -0,0 +1,52 @@
+package org.closure.laser.config;
+
+import java.util.concurrent.Executor;
+import javax.persistence.EntityManagerFactory;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Configuration of the "fast-start" profile, see {@code application-fast-start.yml}.
+ * <p>
+ * The profile turns on lazy initialization. The beans below must still be created at startup: Liquibase, so that
+ * the database is migrated before the first request; the entity manager factory, which is built in the background;
+ * and the beans with scheduled tasks, which would never run otherwise.
+ */
+@Configuration
+@Profile(Constants.SPRING_PROFILE_FAST_START)
+public class FastStartConfiguration {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) ->
+            SpringLiquibase.class.isAssignableFrom(beanType) ||
+            EntityManagerFactory.class.isAssignableFrom(beanType) ||
+            AbstractEntityManagerFactoryBean.class.isAssignableFrom(beanType) ||
+            hasScheduledTasks(beanType);
+    }
+
+    /**
+     * Build the entity manager factory on the task executor, while the rest of the context starts. The repositories
+     * are bootstrapped in "deferred" mode, so they only wait for it when the context is refreshed.
+     */
+    @Bean
+    public EntityManagerFactoryBuilderCustomizer entityManagerFactoryBootstrapExecutor(@Qualifier("taskExecutor") Executor taskExecutor) {
+        return builder -> builder.setBootstrapExecutor((AsyncTaskExecutor) taskExecutor);
+    }
+
+    private static boolean hasScheduledTasks(Class<?> beanType) {
+        MethodIntrospector.MetadataLookup<Boolean> scheduled = method ->
+            AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? true : null;
+        return !MethodIntrospector.selectMethods(beanType, scheduled).isEmpty();
+    }
+}
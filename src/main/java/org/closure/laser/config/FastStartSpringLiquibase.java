@@ -0,0 +1,132 @@
+package org.closure.laser.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import liquibase.Liquibase;
+import liquibase.exception.LiquibaseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.DigestUtils;
+import tech.jhipster.config.liquibase.AsyncSpringLiquibase;
+
+/**
+ * Liquibase for the "fast-start" profile. When the changelog has not changed since it was last applied to the
+ * database, Liquibase only has to validate it: this runs in the background and the application does not wait for
+ * it. Otherwise Liquibase runs as usual, synchronously outside of "dev".
+ * <p>
+ * The changelog is identified by a digest of the Liquibase resources, contexts and labels, recorded as a Liquibase
+ * tag once the database is up to date.
+ */
+public class FastStartSpringLiquibase extends AsyncSpringLiquibase {
+
+    static final String TAG_PREFIX = "fast-start-";
+
+    private final Logger logger = LoggerFactory.getLogger(FastStartSpringLiquibase.class);
+
+    private final Executor executor;
+
+    private String changeLogTag;
+
+    public FastStartSpringLiquibase(Executor executor, Environment env) {
+        super(executor, env);
+        this.executor = executor;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        if (!shouldRun) {
+            super.afterPropertiesSet();
+            return;
+        }
+        changeLogTag = changeLogTag();
+        if (changeLogTag != null && isApplied(changeLogTag)) {
+            logger.info("Liquibase changelog unchanged, validating it in the background");
+            executor.execute(() -> {
+                try {
+                    initDb();
+                } catch (LiquibaseException e) {
+                    logger.error("Liquibase could not validate the changelog, your database is NOT up to date: {}", e.getMessage(), e);
+                }
+            });
+        } else {
+            logger.info("Liquibase changelog changed since it was last applied, updating the database");
+            super.afterPropertiesSet();
+        }
+    }
+
+    @Override
+    protected void performUpdate(Liquibase liquibase) throws LiquibaseException {
+        super.performUpdate(liquibase);
+        if (changeLogTag != null && !liquibase.tagExists(changeLogTag)) {
+            liquibase.tag(changeLogTag);
+        }
+    }
+
+    String getChangeLogTag() {
+        return changeLogTag;
+    }
+
+    private boolean isApplied(String tag) {
+        String table = (getLiquibaseSchema() == null ? "" : getLiquibaseSchema() + ".") + getDatabaseChangeLogTable();
+        try (
+            Connection connection = getDataSource().getConnection();
+            PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM " + table + " WHERE TAG = ?")
+        ) {
+            statement.setString(1, tag);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getLong(1) > 0;
+            }
+        } catch (SQLException e) {
+            logger.debug("Liquibase changelog tag not found: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Digest of the files in the directory of the changelog and its sub-directories, with the contexts and labels.
+     */
+    private String changeLogTag() {
+        String directory = getChangeLog().substring(0, getChangeLog().lastIndexOf('/') + 1);
+        String path = directory.substring(directory.indexOf(':') + 1);
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver(getResourceLoader()).getResources(directory + "**/*");
+            Arrays.sort(resources, Comparator.comparing(FastStartSpringLiquibase::location));
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            content.writeBytes((getContexts() + ";" + getLabels()).getBytes(StandardCharsets.UTF_8));
+            for (Resource resource : resources) {
+                if (resource.isReadable()) {
+                    String location = location(resource);
+                    content.writeBytes(location.substring(location.lastIndexOf(path) + path.length()).getBytes(StandardCharsets.UTF_8));
+                    try (InputStream inputStream = resource.getInputStream()) {
+                        inputStream.transferTo(content);
+                    }
+                }
+            }
+            return TAG_PREFIX + DigestUtils.md5DigestAsHex(content.toByteArray());
+        } catch (IOException e) {
+            logger.warn("Could not read the Liquibase changelog, running Liquibase synchronously: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String location(Resource resource) {
+        try {
+            return resource.getURL().toExternalForm();
+        } catch (IOException e) {
+            return Objects.toString(resource.getFilename(), resource.getDescription());
+        }
+    }
+}
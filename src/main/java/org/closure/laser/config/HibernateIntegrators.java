@@ -0,0 +1,27 @@
+package org.closure.laser.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+
+/**
+ * Hibernate takes a single {@link IntegratorProvider}: each configuration adds its integrator to the one already set.
+ */
+final class HibernateIntegrators {
+
+    private HibernateIntegrators() {}
+
+    static void add(Map<String, Object> properties, Integrator integrator) {
+        IntegratorProvider current = (IntegratorProvider) properties.get(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER);
+        List<Integrator> integrators = new ArrayList<>();
+        if (current != null) {
+            integrators.addAll(current.getIntegrators());
+        }
+        integrators.add(integrator);
+        IntegratorProvider provider = () -> integrators;
+        properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER, provider);
+    }
+}
@@ -46,6 +46,15 @@ public class LiquibaseConfiguration {
             dataSource.getIfUnique(),
             dataSourceProperties
         );
+        if (env.acceptsProfiles(Profiles.of(Constants.SPRING_PROFILE_FAST_START))) {
+            FastStartSpringLiquibase fastStartLiquibase = new FastStartSpringLiquibase(executor, env);
+            fastStartLiquibase.setDataSource(liquibase.getDataSource());
+            // only close the data source created for Liquibase from the spring.liquibase.url property
+            fastStartLiquibase.setCloseDataSourceOnceMigrated(
+                liquibase.getDataSource() != liquibaseDataSource.getIfAvailable() && liquibase.getDataSource() != dataSource.getIfUnique()
+            );
+            liquibase = fastStartLiquibase;
+        }
         liquibase.setChangeLog("classpath:config/liquibase/master.xml");
         liquibase.setContexts(liquibaseProperties.getContexts());
         liquibase.setDefaultSchema(liquibaseProperties.getDefaultSchema());
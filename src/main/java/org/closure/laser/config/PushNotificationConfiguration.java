@@ -0,0 +1,35 @@
+package org.closure.laser.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.closure.laser.service.PushNotificationDispatcher;
+import org.closure.laser.service.PushNotificationSender;
+import org.closure.laser.service.PushNotificationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sending of the queued push notifications, see {@code application.push}.
+ */
+@Configuration
+public class PushNotificationConfiguration {
+
+    @Bean
+    public PushNotificationDispatcher pushNotificationDispatcher(
+        PushNotificationService pushNotificationService,
+        PushNotificationSender pushNotificationSender,
+        MeterRegistry meterRegistry,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.Push push = applicationProperties.getPush();
+        return new PushNotificationDispatcher(
+            pushNotificationService,
+            pushNotificationSender,
+            meterRegistry,
+            push.getBatchSize(),
+            push.getMaxAttempts(),
+            push.getInitialBackoff(),
+            push.getMaxBackoff(),
+            push.getLease()
+        );
+    }
+}
@@ -0,0 +1,113 @@
+package org.closure.laser.config;
+
+import java.util.Set;
+import org.closure.laser.domain.Constants;
+import org.closure.laser.domain.Countries;
+import org.closure.laser.domain.DealStatus;
+import org.closure.laser.domain.ShipmentType;
+import org.closure.laser.service.ReferenceDataService;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tells the {@link ReferenceDataService} about every Hibernate write to a reference table, whether it comes from
+ * a service or a test. Liquibase loads the reference data with plain JDBC before the first snapshot is taken.
+ * <p>
+ * The listeners are registered while Hibernate starts, so that this does not wait for the entity manager factory
+ * when it is built in the background.
+ */
+@Configuration
+public class ReferenceDataConfiguration {
+
+    private static final Set<Class<?>> REFERENCE_ENTITIES = Set.of(DealStatus.class, Countries.class, ShipmentType.class, Constants.class);
+
+    @Bean
+    public HibernatePropertiesCustomizer referenceDataListenerCustomizer(ObjectProvider<ReferenceDataService> referenceDataService) {
+        Integrator integrator = new ReferenceDataIntegrator(new ReferenceDataListener(referenceDataService));
+        return properties -> HibernateIntegrators.add(properties, integrator);
+    }
+
+    static class ReferenceDataIntegrator implements Integrator {
+
+        private final ReferenceDataListener listener;
+
+        ReferenceDataIntegrator(ReferenceDataListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_INSERT, listener);
+            registry.appendListeners(EventType.POST_UPDATE, listener);
+            registry.appendListeners(EventType.POST_DELETE, listener);
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            // the listeners go away with the session factory
+        }
+    }
+
+    static class ReferenceDataListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        // the service needs the repositories, which need the entity manager factory: look it up on the first write
+        private final transient ObjectProvider<ReferenceDataService> referenceDataService;
+
+        ReferenceDataListener(ObjectProvider<ReferenceDataService> referenceDataService) {
+            this.referenceDataService = referenceDataService;
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            changed(event.getEntity());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            changed(event.getEntity());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            changed(event.getEntity());
+        }
+
+        private void changed(Object entity) {
+            if (REFERENCE_ENTITIES.contains(entity.getClass())) {
+                referenceDataService.getObject().tableChanged();
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        /**
+         * Still abstract in Hibernate 5.6, which only calls {@link #requiresPostCommitHandling(EntityPersister)}.
+         */
+        @Override
+        @Deprecated
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return requiresPostCommitHandling(persister);
+        }
+    }
+}
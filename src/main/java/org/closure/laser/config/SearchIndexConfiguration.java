@@ -0,0 +1,153 @@
+package org.closure.laser.config;
+
+import java.util.Map;
+import java.util.Set;
+import org.closure.laser.domain.Article;
+import org.closure.laser.domain.Deal;
+import org.closure.laser.domain.Location;
+import org.closure.laser.domain.User;
+import org.closure.laser.domain.UserApplication;
+import org.closure.laser.service.SearchIndexService;
+import org.closure.laser.service.SearchIndexService.Index;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tells the {@link SearchIndexService} about every Hibernate write to an indexed entity. An update only counts when
+ * it changes one of the indexed properties: a deal is updated far more often than its account.
+ */
+@Configuration
+public class SearchIndexConfiguration {
+
+    private static final Map<Class<?>, Index> INDEXES = Map.of(
+        UserApplication.class,
+        Index.USERS,
+        Deal.class,
+        Index.DEALS,
+        Article.class,
+        Index.ARTICLES,
+        Location.class,
+        Index.LOCATIONS
+    );
+
+    private static final Map<Class<?>, Set<String>> INDEXED_PROPERTIES = Map.of(
+        UserApplication.class,
+        Set.of("phone", "passport", "user"),
+        Deal.class,
+        Set.of("fromAccount"),
+        Article.class,
+        Set.of("title", "content"),
+        Location.class,
+        Set.of("country", "city", "airport", "iataCode"),
+        User.class,
+        Set.of("login", "firstName", "lastName", "email")
+    );
+
+    @Bean
+    public HibernatePropertiesCustomizer searchIndexListenerCustomizer(ObjectProvider<SearchIndexService> searchIndexService) {
+        Integrator integrator = new SearchIndexIntegrator(new SearchIndexListener(searchIndexService));
+        return properties -> HibernateIntegrators.add(properties, integrator);
+    }
+
+    static class SearchIndexIntegrator implements Integrator {
+
+        private final SearchIndexListener listener;
+
+        SearchIndexIntegrator(SearchIndexListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_INSERT, listener);
+            registry.appendListeners(EventType.POST_UPDATE, listener);
+            registry.appendListeners(EventType.POST_DELETE, listener);
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            // the listeners go away with the session factory
+        }
+    }
+
+    static class SearchIndexListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        // the service needs the repositories, which need the entity manager factory: look it up on the first write
+        private final transient ObjectProvider<SearchIndexService> searchIndexService;
+
+        SearchIndexListener(ObjectProvider<SearchIndexService> searchIndexService) {
+            this.searchIndexService = searchIndexService;
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            changed(event.getEntity(), event.getId());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            Set<String> indexed = INDEXED_PROPERTIES.get(event.getEntity().getClass());
+            if (indexed == null) {
+                return;
+            }
+            int[] dirty = event.getDirtyProperties();
+            String[] names = event.getPersister().getPropertyNames();
+            // without dirty checking, the update may have changed any property
+            boolean changed = dirty == null;
+            for (int i = 0; !changed && i < dirty.length; i++) {
+                changed = indexed.contains(names[dirty[i]]);
+            }
+            if (changed) {
+                changed(event.getEntity(), event.getId());
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            changed(event.getEntity(), event.getId());
+        }
+
+        private void changed(Object entity, Object id) {
+            if (entity instanceof User) {
+                searchIndexService.getObject().userChanged((Long) id);
+            } else {
+                Index index = INDEXES.get(entity.getClass());
+                if (index != null) {
+                    searchIndexService.getObject().changed(index, (Long) id);
+                }
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        /**
+         * Still abstract in Hibernate 5.6, which only calls {@link #requiresPostCommitHandling(EntityPersister)}.
+         */
+        @Override
+        @Deprecated
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return requiresPostCommitHandling(persister);
+        }
+    }
+}
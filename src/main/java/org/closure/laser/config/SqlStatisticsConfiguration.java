@@ -0,0 +1,24 @@
+package org.closure.laser.config;
+
+import org.closure.laser.management.SqlStatisticsInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Per-request Hibernate statistics for the REST API, see {@link org.closure.laser.management.RequestSqlStatisticsFactory}.
+ */
+@Configuration
+public class SqlStatisticsConfiguration implements WebMvcConfigurer {
+
+    private final SqlStatisticsInterceptor sqlStatisticsInterceptor;
+
+    public SqlStatisticsConfiguration(SqlStatisticsInterceptor sqlStatisticsInterceptor) {
+        this.sqlStatisticsInterceptor = sqlStatisticsInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlStatisticsInterceptor).addPathPatterns("/api/**");
+    }
+}
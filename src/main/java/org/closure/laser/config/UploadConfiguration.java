@@ -0,0 +1,57 @@
+package org.closure.laser.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import org.closure.laser.service.BlobStore;
+import org.closure.laser.service.LocalBlobStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Storage and executors of the image uploads, see {@code application.upload}.
+ */
+@Configuration
+public class UploadConfiguration {
+
+    private static final String BLOBS_DIRECTORY = "blobs";
+
+    /**
+     * Images are stored on the local disk, under {@code application.upload.directory}. Another {@link BlobStore}
+     * bean, for an S3-compatible object store, can replace this one.
+     */
+    @Bean
+    public BlobStore blobStore(ApplicationProperties applicationProperties) {
+        return new LocalBlobStore(applicationProperties.getUpload().getDirectory().resolve(BLOBS_DIRECTORY));
+    }
+
+    /**
+     * Writes the files of an upload in parallel. When all its threads are busy and its queue is full, the request
+     * thread writes its files itself, which slows down the uploading clients instead of failing them.
+     */
+    @Bean(name = "uploadExecutor")
+    public ThreadPoolTaskExecutor uploadExecutor(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Upload upload = applicationProperties.getUpload();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(upload.getThreads());
+        executor.setMaxPoolSize(upload.getThreads());
+        executor.setQueueCapacity(upload.getQueueCapacity());
+        executor.setThreadNamePrefix("laser-upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Creates the thumbnails after the upload has returned. When its queue is full, new images get no thumbnail
+     * and are downloaded in full instead.
+     */
+    @Bean(name = "thumbnailExecutor")
+    public ThreadPoolTaskExecutor thumbnailExecutor(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Upload upload = applicationProperties.getUpload();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(upload.getThumbnailThreads());
+        executor.setMaxPoolSize(upload.getThumbnailThreads());
+        executor.setQueueCapacity(upload.getThumbnailQueueCapacity());
+        executor.setThreadNamePrefix("laser-thumbnail-");
+        return executor;
+    }
+}
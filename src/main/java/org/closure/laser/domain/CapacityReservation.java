@@ -0,0 +1,148 @@
+package org.closure.laser.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+
+/**
+ * Weight held on a trip deal by a pending offer, until the offer is accepted or closed, or the reservation expires.
+ * The held weight is added to the {@code reservedWeight} of the trip deal.
+ */
+@Entity
+@Table(name = "capacity_reservation")
+public class CapacityReservation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "trip_deal_id", nullable = false)
+    private Long tripDealId;
+
+    @Column(name = "offer_id", nullable = false, unique = true)
+    private Long offerId;
+
+    @Column(name = "weight", nullable = false)
+    private Double weight;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public CapacityReservation id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTripDealId() {
+        return this.tripDealId;
+    }
+
+    public CapacityReservation tripDealId(Long tripDealId) {
+        this.setTripDealId(tripDealId);
+        return this;
+    }
+
+    public void setTripDealId(Long tripDealId) {
+        this.tripDealId = tripDealId;
+    }
+
+    public Long getOfferId() {
+        return this.offerId;
+    }
+
+    public CapacityReservation offerId(Long offerId) {
+        this.setOfferId(offerId);
+        return this;
+    }
+
+    public void setOfferId(Long offerId) {
+        this.offerId = offerId;
+    }
+
+    public Double getWeight() {
+        return this.weight;
+    }
+
+    public CapacityReservation weight(Double weight) {
+        this.setWeight(weight);
+        return this;
+    }
+
+    public void setWeight(Double weight) {
+        this.weight = weight;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public CapacityReservation createdAt(Instant createdAt) {
+        this.setCreatedAt(createdAt);
+        return this;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return this.expiresAt;
+    }
+
+    public CapacityReservation expiresAt(Instant expiresAt) {
+        this.setExpiresAt(expiresAt);
+        return this;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CapacityReservation)) {
+            return false;
+        }
+        return id != null && id.equals(((CapacityReservation) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CapacityReservation{" +
+            "id=" + getId() +
+            ", tripDealId=" + getTripDealId() +
+            ", offerId=" + getOfferId() +
+            ", weight=" + getWeight() +
+            ", createdAt='" + getCreatedAt() + "'" +
+            ", expiresAt='" + getExpiresAt() + "'" +
+            "}";
+    }
+}
@@ -16,7 +16,8 @@ public class Countries implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "countriesIdGenerator")
+    @TableGenerator(name = "countriesIdGenerator", table = "id_generator", pkColumnValue = "countries", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
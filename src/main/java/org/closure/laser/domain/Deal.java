@@ -23,7 +23,8 @@ public class Deal implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "dealIdGenerator")
+    @TableGenerator(name = "dealIdGenerator", table = "id_generator", pkColumnValue = "deal", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -45,6 +46,13 @@ public class Deal implements Serializable {
     @Column(name = "available_weight")
     private Double availableWeight;
 
+    /**
+     * Weight held by the pending offers, see {@link org.closure.laser.domain.CapacityReservation}.
+     * Only written by the capacity queries of the repository.
+     */
+    @Column(name = "reserved_weight", insertable = false, updatable = false)
+    private Double reservedWeight;
+
     @Column(name = "arrivel_date")
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private Date arrivelDate;
@@ -175,6 +183,10 @@ public class Deal implements Serializable {
         this.availableWeight = availableWeight;
     }
 
+    public Double getReservedWeight() {
+        return this.reservedWeight;
+    }
+
     public Date getArrivelDate() {
         return this.arrivelDate;
     }
@@ -342,6 +354,7 @@ public class Deal implements Serializable {
                 ", toAccount='" + getToAccount() + "'" +
                 ", fullWeight=" + getFullWeight() +
                 ", availableWeight=" + getAvailableWeight() +
+                ", reservedWeight=" + getReservedWeight() +
                 ", arrivelDate='" + getArrivelDate() + "'" +
                 ", expectedDate='" + getExpectedDate() + "'" +
                 ", details='" + getDetails() + "'" +
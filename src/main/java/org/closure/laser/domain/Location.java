@@ -21,7 +21,8 @@ public class Location implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "locationIdGenerator")
+    @TableGenerator(name = "locationIdGenerator", table = "id_generator", pkColumnValue = "location", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -41,6 +42,21 @@ public class Location implements Serializable {
     @Column(name = "details")
     private String details;
 
+    @Column(name = "iata_code", length = 3)
+    private String iataCode;
+
+    @Column(name = "city_iata_code", length = 3)
+    private String cityIataCode;
+
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
+    @Column(name = "timezone", length = 64)
+    private String timezone;
+
     @OneToMany(mappedBy = "to", fetch = FetchType.EAGER)
     @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnoreProperties(value = { "deals", "to", "from" }, allowSetters = true)
@@ -141,6 +157,71 @@ public class Location implements Serializable {
         this.details = details;
     }
 
+    public String getIataCode() {
+        return this.iataCode;
+    }
+
+    public Location iataCode(String iataCode) {
+        this.setIataCode(iataCode);
+        return this;
+    }
+
+    public void setIataCode(String iataCode) {
+        this.iataCode = iataCode;
+    }
+
+    public String getCityIataCode() {
+        return this.cityIataCode;
+    }
+
+    public Location cityIataCode(String cityIataCode) {
+        this.setCityIataCode(cityIataCode);
+        return this;
+    }
+
+    public void setCityIataCode(String cityIataCode) {
+        this.cityIataCode = cityIataCode;
+    }
+
+    public Double getLatitude() {
+        return this.latitude;
+    }
+
+    public Location latitude(Double latitude) {
+        this.setLatitude(latitude);
+        return this;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return this.longitude;
+    }
+
+    public Location longitude(Double longitude) {
+        this.setLongitude(longitude);
+        return this;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public String getTimezone() {
+        return this.timezone;
+    }
+
+    public Location timezone(String timezone) {
+        this.setTimezone(timezone);
+        return this;
+    }
+
+    public void setTimezone(String timezone) {
+        this.timezone = timezone;
+    }
+
     public Set<Trip> getTripDestinations() {
         return this.tripDestinations;
     }
@@ -294,6 +375,11 @@ public class Location implements Serializable {
             ", airport='" + getAirport() + "'" +
             ", createdAt='" + getCreatedAt() + "'" +
             ", details='" + getDetails() + "'" +
+            ", iataCode='" + getIataCode() + "'" +
+            ", cityIataCode='" + getCityIataCode() + "'" +
+            ", latitude=" + getLatitude() +
+            ", longitude=" + getLongitude() +
+            ", timezone='" + getTimezone() + "'" +
             "}";
     }
 }
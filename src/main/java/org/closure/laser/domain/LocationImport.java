@@ -0,0 +1,206 @@
+package org.closure.laser.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import org.closure.laser.domain.enumeration.LocationImportStatus;
+
+/**
+ * An import of the airports of the flight API into the locations.
+ * <p>
+ * The import commits the airports in batches, each with the number of airports read so far, so that a failed import
+ * can be resumed after the last batch, see {@link org.closure.laser.service.LocationImportService}.
+ */
+@Entity
+@Table(name = "location_import")
+public class LocationImport implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private LocationImportStatus status;
+
+    /**
+     * Airports of the feed read and committed so far, in feed order: a resumed import skips them.
+     */
+    @Column(name = "rows_read", nullable = false)
+    private Integer rowsRead;
+
+    @Column(name = "rows_inserted", nullable = false)
+    private Integer rowsInserted;
+
+    @Column(name = "rows_updated", nullable = false)
+    private Integer rowsUpdated;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "last_error", length = 512)
+    private String lastError;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public LocationImport id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocationImportStatus getStatus() {
+        return this.status;
+    }
+
+    public LocationImport status(LocationImportStatus status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(LocationImportStatus status) {
+        this.status = status;
+    }
+
+    public Integer getRowsRead() {
+        return this.rowsRead;
+    }
+
+    public LocationImport rowsRead(Integer rowsRead) {
+        this.setRowsRead(rowsRead);
+        return this;
+    }
+
+    public void setRowsRead(Integer rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public Integer getRowsInserted() {
+        return this.rowsInserted;
+    }
+
+    public LocationImport rowsInserted(Integer rowsInserted) {
+        this.setRowsInserted(rowsInserted);
+        return this;
+    }
+
+    public void setRowsInserted(Integer rowsInserted) {
+        this.rowsInserted = rowsInserted;
+    }
+
+    public Integer getRowsUpdated() {
+        return this.rowsUpdated;
+    }
+
+    public LocationImport rowsUpdated(Integer rowsUpdated) {
+        this.setRowsUpdated(rowsUpdated);
+        return this;
+    }
+
+    public void setRowsUpdated(Integer rowsUpdated) {
+        this.rowsUpdated = rowsUpdated;
+    }
+
+    public Instant getStartedAt() {
+        return this.startedAt;
+    }
+
+    public LocationImport startedAt(Instant startedAt) {
+        this.setStartedAt(startedAt);
+        return this;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return this.updatedAt;
+    }
+
+    public LocationImport updatedAt(Instant updatedAt) {
+        this.setUpdatedAt(updatedAt);
+        return this;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return this.finishedAt;
+    }
+
+    public LocationImport finishedAt(Instant finishedAt) {
+        this.setFinishedAt(finishedAt);
+        return this;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getLastError() {
+        return this.lastError;
+    }
+
+    public LocationImport lastError(String lastError) {
+        this.setLastError(lastError);
+        return this;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LocationImport)) {
+            return false;
+        }
+        return id != null && id.equals(((LocationImport) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LocationImport{" +
+            "id=" + getId() +
+            ", status='" + getStatus() + "'" +
+            ", rowsRead=" + getRowsRead() +
+            ", rowsInserted=" + getRowsInserted() +
+            ", rowsUpdated=" + getRowsUpdated() +
+            ", startedAt='" + getStartedAt() + "'" +
+            ", updatedAt='" + getUpdatedAt() + "'" +
+            ", finishedAt='" + getFinishedAt() + "'" +
+            ", lastError='" + getLastError() + "'" +
+            "}";
+    }
+}
@@ -16,7 +16,8 @@ public class Offers implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "offersIdGenerator")
+    @TableGenerator(name = "offersIdGenerator", table = "id_generator", pkColumnValue = "offers", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -0,0 +1,252 @@
+package org.closure.laser.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import org.closure.laser.domain.enumeration.PushNotificationStatus;
+
+/**
+ * A push notification waiting to be sent, or already sent, to a device.
+ * <p>
+ * Notifications are written in the transaction of the change they report, then sent in batches by the
+ * {@link org.closure.laser.service.PushNotificationDispatcher}.
+ */
+@Entity
+@Table(name = "push_notification")
+public class PushNotification implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "token", nullable = false, length = 512)
+    private String token;
+
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "body")
+    private String body;
+
+    @Column(name = "offer_id")
+    private Long offerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private PushNotificationStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    @Column(name = "message_id")
+    private String messageId;
+
+    @Column(name = "last_error", length = 512)
+    private String lastError;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public PushNotification id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getToken() {
+        return this.token;
+    }
+
+    public PushNotification token(String token) {
+        this.setToken(token);
+        return this;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public PushNotification title(String title) {
+        this.setTitle(title);
+        return this;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getBody() {
+        return this.body;
+    }
+
+    public PushNotification body(String body) {
+        this.setBody(body);
+        return this;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public Long getOfferId() {
+        return this.offerId;
+    }
+
+    public PushNotification offerId(Long offerId) {
+        this.setOfferId(offerId);
+        return this;
+    }
+
+    public void setOfferId(Long offerId) {
+        this.offerId = offerId;
+    }
+
+    public PushNotificationStatus getStatus() {
+        return this.status;
+    }
+
+    public PushNotification status(PushNotificationStatus status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(PushNotificationStatus status) {
+        this.status = status;
+    }
+
+    public Integer getAttempts() {
+        return this.attempts;
+    }
+
+    public PushNotification attempts(Integer attempts) {
+        this.setAttempts(attempts);
+        return this;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return this.nextAttemptAt;
+    }
+
+    public PushNotification nextAttemptAt(Instant nextAttemptAt) {
+        this.setNextAttemptAt(nextAttemptAt);
+        return this;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public PushNotification createdAt(Instant createdAt) {
+        this.setCreatedAt(createdAt);
+        return this;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getSentAt() {
+        return this.sentAt;
+    }
+
+    public PushNotification sentAt(Instant sentAt) {
+        this.setSentAt(sentAt);
+        return this;
+    }
+
+    public void setSentAt(Instant sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    public String getMessageId() {
+        return this.messageId;
+    }
+
+    public PushNotification messageId(String messageId) {
+        this.setMessageId(messageId);
+        return this;
+    }
+
+    public void setMessageId(String messageId) {
+        this.messageId = messageId;
+    }
+
+    public String getLastError() {
+        return this.lastError;
+    }
+
+    public PushNotification lastError(String lastError) {
+        this.setLastError(lastError);
+        return this;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PushNotification)) {
+            return false;
+        }
+        return id != null && id.equals(((PushNotification) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PushNotification{" +
+            "id=" + getId() +
+            ", title='" + getTitle() + "'" +
+            ", offerId=" + getOfferId() +
+            ", status='" + getStatus() + "'" +
+            ", attempts=" + getAttempts() +
+            ", nextAttemptAt='" + getNextAttemptAt() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            ", sentAt='" + getSentAt() + "'" +
+            ", messageId='" + getMessageId() + "'" +
+            ", lastError='" + getLastError() + "'" +
+            "}";
+    }
+}
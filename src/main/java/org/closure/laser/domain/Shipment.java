@@ -21,7 +21,8 @@ public class Shipment implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "shipmentIdGenerator")
+    @TableGenerator(name = "shipmentIdGenerator", table = "id_generator", pkColumnValue = "shipment", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
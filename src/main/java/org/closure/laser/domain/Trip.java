@@ -21,7 +21,8 @@ public class Trip implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "tripIdGenerator")
+    @TableGenerator(name = "tripIdGenerator", table = "id_generator", pkColumnValue = "trip", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
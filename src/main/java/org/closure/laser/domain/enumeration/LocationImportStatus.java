@@ -0,0 +1,10 @@
+package org.closure.laser.domain.enumeration;
+
+/**
+ * The LocationImportStatus enumeration.
+ */
+public enum LocationImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+}
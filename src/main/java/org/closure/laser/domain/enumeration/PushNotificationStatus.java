@@ -0,0 +1,10 @@
+package org.closure.laser.domain.enumeration;
+
+/**
+ * The PushNotificationStatus enumeration.
+ */
+public enum PushNotificationStatus {
+    PENDING,
+    SENT,
+    FAILED,
+}
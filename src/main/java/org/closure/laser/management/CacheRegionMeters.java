@@ -0,0 +1,133 @@
+package org.closure.laser.management;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import javax.cache.CacheManager;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.TierStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the Ehcache statistics of each cache region, tagged by cache and tier.
+ * <p>
+ * Ehcache keeps its statistics service private to the JSR-107 cache manager, so it is read by reflection;
+ * when that fails the region meters are simply not registered.
+ */
+@Component
+public class CacheRegionMeters implements MeterBinder {
+
+    public static final String HIT_RATIO_METER_NAME = "cache.region.hit.ratio";
+    public static final String HIT_RATIO_METER_DESCRIPTION = "Ratio of cache gets that were hits.";
+    public static final String SIZE_METER_NAME = "cache.region.size";
+    public static final String SIZE_METER_DESCRIPTION = "Entries in the cache, as seen by its lowest tier.";
+    public static final String EVICTIONS_METER_NAME = "cache.region.evictions";
+    public static final String EVICTIONS_METER_DESCRIPTION = "Entries evicted from the cache to make room for new ones.";
+    public static final String TIER_SIZE_METER_NAME = "cache.region.tier.size";
+    public static final String TIER_SIZE_METER_DESCRIPTION = "Entries held by one tier of the cache.";
+    public static final String TIER_BYTES_METER_NAME = "cache.region.tier.occupied";
+    public static final String TIER_BYTES_METER_DESCRIPTION = "Bytes occupied by one tier of the cache, off-heap and disk only.";
+
+    public static final String CACHE_DIMENSION = "cache";
+    public static final String TIER_DIMENSION = "tier";
+
+    /**
+     * Ehcache tier names, from the lowest (authoritative) tier to the highest.
+     */
+    private static final List<String> TIERS = List.of("Disk", "OffHeap", "OnHeap");
+
+    private final Logger log = LoggerFactory.getLogger(CacheRegionMeters.class);
+
+    private final CacheManager cacheManager;
+
+    public CacheRegionMeters(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        StatisticsService statisticsService = statisticsService(cacheManager);
+        if (statisticsService == null) {
+            return;
+        }
+        for (String cacheName : cacheManager.getCacheNames()) {
+            CacheStatistics statistics = statisticsService.getCacheStatistics(cacheName);
+            Tags tags = Tags.of(CACHE_DIMENSION, cacheName);
+
+            Gauge
+                .builder(HIT_RATIO_METER_NAME, statistics, stats -> stats.getCacheHitPercentage() / 100)
+                .description(HIT_RATIO_METER_DESCRIPTION)
+                .tags(tags)
+                .register(registry);
+            Gauge
+                .builder(SIZE_METER_NAME, statistics, CacheRegionMeters::size)
+                .description(SIZE_METER_DESCRIPTION)
+                .tags(tags)
+                .register(registry);
+            FunctionCounter
+                .builder(EVICTIONS_METER_NAME, statistics, CacheStatistics::getCacheEvictions)
+                .description(EVICTIONS_METER_DESCRIPTION)
+                .tags(tags)
+                .register(registry);
+
+            for (String tier : statistics.getTierStatistics().keySet()) {
+                Tags tierTags = tags.and(TIER_DIMENSION, tier);
+                Gauge
+                    .builder(TIER_SIZE_METER_NAME, statistics, tierValue(tier, TierStatistics::getMappings))
+                    .description(TIER_SIZE_METER_DESCRIPTION)
+                    .tags(tierTags)
+                    .register(registry);
+                if (!"OnHeap".equals(tier)) {
+                    Gauge
+                        .builder(TIER_BYTES_METER_NAME, statistics, tierValue(tier, TierStatistics::getOccupiedByteSize))
+                        .description(TIER_BYTES_METER_DESCRIPTION)
+                        .baseUnit("bytes")
+                        .tags(tierTags)
+                        .register(registry);
+                }
+            }
+        }
+    }
+
+    private static double size(CacheStatistics statistics) {
+        Map<String, TierStatistics> tiers = statistics.getTierStatistics();
+        for (String tier : TIERS) {
+            TierStatistics tierStatistics = tiers.get(tier);
+            if (tierStatistics != null) {
+                return tierStatistics.getMappings();
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static ToDoubleFunction<CacheStatistics> tierValue(String tier, ToDoubleFunction<TierStatistics> value) {
+        return statistics -> {
+            TierStatistics tierStatistics = statistics.getTierStatistics().get(tier);
+            return tierStatistics == null ? Double.NaN : value.applyAsDouble(tierStatistics);
+        };
+    }
+
+    private StatisticsService statisticsService(CacheManager cacheManager) {
+        try {
+            Field field = cacheManager.getClass().getDeclaredField("statisticsService");
+            field.setAccessible(true);
+            return (StatisticsService) field.get(cacheManager);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn(
+                "Cache region metrics are disabled, no Ehcache statistics found on {}: {}",
+                cacheManager.getClass().getName(),
+                e.toString()
+            );
+            return null;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.closure.laser.management;
+
+/**
+ * Hibernate work done while handling the current request: prepared statements, entities and collections loaded,
+ * and second-level cache hits and misses.
+ * <p>
+ * Counting is bound to the request thread between {@link #start()} and {@link #stop()}, work done on other threads
+ * is not counted. The counters are fed by {@link RequestSqlStatisticsFactory}.
+ */
+public final class RequestSqlStatistics {
+
+    private static final ThreadLocal<RequestSqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+
+    private long entitiesLoaded;
+
+    private long collectionsLoaded;
+
+    private long cacheHits;
+
+    private long cacheMisses;
+
+    private RequestSqlStatistics() {}
+
+    /**
+     * Start counting for the current thread, discarding any previous counters.
+     */
+    public static void start() {
+        CURRENT.set(new RequestSqlStatistics());
+    }
+
+    /**
+     * Stop counting for the current thread.
+     *
+     * @return the counters, or {@code null} if counting was not started.
+     */
+    public static RequestSqlStatistics stop() {
+        RequestSqlStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    static void statementPrepared() {
+        RequestSqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        RequestSqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entitiesLoaded++;
+        }
+    }
+
+    static void collectionLoaded() {
+        RequestSqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.collectionsLoaded++;
+        }
+    }
+
+    static void cacheHit() {
+        RequestSqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.cacheHits++;
+        }
+    }
+
+    static void cacheMiss() {
+        RequestSqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.cacheMisses++;
+        }
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public long getCollectionsLoaded() {
+        return collectionsLoaded;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+}
@@ -0,0 +1,83 @@
+package org.closure.laser.management;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.model.domain.NavigableRole;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Hibernate {@link StatisticsFactory} keeping the default session factory statistics, and also counting the work
+ * of the current request in {@link RequestSqlStatistics}.
+ * <p>
+ * Registered with the {@code hibernate.stats.factory} property. Hibernate only reports to it when
+ * {@code hibernate.generate_statistics} is enabled.
+ */
+public class RequestSqlStatisticsFactory implements StatisticsFactory {
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new RequestCountingStatistics(sessionFactory);
+    }
+
+    static class RequestCountingStatistics extends StatisticsImpl {
+
+        RequestCountingStatistics(SessionFactoryImplementor sessionFactory) {
+            super(sessionFactory);
+        }
+
+        @Override
+        public void prepareStatement() {
+            super.prepareStatement();
+            RequestSqlStatistics.statementPrepared();
+        }
+
+        @Override
+        public void loadEntity(String entityName) {
+            super.loadEntity(entityName);
+            RequestSqlStatistics.entityLoaded();
+        }
+
+        @Override
+        public void loadCollection(String role) {
+            super.loadCollection(role);
+            RequestSqlStatistics.collectionLoaded();
+        }
+
+        @Override
+        public void entityCacheHit(NavigableRole entityName, String regionName) {
+            super.entityCacheHit(entityName, regionName);
+            RequestSqlStatistics.cacheHit();
+        }
+
+        @Override
+        public void entityCacheMiss(NavigableRole entityName, String regionName) {
+            super.entityCacheMiss(entityName, regionName);
+            RequestSqlStatistics.cacheMiss();
+        }
+
+        @Override
+        public void collectionCacheHit(NavigableRole collectionRole, String regionName) {
+            super.collectionCacheHit(collectionRole, regionName);
+            RequestSqlStatistics.cacheHit();
+        }
+
+        @Override
+        public void collectionCacheMiss(NavigableRole collectionRole, String regionName) {
+            super.collectionCacheMiss(collectionRole, regionName);
+            RequestSqlStatistics.cacheMiss();
+        }
+
+        @Override
+        public void queryCacheHit(String hql, String regionName) {
+            super.queryCacheHit(hql, regionName);
+            RequestSqlStatistics.cacheHit();
+        }
+
+        @Override
+        public void queryCacheMiss(String hql, String regionName) {
+            super.queryCacheMiss(hql, regionName);
+            RequestSqlStatistics.cacheMiss();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.closure.laser.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Service;
+
+/**
+ * Publishes the Hibernate work of each HTTP request, tagged like {@code http.server.requests} plus the handler method.
+ */
+@Service
+public class SqlMetersService {
+
+    public static final String STATEMENTS_METER_NAME = "http.server.requests.sql.statements";
+    public static final String STATEMENTS_METER_DESCRIPTION = "JDBC statements prepared per request.";
+    public static final String ENTITIES_METER_NAME = "http.server.requests.sql.entities.loaded";
+    public static final String ENTITIES_METER_DESCRIPTION = "Entities loaded by Hibernate while handling requests.";
+    public static final String COLLECTIONS_METER_NAME = "http.server.requests.sql.collections.loaded";
+    public static final String COLLECTIONS_METER_DESCRIPTION = "Collections loaded by Hibernate while handling requests.";
+    public static final String CACHE_METER_NAME = "http.server.requests.sql.cache";
+    public static final String CACHE_METER_DESCRIPTION = "Second-level cache lookups done while handling requests.";
+    public static final String CACHE_METER_RESULT_DIMENSION = "result";
+
+    public static final String METHOD_DIMENSION = "method";
+    public static final String URI_DIMENSION = "uri";
+    public static final String HANDLER_DIMENSION = "handler";
+
+    private final MeterRegistry registry;
+
+    public SqlMetersService(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void record(String method, String uri, String handler, RequestSqlStatistics statistics) {
+        Tags tags = Tags.of(METHOD_DIMENSION, method, URI_DIMENSION, uri, HANDLER_DIMENSION, handler);
+
+        DistributionSummary
+            .builder(STATEMENTS_METER_NAME)
+            .baseUnit("statements")
+            .description(STATEMENTS_METER_DESCRIPTION)
+            .tags(tags)
+            .register(registry)
+            .record(statistics.getStatements());
+        counter(ENTITIES_METER_NAME, ENTITIES_METER_DESCRIPTION, tags).increment(statistics.getEntitiesLoaded());
+        counter(COLLECTIONS_METER_NAME, COLLECTIONS_METER_DESCRIPTION, tags).increment(statistics.getCollectionsLoaded());
+        counter(CACHE_METER_NAME, CACHE_METER_DESCRIPTION, tags.and(CACHE_METER_RESULT_DIMENSION, "hit"))
+            .increment(statistics.getCacheHits());
+        counter(CACHE_METER_NAME, CACHE_METER_DESCRIPTION, tags.and(CACHE_METER_RESULT_DIMENSION, "miss"))
+            .increment(statistics.getCacheMisses());
+    }
+
+    /**
+     * Get the endpoints firing the most statements per request.
+     *
+     * @param limit the maximum number of endpoints to return.
+     * @return the endpoints, by descending mean statements per request.
+     */
+    public List<EndpointSqlStatistics> top(int limit) {
+        List<EndpointSqlStatistics> endpoints = new ArrayList<>();
+        for (DistributionSummary summary : registry.find(STATEMENTS_METER_NAME).summaries()) {
+            long requests = summary.count();
+            if (requests == 0) {
+                continue;
+            }
+            Tags tags = Tags.of(summary.getId().getTags());
+            EndpointSqlStatistics endpoint = new EndpointSqlStatistics();
+            endpoint.method = summary.getId().getTag(METHOD_DIMENSION);
+            endpoint.uri = summary.getId().getTag(URI_DIMENSION);
+            endpoint.handler = summary.getId().getTag(HANDLER_DIMENSION);
+            endpoint.requests = requests;
+            endpoint.statementsPerRequest = summary.mean();
+            endpoint.maxStatements = summary.max();
+            endpoint.entitiesPerRequest = count(ENTITIES_METER_NAME, tags) / requests;
+            endpoint.collectionsPerRequest = count(COLLECTIONS_METER_NAME, tags) / requests;
+            endpoint.cacheHitsPerRequest = count(CACHE_METER_NAME, tags.and(CACHE_METER_RESULT_DIMENSION, "hit")) / requests;
+            endpoint.cacheMissesPerRequest = count(CACHE_METER_NAME, tags.and(CACHE_METER_RESULT_DIMENSION, "miss")) / requests;
+            endpoints.add(endpoint);
+        }
+        return endpoints
+            .stream()
+            .sorted(Comparator.comparingDouble(EndpointSqlStatistics::getStatementsPerRequest).reversed())
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    private Counter counter(String name, String description, Tags tags) {
+        return Counter.builder(name).description(description).tags(tags).register(registry);
+    }
+
+    private double count(String name, Tags tags) {
+        Counter counter = registry.find(name).tags(tags).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    /**
+     * Hibernate work per request of one endpoint, as returned by {@link #top(int)}.
+     */
+    public static class EndpointSqlStatistics {
+
+        String method;
+        String uri;
+        String handler;
+        long requests;
+        double statementsPerRequest;
+        double maxStatements;
+        double entitiesPerRequest;
+        double collectionsPerRequest;
+        double cacheHitsPerRequest;
+        double cacheMissesPerRequest;
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        public String getHandler() {
+            return handler;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public double getStatementsPerRequest() {
+            return statementsPerRequest;
+        }
+
+        public double getMaxStatements() {
+            return maxStatements;
+        }
+
+        public double getEntitiesPerRequest() {
+            return entitiesPerRequest;
+        }
+
+        public double getCollectionsPerRequest() {
+            return collectionsPerRequest;
+        }
+
+        public double getCacheHitsPerRequest() {
+            return cacheHitsPerRequest;
+        }
+
+        public double getCacheMissesPerRequest() {
+            return cacheMissesPerRequest;
+        }
+    }
+}
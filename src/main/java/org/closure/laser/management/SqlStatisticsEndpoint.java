@@ -0,0 +1,28 @@
+package org.closure.laser.management;
+
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /management/sqlstats?limit=N} : the top endpoints by JDBC statements per request.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatisticsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final SqlMetersService sqlMetersService;
+
+    public SqlStatisticsEndpoint(SqlMetersService sqlMetersService) {
+        this.sqlMetersService = sqlMetersService;
+    }
+
+    @ReadOperation
+    public List<SqlMetersService.EndpointSqlStatistics> top(@Nullable Integer limit) {
+        return sqlMetersService.top(limit == null ? DEFAULT_LIMIT : limit);
+    }
+}
@@ -0,0 +1,51 @@
+package org.closure.laser.management;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts the Hibernate work of each request handled by a controller method, and records it with {@link SqlMetersService}.
+ */
+@Component
+public class SqlStatisticsInterceptor implements AsyncHandlerInterceptor {
+
+    private final SqlMetersService sqlMetersService;
+
+    public SqlStatisticsInterceptor(SqlMetersService sqlMetersService) {
+        this.sqlMetersService = sqlMetersService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            RequestSqlStatistics.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the rest of the request runs on another thread, so the counters would be incomplete
+        RequestSqlStatistics.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestSqlStatistics statistics = RequestSqlStatistics.stop();
+        if (statistics == null || !(handler instanceof HandlerMethod)) {
+            return;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        sqlMetersService.record(
+            request.getMethod(),
+            pattern == null ? "UNKNOWN" : pattern.toString(),
+            handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName(),
+            statistics
+        );
+    }
+}
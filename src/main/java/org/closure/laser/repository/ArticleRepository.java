@@ -1,6 +1,9 @@
 package org.closure.laser.repository;
 
+import java.util.Collection;
+import java.util.List;
 import org.closure.laser.domain.Article;
+import org.closure.laser.repository.projection.SearchRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -15,4 +18,13 @@ import org.springframework.stereotype.Repository;
 public interface ArticleRepository extends JpaRepository<Article, Long> {
     @Query(value = "SELECT * FROM article WHERE title LIKE %:value% OR content LIKE %:value% ", nativeQuery = true)
     Page<Article> search(@Param(value = "value") String value, Pageable pageable);
+
+    @Query(
+        "select a.id as id, coalesce(a.title, '') as name, coalesce(a.content, '') as text from Article a " +
+        "where a.id > :id order by a.id"
+    )
+    List<SearchRow> findSearchRows(@Param("id") Long afterId, Pageable pageable);
+
+    @Query("select a.id as id, coalesce(a.title, '') as name, coalesce(a.content, '') as text from Article a where a.id in :ids")
+    List<SearchRow> findSearchRowsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,29 @@
+package org.closure.laser.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.closure.laser.domain.CapacityReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the CapacityReservation entity.
+ */
+@Repository
+public interface CapacityReservationRepository extends JpaRepository<CapacityReservation, Long> {
+    Optional<CapacityReservation> findByOfferId(Long offerId);
+
+    List<CapacityReservation> findByExpiresAtLessThanEqualOrderByExpiresAt(Instant now, Pageable pageable);
+
+    /**
+     * Delete a reservation. Only one of several concurrent callers gets 1, and must release the weight.
+     */
+    @Modifying
+    @Query("delete from CapacityReservation r where r.id = :id")
+    int deleteReservation(@Param("id") Long id);
+}
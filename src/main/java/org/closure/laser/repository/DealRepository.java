@@ -1,14 +1,23 @@
 package org.closure.laser.repository;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import org.closure.laser.domain.Deal;
 import org.closure.laser.domain.DealStatus;
 import org.closure.laser.domain.Trip;
 import org.closure.laser.domain.UserApplication;
+import org.closure.laser.repository.projection.DealCapacity;
+import org.closure.laser.repository.projection.DealRoute;
+import org.closure.laser.repository.projection.DealSummary;
+import org.closure.laser.repository.projection.SearchRow;
+import org.closure.laser.repository.projection.ShipmentDealRow;
+import org.closure.laser.repository.projection.TripCard;
+import org.closure.laser.repository.projection.TripDealRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -25,34 +34,85 @@ public interface DealRepository extends JpaRepository<Deal, Long> {
 
     List<Deal> findByOwner(UserApplication owner, Pageable pageable);
 
+    @Query("select d.id from Deal d where d.deliver.id = :deliverId")
+    List<Long> findIdsByDeliverId(@Param("deliverId") Long deliverId, Pageable pageable);
+
+    @Query("select d.id from Deal d where d.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
     Page<Deal> findByStatus(DealStatus status, Pageable pageable);
 
     @Query(value = "SELECT * FROM deal WHERE deliver_id=:d_id AND trip_id=:t_id", nativeQuery = true)
     List<Deal> findByDeliverAndTrip(@Param("d_id") Long deliver_id, @Param("t_id") Long trip_id);
 
     @Query(
-        value = "SELECT * FROM deal         " +
-        "        WHERE id IN(               " +
-        "                   SELECT deal_id  " +
-        "                   FROM   shipment " +
-        "                   WHERE `created_at` >= NOW() - INTERVAL 10 DAY )",
-        nativeQuery = true
+        "select d.id as id, d.availableWeight as availableWeight, d.fullWeight as fullWeight, d.reservedWeight as reservedWeight " +
+        "from Deal d where d.deliver.id = :deliverId and d.trip.id = :tripId order by d.id"
     )
-    Page<Deal> findLast10DaysShipments(Pageable pageable);
+    List<DealCapacity> findCapacitiesByDeliverAndTrip(@Param("deliverId") Long deliverId, @Param("tripId") Long tripId);
 
+    /**
+     * Hold {@code weight} on a trip deal if it is not taken or held already. The condition is checked and the row
+     * updated in a single statement, so concurrent reservations cannot overbook the deal.
+     *
+     * @return 1 if the weight was held, 0 otherwise.
+     */
+    @Modifying(flushAutomatically = true)
     @Query(
-        value = "SELECT * FROM deal " +
-        "WHERE owner_id IS NULL " +
-        "AND trip_id IN(" +
-        " SELECT id FROM trip " +
-        "WHERE `created_at` >= NOW() - INTERVAL 10 DAY )",
-        nativeQuery = true
+        "update Deal d set d.reservedWeight = d.reservedWeight + :weight " +
+        "where d.id = :id and d.availableWeight - d.reservedWeight >= :weight"
     )
-    List<Deal> findLast10DaysTrips(Pageable pageable);
+    int reserveWeight(@Param("id") Long id, @Param("weight") Double weight);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Deal d set d.reservedWeight = d.reservedWeight - :weight where d.id = :id")
+    int releaseWeight(@Param("id") Long id, @Param("weight") Double weight);
+
+    /**
+     * Take {@code weight} from every deal of a trip that has enough weight that is not taken or held, in a single
+     * statement. The caller compares the result with the number of deals of the trip.
+     *
+     * @return the number of deals updated.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "update Deal d set d.availableWeight = d.availableWeight - :weight, d.fullWeight = coalesce(d.fullWeight, 0) + :weight " +
+        "where d.deliver.id = :deliverId and d.trip.id = :tripId and d.availableWeight - d.reservedWeight >= :weight"
+    )
+    int takeWeight(@Param("deliverId") Long deliverId, @Param("tripId") Long tripId, @Param("weight") Double weight);
+
+    /**
+     * Ids of the deals with shipments created since the given date, after the given id, by id descending.
+     */
+    @Query(
+        "select d.id from Deal d where d.id < :id " +
+        "and exists (select sh.id from Shipment sh where sh.deal = d and sh.createdAt >= :since) " +
+        "order by d.id desc"
+    )
+    List<Long> findShipmentDealsSince(@Param("since") Date since, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Ids of the open deals of the trips created since the given date, after the given id, by id descending.
+     * <p>
+     * The owner is tested with {@code coalesce}, so that the deals are read by id and not through the owner index,
+     * which would select every open deal before sorting them.
+     */
+    @Query(
+        "select d.id from Deal d where coalesce(d.owner.id, 0) = 0 and d.id < :id " +
+        "and exists (select t.id from Trip t where t = d.trip and t.createdAt >= :since) " +
+        "order by d.id desc"
+    )
+    List<Long> findTripDealsSince(@Param("since") Date since, @Param("id") Long id, Pageable pageable);
 
     @Query(value = "SELECT * FROM deal WHERE from_account LIKE %:value%", nativeQuery = true)
     Page<Deal> search(@Param(value = "value") String value, Pageable pageable);
 
+    @Query("select d.id as id, coalesce(d.fromAccount, '') as name, '' as text from Deal d where d.id > :id order by d.id")
+    List<SearchRow> findSearchRows(@Param("id") Long afterId, Pageable pageable);
+
+    @Query("select d.id as id, coalesce(d.fromAccount, '') as name, '' as text from Deal d where d.id in :ids")
+    List<SearchRow> findSearchRowsByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query(
         value = "SELECT * FROM deal " +
         "WHERE owner_id IS NULL " +
@@ -95,4 +155,89 @@ public interface DealRepository extends JpaRepository<Deal, Long> {
         @Param(value = "date") Date date,
         Pageable pageable
     );
+
+    @Query(
+        "select d.id as dealId, d.availableWeight as availableWeight, d.arrivelDate as date, " +
+        "       f.id as fromId, f.country as fromCountry, t.id as toId, t.country as toCountry " +
+        "from Deal d join d.trip tr join tr.from f join tr.to t " +
+        "where d.owner is null"
+    )
+    List<DealRoute> findAllTripRoutes();
+
+    @Query(
+        "select d.id as dealId, d.availableWeight as availableWeight, d.arrivelDate as date, " +
+        "       f.id as fromId, f.country as fromCountry, t.id as toId, t.country as toCountry " +
+        "from Deal d join d.trip tr join tr.from f join tr.to t " +
+        "where d.owner is null and d.id in :ids"
+    )
+    List<DealRoute> findTripRoutes(@Param("ids") Collection<Long> ids);
+
+    @Query(
+        "select d.id as dealId, d.availableWeight as availableWeight, d.expectedDate as date, " +
+        "       f.id as fromId, f.country as fromCountry, t.id as toId, t.country as toCountry " +
+        "from Shipment s join s.deal d join s.from f join s.to t"
+    )
+    List<DealRoute> findAllShipmentRoutes();
+
+    @Query(
+        "select d.id as dealId, d.availableWeight as availableWeight, d.expectedDate as date, " +
+        "       f.id as fromId, f.country as fromCountry, t.id as toId, t.country as toCountry " +
+        "from Shipment s join s.deal d join s.from f join s.to t " +
+        "where d.id in :ids"
+    )
+    List<DealRoute> findShipmentRoutes(@Param("ids") Collection<Long> ids);
+
+    @Query(
+        value = "select d.id as id, d.totalPrice as totalPrice, d.isCashed as isCashed, d.fullWeight as fullWeight, " +
+        "       d.availableWeight as availableWeight, d.arrivelDate as arrivelDate, d.expectedDate as expectedDate, " +
+        "       s.id as statusId, s.name as statusName, d.trip.id as tripId, d.deliver.id as deliverId, d.owner.id as ownerId " +
+        "from Deal d left join d.status s",
+        countQuery = "select count(d) from Deal d"
+    )
+    Page<DealSummary> findAllSummaries(Pageable pageable);
+
+    @Query(
+        "select d.id as id, d.totalPrice as totalPrice, d.isCashed as isCashed, d.fullWeight as fullWeight, " +
+        "       d.availableWeight as availableWeight, d.arrivelDate as arrivelDate, d.expectedDate as expectedDate, " +
+        "       s.id as statusId, s.name as statusName, d.trip.id as tripId, d.deliver.id as deliverId, d.owner.id as ownerId " +
+        "from Deal d left join d.status s" +
+        " where d.id in :ids"
+    )
+    List<DealSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(
+        "select t.id as id, t.flyTime as flyTime, t.arriveTime as arriveTime, t.tripIdentifier as tripIdentifier, " +
+        "       t.tripType as tripType, t.transit as transit, " +
+        "       f.id as fromId, f.country as fromCountry, f.city as fromCity, f.airport as fromAirport, " +
+        "       o.id as toId, o.country as toCountry, o.city as toCity, o.airport as toAirport, " +
+        "       d.id as dealId, d.availableWeight as availableWeight, d.arrivelDate as arrivelDate, d.deliver.id as deliverId " +
+        "from Deal d join d.trip t left join t.from f left join t.to o " +
+        "where d.id in :ids"
+    )
+    List<TripCard> findTripCardsByDealIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(
+        "select d.id as dealId, d.fullWeight as fullWeight, d.availableWeight as availableWeight, d.arrivelDate as arrivelDate, " +
+        "       s.id as statusId, s.name as statusName, " +
+        "       t.id as tripId, t.tripIdentifier as tripIdentifier, t.flyTime as flyTime, t.arriveTime as arriveTime, " +
+        "       t.tripType as tripType, t.transit as transit, " +
+        "       f.id as fromId, f.country as fromCountry, f.city as fromCity, f.airport as fromAirport, " +
+        "       o.id as toId, o.country as toCountry, o.city as toCity, o.airport as toAirport, " +
+        "       a.id as deliverId, u.firstName as deliverFirstName, u.lastName as deliverLastName, " +
+        "       a.image as deliverImage, a.rate as deliverRate " +
+        "from Deal d left join d.status s left join d.trip t left join t.from f left join t.to o " +
+        "left join d.deliver a left join a.user u " +
+        "where d.id in :ids"
+    )
+    List<TripDealRow> findTripDealRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(
+        "select d.id as dealId, d.fullWeight as fullWeight, d.availableWeight as availableWeight, d.totalPrice as totalPrice, " +
+        "       d.expectedDate as expectedDate, s.id as statusId, s.name as statusName, " +
+        "       a.id as ownerId, u.firstName as ownerFirstName, u.lastName as ownerLastName, " +
+        "       a.image as ownerImage, a.rate as ownerRate " +
+        "from Deal d left join d.status s left join d.owner a left join a.user u " +
+        "where d.id in :ids"
+    )
+    List<ShipmentDealRow> findShipmentDealRowsByIdIn(@Param("ids") Collection<Long> ids);
 }
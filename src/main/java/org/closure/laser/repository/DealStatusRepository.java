@@ -3,6 +3,7 @@ package org.closure.laser.repository;
 import java.util.List;
 import java.util.Optional;
 import org.closure.laser.domain.DealStatus;
+import org.closure.laser.repository.projection.DealStatusRef;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -20,6 +21,9 @@ public interface DealStatusRepository extends JpaRepository<DealStatus, Long> {
     @Query(value = "SELECT * FROM deal_status ORDER BY sequence", nativeQuery = true)
     List<DealStatus> sortedFetch();
 
+    @Query("select s.id as id, s.name as name, s.sequence as sequence from DealStatus s order by s.sequence")
+    List<DealStatusRef> findAllRefs();
+
     @Query(value = "SELECT * FROM deal_status WHERE :key LIKE '%:value%'", nativeQuery = true)
     Page<DealStatus> search(@Param(value = "key") String key, @Param(value = "value") String value, Pageable pageable);
 }
@@ -0,0 +1,59 @@
+package org.closure.laser.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.closure.laser.domain.ImageBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data SQL repository for the ImageBlob entity.
+ * <p>
+ * The reference counts are updated by the {@code ImageStoreService}, each in a transaction of its own.
+ */
+@Repository
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, Long> {
+    Optional<ImageBlob> findByHash(String hash);
+
+    List<ImageBlob> findByReferenceCountAndUpdatedAtBefore(Integer referenceCount, Instant updatedAt, Pageable pageable);
+
+    /**
+     * Add a reference to a stored file.
+     *
+     * @return 0 if the file is not stored, or is being deleted.
+     */
+    @Transactional
+    @Modifying
+    @Query(
+        "update ImageBlob b set b.referenceCount = b.referenceCount + 1, b.updatedAt = :now where b.hash = :hash and b.referenceCount >= 0"
+    )
+    int addReference(@Param("hash") String hash, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query(
+        "update ImageBlob b set b.referenceCount = b.referenceCount - 1, b.updatedAt = :now where b.hash = :hash and b.referenceCount > 0"
+    )
+    int removeReference(@Param("hash") String hash, @Param("now") Instant now);
+
+    /**
+     * Mark a file unreferenced since {@code before} as being deleted, so that no reference can be added to it.
+     *
+     * @return 1 if the caller must delete the file, 0 if it has been referenced again.
+     */
+    @Transactional
+    @Modifying
+    @Query("update ImageBlob b set b.referenceCount = -1 where b.hash = :hash and b.referenceCount = 0 and b.updatedAt < :before")
+    int markDeleted(@Param("hash") String hash, @Param("before") Instant before);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ImageBlob b where b.hash = :hash and b.referenceCount = -1")
+    int deleteMarked(@Param("hash") String hash);
+}
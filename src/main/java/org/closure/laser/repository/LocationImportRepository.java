@@ -0,0 +1,18 @@
+package org.closure.laser.repository;
+
+import java.util.List;
+import java.util.Optional;
+import org.closure.laser.domain.LocationImport;
+import org.closure.laser.domain.enumeration.LocationImportStatus;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the LocationImport entity.
+ */
+@Repository
+public interface LocationImportRepository extends JpaRepository<LocationImport, Long> {
+    Optional<LocationImport> findFirstByOrderByIdDesc();
+
+    List<LocationImport> findAllByStatus(LocationImportStatus status);
+}
@@ -1,7 +1,13 @@
 package org.closure.laser.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.closure.laser.domain.Location;
+import org.closure.laser.repository.projection.LocationKey;
+import org.closure.laser.repository.projection.LocationPoint;
+import org.closure.laser.repository.projection.LocationRef;
+import org.closure.laser.repository.projection.SearchRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -29,4 +35,42 @@ public interface LocationRepository extends JpaRepository<Location, Long> {
     Page<Location> search(@Param(value = "key") String key, @Param(value = "value") String value, Pageable pageable);
 
     Optional<Location> findByAirport(String airport);
+
+    @Query(
+        value = "select l.id as id, l.country as country, l.city as city, l.airport as airport from Location l",
+        countQuery = "select count(l) from Location l"
+    )
+    Page<LocationRef> findAllRefs(Pageable pageable);
+
+    @Query(
+        value = "select l.id as id, l.country as country, l.city as city, l.airport as airport from Location l " +
+        "where l.country like %:word% or l.city like %:word% or l.airport like %:word%",
+        countQuery = "select count(l) from Location l " +
+        "where l.country like %:word% or l.city like %:word% or l.airport like %:word%"
+    )
+    Page<LocationRef> searchRefs(@Param(value = "word") String word, Pageable pageable);
+
+    @Query("select l.id as id, l.country as country, l.city as city, l.airport as airport from Location l where l.id in :ids")
+    List<LocationRef> findRefsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(
+        "select l.id as id, l.country as country, l.city as city, l.cityIataCode as cityIataCode, " +
+        "l.latitude as latitude, l.longitude as longitude from Location l"
+    )
+    List<LocationPoint> findAllPoints();
+
+    @Query("select l.id as id, l.airport as airport, l.latitude as latitude from Location l")
+    List<LocationKey> findAllKeys();
+
+    @Query(
+        "select l.id as id, concat(coalesce(l.country, ''), ' ', coalesce(l.city, ''), ' ', coalesce(l.airport, '')) as name, " +
+        "coalesce(l.iataCode, '') as text from Location l where l.id > :id order by l.id"
+    )
+    List<SearchRow> findSearchRows(@Param("id") Long afterId, Pageable pageable);
+
+    @Query(
+        "select l.id as id, concat(coalesce(l.country, ''), ' ', coalesce(l.city, ''), ' ', coalesce(l.airport, '')) as name, " +
+        "coalesce(l.iataCode, '') as text from Location l where l.id in :ids"
+    )
+    List<SearchRow> findSearchRowsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,5 +1,6 @@
 package org.closure.laser.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.closure.laser.domain.Deal;
@@ -25,4 +26,7 @@ public interface OffersRepository extends JpaRepository<Offers, Long> {
     Optional<Offers> findByTripDealIdAndShipmentDealId(Long tripDealId, Long shipmentDealId);
 
     List<Offers> findByTripDealId(Long tripDealId);
+
+    @Query("select o from Offers o where o.tripDealId in :ids or o.shipmentDealId in :ids order by o.id")
+    List<Offers> findAllByDealIds(@Param("ids") Collection<Long> dealIds);
 }
@@ -0,0 +1,33 @@
+package org.closure.laser.repository;
+
+import java.time.Instant;
+import java.util.List;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.closure.laser.domain.PushNotification;
+import org.closure.laser.domain.enumeration.PushNotificationStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the PushNotification entity.
+ */
+@Repository
+public interface PushNotificationRepository extends JpaRepository<PushNotification, Long> {
+    /**
+     * Lock the oldest notifications due at {@code now}. Rows locked by another dispatcher are skipped on the
+     * databases that support {@code SKIP LOCKED} (a lock timeout of -2 for Hibernate), and waited for on the others.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("select n from PushNotification n where n.status = :status and n.nextAttemptAt <= :now order by n.nextAttemptAt, n.id")
+    List<PushNotification> findDueForUpdate(
+        @Param("status") PushNotificationStatus status,
+        @Param("now") Instant now,
+        Pageable pageable
+    );
+
+    long countByStatus(PushNotificationStatus status);
+}
@@ -1,9 +1,12 @@
 package org.closure.laser.repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import org.closure.laser.domain.Deal;
 import org.closure.laser.domain.Shipment;
 import org.closure.laser.domain.ShipmentType;
+import org.closure.laser.repository.projection.ShipmentSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -44,4 +47,45 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
         nativeQuery = true
     )
     Page<Shipment> searchTo(@Param(value = "value") String value, Pageable pageable);
+
+    @Query(
+        value = "select sh.id as id, sh.weight as weight, sh.description as description, sh.imgUrl as imgUrl, " +
+        "       sh.cost as cost, sh.price as price, sh.createdAt as createdAt, ty.id as typeId, ty.name as typeName, " +
+        "       f.id as fromId, f.country as fromCountry, f.city as fromCity, " +
+        "       o.id as toId, o.country as toCountry, o.city as toCity, sh.deal.id as dealId " +
+        "from Shipment sh left join sh.type ty left join sh.from f left join sh.to o",
+        countQuery = "select count(sh) from Shipment sh"
+    )
+    Page<ShipmentSummary> findAllSummaries(Pageable pageable);
+
+    @Query(
+        "select sh.id as id, sh.weight as weight, sh.description as description, sh.imgUrl as imgUrl, " +
+        "       sh.cost as cost, sh.price as price, sh.createdAt as createdAt, ty.id as typeId, ty.name as typeName, " +
+        "       f.id as fromId, f.country as fromCountry, f.city as fromCity, " +
+        "       o.id as toId, o.country as toCountry, o.city as toCity, sh.deal.id as dealId " +
+        "from Shipment sh left join sh.type ty left join sh.from f left join sh.to o " +
+        "where sh.deal.id in :dealIds order by sh.id"
+    )
+    List<ShipmentSummary> findSummariesByDealIdIn(@Param("dealIds") Collection<Long> dealIds);
+
+    /**
+     * First page of the shipments with a creation date, by creation date then id, descending.
+     */
+    @Query("select sh from Shipment sh where sh.createdAt is not null order by sh.createdAt desc, sh.id desc")
+    List<Shipment> findFirstByCreatedAt(Pageable pageable);
+
+    /**
+     * Next page of the shipments with a creation date, after the given shipment.
+     */
+    @Query(
+        "select sh from Shipment sh where sh.createdAt <= :createdAt and (sh.createdAt < :createdAt or sh.id < :id) " +
+        "order by sh.createdAt desc, sh.id desc"
+    )
+    List<Shipment> findAfterByCreatedAt(@Param("createdAt") Date createdAt, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Page of the shipments without creation date, which are listed last, after the given id.
+     */
+    @Query("select sh from Shipment sh where sh.createdAt is null and sh.id < :id order by sh.id desc")
+    List<Shipment> findAfterWithoutCreatedAt(@Param("id") Long id, Pageable pageable);
 }
@@ -1,7 +1,10 @@
 package org.closure.laser.repository;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import org.closure.laser.domain.Trip;
+import org.closure.laser.repository.projection.TripCard;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -38,4 +41,40 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
         nativeQuery = true
     )
     Page<Trip> searchTo(@Param(value = "value") String value, Pageable pageable);
+
+    /**
+     * The trips as cards, one per trip: with their first open deal, if they have one.
+     */
+    @Query(
+        value = "select t.id as id, t.flyTime as flyTime, t.arriveTime as arriveTime, t.tripIdentifier as tripIdentifier, " +
+        "       t.tripType as tripType, t.transit as transit, " +
+        "       f.id as fromId, f.country as fromCountry, f.city as fromCity, f.airport as fromAirport, " +
+        "       o.id as toId, o.country as toCountry, o.city as toCity, o.airport as toAirport, " +
+        "       d.id as dealId, d.availableWeight as availableWeight, d.arrivelDate as arrivelDate, d.deliver.id as deliverId " +
+        "from Trip t left join t.from f left join t.to o left join t.deals d on d.owner is null " +
+        "where d.id is null or d.id = (select min(od.id) from Deal od where od.trip = t and od.owner is null)",
+        countQuery = "select count(t) from Trip t"
+    )
+    Page<TripCard> findAllCards(Pageable pageable);
+
+    /**
+     * First page of the trips with a creation date, by creation date then id, descending.
+     */
+    @Query("select t from Trip t where t.createdAt is not null order by t.createdAt desc, t.id desc")
+    List<Trip> findFirstByCreatedAt(Pageable pageable);
+
+    /**
+     * Next page of the trips with a creation date, after the given trip.
+     */
+    @Query(
+        "select t from Trip t where t.createdAt <= :createdAt and (t.createdAt < :createdAt or t.id < :id) " +
+        "order by t.createdAt desc, t.id desc"
+    )
+    List<Trip> findAfterByCreatedAt(@Param("createdAt") Date createdAt, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Page of the trips without creation date, which are listed last, after the given id.
+     */
+    @Query("select t from Trip t where t.createdAt is null and t.id < :id order by t.id desc")
+    List<Trip> findAfterWithoutCreatedAt(@Param("id") Long id, Pageable pageable);
 }
@@ -1,9 +1,12 @@
 package org.closure.laser.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.closure.laser.domain.User;
 import org.closure.laser.domain.UserApplication;
+import org.closure.laser.repository.projection.SearchRow;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -15,8 +18,14 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface UserApplicationRepository extends JpaRepository<UserApplication, Long> {
+    String IDS_BY_LOGIN_CACHE = "userApplicationIdsByLogin";
+
     Optional<UserApplication> findByUser(User user);
 
+    @Cacheable(cacheNames = IDS_BY_LOGIN_CACHE, unless = "#result == null")
+    @Query("select ua.id from UserApplication ua where ua.user.login = :login")
+    Optional<Long> findIdByUserLogin(@Param("login") String login);
+
     default Optional<UserApplication> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
     }
@@ -54,4 +63,21 @@ public interface UserApplicationRepository extends JpaRepository<UserApplication
         nativeQuery = true
     )
     Page<UserApplication> search(@Param(value = "value") String value, Pageable pageable);
+
+    @Query(
+        "select ua.id as id, concat(coalesce(u.firstName, ''), ' ', coalesce(u.lastName, ''), ' ', coalesce(u.login, '')) as name, " +
+        "concat(coalesce(u.email, ''), ' ', coalesce(ua.phone, ''), ' ', coalesce(ua.passport, '')) as text " +
+        "from UserApplication ua left join ua.user u where ua.id > :id order by ua.id"
+    )
+    List<SearchRow> findSearchRows(@Param("id") Long afterId, Pageable pageable);
+
+    @Query(
+        "select ua.id as id, concat(coalesce(u.firstName, ''), ' ', coalesce(u.lastName, ''), ' ', coalesce(u.login, '')) as name, " +
+        "concat(coalesce(u.email, ''), ' ', coalesce(ua.phone, ''), ' ', coalesce(ua.passport, '')) as text " +
+        "from UserApplication ua left join ua.user u where ua.id in :ids"
+    )
+    List<SearchRow> findSearchRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select ua.id from UserApplication ua where ua.user.id in :ids")
+    List<Long> findIdsByUserIdIn(@Param("ids") Collection<Long> userIds);
 }
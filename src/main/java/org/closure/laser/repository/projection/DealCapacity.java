@@ -0,0 +1,14 @@
+package org.closure.laser.repository.projection;
+
+/**
+ * Weights of a {@link org.closure.laser.domain.Deal}, read from the database rather than the persistence context.
+ */
+public interface DealCapacity {
+    Long getId();
+
+    Double getAvailableWeight();
+
+    Double getFullWeight();
+
+    Double getReservedWeight();
+}
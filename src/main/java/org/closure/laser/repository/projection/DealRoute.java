@@ -0,0 +1,24 @@
+package org.closure.laser.repository.projection;
+
+import java.util.Date;
+
+/**
+ * One (deal, from-location, to-location) row, as needed by the route index.
+ * <p>
+ * For a trip deal {@code date} is the arrival date, for a shipment deal it is the expected date.
+ */
+public interface DealRoute {
+    Long getDealId();
+
+    Double getAvailableWeight();
+
+    Date getDate();
+
+    Long getFromId();
+
+    String getFromCountry();
+
+    Long getToId();
+
+    String getToCountry();
+}
@@ -0,0 +1,12 @@
+package org.closure.laser.repository.projection;
+
+/**
+ * Flat reference to a {@link org.closure.laser.domain.DealStatus}, without its eagerly fetched deals.
+ */
+public interface DealStatusRef {
+    Long getId();
+
+    String getName();
+
+    Integer getSequence();
+}
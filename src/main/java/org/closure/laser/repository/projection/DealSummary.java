@@ -0,0 +1,32 @@
+package org.closure.laser.repository.projection;
+
+import java.util.Date;
+
+/**
+ * Flat row of a {@link org.closure.laser.domain.Deal}, with its associations reduced to ids.
+ */
+public interface DealSummary {
+    Long getId();
+
+    Double getTotalPrice();
+
+    Boolean getIsCashed();
+
+    Double getFullWeight();
+
+    Double getAvailableWeight();
+
+    Date getArrivelDate();
+
+    Date getExpectedDate();
+
+    Long getStatusId();
+
+    String getStatusName();
+
+    Long getTripId();
+
+    Long getDeliverId();
+
+    Long getOwnerId();
+}
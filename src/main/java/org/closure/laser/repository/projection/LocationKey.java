@@ -0,0 +1,13 @@
+package org.closure.laser.repository.projection;
+
+/**
+ * Key of a {@link org.closure.laser.domain.Location} in the airport import: its airport name, and whether its
+ * coordinates are known.
+ */
+public interface LocationKey {
+    Long getId();
+
+    String getAirport();
+
+    Double getLatitude();
+}
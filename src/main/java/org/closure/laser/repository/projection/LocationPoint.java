@@ -0,0 +1,19 @@
+package org.closure.laser.repository.projection;
+
+/**
+ * Position of a {@link org.closure.laser.domain.Location}, with the city it belongs to. Latitude and longitude are
+ * empty for the locations entered by hand.
+ */
+public interface LocationPoint {
+    Long getId();
+
+    String getCountry();
+
+    String getCity();
+
+    String getCityIataCode();
+
+    Double getLatitude();
+
+    Double getLongitude();
+}
@@ -0,0 +1,14 @@
+package org.closure.laser.repository.projection;
+
+/**
+ * Flat reference to a {@link org.closure.laser.domain.Location}, without its trips and shipments.
+ */
+public interface LocationRef {
+    Long getId();
+
+    String getCountry();
+
+    String getCity();
+
+    String getAirport();
+}
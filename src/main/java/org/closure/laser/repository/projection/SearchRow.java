@@ -0,0 +1,13 @@
+package org.closure.laser.repository.projection;
+
+/**
+ * The text of one entity, as needed by the search index: {@code name} holds the fields that identify the entity,
+ * {@code text} the other searchable fields. Missing fields are empty.
+ */
+public interface SearchRow {
+    Long getId();
+
+    String getName();
+
+    String getText();
+}
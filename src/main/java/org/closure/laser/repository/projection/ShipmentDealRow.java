@@ -0,0 +1,35 @@
+package org.closure.laser.repository.projection;
+
+import java.util.Date;
+
+/**
+ * Flat row of a shipment {@link org.closure.laser.domain.Deal} with its status and the public profile of its owner.
+ * The shipments of the deal are read as {@link ShipmentSummary} rows.
+ * <p>
+ * The owner columns are {@code null} for a deal without owner.
+ */
+public interface ShipmentDealRow {
+    Long getDealId();
+
+    Double getFullWeight();
+
+    Double getAvailableWeight();
+
+    Double getTotalPrice();
+
+    Date getExpectedDate();
+
+    Long getStatusId();
+
+    String getStatusName();
+
+    Long getOwnerId();
+
+    String getOwnerFirstName();
+
+    String getOwnerLastName();
+
+    String getOwnerImage();
+
+    Double getOwnerRate();
+}
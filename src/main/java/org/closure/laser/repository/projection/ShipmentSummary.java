@@ -0,0 +1,40 @@
+package org.closure.laser.repository.projection;
+
+import java.util.Date;
+
+/**
+ * Flat row of a {@link org.closure.laser.domain.Shipment} with its type and route, and its deal reduced to an id.
+ */
+public interface ShipmentSummary {
+    Long getId();
+
+    Double getWeight();
+
+    String getDescription();
+
+    String getImgUrl();
+
+    Double getCost();
+
+    Double getPrice();
+
+    Date getCreatedAt();
+
+    Long getTypeId();
+
+    String getTypeName();
+
+    Long getFromId();
+
+    String getFromCountry();
+
+    String getFromCity();
+
+    Long getToId();
+
+    String getToCountry();
+
+    String getToCity();
+
+    Long getDealId();
+}
@@ -0,0 +1,46 @@
+package org.closure.laser.repository.projection;
+
+import java.util.Date;
+
+/**
+ * Flat row of a {@link org.closure.laser.domain.Trip} with its route and an open (owner-less) trip deal.
+ * <p>
+ * The deal columns are {@code null} for a trip without an open deal.
+ */
+public interface TripCard {
+    Long getId();
+
+    Date getFlyTime();
+
+    Date getArriveTime();
+
+    String getTripIdentifier();
+
+    String getTripType();
+
+    String getTransit();
+
+    Long getFromId();
+
+    String getFromCountry();
+
+    String getFromCity();
+
+    String getFromAirport();
+
+    Long getToId();
+
+    String getToCountry();
+
+    String getToCity();
+
+    String getToAirport();
+
+    Long getDealId();
+
+    Double getAvailableWeight();
+
+    Date getArrivelDate();
+
+    Long getDeliverId();
+}
@@ -0,0 +1,61 @@
+package org.closure.laser.repository.projection;
+
+import java.util.Date;
+
+/**
+ * Flat row of a trip {@link org.closure.laser.domain.Deal} with its status, its trip and route, and the public profile
+ * of its deliver.
+ * <p>
+ * The trip and deliver columns are {@code null} for a deal without them.
+ */
+public interface TripDealRow {
+    Long getDealId();
+
+    Double getFullWeight();
+
+    Double getAvailableWeight();
+
+    Date getArrivelDate();
+
+    Long getStatusId();
+
+    String getStatusName();
+
+    Long getTripId();
+
+    String getTripIdentifier();
+
+    Date getFlyTime();
+
+    Date getArriveTime();
+
+    String getTripType();
+
+    String getTransit();
+
+    Long getFromId();
+
+    String getFromCountry();
+
+    String getFromCity();
+
+    String getFromAirport();
+
+    Long getToId();
+
+    String getToCountry();
+
+    String getToCity();
+
+    String getToAirport();
+
+    Long getDeliverId();
+
+    String getDeliverFirstName();
+
+    String getDeliverLastName();
+
+    String getDeliverImage();
+
+    Double getDeliverRate();
+}
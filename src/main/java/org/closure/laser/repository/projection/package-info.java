@@ -0,0 +1,4 @@
+/**
+ * Spring Data JPA interface projections, used by read paths that need flat rows instead of entity graphs.
+ */
+package org.closure.laser.repository.projection;
@@ -1,5 +1,6 @@
 package org.closure.laser.security.jwt;
 
+import io.jsonwebtoken.Claims;
 import java.io.IOException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -15,6 +16,9 @@ import org.springframework.web.filter.GenericFilterBean;
  * Filters incoming requests and installs a Spring Security principal if a
  * header corresponding to a valid user is
  * found.
+ * <p>
+ * The token is verified once per request: its claims are kept as the details of the
+ * authentication, where {@link TokenProvider#getLoginFromToken(String)} finds them.
  */
 public class JWTFilter extends GenericFilterBean {
 
@@ -31,8 +35,9 @@ public class JWTFilter extends GenericFilterBean {
         throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
         String jwt = resolveToken(httpServletRequest);
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
+        Claims claims = StringUtils.hasText(jwt) ? this.tokenProvider.resolveClaims(jwt) : null;
+        if (claims != null) {
+            Authentication authentication = this.tokenProvider.getAuthentication(claims, jwt);
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         filterChain.doFilter(servletRequest, servletResponse);
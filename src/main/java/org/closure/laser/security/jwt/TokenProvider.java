@@ -6,8 +6,9 @@ import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.closure.laser.management.SecurityMetersService;
 import org.slf4j.Logger;
@@ -16,11 +17,19 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 import tech.jhipster.config.JHipsterProperties;
 
+/**
+ * Creates and verifies the JWT tokens.
+ * <p>
+ * Verifying the HS512 signature of a token is the most expensive step of authenticating a request, so the claims
+ * of valid tokens are cached until the token expires, for at most {@link #CLAIMS_CACHE_TIME_TO_LIVE}. Within a
+ * request authenticated by the {@link JWTFilter}, the claims are taken from the authentication instead.
+ */
 @Component
 public class TokenProvider {
 
@@ -30,17 +39,25 @@ public class TokenProvider {
 
     private static final String INVALID_JWT_TOKEN = "Invalid JWT token.";
 
+    static final int CLAIMS_CACHE_MAX_ENTRIES = 10_000;
+
+    static final Duration CLAIMS_CACHE_TIME_TO_LIVE = Duration.ofMinutes(5);
+
     private final Key key;
 
     private final JwtParser jwtParser;
 
     private final SecurityMetersService securityMetersService;
 
-    private String secret;
+    private final VerifiedClaimsCache verifiedClaims = new VerifiedClaimsCache(
+        CLAIMS_CACHE_MAX_ENTRIES,
+        CLAIMS_CACHE_TIME_TO_LIVE,
+        Clock.systemUTC()
+    );
 
     public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
         byte[] keyBytes;
-        secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
+        String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
             log.debug("Using a Base64-encoded JWT secret key");
             keyBytes = Decoders.BASE64.decode(secret);
@@ -91,17 +108,23 @@ public class TokenProvider {
     }
 
     public String getAuthorities(String token) {
-        String[] s = jwtParser.parseClaimsJws(token).getBody().get(AUTHORITIES_KEY).toString().split(",");
+        String[] s = claimsOf(token).get(AUTHORITIES_KEY).toString().split(",");
         return s[s.length - 1];
     }
 
     public Date getExpirationDate(String token) {
-        return jwtParser.parseClaimsJws(token).getBody().getExpiration();
+        return claimsOf(token).getExpiration();
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return getAuthentication(getClaims(token), token);
+    }
 
+    /**
+     * Build the authentication of a token from its claims, as returned by {@link #resolveClaims(String)}.
+     * The claims are kept as the details of the authentication.
+     */
+    public Authentication getAuthentication(Claims claims, String token) {
         Collection<? extends GrantedAuthority> authorities = Arrays
             .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
             .filter(auth -> !auth.trim().isEmpty())
@@ -110,14 +133,24 @@ public class TokenProvider {
 
         User principal = new User(claims.getSubject(), "", authorities);
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        authentication.setDetails(claims);
+        return authentication;
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            jwtParser.parseClaimsJws(authToken);
+        return resolveClaims(authToken) != null;
+    }
 
-            return true;
+    /**
+     * Verify a token and return its claims.
+     *
+     * @param authToken the token.
+     * @return the claims, or {@code null} if the token is not valid.
+     */
+    public Claims resolveClaims(String authToken) {
+        try {
+            return getClaims(authToken);
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
@@ -138,19 +171,32 @@ public class TokenProvider {
             log.error("Token validation error {}", e.getMessage());
         }
 
-        return false;
+        return null;
     }
 
     public String getLoginFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        return claimsOf(token).getSubject();
     }
 
-    private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+    /**
+     * The claims of the token of the current request if it is this one, as installed by the {@link JWTFilter},
+     * otherwise the claims of the token.
+     */
+    private Claims claimsOf(String token) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean sameToken = authentication != null && Objects.equals(token, authentication.getCredentials());
+        if (sameToken && authentication.getDetails() instanceof Claims) {
+            return (Claims) authentication.getDetails();
+        }
+        return getClaims(token);
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+    private Claims getClaims(String token) {
+        Claims claims = token == null ? null : verifiedClaims.get(token);
+        if (claims == null) {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+            verifiedClaims.put(token, claims);
+        }
+        return claims;
     }
 }
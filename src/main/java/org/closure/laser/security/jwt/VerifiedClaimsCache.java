@@ -0,0 +1,95 @@
+package org.closure.laser.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of the claims of tokens whose signature has already been verified, keyed by the SHA-256 hash of
+ * the token so that the tokens themselves are not kept in memory.
+ * <p>
+ * An entry is dropped when its token expires, or after {@code timeToLive} if that comes first. When the cache is
+ * full, expired entries are dropped, then all of them if it is still full. The cached claims are shared and must
+ * not be modified.
+ */
+class VerifiedClaimsCache {
+
+    private final int maxEntries;
+
+    private final long timeToLiveMillis;
+
+    private final Clock clock;
+
+    private final Map<ByteBuffer, Entry> entries = new ConcurrentHashMap<>();
+
+    VerifiedClaimsCache(int maxEntries, Duration timeToLive, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * @return the claims of the token, or {@code null} if they are not cached or the token has expired.
+     */
+    Claims get(String token) {
+        ByteBuffer key = key(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= clock.millis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.claims;
+    }
+
+    void put(String token, Claims claims) {
+        long now = clock.millis();
+        long expiresAt = now + timeToLiveMillis;
+        if (claims.getExpiration() != null) {
+            expiresAt = Math.min(expiresAt, claims.getExpiration().getTime());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(entry -> entry.expiresAt <= now);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(key(token), new Entry(claims, expiresAt));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static ByteBuffer key(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Entry {
+
+        final Claims claims;
+
+        final long expiresAt;
+
+        Entry(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
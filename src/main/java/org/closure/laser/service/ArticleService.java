@@ -1,5 +1,6 @@
 package org.closure.laser.service;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.closure.laser.domain.Article;
@@ -9,8 +10,10 @@ import org.closure.laser.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -23,9 +26,17 @@ public class ArticleService {
     private static final String ENTITY_NAME = "article";
     private final Logger log = LoggerFactory.getLogger(ArticleService.class);
     private final ArticleRepository articleRepository;
+    private final SearchIndexService searchIndexService;
+    private final ArticleViewCounter articleViewCounter;
 
-    public ArticleService(ArticleRepository articleRepository) {
+    public ArticleService(
+        ArticleRepository articleRepository,
+        SearchIndexService searchIndexService,
+        ArticleViewCounter articleViewCounter
+    ) {
         this.articleRepository = articleRepository;
+        this.searchIndexService = searchIndexService;
+        this.articleViewCounter = articleViewCounter;
     }
 
     public Article save(Article article) throws BadRequestAlertException {
@@ -95,12 +106,24 @@ public class ArticleService {
     @Transactional(readOnly = true)
     public Page<Article> search(String value, Pageable pageable) {
         log.debug("Request to get all article by value");
-        return articleRepository.search(value, pageable);
+        if (!searchIndexService.isReady()) {
+            return articleRepository.search(value, pageable);
+        }
+        Page<Long> ids = searchIndexService.search(SearchIndexService.Index.ARTICLES, value, pageable);
+        List<Article> articles = SearchIndexService.inOrder(
+            ids.getContent(),
+            articleRepository.findAllById(ids.getContent()),
+            Article::getId
+        );
+        return new PageImpl<>(articles, pageable, ids.getTotalElements());
     }
 
+    /**
+     * Count a view of the article. The views are written to the database every few seconds, see
+     * {@link ArticleViewCounter}.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void addView(Long id) {
-        Article article = articleRepository.findById(id).get();
-        article.setViewcount(article.getViewcount() + 1);
-        articleRepository.save(article);
+        articleViewCounter.record(id);
     }
 }
@@ -0,0 +1,111 @@
+package org.closure.laser.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import org.closure.laser.domain.Article;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Counts the views of the articles in memory, and adds them to the {@code viewcount} column in batches.
+ * <p>
+ * A view only increments the {@link LongAdder} of its article, without contention between the request threads. Each
+ * flush takes the views counted since the previous one out of the adders, and adds them to the articles with one
+ * batch of {@code UPDATE} statements: no read-modify-write, so no lost views. The views not flushed yet are exposed as
+ * the {@value #PENDING_METER_NAME} gauge, are added back when the flush fails, and are flushed on shutdown.
+ */
+@Service
+public class ArticleViewCounter {
+
+    public static final String PENDING_METER_NAME = "article.views.pending";
+    public static final String PENDING_METER_DESCRIPTION = "Article views counted in memory and not written yet.";
+
+    private static final String UPDATE = "UPDATE article SET viewcount = COALESCE(viewcount, 0) + ? WHERE id = ?";
+
+    private final Logger log = LoggerFactory.getLogger(ArticleViewCounter.class);
+
+    // adders are never removed while their article exists: a view could increment a removed adder
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ArticleViewCounter(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        EntityManagerFactory entityManagerFactory,
+        MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        Gauge
+            .builder(PENDING_METER_NAME, this, ArticleViewCounter::countPending)
+            .description(PENDING_METER_DESCRIPTION)
+            .register(meterRegistry);
+    }
+
+    public void record(Long articleId) {
+        pending.computeIfAbsent(articleId, id -> new LongAdder()).increment();
+    }
+
+    public long countPending() {
+        long count = 0;
+        for (LongAdder adder : pending.values()) {
+            count += adder.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Add the views counted since the last flush to the articles.
+     */
+    @Scheduled(fixedDelayString = "${application.articles.view-flush-interval:PT10S}")
+    @PreDestroy
+    public synchronized void flush() {
+        List<Long> ids = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        pending.forEach((id, adder) -> {
+            long views = adder.sumThenReset();
+            if (views != 0) {
+                ids.add(id);
+                updates.add(new Object[] { views, id });
+            }
+        });
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        int[] counts;
+        try {
+            counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(UPDATE, updates));
+        } catch (RuntimeException e) {
+            log.warn("Could not write the views of {} articles, retrying with the next flush: {}", ids.size(), e.getMessage());
+            updates.forEach(update -> pending.get(update[1]).add((Long) update[0]));
+            return;
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            if (counts[i] == 0) {
+                // no such article: views of unknown ids must not fill the map
+                pending.remove(ids.get(i));
+            }
+            entityManagerFactory.getCache().evict(Article.class, ids.get(i));
+        }
+        log.debug("Views of {} articles written", ids.size());
+    }
+}
@@ -0,0 +1,45 @@
+package org.closure.laser.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Stores the uploaded files under a key. {@link LocalBlobStore} keeps them on the local disk; an S3-compatible
+ * object store can replace it, see {@code UploadConfiguration}.
+ * <p>
+ * A key always designates the same content: once stored, a blob is never overwritten with different bytes.
+ */
+public interface BlobStore {
+    /**
+     * Create an empty temporary file, from which {@link #put} is the cheapest.
+     */
+    Path createTempFile() throws IOException;
+
+    /**
+     * Store a file, unless a blob is already stored under its key.
+     *
+     * @param key the key of the blob.
+     * @param file the content of the blob; the store moves or deletes it.
+     */
+    void put(String key, Path file) throws IOException;
+
+    /**
+     * @return the size of the blob, empty if there is no blob under this key.
+     */
+    OptionalLong size(String key) throws IOException;
+
+    /**
+     * @return the file of the blob, if this store keeps it on the local disk.
+     */
+    Optional<Path> localFile(String key);
+
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Delete a blob, if it exists.
+     */
+    void delete(String key) throws IOException;
+}
@@ -0,0 +1,126 @@
+package org.closure.laser.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.closure.laser.domain.CapacityReservation;
+import org.closure.laser.repository.CapacityReservationRepository;
+import org.closure.laser.repository.DealRepository;
+import org.closure.laser.repository.projection.DealCapacity;
+import org.closure.laser.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service managing the weight carried by trip deals.
+ * <p>
+ * A pending offer holds its weight on the trip deal with a {@link CapacityReservation}, so that other offers cannot
+ * take it. Accepting the offer releases the reservation and takes the weight from every deal of the trip. Each
+ * check is made by the database in the statement that updates the deal, see {@link DealRepository#reserveWeight}
+ * and {@link DealRepository#takeWeight}: concurrent offers wait for each other on the deal row instead of reading
+ * the same weight and overbooking the trip.
+ */
+@Service
+@Transactional
+public class CapacityReservationService {
+
+    private final Logger log = LoggerFactory.getLogger(CapacityReservationService.class);
+
+    private static final String ENTITY_NAME = "deal";
+
+    private static final int EXPIRED_BATCH_SIZE = 100;
+
+    private final CapacityReservationRepository capacityReservationRepository;
+
+    private final DealRepository dealRepository;
+
+    @Value("${application.capacity.reservation-time-to-live:P1D}")
+    private Duration reservationTimeToLive;
+
+    public CapacityReservationService(CapacityReservationRepository capacityReservationRepository, DealRepository dealRepository) {
+        this.capacityReservationRepository = capacityReservationRepository;
+        this.dealRepository = dealRepository;
+    }
+
+    /**
+     * Hold weight on a trip deal for a pending offer.
+     *
+     * @param tripDealId the id of the trip deal.
+     * @param offerId the id of the offer.
+     * @param weight the weight of the shipments of the offer.
+     * @return the reservation.
+     * @throws BadRequestAlertException if the trip deal does not have this weight left.
+     */
+    public CapacityReservation reserve(Long tripDealId, Long offerId, double weight) {
+        log.debug("Request to reserve {} on Deal : {} for Offers : {}", weight, tripDealId, offerId);
+        if (dealRepository.reserveWeight(tripDealId, weight) == 0) {
+            throw new BadRequestAlertException("Not enough available weight", ENTITY_NAME, "capacityexceeded");
+        }
+        Instant now = Instant.now();
+        return capacityReservationRepository.save(
+            new CapacityReservation()
+                .tripDealId(tripDealId)
+                .offerId(offerId)
+                .weight(weight)
+                .createdAt(now)
+                .expiresAt(now.plus(reservationTimeToLive))
+        );
+    }
+
+    /**
+     * Release the weight held for an offer, if any.
+     *
+     * @param offerId the id of the offer.
+     */
+    public void release(Long offerId) {
+        capacityReservationRepository.findByOfferId(offerId).ifPresent(this::release);
+    }
+
+    /**
+     * Take weight from every deal of a trip, after releasing the weight held by the accepted offer.
+     *
+     * @param deliverId the id of the user carrying the shipments.
+     * @param tripId the id of the trip.
+     * @param offerId the id of the accepted offer.
+     * @param weight the weight of the shipments.
+     * @return the deals of the trip, with their weights once taken.
+     * @throws BadRequestAlertException if a deal of the trip does not have this weight left.
+     */
+    public List<DealCapacity> take(Long deliverId, Long tripId, Long offerId, double weight) {
+        log.debug("Request to take {} from the Deals of Trip : {}", weight, tripId);
+        release(offerId);
+        List<DealCapacity> deals = dealRepository.findCapacitiesByDeliverAndTrip(deliverId, tripId);
+        int taken = dealRepository.takeWeight(deliverId, tripId, weight);
+        if (deals.isEmpty() || taken < deals.size()) {
+            // rolls back the deals already updated
+            throw new BadRequestAlertException("Not enough available weight", ENTITY_NAME, "capacityexceeded");
+        }
+        return dealRepository.findCapacitiesByDeliverAndTrip(deliverId, tripId);
+    }
+
+    /**
+     * Release the reservations of the offers that were neither accepted nor closed in time.
+     */
+    @Scheduled(fixedDelayString = "${application.capacity.expiry-check-interval:PT1M}")
+    public void releaseExpired() {
+        Instant now = Instant.now();
+        PageRequest batch = PageRequest.of(0, EXPIRED_BATCH_SIZE);
+        List<CapacityReservation> expired;
+        do {
+            expired = capacityReservationRepository.findByExpiresAtLessThanEqualOrderByExpiresAt(now, batch);
+            expired.forEach(this::release);
+            log.debug("Released {} expired capacity reservations", expired.size());
+        } while (expired.size() == EXPIRED_BATCH_SIZE);
+    }
+
+    private void release(CapacityReservation reservation) {
+        if (capacityReservationRepository.deleteReservation(reservation.getId()) == 1) {
+            dealRepository.releaseWeight(reservation.getTripDealId(), reservation.getWeight());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.closure.laser.service;
+
+import java.util.Objects;
+import org.closure.laser.domain.UserApplication;
+import org.closure.laser.repository.UserApplicationRepository;
+import org.closure.laser.security.SecurityUtils;
+import org.closure.laser.web.rest.errors.BadRequestAlertException;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * The {@link UserApplication} of the current user, as authenticated by the JWT filter.
+ * <p>
+ * The id is looked up from the login once per request, and kept in the request attributes for the rest of it. The
+ * lookup itself is cached by login in the {@value UserApplicationRepository#IDS_BY_LOGIN_CACHE} cache, so a known
+ * user costs no query at all: the entity is then loaded by id, from the second-level cache when it is there. The
+ * cache entry of a login is evicted when its user changes, and the whole cache is cleared when an update or a
+ * deletion of a user application commits.
+ */
+@Service
+public class CurrentUserService {
+
+    private static final String ENTITY_NAME = "User Application";
+
+    private static final String ID_ATTRIBUTE = CurrentUserService.class.getName() + ".userApplicationId";
+
+    private final UserApplicationRepository userApplicationRepository;
+
+    private final CacheManager cacheManager;
+
+    public CurrentUserService(UserApplicationRepository userApplicationRepository, CacheManager cacheManager) {
+        this.userApplicationRepository = userApplicationRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Get the id of the current user application.
+     *
+     * @return the id.
+     * @throws BadRequestAlertException if nobody is authenticated, or the user has no user application.
+     */
+    public Long getUserApplicationId() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        Long id = request != null ? (Long) request.getAttribute(ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) : null;
+        if (id == null) {
+            id =
+                findUserApplicationId(
+                    SecurityUtils
+                        .getCurrentUserLogin()
+                        .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "notfound"))
+                );
+            if (request != null) {
+                request.setAttribute(ID_ATTRIBUTE, id, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Get the current user application.
+     *
+     * @return the entity.
+     * @throws BadRequestAlertException if nobody is authenticated, or the user has no user application.
+     */
+    public UserApplication getUserApplication() {
+        return userApplicationRepository
+            .findById(getUserApplicationId())
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "notfound"));
+    }
+
+    /**
+     * Get the id of the user application of a login, for the requests that are not authenticated yet.
+     *
+     * @param login the login of the user.
+     * @return the id.
+     * @throws BadRequestAlertException if the user has no user application.
+     */
+    public Long findUserApplicationId(String login) {
+        return userApplicationRepository
+            .findIdByUserLogin(login)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "notfound"));
+    }
+
+    /**
+     * Forget the user application ids of all logins, when a user application changes: once the caller's transaction
+     * commits, so that a request reading before the commit cannot cache the old id again, or right away without one.
+     */
+    public void clearCache() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            clearIds();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clearIds();
+                }
+            }
+        );
+    }
+
+    private void clearIds() {
+        Objects.requireNonNull(cacheManager.getCache(UserApplicationRepository.IDS_BY_LOGIN_CACHE)).clear();
+    }
+}
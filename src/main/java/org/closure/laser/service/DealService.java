@@ -1,19 +1,24 @@
 package org.closure.laser.service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.closure.laser.domain.Deal;
 import org.closure.laser.domain.Offers;
 import org.closure.laser.domain.Shipment;
 import org.closure.laser.repository.DealRepository;
-import org.closure.laser.repository.DealStatusRepository;
 import org.closure.laser.repository.OffersRepository;
 import org.closure.laser.repository.ShipmentRepository;
-import org.closure.laser.repository.TripRepository;
+import org.closure.laser.repository.projection.DealCapacity;
+import org.closure.laser.repository.projection.DealSummary;
+import org.closure.laser.repository.projection.TripCard;
+import org.closure.laser.service.dto.CursorPage;
 import org.closure.laser.service.dto.ShipmentDealDTO;
 import org.closure.laser.service.dto.TripDealDTO;
 import org.closure.laser.web.rest.errors.BadRequestAlertException;
@@ -22,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,22 +40,36 @@ public class DealService {
 
     private static final String ENTITY_NAME = "deal";
 
+    static final Duration NEW_DEALS_PERIOD = Duration.ofDays(10);
+
     private final DealRepository dealRepository;
 
     @Autowired
     private ShipmentRepository shipmentRepository;
 
     @Autowired
-    private DealStatusRepository dealStatusRepository;
+    private ReferenceDataService referenceDataService;
 
     @Autowired
     private OffersRepository offersRepository;
 
     @Autowired
-    private TripRepository tripRepository;
+    private ShipmentService shipmentService;
 
     @Autowired
-    private ShipmentService shipmentService;
+    private RouteIndexService routeIndexService;
+
+    @Autowired
+    private CapacityReservationService capacityReservationService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private GeoIndexService geoIndexService;
+
+    @Autowired
+    private DealViewService dealViewService;
 
     public DealService(DealRepository dealRepository) {
         this.dealRepository = dealRepository;
@@ -60,7 +80,9 @@ public class DealService {
         if (deal.getId() != null) {
             throw new BadRequestAlertException("A new deal cannot already have an ID", ENTITY_NAME, "id exists");
         }
-        return dealRepository.save(deal);
+        Deal result = dealRepository.save(deal);
+        routeIndexService.dealChanged(result.getId());
+        return result;
     }
 
     public Deal createDealLogic(Long shDealID, Long trDealID) {
@@ -78,35 +100,26 @@ public class DealService {
         newDeal.setOwner(shipmentDeal.getOwner());
         newDeal.setDeliver(tripDeal.getDeliver());
         newDeal.setTrip(tripDeal.getTrip());
-        newDeal.setStatus(dealStatusRepository.findById(3L).get()); // agreement
+        newDeal.setStatus(referenceDataService.getDealStatus(3L)); // agreement
         double weight = 0;
         for (Shipment shipment : shipmentDeal.getShipments()) {
             weight += shipment.getWeight();
         }
 
-        List<Deal> tripDeals = dealRepository.findByDeliverAndTrip(tripDeal.getDeliver().getId(), tripDeal.getTrip().getId());
-
-        for (Deal deal : tripDeals) {
-            if (deal.getAvailableWeight() - weight < 0) {
-                throw new BadRequestAlertException(
-                    "AvailableWeight = " + (deal.getAvailableWeight() - weight),
-                    ENTITY_NAME,
-                    "negative weight"
-                );
-            } else {
-                deal.setAvailableWeight(deal.getAvailableWeight() - weight);
-                deal.setFullWeight(deal.getFullWeight() + weight);
-                dealRepository.save(deal);
-            }
-        }
+        Offers offer = offersRepository.findByShipmentDealIdAndTripDealId(shDealID, trDealID).get();
+
+        List<DealCapacity> tripDeals = capacityReservationService.take(
+            tripDeal.getDeliver().getId(),
+            tripDeal.getTrip().getId(),
+            offer.getId(),
+            weight
+        );
 
         newDeal.setAvailableWeight(tripDeals.get(0).getAvailableWeight());
         newDeal.setFullWeight(tripDeals.get(0).getFullWeight());
 
         Deal savedDeal = dealRepository.save(newDeal);
 
-        Offers offer = offersRepository.findByShipmentDealIdAndTripDealId(shDealID, trDealID).get();
-
         offer.setShipmentDealId(savedDeal.getId());
         offer.setStatus("Accepted");
         offersRepository.save(offer);
@@ -115,6 +128,7 @@ public class DealService {
             of.setShipmentDealId(savedDeal.getId());
             of.setStatus("Closed");
             offersRepository.save(of);
+            capacityReservationService.release(of.getId());
         }
 
         delete(shipmentDeal.getId());
@@ -125,9 +139,17 @@ public class DealService {
         }
         savedDeal.setShipments(new HashSet<>(s));
 
-        savedDeal.setStatus(dealStatusRepository.findById(1L).get());
+        savedDeal.setStatus(referenceDataService.getDealStatus(1L));
+
+        Deal result = dealRepository.save(savedDeal);
+
+        List<Long> changed = new ArrayList<>();
+        tripDeals.forEach(deal -> changed.add(deal.getId()));
+        changed.add(shDealID);
+        changed.add(result.getId());
+        routeIndexService.dealsChanged(changed);
 
-        return dealRepository.save(savedDeal);
+        return result;
     }
 
     public Deal removeShipment(Long shipmentId, Long trDealID) {
@@ -141,7 +163,9 @@ public class DealService {
 
         tripDeal.getShipments().remove(shipment);
 
-        return dealRepository.save(tripDeal);
+        Deal result = dealRepository.save(tripDeal);
+        routeIndexService.dealChanged(result.getId());
+        return result;
     }
 
     public Deal update(Long id, Deal deal) {
@@ -156,7 +180,9 @@ public class DealService {
         if (!dealRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "id not found");
         }
-        return dealRepository.save(deal);
+        Deal result = dealRepository.save(deal);
+        routeIndexService.dealChanged(result.getId());
+        return result;
     }
 
     public Optional<Deal> partialUpdate(Long id, Deal deal) {
@@ -192,7 +218,11 @@ public class DealService {
 
                 return existingDeal;
             })
-            .map(dealRepository::save);
+            .map(dealRepository::save)
+            .map(result -> {
+                routeIndexService.dealChanged(result.getId());
+                return result;
+            });
     }
 
     @Transactional(readOnly = true)
@@ -201,6 +231,12 @@ public class DealService {
         return dealRepository.findAll(pageable);
     }
 
+    @Transactional(readOnly = true)
+    public Page<DealSummary> findAllSummaries(Pageable pageable) {
+        log.debug("Request to get all Deal summaries");
+        return dealRepository.findAllSummaries(pageable);
+    }
+
     @Transactional(readOnly = true)
     public Optional<Deal> findOne(Long id) {
         log.debug("Request to get Deal : {}", id);
@@ -230,6 +266,7 @@ public class DealService {
         deal.setDeliver(null);
         dealRepository.save(deal);
         dealRepository.deleteById(id);
+        routeIndexService.dealChanged(id);
     }
 
     public Page<Shipment> getAllShipmentsByDealId(Long id, Pageable pageable) {
@@ -246,33 +283,62 @@ public class DealService {
         return shipmentRepository.findByDeal(dealRepository.findById(id).get());
     }
 
+    @Transactional(readOnly = true)
     public Page<ShipmentDealDTO> findLast10DaysShipmentsDeal(Pageable pageable) {
-        List<Deal> deals = dealRepository.findLast10DaysShipments(pageable).toList();
-
-        List<ShipmentDealDTO> list = new ArrayList<>();
-
-        for (Deal deal : deals) {
-            list.add(new ShipmentDealDTO(deal, getAllShipmentsByDealId(deal.getId()), deal.getOwner()));
-        }
+        PageRequest page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return new PageImpl<>(dealViewService.shipmentDeals(dealRepository.findShipmentDealsSince(newDealsSince(), Long.MAX_VALUE, page)));
+    }
 
-        return new PageImpl<>(list);
+    /**
+     * Get a page of the deals with shipments created in the last 10 days, from the most recent, with a cursor.
+     *
+     * @param cursor the cursor of the page, empty for the first page.
+     * @param size the size of the page.
+     * @return the page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ShipmentDealDTO> findLast10DaysShipmentsDeal(String cursor, int size) {
+        long afterId = afterDealId(cursor);
+        List<Long> ids = dealRepository.findShipmentDealsSince(newDealsSince(), afterId, PageRequest.ofSize(size + 1));
+        return CursorPage.of(dealViewService.shipmentDeals(ids), size, dto -> new PageCursor(null, dto.getDealId()).encode());
     }
 
+    @Transactional(readOnly = true)
     public Page<TripDealDTO> findLast10DaysTripsDeal(Pageable pageable) {
-        List<Deal> deals = dealRepository.findLast10DaysTrips(pageable);
+        PageRequest page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return new PageImpl<>(dealViewService.tripDeals(dealRepository.findTripDealsSince(newDealsSince(), Long.MAX_VALUE, page)));
+    }
 
-        List<TripDealDTO> list = new ArrayList<>();
+    /**
+     * Get a page of the open deals of the trips created in the last 10 days, from the most recent, with a cursor.
+     *
+     * @param cursor the cursor of the page, empty for the first page.
+     * @param size the size of the page.
+     * @return the page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TripDealDTO> findLast10DaysTripsDeal(String cursor, int size) {
+        long afterId = afterDealId(cursor);
+        List<Long> ids = dealRepository.findTripDealsSince(newDealsSince(), afterId, PageRequest.ofSize(size + 1));
+        return CursorPage.of(dealViewService.tripDeals(ids), size, dto -> new PageCursor(null, dto.getDealId()).encode());
+    }
 
-        for (Deal deal : deals) {
-            list.add(new TripDealDTO(deal, tripRepository.findById(deal.getTrip().getId()).get(), deal.getDeliver()));
-        }
+    /**
+     * Deals are created with their trip or their shipments, so the feeds are sorted by deal id: the cursor is the id
+     * of the last deal of the previous page.
+     */
+    private static long afterDealId(String cursor) {
+        PageCursor after = PageCursor.decode(cursor, ENTITY_NAME);
+        return after == null ? Long.MAX_VALUE : after.getId();
+    }
 
-        return new PageImpl<>(list);
+    private static Date newDealsSince() {
+        return Date.from(Instant.now().minus(NEW_DEALS_PERIOD));
     }
 
     public Deal updateStatus(Long deal_id, Long status_id) {
         Deal deal = dealRepository.findById(deal_id).get();
-        deal.setStatus(dealStatusRepository.findById(status_id).get());
+        deal.setStatus(referenceDataService.getDealStatus(status_id));
         deal = dealRepository.save(deal);
         return deal;
     }
@@ -280,35 +346,87 @@ public class DealService {
     @Transactional(readOnly = true)
     public Page<Deal> search(String value, Pageable pageable) {
         log.debug("Request to get all deal by key");
-        return dealRepository.search(value, pageable);
+        if (!searchIndexService.isReady()) {
+            return dealRepository.search(value, pageable);
+        }
+        Page<Long> ids = searchIndexService.search(SearchIndexService.Index.DEALS, value, pageable);
+        List<Deal> deals = SearchIndexService.inOrder(ids.getContent(), dealRepository.findAllById(ids.getContent()), Deal::getId);
+        return new PageImpl<>(deals, pageable, ids.getTotalElements());
     }
 
     @Transactional(readOnly = true)
     public Page<TripDealDTO> searchTrips(String from, String to, Double weight, Date date, Pageable pageable) {
-        List<Deal> deals = dealRepository.searchTrips(from, to, weight, date, pageable);
-
-        log.info(">>>>>> size  : " + deals.size());
-
-        List<TripDealDTO> list = new ArrayList<>();
+        return tripDeals(routeIndexService.searchTrips(from, to, weight, date, pageable), pageable);
+    }
 
-        for (Deal deal : deals) {
-            log.info(">>>>>  " + deal.getArrivelDate()); //
-            list.add(new TripDealDTO(deal, tripRepository.findById(deal.getTrip().getId()).get(), deal.getDeliver()));
+    /**
+     * Same search as {@link #searchTrips}, for the trips departing from an airport at most {@code radius} kilometers
+     * away from the location {@code fromLocationId}.
+     */
+    @Transactional(readOnly = true)
+    public Page<TripDealDTO> searchTripsNear(Long fromLocationId, Double radius, String to, Double weight, Date date, Pageable pageable) {
+        if (radius == null || radius < 0) {
+            throw new BadRequestAlertException("Invalid radius", ENTITY_NAME, "radius invalid");
         }
-
-        return new PageImpl<>(list);
+        List<Long> from = geoIndexService.within(knownLocation(fromLocationId), radius);
+        return tripDeals(routeIndexService.searchTripsFrom(from, to, weight, date, pageable), pageable);
     }
 
     @Transactional(readOnly = true)
     public Page<ShipmentDealDTO> searchShipments(String from, String to, Double weight, Date date, Pageable pageable) {
-        List<Deal> deals = dealRepository.searchShipments(from, to, weight, date, pageable);
+        return shipmentDeals(routeIndexService.searchShipments(from, to, weight, date, pageable), pageable);
+    }
 
-        List<ShipmentDealDTO> list = new ArrayList<>();
+    /**
+     * Same search as {@link #searchShipments}, for the shipments going to any airport of the city of the location
+     * {@code toLocationId}.
+     */
+    @Transactional(readOnly = true)
+    public Page<ShipmentDealDTO> searchShipmentsToCity(String from, Long toLocationId, Double weight, Date date, Pageable pageable) {
+        Set<Long> to = geoIndexService.sameCity(knownLocation(toLocationId));
+        return shipmentDeals(routeIndexService.searchShipmentsTo(from, to, weight, date, pageable), pageable);
+    }
 
-        for (Deal deal : deals) {
-            list.add(new ShipmentDealDTO(deal, getAllShipmentsByDealId(deal.getId()), deal.getOwner()));
+    private Long knownLocation(Long locationId) {
+        if (locationId == null || !geoIndexService.contains(locationId)) {
+            throw new BadRequestAlertException("Location not found", ENTITY_NAME, "location not found");
         }
+        return locationId;
+    }
+
+    private Page<TripDealDTO> tripDeals(Page<Long> ids, Pageable pageable) {
+        return new PageImpl<>(dealViewService.tripDeals(ids.getContent()), pageable, ids.getTotalElements());
+    }
+
+    private Page<ShipmentDealDTO> shipmentDeals(Page<Long> ids, Pageable pageable) {
+        return new PageImpl<>(dealViewService.shipmentDeals(ids.getContent()), pageable, ids.getTotalElements());
+    }
 
-        return new PageImpl<>(list);
+    @Transactional(readOnly = true)
+    public Page<TripCard> searchTripCards(String from, String to, Double weight, Date date, Pageable pageable) {
+        Page<Long> ids = routeIndexService.searchTrips(from, to, weight, date, pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(new ArrayList<>(), pageable, ids.getTotalElements());
+        }
+        List<TripCard> cards = SearchIndexService.inOrder(
+            ids.getContent(),
+            dealRepository.findTripCardsByDealIdIn(ids.getContent()),
+            TripCard::getDealId
+        );
+        return new PageImpl<>(cards, pageable, ids.getTotalElements());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<DealSummary> searchShipmentSummaries(String from, String to, Double weight, Date date, Pageable pageable) {
+        Page<Long> ids = routeIndexService.searchShipments(from, to, weight, date, pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(new ArrayList<>(), pageable, ids.getTotalElements());
+        }
+        List<DealSummary> summaries = SearchIndexService.inOrder(
+            ids.getContent(),
+            dealRepository.findSummariesByIdIn(ids.getContent()),
+            DealSummary::getId
+        );
+        return new PageImpl<>(summaries, pageable, ids.getTotalElements());
     }
 }
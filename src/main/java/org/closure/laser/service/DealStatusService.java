@@ -32,6 +32,9 @@ public class DealStatusService {
     @Autowired
     private DealRepository dealRepository;
 
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
     public DealStatusService(DealStatusRepository dealStatusRepository) {
         this.dealStatusRepository = dealStatusRepository;
     }
@@ -86,9 +89,6 @@ public class DealStatusService {
     }
 
     public Page<Deal> getAllDelasByStatusId(Long id, Pageable pageable) {
-        if (!dealStatusRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "id not found");
-        }
-        return dealRepository.findByStatus(dealStatusRepository.findById(id).get(), pageable);
+        return dealRepository.findByStatus(referenceDataService.getDealStatus(id), pageable);
     }
 }
@@ -0,0 +1,80 @@
+package org.closure.laser.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.closure.laser.repository.DealRepository;
+import org.closure.laser.repository.ShipmentRepository;
+import org.closure.laser.repository.projection.ShipmentDealRow;
+import org.closure.laser.repository.projection.ShipmentSummary;
+import org.closure.laser.repository.projection.TripDealRow;
+import org.closure.laser.service.dto.ShipmentDealDTO;
+import org.closure.laser.service.dto.ShipmentItemDTO;
+import org.closure.laser.service.dto.TripDealDTO;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Builds the {@link TripDealDTO} and {@link ShipmentDealDTO} views of the search, feed and offers endpoints from flat
+ * rows, instead of the entity graphs of the deals: the views of a list of deals take one query per kind of row,
+ * whatever the length of the list.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DealViewService {
+
+    private final DealRepository dealRepository;
+
+    private final ShipmentRepository shipmentRepository;
+
+    public DealViewService(DealRepository dealRepository, ShipmentRepository shipmentRepository) {
+        this.dealRepository = dealRepository;
+        this.shipmentRepository = shipmentRepository;
+    }
+
+    /**
+     * @param ids the ids of trip deals.
+     * @return the views of the deals that exist, in the order of the ids.
+     */
+    public List<TripDealDTO> tripDeals(Collection<Long> ids) {
+        List<TripDealDTO> views = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return views;
+        }
+        Map<Long, TripDealRow> rows = new HashMap<>();
+        dealRepository.findTripDealRowsByIdIn(ids).forEach(row -> rows.put(row.getDealId(), row));
+        for (Long id : ids) {
+            TripDealRow row = rows.get(id);
+            if (row != null) {
+                views.add(new TripDealDTO(row));
+            }
+        }
+        return views;
+    }
+
+    /**
+     * @param ids the ids of shipment deals.
+     * @return the views of the deals that exist, with their shipments, in the order of the ids.
+     */
+    public List<ShipmentDealDTO> shipmentDeals(Collection<Long> ids) {
+        List<ShipmentDealDTO> views = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return views;
+        }
+        Map<Long, ShipmentDealRow> rows = new HashMap<>();
+        dealRepository.findShipmentDealRowsByIdIn(ids).forEach(row -> rows.put(row.getDealId(), row));
+        Map<Long, List<ShipmentItemDTO>> shipments = new HashMap<>();
+        for (ShipmentSummary shipment : shipmentRepository.findSummariesByDealIdIn(ids)) {
+            shipments.computeIfAbsent(shipment.getDealId(), dealId -> new ArrayList<>()).add(new ShipmentItemDTO(shipment));
+        }
+        for (Long id : ids) {
+            ShipmentDealRow row = rows.get(id);
+            if (row != null) {
+                views.add(new ShipmentDealDTO(row, shipments.getOrDefault(id, List.of())));
+            }
+        }
+        return views;
+    }
+}
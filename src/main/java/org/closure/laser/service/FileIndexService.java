@@ -0,0 +1,149 @@
+package org.closure.laser.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory index of the names of the uploaded files, so that a download does not list its directory.
+ * <p>
+ * A directory is listed once, when it is first looked up. Files written by the application are added with
+ * {@link #added(Path)}. A file that is not found causes the directory to be listed again, at most once every
+ * {@link #RESCAN_INTERVAL}, to pick up files copied there by hand.
+ */
+@Service
+public class FileIndexService {
+
+    static final Duration RESCAN_INTERVAL = Duration.ofSeconds(10);
+
+    private final Logger log = LoggerFactory.getLogger(FileIndexService.class);
+
+    private final Map<Path, DirectoryIndex> directories = new ConcurrentHashMap<>();
+
+    /**
+     * Find a file by name.
+     *
+     * @param directory the directory of the file.
+     * @param fileName the name of the file, without directory.
+     * @return the file, if it exists.
+     */
+    public Optional<Path> find(Path directory, String fileName) {
+        DirectoryIndex index = index(directory);
+        Path file = index.files.get(fileName);
+        if (file == null && index.rescanIfStale()) {
+            file = index.files.get(fileName);
+        }
+        return Optional.ofNullable(file);
+    }
+
+    /**
+     * Find the most recently modified file whose name starts with a prefix.
+     *
+     * @param directory the directory of the file.
+     * @param prefix the start of the name of the file.
+     * @return the file, if one exists.
+     */
+    public Optional<Path> findLatestByPrefix(Path directory, String prefix) {
+        DirectoryIndex index = index(directory);
+        Optional<Path> file = index.latestByPrefix(prefix);
+        if (file.isEmpty() && index.rescanIfStale()) {
+            file = index.latestByPrefix(prefix);
+        }
+        return file;
+    }
+
+    /**
+     * Add a file written by the application to the index of its directory.
+     */
+    public void added(Path file) {
+        Path absolute = file.toAbsolutePath().normalize();
+        index(absolute.getParent()).add(absolute);
+    }
+
+    /**
+     * Remove a file that no longer exists from the index of its directory.
+     */
+    public void removed(Path file) {
+        Path absolute = file.toAbsolutePath().normalize();
+        index(absolute.getParent()).files.remove(absolute.getFileName().toString());
+    }
+
+    private DirectoryIndex index(Path directory) {
+        return directories.computeIfAbsent(directory.toAbsolutePath().normalize(), DirectoryIndex::new);
+    }
+
+    private class DirectoryIndex {
+
+        private final Path directory;
+
+        private final ConcurrentNavigableMap<String, Path> files = new ConcurrentSkipListMap<>();
+
+        private volatile long scannedAt;
+
+        DirectoryIndex(Path directory) {
+            this.directory = directory;
+            scan();
+        }
+
+        Optional<Path> latestByPrefix(String prefix) {
+            return files
+                .subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                .values()
+                .stream()
+                .max(Comparator.comparing(FileIndexService::lastModified));
+        }
+
+        synchronized void add(Path file) {
+            files.put(file.getFileName().toString(), file);
+        }
+
+        synchronized boolean rescanIfStale() {
+            if (System.nanoTime() - scannedAt < RESCAN_INTERVAL.toNanos()) {
+                return false;
+            }
+            scan();
+            return true;
+        }
+
+        private synchronized void scan() {
+            scannedAt = System.nanoTime();
+            if (!Files.isDirectory(directory)) {
+                files.clear();
+                return;
+            }
+            try (Stream<Path> listing = Files.list(directory)) {
+                Map<String, Path> found = new ConcurrentSkipListMap<>();
+                listing.filter(Files::isRegularFile).forEach(file -> found.put(file.getFileName().toString(), file));
+                files.keySet().retainAll(found.keySet());
+                files.putAll(found);
+                log.debug("Indexed {} files in {}", found.size(), directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not list " + directory, e);
+            }
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (NoSuchFileException e) {
+            return FileTime.fromMillis(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
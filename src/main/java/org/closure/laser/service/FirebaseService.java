@@ -3,13 +3,21 @@ package org.closure.laser.service;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
+import com.google.firebase.messaging.BatchResponse;
 import com.google.firebase.messaging.FirebaseMessaging;
 import com.google.firebase.messaging.FirebaseMessagingException;
 import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MessagingErrorCode;
 import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
 import java.io.IOException;
-import javax.annotation.PostConstruct;
-import org.closure.laser.domain.UserApplication;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.closure.laser.domain.PushNotification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,8 +26,22 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
 
+/**
+ * Sends the push notifications with Firebase Cloud Messaging.
+ */
 @Service
-public class FirebaseService {
+public class FirebaseService implements PushNotificationSender {
+
+    /**
+     * The maximum number of messages of one Firebase Cloud Messaging batch request.
+     */
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private static final Set<MessagingErrorCode> RETRYABLE_ERRORS = EnumSet.of(
+        MessagingErrorCode.INTERNAL,
+        MessagingErrorCode.QUOTA_EXCEEDED,
+        MessagingErrorCode.UNAVAILABLE
+    );
 
     @Autowired
     ResourceLoader resourceLoader;
@@ -29,36 +51,62 @@ public class FirebaseService {
 
     Logger logger = LoggerFactory.getLogger(FirebaseService.class);
 
-    @PostConstruct
-    public void initialize() {
-        /** */
-        try {
+    /**
+     * Initialize Firebase on first use, so that the application does not wait for it at startup.
+     */
+    private synchronized FirebaseMessaging messaging() throws IOException {
+        if (FirebaseApp.getApps().isEmpty()) {
             FirebaseOptions options = new FirebaseOptions.Builder()
                 .setCredentials(GoogleCredentials.fromStream(new ClassPathResource(firebaseConfigPath).getInputStream()))
                 .build();
-            if (FirebaseApp.getApps().isEmpty()) {
-                FirebaseApp.initializeApp(options);
-                logger.info("Firebase application has been initialized");
-            }
+            FirebaseApp.initializeApp(options);
+            logger.info("Firebase application has been initialized");
+        }
+        return FirebaseMessaging.getInstance();
+    }
+
+    @Override
+    public List<Result> send(List<PushNotification> notifications) {
+        FirebaseMessaging messaging;
+        try {
+            messaging = messaging();
         } catch (IOException e) {
-            logger.error(e.getMessage());
+            throw new UncheckedIOException("Firebase could not be initialized", e);
+        }
+        List<Result> results = new ArrayList<>(notifications.size());
+        for (int from = 0; from < notifications.size(); from += MAX_BATCH_SIZE) {
+            List<PushNotification> batch = notifications.subList(from, Math.min(from + MAX_BATCH_SIZE, notifications.size()));
+            try {
+                BatchResponse response = messaging.sendAll(batch.stream().map(FirebaseService::message).collect(Collectors.toList()));
+                response.getResponses().forEach(sendResponse -> results.add(result(sendResponse)));
+            } catch (FirebaseMessagingException e) {
+                Result failure = Result.failed(e.getMessage(), isRetryable(e));
+                batch.forEach(notification -> results.add(failure));
+            }
         }
+        return results;
     }
 
-    public String sendNotification(UserApplication user, String token, Long offer_id) {
-        Notification notification = Notification.builder().build();
+    private static Message message(PushNotification notification) {
+        Message.Builder message = Message
+            .builder()
+            .setToken(notification.getToken())
+            .setNotification(Notification.builder().setTitle(notification.getTitle()).setBody(notification.getBody()).build());
+        if (notification.getOfferId() != null) {
+            message.putData("offer_id", notification.getOfferId().toString());
+        }
+        return message.build();
+    }
 
-        notification =
-            Notification.builder().setTitle("Deal request").setBody(user.getUser().getFirstName() + " want to make deal with you").build();
-        Message packet = Message.builder().setToken(token).setNotification(notification).putData("offer_id", offer_id.toString()).build();
-        String s = "Notifaction not sent";
-        try {
-            s = FirebaseMessaging.getInstance().send(packet);
-        } catch (FirebaseMessagingException e) {
-            e.printStackTrace();
+    private static Result result(SendResponse response) {
+        if (response.isSuccessful()) {
+            return Result.sent(response.getMessageId());
         }
+        return Result.failed(response.getException().getMessage(), isRetryable(response.getException()));
+    }
 
-        return s;
+    private static boolean isRetryable(FirebaseMessagingException e) {
+        return e.getMessagingErrorCode() == null || RETRYABLE_ERRORS.contains(e.getMessagingErrorCode());
     }
     /*
      * public void sendMessage(Map<String, String> data, PushNotificationRequest
@@ -0,0 +1,358 @@
+package org.closure.laser.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.closure.laser.repository.LocationRepository;
+import org.closure.laser.repository.projection.LocationPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory spatial index of the locations, to find the airports near a point or near another airport, and the
+ * airports of a city.
+ * <p>
+ * Locations are points on the unit sphere, kept in a k-d tree: the straight-line distance between two points grows
+ * with their great-circle distance, so the tree answers nearest and radius queries without special cases at the poles
+ * or across the date line. Locations without coordinates are only known by their city.
+ * <p>
+ * The index is built from the database once the application is ready, and is built again in the background whenever
+ * the services create, update or delete locations, after the surrounding transaction commits. The rebuilds run one at
+ * a time and read the locations afresh: a rebuild is skipped when a later one has already read its changes, so a
+ * burst of writes costs one or two rebuilds and an older index never replaces a newer one.
+ */
+@Service
+public class GeoIndexService {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final Logger log = LoggerFactory.getLogger(GeoIndexService.class);
+
+    private final LocationRepository locationRepository;
+
+    private final Executor taskExecutor;
+
+    private final TransactionTemplate readTransaction;
+
+    /**
+     * Number of committed changes of the locations, counted when their rebuild is requested.
+     */
+    private final AtomicLong changes = new AtomicLong();
+
+    /**
+     * Changes read by the current index, guarded by {@code this}.
+     */
+    private long built;
+
+    private volatile GeoIndex index = new GeoIndex(List.of());
+
+    public GeoIndexService(
+        LocationRepository locationRepository,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.locationRepository = locationRepository;
+        this.taskExecutor = taskExecutor;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Rebuild the index from the database now, after changes committed by the caller.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuild(changes.incrementAndGet());
+    }
+
+    /**
+     * Rebuild the index in the background once the caller's transaction commits, or right away without one.
+     */
+    public void locationsChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            requestRebuild();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestRebuild();
+                }
+            }
+        );
+    }
+
+    private void requestRebuild() {
+        long change = changes.incrementAndGet();
+        taskExecutor.execute(() -> {
+            try {
+                rebuild(change);
+            } catch (RuntimeException e) {
+                log.error("Geo index could not be rebuilt: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Rebuild the index unless it has already read the given change.
+     */
+    private synchronized void rebuild(long change) {
+        if (change <= built) {
+            return;
+        }
+        // the changes counted so far are committed: the locations read next include them
+        long read = changes.get();
+        long start = System.currentTimeMillis();
+        index = readTransaction.execute(status -> new GeoIndex(locationRepository.findAllPoints()));
+        built = read;
+        log.info("Geo index rebuilt with {} located airports in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Whether the location was known when the index was last built.
+     */
+    public boolean contains(Long locationId) {
+        return index.cities.containsKey(locationId);
+    }
+
+    /**
+     * Find the located airports nearest to a point.
+     *
+     * @return the ids of at most {@code count} locations, nearest first.
+     */
+    public List<Long> nearest(double latitude, double longitude, int count) {
+        return index.nearest(point(latitude, longitude), count);
+    }
+
+    /**
+     * Find the airports within a distance of a location, the location included.
+     *
+     * @param locationId the id of the location at the center.
+     * @param radiusKm the distance in kilometers.
+     * @return the ids of the locations, nearest first. A location without coordinates only finds itself.
+     */
+    public List<Long> within(Long locationId, double radiusKm) {
+        GeoIndex current = index;
+        double[] center = current.points.get(locationId);
+        if (center == null) {
+            return List.of(locationId);
+        }
+        return current.within(center, chord(radiusKm));
+    }
+
+    /**
+     * Find the airports of the city of a location, the location included: the airports with the same city IATA code,
+     * or else in the same city and country.
+     */
+    public Set<Long> sameCity(Long locationId) {
+        GeoIndex current = index;
+        String city = current.cities.get(locationId);
+        if (city == null) {
+            return Set.of(locationId);
+        }
+        return Set.copyOf(current.locationsByCity.get(city));
+    }
+
+    /**
+     * Great-circle distance between two points, in kilometers.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        return arc(squaredDistance(point(latitude1, longitude1), point(latitude2, longitude2)));
+    }
+
+    static double[] point(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        return new double[] { Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat) };
+    }
+
+    /**
+     * Straight-line distance on the unit sphere between two points at {@code km} from each other.
+     */
+    static double chord(double km) {
+        return 2 * Math.sin(Math.min(km / EARTH_RADIUS_KM, Math.PI) / 2);
+    }
+
+    static double arc(double squaredChord) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(squaredChord) / 2));
+    }
+
+    static double squaredDistance(double[] a, double[] b) {
+        double dx = a[0] - b[0];
+        double dy = a[1] - b[1];
+        double dz = a[2] - b[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static String city(LocationPoint location) {
+        if (location.getCityIataCode() != null && !location.getCityIataCode().isBlank()) {
+            return location.getCityIataCode().toUpperCase(Locale.ROOT);
+        }
+        return (
+            String.valueOf(location.getCountry()).trim().toLowerCase(Locale.ROOT) +
+            "/" +
+            String.valueOf(location.getCity()).trim().toLowerCase(Locale.ROOT)
+        );
+    }
+
+    /**
+     * A k-d tree of the located airports, stored in arrays: the median of each range on the axis of its depth is
+     * the root of the range, the lower half is on its left and the upper half on its right.
+     */
+    static final class GeoIndex {
+
+        private final long[] ids;
+
+        private final double[][] tree;
+
+        private final Map<Long, double[]> points = new HashMap<>();
+
+        private final Map<Long, String> cities = new HashMap<>();
+
+        private final Map<String, List<Long>> locationsByCity = new HashMap<>();
+
+        GeoIndex(Collection<LocationPoint> locations) {
+            List<Located> located = new ArrayList<>();
+            for (LocationPoint location : locations) {
+                String city = city(location);
+                cities.put(location.getId(), city);
+                locationsByCity.computeIfAbsent(city, key -> new ArrayList<>()).add(location.getId());
+                if (location.getLatitude() != null && location.getLongitude() != null) {
+                    double[] point = point(location.getLatitude(), location.getLongitude());
+                    points.put(location.getId(), point);
+                    located.add(new Located(location.getId(), point));
+                }
+            }
+            Located[] nodes = located.toArray(new Located[0]);
+            build(nodes, 0, nodes.length, 0);
+            ids = new long[nodes.length];
+            tree = new double[nodes.length][];
+            for (int i = 0; i < nodes.length; i++) {
+                ids[i] = nodes[i].id;
+                tree[i] = nodes[i].point;
+            }
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        List<Long> nearest(double[] target, int count) {
+            if (count <= 0 || ids.length == 0) {
+                return List.of();
+            }
+            // the farthest of the best nodes found so far on top
+            PriorityQueue<Neighbour> best = new PriorityQueue<>(Comparator.comparingDouble((Neighbour n) -> n.distance).reversed());
+            nearest(target, count, 0, ids.length, 0, best);
+            List<Neighbour> sorted = new ArrayList<>(best);
+            sorted.sort(Comparator.comparingDouble(n -> n.distance));
+            return sorted.stream().map(n -> ids[n.node]).collect(Collectors.toList());
+        }
+
+        List<Long> within(double[] center, double radius) {
+            List<Neighbour> found = new ArrayList<>();
+            within(center, radius * radius, radius, 0, ids.length, 0, found);
+            found.sort(Comparator.comparingDouble(n -> n.distance));
+            return found.stream().map(n -> ids[n.node]).collect(Collectors.toList());
+        }
+
+        private void nearest(double[] target, int count, int from, int to, int axis, PriorityQueue<Neighbour> best) {
+            if (from >= to) {
+                return;
+            }
+            int median = (from + to) >>> 1;
+            double distance = squaredDistance(target, tree[median]);
+            if (best.size() < count) {
+                best.add(new Neighbour(median, distance));
+            } else if (distance < best.peek().distance) {
+                best.poll();
+                best.add(new Neighbour(median, distance));
+            }
+            double delta = target[axis] - tree[median][axis];
+            int next = (axis + 1) % 3;
+            if (delta < 0) {
+                nearest(target, count, from, median, next, best);
+                if (best.size() < count || delta * delta < best.peek().distance) {
+                    nearest(target, count, median + 1, to, next, best);
+                }
+            } else {
+                nearest(target, count, median + 1, to, next, best);
+                if (best.size() < count || delta * delta < best.peek().distance) {
+                    nearest(target, count, from, median, next, best);
+                }
+            }
+        }
+
+        private void within(double[] center, double squaredRadius, double radius, int from, int to, int axis, List<Neighbour> found) {
+            if (from >= to) {
+                return;
+            }
+            int median = (from + to) >>> 1;
+            double distance = squaredDistance(center, tree[median]);
+            if (distance <= squaredRadius) {
+                found.add(new Neighbour(median, distance));
+            }
+            double delta = center[axis] - tree[median][axis];
+            int next = (axis + 1) % 3;
+            if (delta - radius <= 0) {
+                within(center, squaredRadius, radius, from, median, next, found);
+            }
+            if (delta + radius >= 0) {
+                within(center, squaredRadius, radius, median + 1, to, next, found);
+            }
+        }
+
+        private static void build(Located[] nodes, int from, int to, int axis) {
+            if (to - from <= 1) {
+                return;
+            }
+            Arrays.sort(nodes, from, to, Comparator.comparingDouble(node -> node.point[axis]));
+            int median = (from + to) >>> 1;
+            build(nodes, from, median, (axis + 1) % 3);
+            build(nodes, median + 1, to, (axis + 1) % 3);
+        }
+    }
+
+    private static final class Located {
+
+        private final long id;
+        private final double[] point;
+
+        Located(long id, double[] point) {
+            this.id = id;
+            this.point = point;
+        }
+    }
+
+    private static final class Neighbour {
+
+        private final int node;
+        private final double distance;
+
+        Neighbour(int node, double distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+    }
+}
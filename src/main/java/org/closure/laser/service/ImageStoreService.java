@@ -0,0 +1,340 @@
+package org.closure.laser.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.closure.laser.domain.ImageBlob;
+import org.closure.laser.repository.ImageBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Service storing the uploaded images by content.
+ * <p>
+ * An image is stored in the {@link BlobStore} under the SHA-256 hash of its content, and named
+ * {@code {hash}.{extension}}: uploading the same image again stores nothing, and an image name always designates
+ * the same content, so it can be cached for good. The {@link ImageBlob} of each image counts the references to it;
+ * images which have not been referenced for {@code application.upload.unreferenced-retention} are deleted.
+ * <p>
+ * The reference count is updated before the blob is stored, and set to -1 before the blob is deleted, so that an
+ * upload never references a blob being deleted. Each update of a reference count is committed on its own, whatever
+ * the transaction of the caller: the counts are shared by all the uploads, they must not stay locked until the end
+ * of a request, nor be rolled back with a failed one.
+ */
+@Service
+public class ImageStoreService {
+
+    private static final Pattern IMAGE_NAME = Pattern.compile("([0-9a-f]{64})(\\.[0-9a-z]{1,10})?");
+
+    private static final int ADD_REFERENCE_ATTEMPTS = 5;
+
+    private static final int DELETE_BATCH_SIZE = 100;
+
+    private final Logger log = LoggerFactory.getLogger(ImageStoreService.class);
+
+    private final ImageBlobRepository imageBlobRepository;
+
+    private final BlobStore blobStore;
+
+    private final ThumbnailService thumbnailService;
+
+    private final Duration unreferencedRetention;
+
+    private final TransactionTemplate countTransaction;
+
+    public ImageStoreService(
+        ImageBlobRepository imageBlobRepository,
+        BlobStore blobStore,
+        ThumbnailService thumbnailService,
+        PlatformTransactionManager transactionManager,
+        @Value("${application.upload.unreferenced-retention:PT1H}") Duration unreferencedRetention
+    ) {
+        this.imageBlobRepository = imageBlobRepository;
+        this.blobStore = blobStore;
+        this.thumbnailService = thumbnailService;
+        this.unreferencedRetention = unreferencedRetention;
+        this.countTransaction = new TransactionTemplate(transactionManager);
+        this.countTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Store an uploaded image, and add a reference to it.
+     *
+     * @param file the image.
+     * @return the name of the image.
+     */
+    public String store(MultipartFile file) throws IOException {
+        Path temporary = blobStore.createTempFile();
+        try {
+            Files.delete(temporary);
+            file.transferTo(temporary.toFile());
+            String hash = sha256(temporary);
+            String name = hash + extension(file.getOriginalFilename());
+            MediaType contentType = MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM);
+            boolean created = addReference(hash, Files.size(temporary), contentType);
+            try {
+                blobStore.put(hash, temporary);
+            } catch (IOException | RuntimeException e) {
+                release(name);
+                throw e;
+            }
+            if (created) {
+                try {
+                    thumbnailService.createThumbnailAsync(hash);
+                } catch (TaskRejectedException e) {
+                    log.warn("No thumbnail for {}, too many images waiting for theirs", name);
+                }
+            }
+            log.debug("Stored image {} ({})", name, created ? "new" : "duplicate");
+            return name;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Remove a reference to an image.
+     *
+     * @param name the name of the image; names of files which are not stored by content are ignored.
+     */
+    public void release(String name) {
+        Matcher matcher = IMAGE_NAME.matcher(name);
+        if (!matcher.matches()) {
+            return;
+        }
+        if (countTransaction.execute(status -> imageBlobRepository.removeReference(matcher.group(1), Instant.now())) == 0) {
+            log.warn("Image {} released more times than referenced", name);
+        }
+    }
+
+    /**
+     * @return whether the file is stored by content, with a name from {@link #store}.
+     */
+    public static boolean isStoredImage(String name) {
+        return IMAGE_NAME.matcher(name).matches();
+    }
+
+    /**
+     * Find an image.
+     *
+     * @param name the name of the image.
+     * @return the image, if it is stored.
+     */
+    public Optional<StoredImage> find(String name) throws IOException {
+        Matcher matcher = IMAGE_NAME.matcher(name);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return find(matcher.group(1), MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM));
+    }
+
+    /**
+     * Find the thumbnail of an image.
+     *
+     * @param name the name of the image.
+     * @return the thumbnail, if it has been created.
+     */
+    public Optional<StoredImage> findThumbnail(String name) throws IOException {
+        Matcher matcher = IMAGE_NAME.matcher(name);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return find(ThumbnailService.thumbnailKey(matcher.group(1)), MediaType.IMAGE_JPEG);
+    }
+
+    /**
+     * Delete the images which have not been referenced for {@code application.upload.unreferenced-retention}, with
+     * their thumbnails.
+     */
+    @Scheduled(fixedDelayString = "${application.upload.delete-unreferenced-interval:PT1H}")
+    public void deleteUnreferenced() {
+        Instant before = Instant.now().minus(unreferencedRetention);
+        List<ImageBlob> unreferenced;
+        do {
+            unreferenced = imageBlobRepository.findByReferenceCountAndUpdatedAtBefore(0, before, PageRequest.of(0, DELETE_BATCH_SIZE));
+            for (ImageBlob blob : unreferenced) {
+                if (countTransaction.execute(status -> imageBlobRepository.markDeleted(blob.getHash(), before)) == 0) {
+                    continue;
+                }
+                try {
+                    blobStore.delete(ThumbnailService.thumbnailKey(blob.getHash()));
+                    blobStore.delete(blob.getHash());
+                } catch (IOException e) {
+                    log.warn("Could not delete image {}: {}", blob.getHash(), e.getMessage());
+                }
+                countTransaction.execute(status -> imageBlobRepository.deleteMarked(blob.getHash()));
+                log.debug("Deleted unreferenced image {}", blob.getHash());
+            }
+        } while (unreferenced.size() == DELETE_BATCH_SIZE);
+    }
+
+    /**
+     * @return whether the image is new.
+     */
+    private boolean addReference(String hash, long size, MediaType contentType) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return countTransaction.execute(status -> {
+                    Instant now = Instant.now();
+                    if (imageBlobRepository.addReference(hash, now) == 1) {
+                        return false;
+                    }
+                    imageBlobRepository.saveAndFlush(
+                        new ImageBlob()
+                            .hash(hash)
+                            .size(size)
+                            .contentType(contentType.toString())
+                            .referenceCount(1)
+                            .createdAt(now)
+                            .updatedAt(now)
+                    );
+                    return true;
+                });
+            } catch (DataIntegrityViolationException e) {
+                // stored by a concurrent upload, or being deleted: try again
+                if (attempt == ADD_REFERENCE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Image {} stored concurrently, adding a reference again", hash);
+                sleep(Duration.ofMillis(10L * attempt));
+            }
+        }
+    }
+
+    private Optional<StoredImage> find(String key, MediaType contentType) throws IOException {
+        OptionalLong size = blobStore.size(key);
+        if (size.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new StoredImage(key, size.getAsLong(), contentType, blobStore.localFile(key).orElse(null), blobStore, true));
+    }
+
+    private static String extension(String originalFilename) {
+        String extension = StringUtils.getFilenameExtension(originalFilename);
+        if (extension == null || !extension.matches("[0-9A-Za-z]{1,10}")) {
+            return "";
+        }
+        return "." + extension.toLowerCase(Locale.ROOT);
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hash.toString();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * An image of the {@link BlobStore}, or a file uploaded before the images were stored by content.
+     */
+    public static final class StoredImage implements InputStreamSource {
+
+        private final String key;
+        private final long size;
+        private final MediaType contentType;
+        private final Path file;
+        private final BlobStore blobStore;
+        private final boolean immutable;
+
+        private StoredImage(String key, long size, MediaType contentType, Path file, BlobStore blobStore, boolean immutable) {
+            this.key = key;
+            this.size = size;
+            this.contentType = contentType;
+            this.file = file;
+            this.blobStore = blobStore;
+            this.immutable = immutable;
+        }
+
+        /**
+         * @param file a file uploaded before the images were stored by content.
+         */
+        public static StoredImage ofFile(Path file) throws IOException {
+            String name = file.getFileName().toString();
+            MediaType contentType = MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM);
+            return new StoredImage(name, Files.size(file), contentType, file, null, false);
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public MediaType getContentType() {
+            return contentType;
+        }
+
+        /**
+         * @return the file of the image, if it is on the local disk.
+         */
+        public Optional<Path> getFile() {
+            return Optional.ofNullable(file);
+        }
+
+        /**
+         * @return whether the content of the image can never change, for images stored by content.
+         */
+        public boolean isImmutable() {
+            return immutable;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return file != null ? Files.newInputStream(file) : blobStore.open(key);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.closure.laser.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Stores the blobs on the local disk, in a two-level tree of directories named after the first characters of the
+ * keys: {@code ab/cd/abcdef...}. With hexadecimal keys no directory holds more than 256 entries, except the last
+ * level, which holds 1/65536th of the blobs.
+ */
+public class LocalBlobStore implements BlobStore {
+
+    private static final String TEMPORARY_DIRECTORY = "tmp";
+
+    private final Path root;
+
+    public LocalBlobStore(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public Path createTempFile() throws IOException {
+        Path directory = Files.createDirectories(root.resolve(TEMPORARY_DIRECTORY));
+        return Files.createTempFile(directory, "upload-", ".tmp");
+    }
+
+    @Override
+    public void put(String key, Path file) throws IOException {
+        Path target = path(key);
+        if (Files.exists(target)) {
+            Files.delete(file);
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // from another file system: the blob is only visible once complete
+            Path copy = Files.createTempFile(target.getParent(), key, ".tmp");
+            Files.move(file, copy, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(copy, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    @Override
+    public OptionalLong size(String key) throws IOException {
+        try {
+            return OptionalLong.of(Files.size(path(key)));
+        } catch (NoSuchFileException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    @Override
+    public Optional<Path> localFile(String key) {
+        return Optional.of(path(key));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(path(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(path(key));
+    }
+
+    Path path(String key) {
+        if (key.length() < 4 || !key.matches("[0-9a-z-]+")) {
+            throw new IllegalArgumentException("Invalid key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+}
@@ -0,0 +1,387 @@
+package org.closure.laser.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import javax.persistence.EntityManagerFactory;
+import org.apache.commons.lang3.StringUtils;
+import org.closure.laser.config.ApplicationProperties;
+import org.closure.laser.domain.Location;
+import org.closure.laser.domain.LocationImport;
+import org.closure.laser.domain.enumeration.LocationImportStatus;
+import org.closure.laser.repository.LocationImportRepository;
+import org.closure.laser.repository.LocationRepository;
+import org.closure.laser.repository.projection.LocationKey;
+import org.closure.laser.service.dto.LocationModel;
+import org.closure.laser.web.rest.errors.BadRequestAlertException;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Imports the airports of the flight API into the locations, in the background.
+ * <p>
+ * The JSON array of the API is parsed as it is downloaded, one airport at a time, and compared with the airport
+ * names already known: only the new airports are inserted, and the locations without coordinates are completed. Each
+ * batch of {@code application.airports.batch-size} airports is written with JDBC batches, in one transaction that
+ * also records the number of airports read so far. The new locations take their ids from the pooled generator of
+ * {@link Location}, like the ones saved by Hibernate. A failed import can then be resumed: it downloads the list again
+ * and skips the airports already read.
+ * <p>
+ * One import runs at a time.
+ */
+@Service
+public class LocationImportService {
+
+    private static final String ENTITY_NAME = "locationImport";
+
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    private static final String INSERT =
+        "INSERT INTO location (id, country, city, airport, created_at, iata_code, city_iata_code, latitude, longitude, timezone) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE =
+        "UPDATE location SET iata_code = ?, city_iata_code = ?, latitude = ?, longitude = ?, timezone = ? WHERE id = ?";
+
+    private static final String PROGRESS =
+        "UPDATE location_import SET rows_read = ?, rows_inserted = ?, rows_updated = ?, updated_at = ? WHERE id = ?";
+
+    private final Logger log = LoggerFactory.getLogger(LocationImportService.class);
+
+    private final LocationImportRepository locationImportRepository;
+
+    private final LocationRepository locationRepository;
+
+    private final SearchIndexService searchIndexService;
+
+    private final GeoIndexService geoIndexService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper;
+
+    private final RestTemplate restTemplate;
+
+    private final Executor taskExecutor;
+
+    private final ApplicationProperties.Airports airports;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LocationImportService(
+        LocationImportRepository locationImportRepository,
+        LocationRepository locationRepository,
+        SearchIndexService searchIndexService,
+        GeoIndexService geoIndexService,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        EntityManagerFactory entityManagerFactory,
+        ObjectMapper objectMapper,
+        RestTemplateBuilder restTemplateBuilder,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        ApplicationProperties applicationProperties
+    ) {
+        this.locationImportRepository = locationImportRepository;
+        this.locationRepository = locationRepository;
+        this.searchIndexService = searchIndexService;
+        this.geoIndexService = geoIndexService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.objectMapper = objectMapper;
+        this.restTemplate = restTemplateBuilder.build();
+        this.taskExecutor = taskExecutor;
+        this.airports = applicationProperties.getAirports();
+    }
+
+    /**
+     * Mark the imports left running by a stopped instance as failed, so that they can be resumed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedImports() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (LocationImport job : locationImportRepository.findAllByStatus(LocationImportStatus.RUNNING)) {
+                log.warn("Airport import {} was interrupted after {} airports", job.getId(), job.getRowsRead());
+                job.status(LocationImportStatus.FAILED).finishedAt(Instant.now()).lastError("Interrupted by a restart");
+            }
+        });
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * @return whether the airports URL of the flight API is set.
+     */
+    public boolean isConfigured() {
+        return StringUtils.isNotBlank(airports.getUrl());
+    }
+
+    /**
+     * The last import, running or not.
+     */
+    public Optional<LocationImport> findLast() {
+        return locationImportRepository.findFirstByOrderByIdDesc();
+    }
+
+    /**
+     * Start a new import in the background.
+     *
+     * @return the import, running.
+     */
+    public LocationImport start() {
+        return launch(() -> {
+            Instant now = Instant.now();
+            return locationImportRepository.save(
+                new LocationImport()
+                    .status(LocationImportStatus.RUNNING)
+                    .rowsRead(0)
+                    .rowsInserted(0)
+                    .rowsUpdated(0)
+                    .startedAt(now)
+                    .updatedAt(now)
+            );
+        });
+    }
+
+    /**
+     * Resume the last import, when it has failed, after the last airport it committed.
+     *
+     * @return the import, running.
+     */
+    public LocationImport resume() {
+        return launch(() ->
+            locationImportRepository
+                .findFirstByOrderByIdDesc()
+                .filter(job -> job.getStatus() == LocationImportStatus.FAILED)
+                .orElseThrow(() -> new BadRequestAlertException("The last airport import has not failed", ENTITY_NAME, "not failed"))
+                .status(LocationImportStatus.RUNNING)
+                .updatedAt(Instant.now())
+                .finishedAt(null)
+                .lastError(null)
+        );
+    }
+
+    private LocationImport launch(Supplier<LocationImport> claim) {
+        if (!isConfigured()) {
+            throw new BadRequestAlertException("The airports URL of the flight API is not set", ENTITY_NAME, "not configured");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestAlertException("An airport import is already running", ENTITY_NAME, "running");
+        }
+        try {
+            LocationImport job = transactionTemplate.execute(status -> claim.get());
+            taskExecutor.execute(() -> run(job));
+            return job;
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    private void run(LocationImport job) {
+        long start = System.currentTimeMillis();
+        try {
+            Known known = transactionTemplate.execute(status -> new Known(locationRepository.findAllKeys()));
+            restTemplate.execute(
+                airports.getUrl(),
+                HttpMethod.GET,
+                null,
+                response -> {
+                    read(job, response.getBody(), known);
+                    return null;
+                }
+            );
+            finish(job, LocationImportStatus.COMPLETED, null);
+            log.info(
+                "Airport import {} completed in {} ms: {} airports read, {} inserted, {} updated",
+                job.getId(),
+                System.currentTimeMillis() - start,
+                job.getRowsRead(),
+                job.getRowsInserted(),
+                job.getRowsUpdated()
+            );
+        } catch (RuntimeException e) {
+            log.warn("Airport import {} failed after {} airports: {}", job.getId(), job.getRowsRead(), e.getMessage());
+            finish(job, LocationImportStatus.FAILED, e.toString());
+        } finally {
+            try {
+                geoIndexService.rebuild();
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+    private void read(LocationImport job, InputStream body, Known known) throws IOException {
+        int skip = job.getRowsRead();
+        int read = 0;
+        List<LocationModel> batch = new ArrayList<>(airports.getBatchSize());
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of airports");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                LocationModel model = objectMapper.readValue(parser, LocationModel.class);
+                if (++read <= skip) {
+                    continue;
+                }
+                batch.add(model);
+                if (batch.size() == airports.getBatchSize()) {
+                    save(job, batch, read, known);
+                    batch.clear();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Expected an airport");
+            }
+        }
+        if (read > job.getRowsRead()) {
+            save(job, batch, read, known);
+        }
+    }
+
+    /**
+     * Write a batch of airports, and the number of airports read, in one transaction.
+     */
+    private void save(LocationImport job, List<LocationModel> batch, int read, Known known) {
+        List<Location> inserts = new ArrayList<>();
+        List<Location> updates = new ArrayList<>();
+        for (LocationModel model : batch) {
+            String airport = model.getAirport_name();
+            if (StringUtils.isBlank(airport)) {
+                continue;
+            }
+            if (known.airports.add(airport)) {
+                Location location = new Location();
+                LocationService.copyAirport(model, location);
+                inserts.add(location);
+            } else if (known.unlocated.containsKey(airport)) {
+                Location location = new Location().id(known.unlocated.get(airport));
+                LocationService.copyAirport(model, location);
+                if (location.getLatitude() != null) {
+                    known.unlocated.remove(airport);
+                    updates.add(location);
+                }
+            }
+        }
+
+        generateIds(inserts);
+        int inserted = job.getRowsInserted() + inserts.size();
+        int updated = job.getRowsUpdated() + updates.size();
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT, inserts, airports.getBatchSize(), LocationImportService::setInsert);
+            jdbcTemplate.batchUpdate(UPDATE, updates, airports.getBatchSize(), LocationImportService::setUpdate);
+            inserts.forEach(location -> searchIndexService.changed(SearchIndexService.Index.LOCATIONS, location.getId()));
+            updates.forEach(location -> searchIndexService.changed(SearchIndexService.Index.LOCATIONS, location.getId()));
+            jdbcTemplate.update(PROGRESS, read, inserted, updated, Timestamp.from(now), job.getId());
+        });
+        job.rowsRead(read).rowsInserted(inserted).rowsUpdated(updated).updatedAt(now);
+        // the updates bypassed the second-level cache
+        updates.forEach(location -> entityManagerFactory.getCache().evict(Location.class, location.getId()));
+    }
+
+    /**
+     * Give the new locations ids from the generator of {@link Location}, which reserves them by blocks in its own
+     * transaction.
+     */
+    private void generateIds(List<Location> inserts) {
+        if (inserts.isEmpty()) {
+            return;
+        }
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        IdentifierGenerator generator = sessionFactory.getMetamodel().entityPersister(Location.class).getIdentifierGenerator();
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            for (Location location : inserts) {
+                location.setId((Long) generator.generate((SharedSessionContractImplementor) session, location));
+            }
+        }
+    }
+
+    private void finish(LocationImport job, LocationImportStatus status, String error) {
+        job.status(status).finishedAt(Instant.now()).lastError(StringUtils.abbreviate(error, MAX_ERROR_LENGTH));
+        try {
+            transactionTemplate.executeWithoutResult(transaction -> locationImportRepository.save(job));
+        } catch (RuntimeException e) {
+            log.error("Could not record the end of airport import {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private static void setInsert(PreparedStatement statement, Location location) throws SQLException {
+        statement.setLong(1, location.getId());
+        statement.setString(2, location.getCountry());
+        statement.setString(3, location.getCity());
+        statement.setString(4, location.getAirport());
+        statement.setTimestamp(5, new Timestamp(location.getCreatedAt().getTime()));
+        setCodes(statement, 6, location);
+    }
+
+    private static void setUpdate(PreparedStatement statement, Location location) throws SQLException {
+        setCodes(statement, 1, location);
+        statement.setLong(6, location.getId());
+    }
+
+    private static void setCodes(PreparedStatement statement, int first, Location location) throws SQLException {
+        statement.setString(first, location.getIataCode());
+        statement.setString(first + 1, location.getCityIataCode());
+        statement.setObject(first + 2, location.getLatitude(), Types.DOUBLE);
+        statement.setObject(first + 3, location.getLongitude(), Types.DOUBLE);
+        statement.setString(first + 4, location.getTimezone());
+    }
+
+    /**
+     * The airport names already in the locations, and the ids of the locations without coordinates.
+     */
+    private static final class Known {
+
+        private final Set<String> airports = new HashSet<>();
+
+        private final Map<String, Long> unlocated = new HashMap<>();
+
+        Known(List<LocationKey> keys) {
+            for (LocationKey key : keys) {
+                if (key.getAirport() != null && airports.add(key.getAirport()) && key.getLatitude() == null) {
+                    unlocated.put(key.getAirport(), key.getId());
+                }
+            }
+        }
+    }
+}
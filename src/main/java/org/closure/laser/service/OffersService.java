@@ -1,16 +1,18 @@
 package org.closure.laser.service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.closure.laser.domain.Deal;
 import org.closure.laser.domain.Offers;
-import org.closure.laser.domain.UserApplication;
 import org.closure.laser.repository.DealRepository;
 import org.closure.laser.repository.OffersRepository;
-import org.closure.laser.repository.UserApplicationRepository;
-import org.closure.laser.repository.UserRepository;
-import org.closure.laser.security.jwt.TokenProvider;
 import org.closure.laser.service.dto.OffersDTO;
 import org.closure.laser.service.dto.ShipmentDealDTO;
 import org.closure.laser.service.dto.TripDealDTO;
@@ -35,19 +37,19 @@ public class OffersService {
     private final OffersRepository offersRepository;
 
     @Autowired
-    private FirebaseService firebaseService;
+    private PushNotificationService pushNotificationService;
 
     @Autowired
-    private DealRepository dealRepository;
+    private CapacityReservationService capacityReservationService;
 
     @Autowired
-    private UserRepository userRepository;
+    private DealRepository dealRepository;
 
     @Autowired
-    private TokenProvider tokenProvider;
+    private CurrentUserService currentUserService;
 
     @Autowired
-    private UserApplicationRepository userApplicationRepository;
+    private DealViewService dealViewService;
 
     public OffersService(OffersRepository offersRepository) {
         this.offersRepository = offersRepository;
@@ -75,6 +77,7 @@ public class OffersService {
         Offers offer = offersRepository
             .findById(offers.getId())
             .map(existingOffers -> {
+                releaseIfNotPendingAnyMore(existingOffers.getId(), existingOffers.getStatus(), offers.getStatus());
                 if (offers.getShipmentDealId() != null) {
                     existingOffers.setShipmentDealId(offers.getShipmentDealId());
                 }
@@ -90,17 +93,7 @@ public class OffersService {
             .map(offersRepository::save)
             .get();
 
-        Deal shDeal = dealRepository.findById(offer.getShipmentDealId()).get();
-        Deal trDeal = dealRepository.findById(offer.getTripDealId()).get();
-
-        OffersDTO dto = new OffersDTO();
-        dto.setId(offer.getId());
-        dto.setStatus(offer.getStatus());
-        dto.setSenderId(offer.getSenderId());
-        dto.setTripDealDTO(new TripDealDTO(trDeal, trDeal.getTrip(), trDeal.getDeliver()));
-        dto.setShipmentDealDTO(new ShipmentDealDTO(shDeal, List.copyOf(shDeal.getShipments()), shDeal.getOwner()));
-
-        return dto;
+        return toDTO(offer);
     }
 
     /**
@@ -121,24 +114,22 @@ public class OffersService {
      * @return the entity.
      */
     @Transactional(readOnly = true)
-    public OffersDTO findOne(Long id, String token) {
+    public OffersDTO findOne(Long id) {
         log.debug("Request to get Offers : {}", id);
 
         Offers offer = offersRepository.findById(id).get();
 
-        Deal shDeal = dealRepository.findById(offer.getShipmentDealId()).get();
-        Deal trDeal = dealRepository.findById(offer.getTripDealId()).get();
-
-        OffersDTO dto = new OffersDTO();
-        dto.setId(offer.getId());
-
-        dto.setStatus(offer.getStatus());
-        dto.setSenderId(offer.getSenderId());
-
-        dto.setTripDealDTO(new TripDealDTO(trDeal, trDeal.getTrip(), trDeal.getDeliver()));
-        dto.setShipmentDealDTO(new ShipmentDealDTO(shDeal, List.copyOf(shDeal.getShipments()), shDeal.getOwner()));
+        return toDTO(offer);
+    }
 
-        return dto;
+    private OffersDTO toDTO(Offers offer) {
+        return new OffersDTO(
+            offer.getId(),
+            dealViewService.tripDeals(List.of(offer.getTripDealId())).get(0),
+            dealViewService.shipmentDeals(List.of(offer.getShipmentDealId())).get(0),
+            offer.getStatus(),
+            offer.getSenderId()
+        );
     }
 
     /**
@@ -149,9 +140,23 @@ public class OffersService {
      */
     public Offers update(Offers offers) {
         log.debug("Request to save Offers : {}", offers);
+        offersRepository
+            .findById(offers.getId())
+            .map(Offers::getStatus)
+            .ifPresent(status -> releaseIfNotPendingAnyMore(offers.getId(), status, offers.getStatus()));
         return offersRepository.save(offers);
     }
 
+    /**
+     * Release the weight held by a pending offer which is rejected or closed. An accepted offer keeps it until the
+     * deal takes it, see {@link CapacityReservationService#take}.
+     */
+    private void releaseIfNotPendingAnyMore(Long id, String status, String newStatus) {
+        if ("Pending".equals(status) && newStatus != null && !"Pending".equals(newStatus) && !"Accepted".equals(newStatus)) {
+            capacityReservationService.release(id);
+        }
+    }
+
     /* */
 
     /**
@@ -161,10 +166,11 @@ public class OffersService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Offers : {}", id);
+        capacityReservationService.release(id);
         offersRepository.deleteById(id);
     }
 
-    public ResponseEntity<Offers> addOffers(String token, Long shD_id, Long trD_id) {
+    public ResponseEntity<Offers> addOffers(Long shD_id, Long trD_id) {
         if (!dealRepository.existsById(shD_id)) {
             throw new BadRequestAlertException("Entity not found", "Shipment Deal", "notfound");
         }
@@ -177,16 +183,7 @@ public class OffersService {
         if (dealRepository.findById(shD_id).get().getFullWeight() > dealRepository.findById(trD_id).get().getAvailableWeight()) {
             throw new BadRequestAlertException("Weight of shipments greater than available weight of trip", "Shipment Deal", "Weighterror");
         }
-        UserApplication userApplication = new UserApplication();
-        if (
-            userRepository.findOneByLogin(tokenProvider.getLoginFromToken(token)).isPresent() &&
-            userApplicationRepository.findByUser(userRepository.findOneByLogin(tokenProvider.getLoginFromToken(token)).get()).isPresent()
-        ) {
-            userApplication =
-                userApplicationRepository.findByUser(userRepository.findOneByLogin(tokenProvider.getLoginFromToken(token)).get()).get();
-        } else {
-            throw new BadRequestAlertException("Entity not found", "User Application", "notfound");
-        }
+        Long userApplicationId = currentUserService.getUserApplicationId();
 
         Deal shDeal = dealRepository.findById(shD_id).get();
         Deal trDeal = dealRepository.findById(trD_id).get();
@@ -194,14 +191,23 @@ public class OffersService {
         offer.setShipmentDealId(shD_id);
         offer.setTripDealId(trD_id);
         offer.setStatus("Pending");
-        offer.setSenderId(userApplication.getId());
+        offer.setSenderId(userApplicationId);
         Offers savedOffer = offersRepository.save(offer);
-        if (shDeal.getOwner().getId() == userApplication.getId()) {
+        capacityReservationService.reserve(trD_id, savedOffer.getId(), shDeal.getFullWeight());
+        if (userApplicationId.equals(shDeal.getOwner().getId())) {
             /// send to delevier
-            firebaseService.sendNotification(shDeal.getOwner(), trDeal.getDeliver().getConnection().getFcmToken(), savedOffer.getId());
+            pushNotificationService.enqueueDealRequest(
+                shDeal.getOwner(),
+                trDeal.getDeliver().getConnection().getFcmToken(),
+                savedOffer.getId()
+            );
         } else {
             /// send to owner
-            firebaseService.sendNotification(trDeal.getDeliver(), shDeal.getOwner().getConnection().getFcmToken(), savedOffer.getId());
+            pushNotificationService.enqueueDealRequest(
+                trDeal.getDeliver(),
+                shDeal.getOwner().getConnection().getFcmToken(),
+                savedOffer.getId()
+            );
         }
 
         return ResponseEntity.ok().body(savedOffer);
@@ -210,67 +216,62 @@ public class OffersService {
     public String send() {
         return "test";
         // return firebaseService.sendNotification(
-        // "dNhBu5xQTPWfWLL0cyqbQE:APA91bG0r2EL__zwt-9jBfHruuwe_kMDqPP3UCexbWXINlyhsmJdJIUfnn2heOc74WiSGA-dDraqbiv3quJ2nO3_rtkWJyOLMvnVIJ6Q-AVtbu3zENWw_VyyLHYwQNqGjuT7wRezDr9f");
+        // "dNhBu5xQTPWfWLL0cyqbQE:APA91bG0r2EL__zwt-9jBfHruuwe_kMDqPP3UCexbWXINlyhsmJdJIUfnn2heOc74WiSGA-" +
+        // "dDraqbiv3quJ2nO3_rtkWJyOLMvnVIJ6Q-AVtbu3zENWw_VyyLHYwQNqGjuT7wRezDr9f");
     }
 
-    public List<OffersDTO> getAllForUser(String token, Pageable pageable) {
-        UserApplication user = userApplicationRepository
-            .findByUser(userRepository.findOneByLogin(tokenProvider.getLoginFromToken(token)).get())
-            .get();
+    /**
+     * Get the offers of the user's trip and shipment deals, one per deal.
+     * <p>
+     * Loads the ids of the user's deals, then all of their offers with a single {@code IN} query, then the views of
+     * the deals of these offers with a query per kind of row, so the number of queries does not depend on the number
+     * of deals.
+     *
+     * @param pageable the pagination information applied to the trip and shipment deals.
+     * @return the list of offers.
+     */
+    @Transactional(readOnly = true)
+    public List<OffersDTO> getAllForUser(Pageable pageable) {
+        Long userApplicationId = currentUserService.getUserApplicationId();
 
-        List<OffersDTO> offersDTOs = new ArrayList<>();
+        List<Long> tripDealIds = dealRepository.findIdsByDeliverId(userApplicationId, pageable);
+        List<Long> shipmentDealIds = dealRepository.findIdsByOwnerId(userApplicationId, pageable);
 
-        List<Deal> tripDeals = dealRepository.findByDeliver(user, pageable);
-        for (Deal tripDeal : tripDeals) {
-            if (offersRepository.findByTripDealId(tripDeal.getId()).size() > 0) {
-                offersDTOs.add(
-                    new OffersDTO(
-                        offersRepository.findByTripDealId(tripDeal.getId()).get(0).getId(),
-                        new TripDealDTO(tripDeal, tripDeal.getTrip(), tripDeal.getDeliver()),
-                        new ShipmentDealDTO(
-                            dealRepository.findById(offersRepository.findByTripDealId(tripDeal.getId()).get(0).getShipmentDealId()).get(),
-                            List.copyOf(
-                                dealRepository
-                                    .findById(offersRepository.findByTripDealId(tripDeal.getId()).get(0).getShipmentDealId())
-                                    .get()
-                                    .getShipments()
-                            ),
-                            dealRepository
-                                .findById(offersRepository.findByTripDealId(tripDeal.getId()).get(0).getShipmentDealId())
-                                .get()
-                                .getOwner()
-                        ),
-                        offersRepository.findByTripDealId(tripDeal.getId()).get(0).getStatus(),
-                        offersRepository.findByTripDealId(tripDeal.getId()).get(0).getSenderId()
-                    )
-                );
-            }
+        Set<Long> dealIds = new HashSet<>(tripDealIds);
+        dealIds.addAll(shipmentDealIds);
+        if (dealIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // keep the first offer of each deal, as the per-deal lookups did
+        Map<Long, Offers> offerByTripDeal = new HashMap<>();
+        Map<Long, Offers> offerByShipmentDeal = new HashMap<>();
+        for (Offers offer : offersRepository.findAllByDealIds(dealIds)) {
+            offerByTripDeal.putIfAbsent(offer.getTripDealId(), offer);
+            offerByShipmentDeal.putIfAbsent(offer.getShipmentDealId(), offer);
         }
 
-        List<Deal> shipmentDeals = dealRepository.findByOwner(user, pageable);
-        for (Deal shipmentDeal : shipmentDeals) {
-            if (offersRepository.findByShipmentDealId(shipmentDeal.getId()).size() > 0) {
-                offersDTOs.add(
-                    new OffersDTO(
-                        offersRepository.findByShipmentDealId(shipmentDeal.getId()).get(0).getId(),
-                        new TripDealDTO(
-                            dealRepository
-                                .findById(offersRepository.findByShipmentDealId(shipmentDeal.getId()).get(0).getTripDealId())
-                                .get(),
-                            dealRepository
-                                .findById(offersRepository.findByShipmentDealId(shipmentDeal.getId()).get(0).getTripDealId())
-                                .get()
-                                .getTrip(),
-                            dealRepository
-                                .findById(offersRepository.findByShipmentDealId(shipmentDeal.getId()).get(0).getTripDealId())
-                                .get()
-                                .getDeliver()
-                        ),
-                        new ShipmentDealDTO(shipmentDeal, List.copyOf(shipmentDeal.getShipments()), shipmentDeal.getOwner()),
-                        offersRepository.findByShipmentDealId(shipmentDeal.getId()).get(0).getStatus(),
-                        offersRepository.findByShipmentDealId(shipmentDeal.getId()).get(0).getSenderId()
-                    )
-                );
+        // the offers of the trip deals first, then those of the shipment deals
+        List<Offers> offers = new ArrayList<>();
+        tripDealIds.stream().map(offerByTripDeal::get).filter(Objects::nonNull).forEach(offers::add);
+        shipmentDealIds.stream().map(offerByShipmentDeal::get).filter(Objects::nonNull).forEach(offers::add);
+        if (offers.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, TripDealDTO> tripDeals = new HashMap<>();
+        Set<Long> offerTripDealIds = offers.stream().map(Offers::getTripDealId).collect(Collectors.toSet());
+        dealViewService.tripDeals(offerTripDealIds).forEach(deal -> tripDeals.put(deal.getDealId(), deal));
+        Map<Long, ShipmentDealDTO> shipmentDeals = new HashMap<>();
+        Set<Long> offerShipmentDealIds = offers.stream().map(Offers::getShipmentDealId).collect(Collectors.toSet());
+        dealViewService.shipmentDeals(offerShipmentDealIds).forEach(deal -> shipmentDeals.put(deal.getDealId(), deal));
+
+        List<OffersDTO> offersDTOs = new ArrayList<>();
+        for (Offers offer : offers) {
+            TripDealDTO tripDeal = tripDeals.get(offer.getTripDealId());
+            ShipmentDealDTO shipmentDeal = shipmentDeals.get(offer.getShipmentDealId());
+            if (tripDeal != null && shipmentDeal != null) {
+                offersDTOs.add(new OffersDTO(offer.getId(), tripDeal, shipmentDeal, offer.getStatus(), offer.getSenderId()));
             }
         }
 
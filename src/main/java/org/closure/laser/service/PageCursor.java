@@ -0,0 +1,67 @@
+package org.closure.laser.service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Date;
+import org.closure.laser.web.rest.errors.BadRequestAlertException;
+
+/**
+ * Position in a list sorted by creation date then id, both descending: the next page starts after it.
+ * <p>
+ * Cursors are sent to the clients as opaque tokens. Rows without creation date come after all the others, sorted
+ * by id.
+ */
+public final class PageCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final Instant createdAt;
+
+    private final long id;
+
+    public PageCursor(Date createdAt, long id) {
+        this.createdAt = createdAt == null ? null : createdAt.toInstant();
+        this.id = id;
+    }
+
+    /**
+     * @param token a token from {@link #encode()}.
+     * @param entityName the entity paginated, for the error.
+     * @return the cursor, or {@code null} for an empty token, which designates the first page.
+     */
+    public static PageCursor decode(String token, String entityName) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String cursor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = cursor.indexOf(SEPARATOR);
+            String createdAt = cursor.substring(0, separator);
+            return new PageCursor(
+                createdAt.isEmpty() ? null : Timestamp.from(Instant.parse(createdAt)),
+                Long.parseLong(cursor.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    public String encode() {
+        String cursor = (createdAt == null ? "" : createdAt.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the creation date, with its nanoseconds, or {@code null} in the rows without creation date.
+     */
+    public Timestamp getCreatedAt() {
+        return createdAt == null ? null : Timestamp.from(createdAt);
+    }
+
+    public long getId() {
+        return id;
+    }
+}
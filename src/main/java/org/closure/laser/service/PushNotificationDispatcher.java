@@ -0,0 +1,172 @@
+package org.closure.laser.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.closure.laser.domain.PushNotification;
+import org.closure.laser.domain.enumeration.PushNotificationStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Sends the queued push notifications in batches, see {@link PushNotificationService}.
+ * <p>
+ * Each dispatch claims the due notifications one batch at a time until none are left, and sends each batch outside
+ * of any transaction. A notification that could not be sent is retried with an exponential backoff, and given up
+ * after {@code maxAttempts} attempts or on a permanent error, e.g. a device that is no longer registered.
+ */
+public class PushNotificationDispatcher {
+
+    public static final String QUEUE_DEPTH_METER_NAME = "push.notifications.queue.depth";
+    public static final String QUEUE_DEPTH_METER_DESCRIPTION = "Push notifications waiting to be sent.";
+    public static final String BATCH_SIZE_METER_NAME = "push.notifications.batch.size";
+    public static final String BATCH_SIZE_METER_DESCRIPTION = "Push notifications sent per batch.";
+    public static final String SEND_LATENCY_METER_NAME = "push.notifications.send.latency";
+    public static final String SEND_LATENCY_METER_DESCRIPTION = "Time taken to send a batch of push notifications.";
+    public static final String NOTIFICATIONS_METER_NAME = "push.notifications";
+    public static final String NOTIFICATIONS_METER_DESCRIPTION = "Push notifications sent, retried later or given up.";
+    public static final String OUTCOME_DIMENSION = "outcome";
+
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    private final Logger log = LoggerFactory.getLogger(PushNotificationDispatcher.class);
+
+    private final PushNotificationService pushNotificationService;
+
+    private final PushNotificationSender pushNotificationSender;
+
+    private final int batchSize;
+
+    private final int maxAttempts;
+
+    private final Duration initialBackoff;
+
+    private final Duration maxBackoff;
+
+    private final Duration lease;
+
+    private final DistributionSummary batchSizes;
+
+    private final Timer sendLatency;
+
+    private final Counter sent;
+
+    private final Counter retried;
+
+    private final Counter failed;
+
+    public PushNotificationDispatcher(
+        PushNotificationService pushNotificationService,
+        PushNotificationSender pushNotificationSender,
+        MeterRegistry meterRegistry,
+        int batchSize,
+        int maxAttempts,
+        Duration initialBackoff,
+        Duration maxBackoff,
+        Duration lease
+    ) {
+        this.pushNotificationService = pushNotificationService;
+        this.pushNotificationSender = pushNotificationSender;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+
+        Gauge
+            .builder(QUEUE_DEPTH_METER_NAME, pushNotificationService, PushNotificationService::countPending)
+            .description(QUEUE_DEPTH_METER_DESCRIPTION)
+            .register(meterRegistry);
+        batchSizes = DistributionSummary.builder(BATCH_SIZE_METER_NAME).description(BATCH_SIZE_METER_DESCRIPTION).register(meterRegistry);
+        sendLatency = Timer.builder(SEND_LATENCY_METER_NAME).description(SEND_LATENCY_METER_DESCRIPTION).register(meterRegistry);
+        sent = outcomeCounter(meterRegistry, "sent");
+        retried = outcomeCounter(meterRegistry, "retried");
+        failed = outcomeCounter(meterRegistry, "failed");
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter
+            .builder(NOTIFICATIONS_METER_NAME)
+            .description(NOTIFICATIONS_METER_DESCRIPTION)
+            .tag(OUTCOME_DIMENSION, outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Send the due notifications.
+     */
+    @Scheduled(fixedDelayString = "${application.push.dispatch-interval:PT2S}")
+    public void dispatch() {
+        List<PushNotification> batch;
+        do {
+            batch = pushNotificationService.claimDue(batchSize, lease);
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private void send(List<PushNotification> batch) {
+        batchSizes.record(batch.size());
+        List<PushNotificationSender.Result> results;
+        long start = System.nanoTime();
+        try {
+            results = pushNotificationSender.send(batch);
+            if (results.size() != batch.size()) {
+                throw new IllegalStateException("Expected " + batch.size() + " results, got " + results.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not send {} push notifications: {}", batch.size(), e.getMessage());
+            results = Collections.nCopies(batch.size(), PushNotificationSender.Result.failed(e.toString(), true));
+        } finally {
+            sendLatency.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+
+        Instant now = Instant.now();
+        for (int i = 0; i < batch.size(); i++) {
+            deliver(batch.get(i), results.get(i), now);
+        }
+        pushNotificationService.saveDeliveries(batch);
+    }
+
+    private void deliver(PushNotification notification, PushNotificationSender.Result result, Instant now) {
+        if (result.isSent()) {
+            notification.status(PushNotificationStatus.SENT).sentAt(now).messageId(result.getMessageId()).lastError(null);
+            sent.increment();
+        } else if (result.isRetryable() && notification.getAttempts() < maxAttempts) {
+            notification.nextAttemptAt(now.plus(backoff(notification.getAttempts()))).lastError(error(result));
+            retried.increment();
+        } else {
+            log.debug(
+                "Giving up push notification {} after {} attempts: {}",
+                notification.getId(),
+                notification.getAttempts(),
+                result.getError()
+            );
+            notification.status(PushNotificationStatus.FAILED).lastError(error(result));
+            failed.increment();
+        }
+    }
+
+    /**
+     * The delay before the next attempt: {@code initialBackoff}, doubled after each attempt, up to {@code maxBackoff}.
+     *
+     * @param attempts the attempts made so far, at least 1.
+     */
+    Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private static String error(PushNotificationSender.Result result) {
+        return StringUtils.abbreviate(result.getError(), MAX_ERROR_LENGTH);
+    }
+}
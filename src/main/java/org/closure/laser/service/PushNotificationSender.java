@@ -0,0 +1,62 @@
+package org.closure.laser.service;
+
+import java.util.List;
+import org.closure.laser.domain.PushNotification;
+
+/**
+ * Sends push notifications to devices. {@link FirebaseService} sends them with Firebase Cloud Messaging.
+ */
+public interface PushNotificationSender {
+    /**
+     * Send a batch of notifications.
+     *
+     * @param notifications the notifications to send.
+     * @return the result of each notification, in the same order.
+     * @throws RuntimeException if the batch could not be sent at all; its notifications are then retried.
+     */
+    List<Result> send(List<PushNotification> notifications);
+
+    /**
+     * The result of sending one notification.
+     */
+    final class Result {
+
+        private final String messageId;
+        private final String error;
+        private final boolean retryable;
+
+        private Result(String messageId, String error, boolean retryable) {
+            this.messageId = messageId;
+            this.error = error;
+            this.retryable = retryable;
+        }
+
+        public static Result sent(String messageId) {
+            return new Result(messageId, null, false);
+        }
+
+        /**
+         * @param error the reason of the failure.
+         * @param retryable whether sending the notification again may succeed.
+         */
+        public static Result failed(String error, boolean retryable) {
+            return new Result(null, error, retryable);
+        }
+
+        public boolean isSent() {
+            return error == null;
+        }
+
+        public String getMessageId() {
+            return messageId;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isRetryable() {
+            return retryable;
+        }
+    }
+}
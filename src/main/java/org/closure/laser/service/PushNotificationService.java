@@ -0,0 +1,106 @@
+package org.closure.laser.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.closure.laser.domain.PushNotification;
+import org.closure.laser.domain.UserApplication;
+import org.closure.laser.domain.enumeration.PushNotificationStatus;
+import org.closure.laser.repository.PushNotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link PushNotification}, the outbox of the push notifications.
+ * <p>
+ * Notifications are queued in the transaction of the change they report, so a notification is sent if and only if
+ * that change is committed. The {@link PushNotificationDispatcher} sends them afterwards.
+ */
+@Service
+@Transactional
+public class PushNotificationService {
+
+    private final Logger log = LoggerFactory.getLogger(PushNotificationService.class);
+
+    private final PushNotificationRepository pushNotificationRepository;
+
+    public PushNotificationService(PushNotificationRepository pushNotificationRepository) {
+        this.pushNotificationRepository = pushNotificationRepository;
+    }
+
+    /**
+     * Queue the notification of a deal request.
+     *
+     * @param sender the user who made the offer.
+     * @param token the FCM registration token of the device to notify.
+     * @param offerId the id of the offer.
+     */
+    public void enqueueDealRequest(UserApplication sender, String token, Long offerId) {
+        if (token == null || token.isBlank()) {
+            log.debug("No device to notify of Offers : {}", offerId);
+            return;
+        }
+        Instant now = Instant.now();
+        pushNotificationRepository.save(
+            new PushNotification()
+                .token(token)
+                .title("Deal request")
+                .body(sender.getUser().getFirstName() + " want to make deal with you")
+                .offerId(offerId)
+                .status(PushNotificationStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+        );
+    }
+
+    /**
+     * Claim the oldest due notifications, counting a new attempt for each. They are not due again before
+     * {@code lease} has passed, so that they are retried if the dispatcher stops before saving the results.
+     *
+     * @param batchSize the maximum number of notifications.
+     * @param lease how long the notifications are reserved for the caller.
+     * @return the claimed notifications, detached.
+     */
+    public List<PushNotification> claimDue(int batchSize, Duration lease) {
+        Instant now = Instant.now();
+        List<PushNotification> due = pushNotificationRepository.findDueForUpdate(
+            PushNotificationStatus.PENDING,
+            now,
+            PageRequest.of(0, batchSize)
+        );
+        due.forEach(notification -> notification.attempts(notification.getAttempts() + 1).nextAttemptAt(now.plus(lease)));
+        return due;
+    }
+
+    /**
+     * Save the delivery state of claimed notifications: status, next attempt, message id and error.
+     *
+     * @param notifications the notifications returned by {@link #claimDue(int, Duration)}, updated by the caller.
+     */
+    public void saveDeliveries(List<PushNotification> notifications) {
+        Map<Long, PushNotification> deliveries = notifications
+            .stream()
+            .collect(Collectors.toMap(PushNotification::getId, Function.identity()));
+        for (PushNotification stored : pushNotificationRepository.findAllById(deliveries.keySet())) {
+            PushNotification delivery = deliveries.get(stored.getId());
+            stored
+                .status(delivery.getStatus())
+                .nextAttemptAt(delivery.getNextAttemptAt())
+                .sentAt(delivery.getSentAt())
+                .messageId(delivery.getMessageId())
+                .lastError(delivery.getLastError());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long countPending() {
+        return pushNotificationRepository.countByStatus(PushNotificationStatus.PENDING);
+    }
+}
@@ -0,0 +1,284 @@
+package org.closure.laser.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.closure.laser.domain.Constants;
+import org.closure.laser.domain.Countries;
+import org.closure.laser.domain.DealStatus;
+import org.closure.laser.domain.ShipmentType;
+import org.closure.laser.repository.ConstantsRepository;
+import org.closure.laser.repository.CountriesRepository;
+import org.closure.laser.repository.DealStatusRepository;
+import org.closure.laser.repository.ShipmentTypeRepository;
+import org.closure.laser.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+/**
+ * In-memory copy of the reference tables ({@link DealStatus}, {@link Countries}, {@link ShipmentType} and
+ * {@link Constants}), so that the services and the list endpoints don't query them on every request.
+ * <p>
+ * The tables are loaded together into an immutable {@link Snapshot}, indexed by id and by name or code. Any
+ * write to one of these tables calls {@link #tableChanged()}, which drops the snapshot; the next read loads a
+ * new one. A snapshot is only kept when no write transaction on these tables is in progress, so that
+ * uncommitted rows are never shared with other requests. Readers always see a whole snapshot.
+ * <p>
+ * The entities of a snapshot are detached copies shared by all requests: their collections are empty and
+ * unmodifiable, and they must not be modified. They can be used as the target of an association, e.g.
+ * {@code deal.setStatus(referenceDataService.getDealStatus(1L))}.
+ */
+@Service
+public class ReferenceDataService {
+
+    private final Logger log = LoggerFactory.getLogger(ReferenceDataService.class);
+
+    private final DealStatusRepository dealStatusRepository;
+
+    private final CountriesRepository countriesRepository;
+
+    private final ShipmentTypeRepository shipmentTypeRepository;
+
+    private final ConstantsRepository constantsRepository;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+
+    public ReferenceDataService(
+        DealStatusRepository dealStatusRepository,
+        CountriesRepository countriesRepository,
+        ShipmentTypeRepository shipmentTypeRepository,
+        ConstantsRepository constantsRepository
+    ) {
+        this.dealStatusRepository = dealStatusRepository;
+        this.countriesRepository = countriesRepository;
+        this.shipmentTypeRepository = shipmentTypeRepository;
+        this.constantsRepository = constantsRepository;
+    }
+
+    /**
+     * Load the reference tables once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        snapshot();
+    }
+
+    /**
+     * Drop the current snapshot after a reference table was written, and again when the writing transaction
+     * completes, whether it commits or rolls back.
+     */
+    public void tableChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive() && !TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            pendingWrites.incrementAndGet();
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(ReferenceDataService.this);
+                        pendingWrites.decrementAndGet();
+                        drop();
+                    }
+                }
+            );
+        }
+        drop();
+    }
+
+    private void drop() {
+        generation.incrementAndGet();
+        snapshot.set(null);
+    }
+
+    public Table<DealStatus> getDealStatuses() {
+        return snapshot().dealStatuses;
+    }
+
+    public Table<Countries> getCountries() {
+        return snapshot().countries;
+    }
+
+    public Table<ShipmentType> getShipmentTypes() {
+        return snapshot().shipmentTypes;
+    }
+
+    public Table<Constants> getConstants() {
+        return snapshot().constants;
+    }
+
+    /**
+     * Get a deal status by id.
+     *
+     * @param id the id of the deal status.
+     * @return the deal status.
+     * @throws BadRequestAlertException if there is no such deal status.
+     */
+    public DealStatus getDealStatus(Long id) {
+        return getDealStatuses()
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", "dealStatus", "id not found"));
+    }
+
+    public Optional<DealStatus> findDealStatusByName(String name) {
+        return Optional.ofNullable(name).map(snapshot().dealStatusesByName::get);
+    }
+
+    /**
+     * Get a country by its ISO 3166 alpha-2 code, ignoring case.
+     */
+    public Optional<Countries> findCountryByCode(String code) {
+        return Optional.ofNullable(code).map(c -> snapshot().countriesByCode.get(c.toUpperCase(Locale.ROOT)));
+    }
+
+    public Optional<ShipmentType> findShipmentTypeByName(String name) {
+        return Optional.ofNullable(name).map(snapshot().shipmentTypesByName::get);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot.get();
+            if (current == null) {
+                long loadedGeneration = generation.get();
+                current = load();
+                // a table was written while loading, or is being written: serve this snapshot to the caller only
+                if (generation.get() == loadedGeneration && pendingWrites.get() == 0) {
+                    snapshot.set(current);
+                }
+            }
+            return current;
+        }
+    }
+
+    private Snapshot load() {
+        long start = System.currentTimeMillis();
+        Snapshot loaded = new Snapshot(
+            dealStatusRepository
+                .findAllRefs()
+                .stream()
+                .map(ref -> new DealStatus().id(ref.getId()).name(ref.getName()).sequence(ref.getSequence()).deals(Collections.emptySet()))
+                .collect(Collectors.toList()),
+            countriesRepository
+                .findAll(Sort.by("id"))
+                .stream()
+                .map(c -> new Countries(c.getCode(), c.getCapital(), c.getPhoneCode(), c.getCountry()).id(c.getId()))
+                .collect(Collectors.toList()),
+            shipmentTypeRepository
+                .findAll(Sort.by("id"))
+                .stream()
+                .map(t -> new ShipmentType().id(t.getId()).name(t.getName()).factor(t.getFactor()).shipments(Collections.emptySet()))
+                .collect(Collectors.toList()),
+            constantsRepository
+                .findAll(Sort.by("id"))
+                .stream()
+                .map(c -> new Constants().id(c.getId()).weightFactor(c.getWeightFactor()).maxWeight(c.getMaxWeight()))
+                .collect(Collectors.toList())
+        );
+        log.debug(
+            "Reference data loaded with {} deal statuses, {} countries, {} shipment types and {} constants in {} ms",
+            loaded.dealStatuses.getAll().size(),
+            loaded.countries.getAll().size(),
+            loaded.shipmentTypes.getAll().size(),
+            loaded.constants.getAll().size(),
+            System.currentTimeMillis() - start
+        );
+        return loaded;
+    }
+
+    private static final class Snapshot {
+
+        private final Table<DealStatus> dealStatuses;
+        private final Table<Countries> countries;
+        private final Table<ShipmentType> shipmentTypes;
+        private final Table<Constants> constants;
+        private final Map<String, DealStatus> dealStatusesByName;
+        private final Map<String, Countries> countriesByCode;
+        private final Map<String, ShipmentType> shipmentTypesByName;
+
+        private Snapshot(
+            List<DealStatus> dealStatuses,
+            List<Countries> countries,
+            List<ShipmentType> shipmentTypes,
+            List<Constants> constants
+        ) {
+            this.dealStatuses = new Table<>(dealStatuses, DealStatus::getId);
+            this.countries = new Table<>(countries, Countries::getId);
+            this.shipmentTypes = new Table<>(shipmentTypes, ShipmentType::getId);
+            this.constants = new Table<>(constants, Constants::getId);
+            this.dealStatusesByName = index(dealStatuses, DealStatus::getName);
+            this.countriesByCode =
+                index(countries, country -> country.getCode() == null ? null : country.getCode().toUpperCase(Locale.ROOT));
+            this.shipmentTypesByName = index(shipmentTypes, ShipmentType::getName);
+        }
+    }
+
+    /**
+     * One reference table of a snapshot: its rows in id order (sequence order for deal statuses), indexed by id,
+     * and a strong ETag computed from their content.
+     */
+    public static final class Table<T> {
+
+        private final List<T> all;
+        private final Map<Long, T> byId;
+        private final String eTag;
+
+        private Table(List<T> rows, Function<T, Long> id) {
+            this.all = List.copyOf(rows);
+            this.byId = index(rows, id);
+            this.eTag = "\"" + DigestUtils.md5DigestAsHex(rows.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        }
+
+        public List<T> getAll() {
+            return all;
+        }
+
+        public Optional<T> findById(Long id) {
+            return Optional.ofNullable(id).map(byId::get);
+        }
+
+        public boolean existsById(Long id) {
+            return id != null && byId.containsKey(id);
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+    }
+
+    /**
+     * Index rows by key, keeping the first row of duplicate keys and skipping rows without one.
+     */
+    private static <K, T> Map<K, T> index(List<T> rows, Function<T, K> key) {
+        Map<K, T> index = new LinkedHashMap<>();
+        for (T row : rows) {
+            K k = key.apply(row);
+            if (k != null) {
+                index.putIfAbsent(k, row);
+            }
+        }
+        return Collections.unmodifiableMap(index);
+    }
+}
@@ -0,0 +1,67 @@
+package org.closure.laser.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Service storing the releases of the mobile application, downloaded by the devices to update themselves.
+ */
+@Service
+public class ReleaseService {
+
+    public static final String RELEASE_PREFIX = "laser-release";
+
+    private final Logger log = LoggerFactory.getLogger(ReleaseService.class);
+
+    private final FileIndexService fileIndexService;
+
+    private final Path releaseDirectory;
+
+    public ReleaseService(
+        FileIndexService fileIndexService,
+        @Value("${application.release.directory:Files-Upload}") Path releaseDirectory
+    ) {
+        this.fileIndexService = fileIndexService;
+        this.releaseDirectory = releaseDirectory;
+    }
+
+    /**
+     * Save a release.
+     *
+     * @param fileName the name of the file, without directory.
+     * @param multipartFile the release.
+     * @return the saved file.
+     */
+    public Path save(String fileName, MultipartFile multipartFile) throws IOException {
+        log.debug("Request to save release : {}", fileName);
+        Files.createDirectories(releaseDirectory);
+        Path filePath = releaseDirectory.resolve(RELEASE_PREFIX + "-" + Paths.get(fileName).getFileName());
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            Files.copy(inputStream, filePath, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ioe) {
+            throw new IOException("Could not save file: " + fileName, ioe);
+        }
+        fileIndexService.added(filePath);
+        return filePath;
+    }
+
+    /**
+     * Find the latest release.
+     *
+     * @param fileCode the start of the name of the release file.
+     * @return the most recent release file whose name starts with {@code fileCode}, if any.
+     */
+    public Optional<Path> findLatest(String fileCode) {
+        return fileIndexService.findLatestByPrefix(releaseDirectory, fileCode);
+    }
+}
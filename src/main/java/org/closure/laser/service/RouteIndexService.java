@@ -0,0 +1,399 @@
+package org.closure.laser.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.closure.laser.domain.Deal;
+import org.closure.laser.repository.DealRepository;
+import org.closure.laser.repository.projection.DealRoute;
+import org.closure.laser.service.dto.RouteIndexCheckDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory index of deals by route, used to answer {@code searchTrips} and {@code searchShipments}
+ * without running the nested {@code LIKE} sub-queries of {@link DealRepository}.
+ * <p>
+ * Open trip deals (no owner yet) are indexed by the from/to locations of their trip, shipment deals by the
+ * from/to locations of each of their shipments. Inside a route, deals are kept sorted by date and then by
+ * available weight, so a search only walks the deals that arrive before the requested date.
+ * <p>
+ * The index is built from the database once the application is ready, and is then kept up to date by the
+ * services calling {@link #dealsChanged(Collection)} whenever they create, update or delete a deal. Changes are
+ * applied only after the surrounding transaction commits.
+ */
+@Service
+public class RouteIndexService {
+
+    private final Logger log = LoggerFactory.getLogger(RouteIndexService.class);
+
+    private final DealRepository dealRepository;
+
+    private final RouteTable tripRoutes = new RouteTable();
+
+    private final RouteTable shipmentRoutes = new RouteTable();
+
+    public RouteIndexService(DealRepository dealRepository) {
+        this.dealRepository = dealRepository;
+    }
+
+    /**
+     * Rebuild both indexes from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        tripRoutes.replaceAll(dealRepository.findAllTripRoutes());
+        shipmentRoutes.replaceAll(dealRepository.findAllShipmentRoutes());
+        log.info(
+            "Route index rebuilt with {} trip deals and {} shipment deals in {} ms",
+            tripRoutes.size(),
+            shipmentRoutes.size(),
+            System.currentTimeMillis() - start
+        );
+    }
+
+    public void dealChanged(Long dealId) {
+        dealsChanged(List.of(dealId));
+    }
+
+    /**
+     * Re-read the routes of the given deals and replace their entries in the index.
+     * <p>
+     * The routes are read inside the caller's transaction (so pending changes are flushed first), and are
+     * published to the index after commit. A deal that no longer exists, or no longer qualifies, is removed.
+     *
+     * @param dealIds the ids of the created, updated or deleted deals.
+     */
+    public void dealsChanged(Collection<Long> dealIds) {
+        Set<Long> ids = dealIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<DealRoute> trips = dealRepository.findTripRoutes(ids);
+        List<DealRoute> shipments = dealRepository.findShipmentRoutes(ids);
+        afterCommit(() -> {
+            tripRoutes.replace(ids, trips);
+            shipmentRoutes.replace(ids, shipments);
+        });
+    }
+
+    /**
+     * Refresh every indexed deal travelling from or to the given location, e.g. after its country was renamed.
+     *
+     * @param locationId the id of the updated location.
+     */
+    public void locationChanged(Long locationId) {
+        Set<Long> ids = new HashSet<>(tripRoutes.dealsAt(locationId));
+        ids.addAll(shipmentRoutes.dealsAt(locationId));
+        dealsChanged(ids);
+    }
+
+    /**
+     * Find open trip deals going from a country matching {@code from} to a country matching {@code to}, with at
+     * least {@code weight} available and arriving on or before {@code date}.
+     *
+     * @return a page of deal ids, sorted by arrival date then by descending available weight.
+     */
+    public Page<Long> searchTrips(String from, String to, Double weight, Date date, Pageable pageable) {
+        return page(tripRoutes.search(from, to, weight, date), pageable);
+    }
+
+    /**
+     * Find shipment deals with a shipment going from a country matching {@code from} to a country matching
+     * {@code to}, with at least {@code weight} available and expected on or before {@code date}.
+     *
+     * @return a page of deal ids, sorted by expected date then by descending available weight.
+     */
+    public Page<Long> searchShipments(String from, String to, Double weight, Date date, Pageable pageable) {
+        return page(shipmentRoutes.search(from, to, weight, date), pageable);
+    }
+
+    /**
+     * Find open trip deals going from one of the given locations to a country matching {@code to}, with at least
+     * {@code weight} available and arriving on or before {@code date}.
+     *
+     * @return a page of deal ids, sorted by arrival date then by descending available weight.
+     */
+    public Page<Long> searchTripsFrom(Collection<Long> fromLocations, String to, Double weight, Date date, Pageable pageable) {
+        Set<Long> from = Set.copyOf(fromLocations);
+        String toPart = RouteTable.normalize(to);
+        return page(tripRoutes.search(key -> from.contains(key.fromId) && key.toCountry.contains(toPart), weight, date), pageable);
+    }
+
+    /**
+     * Find shipment deals with a shipment going from a country matching {@code from} to one of the given locations,
+     * with at least {@code weight} available and expected on or before {@code date}.
+     *
+     * @return a page of deal ids, sorted by expected date then by descending available weight.
+     */
+    public Page<Long> searchShipmentsTo(String from, Collection<Long> toLocations, Double weight, Date date, Pageable pageable) {
+        String fromPart = RouteTable.normalize(from);
+        Set<Long> to = Set.copyOf(toLocations);
+        return page(shipmentRoutes.search(key -> key.fromCountry.contains(fromPart) && to.contains(key.toId), weight, date), pageable);
+    }
+
+    /**
+     * Compare the trip index against {@link DealRepository#searchTrips}.
+     */
+    @Transactional(readOnly = true)
+    public RouteIndexCheckDTO checkTrips(String from, String to, Double weight, Date date) {
+        List<Long> expected = dealRepository
+            .searchTrips(from, to, weight, date, Pageable.unpaged())
+            .stream()
+            .map(Deal::getId)
+            .collect(Collectors.toList());
+        return check("trips", expected, tripRoutes.search(from, to, weight, date));
+    }
+
+    /**
+     * Compare the shipment index against {@link DealRepository#searchShipments}.
+     */
+    @Transactional(readOnly = true)
+    public RouteIndexCheckDTO checkShipments(String from, String to, Double weight, Date date) {
+        List<Long> expected = dealRepository
+            .searchShipments(from, to, weight, date, Pageable.unpaged())
+            .stream()
+            .map(Deal::getId)
+            .collect(Collectors.toList());
+        return check("shipments", expected, shipmentRoutes.search(from, to, weight, date));
+    }
+
+    private RouteIndexCheckDTO check(String index, Collection<Long> expected, Collection<Long> actual) {
+        Set<Long> missing = new TreeSet<>(expected);
+        missing.removeAll(actual);
+        Set<Long> unexpected = new TreeSet<>(actual);
+        unexpected.removeAll(expected);
+        RouteIndexCheckDTO result = new RouteIndexCheckDTO(index, expected.size(), actual.size(), missing, unexpected);
+        if (!result.isConsistent()) {
+            log.warn("Route index for {} is out of sync, missing : {}, unexpected : {}", index, missing, unexpected);
+        }
+        return result;
+    }
+
+    private static Page<Long> page(List<Long> ids, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(ids, pageable, ids.size());
+        }
+        int fromIndex = (int) Math.min(pageable.getOffset(), ids.size());
+        int toIndex = Math.min(fromIndex + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(new ArrayList<>(ids.subList(fromIndex, toIndex)), pageable, ids.size());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            }
+        );
+    }
+
+    /**
+     * Deals grouped by (from, to) location, each group sorted by date then by descending available weight.
+     */
+    static final class RouteTable {
+
+        private static final Comparator<Entry> ORDER = Comparator
+            .comparingLong((Entry entry) -> entry.date)
+            .thenComparing(entry -> entry.availableWeight, Comparator.reverseOrder())
+            .thenComparingLong(entry -> entry.dealId);
+
+        private final Map<RouteKey, NavigableSet<Entry>> routes = new HashMap<>();
+
+        private final Map<Long, List<Entry>> entriesByDeal = new HashMap<>();
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void replaceAll(Collection<DealRoute> rows) {
+            lock.writeLock().lock();
+            try {
+                routes.clear();
+                entriesByDeal.clear();
+                rows.forEach(this::add);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void replace(Collection<Long> dealIds, Collection<DealRoute> rows) {
+            lock.writeLock().lock();
+            try {
+                dealIds.forEach(this::remove);
+                rows.forEach(this::add);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Long> search(String from, String to, Double weight, Date date) {
+            String fromPart = normalize(from);
+            String toPart = normalize(to);
+            return search(key -> key.fromCountry.contains(fromPart) && key.toCountry.contains(toPart), weight, date);
+        }
+
+        List<Long> search(Predicate<RouteKey> route, Double weight, Date date) {
+            if (weight == null || date == null) {
+                return List.of();
+            }
+            Entry upperBound = new Entry(Long.MAX_VALUE, null, Double.NEGATIVE_INFINITY, date.getTime());
+            List<Entry> matches = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                routes.forEach((key, entries) -> {
+                    if (route.test(key)) {
+                        for (Entry entry : entries.headSet(upperBound, true)) {
+                            if (entry.availableWeight >= weight) {
+                                matches.add(entry);
+                            }
+                        }
+                    }
+                });
+            } finally {
+                lock.readLock().unlock();
+            }
+            matches.sort(ORDER);
+            Set<Long> ids = new LinkedHashSet<>();
+            matches.forEach(entry -> ids.add(entry.dealId));
+            return new ArrayList<>(ids);
+        }
+
+        Set<Long> dealsAt(Long locationId) {
+            lock.readLock().lock();
+            try {
+                return routes
+                    .keySet()
+                    .stream()
+                    .filter(key -> Objects.equals(key.fromId, locationId) || Objects.equals(key.toId, locationId))
+                    .flatMap(key -> routes.get(key).stream())
+                    .map(entry -> entry.dealId)
+                    .collect(Collectors.toSet());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return entriesByDeal.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void add(DealRoute row) {
+            // rows without a weight or a date can never match the search, same as in SQL
+            if (row.getDealId() == null || row.getAvailableWeight() == null || row.getDate() == null) {
+                return;
+            }
+            RouteKey key = new RouteKey(row.getFromId(), row.getFromCountry(), row.getToId(), row.getToCountry());
+            Entry entry = new Entry(row.getDealId(), key, row.getAvailableWeight(), row.getDate().getTime());
+            routes.computeIfAbsent(key, k -> new TreeSet<>(ORDER)).add(entry);
+            entriesByDeal.computeIfAbsent(entry.dealId, id -> new ArrayList<>()).add(entry);
+        }
+
+        private void remove(Long dealId) {
+            List<Entry> entries = entriesByDeal.remove(dealId);
+            if (entries == null) {
+                return;
+            }
+            for (Entry entry : entries) {
+                NavigableSet<Entry> route = routes.get(entry.key);
+                if (route != null) {
+                    route.remove(entry);
+                    if (route.isEmpty()) {
+                        routes.remove(entry.key);
+                    }
+                }
+            }
+        }
+
+        private static String normalize(String value) {
+            return value == null ? "" : value.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final class RouteKey {
+
+        private final Long fromId;
+        private final String fromCountry;
+        private final Long toId;
+        private final String toCountry;
+
+        RouteKey(Long fromId, String fromCountry, Long toId, String toCountry) {
+            this.fromId = fromId;
+            this.fromCountry = RouteTable.normalize(fromCountry);
+            this.toId = toId;
+            this.toCountry = RouteTable.normalize(toCountry);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RouteKey)) {
+                return false;
+            }
+            RouteKey other = (RouteKey) o;
+            return (
+                Objects.equals(fromId, other.fromId) &&
+                Objects.equals(toId, other.toId) &&
+                fromCountry.equals(other.fromCountry) &&
+                toCountry.equals(other.toCountry)
+            );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fromId, toId, fromCountry, toCountry);
+        }
+    }
+
+    private static final class Entry {
+
+        private final long dealId;
+        private final RouteKey key;
+        private final double availableWeight;
+        private final long date;
+
+        Entry(long dealId, RouteKey key, double availableWeight, long date) {
+            this.dealId = dealId;
+            this.key = key;
+            this.availableWeight = availableWeight;
+            this.date = date;
+        }
+    }
+}
@@ -0,0 +1,600 @@
+package org.closure.laser.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.NGramTokenFilter;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.util.CharTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.IOUtils;
+import org.closure.laser.config.ApplicationProperties;
+import org.closure.laser.repository.ArticleRepository;
+import org.closure.laser.repository.DealRepository;
+import org.closure.laser.repository.LocationRepository;
+import org.closure.laser.repository.UserApplicationRepository;
+import org.closure.laser.repository.projection.SearchRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Full-text index of the users, deals, articles and locations, used by their {@code search} endpoints instead of the
+ * {@code LIKE '%value%'} queries of the repositories.
+ * <p>
+ * Each word of a search matches the start of a word of the indexed fields, a word at one or two typos, or a part of
+ * a word of at least 3 letters. Results are sorted by relevance: whole words before prefixes, and matches on the name
+ * of the row (user name, deal account, article title, location) before matches on the rest of its text.
+ * <p>
+ * The index is built from the database in the background once the application is ready; until then the services
+ * keep running the repository queries. It is then kept up to date by the Hibernate listener of
+ * {@link org.closure.laser.config.SearchIndexConfiguration}, which calls {@link #changed(Index, Long)} for every
+ * write: the rows are read again and indexed after the transaction commits. {@link #reindex()} builds a new index
+ * next to the current one and swaps them when it is complete.
+ */
+@Service
+public class SearchIndexService {
+
+    public enum Index {
+        USERS,
+        DEALS,
+        ARTICLES,
+        LOCATIONS,
+    }
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final String KEY = "key";
+
+    private static final String INDEX = "index";
+
+    private static final String ID = "id";
+
+    private static final String NAME = "name";
+
+    private static final String TEXT = "text";
+
+    private static final String GRAMS = "grams";
+
+    private static final int GRAM_SIZE = 3;
+
+    private static final Sort RELEVANCE = new Sort(SortField.FIELD_SCORE, new SortField(ID, SortField.Type.LONG));
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+
+    private final UserApplicationRepository userApplicationRepository;
+
+    private final DealRepository dealRepository;
+
+    private final ArticleRepository articleRepository;
+
+    private final LocationRepository locationRepository;
+
+    private final Executor taskExecutor;
+
+    private final TransactionTemplate readTransaction;
+
+    private final Path directory;
+
+    private final Analyzer analyzer = new PerFieldAnalyzerWrapper(new WordAnalyzer(false), Map.of(GRAMS, new WordAnalyzer(true)));
+
+    // searches and updates hold the read lock, the swap of a rebuilt index holds the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Object reindexLock = new Object();
+
+    private volatile Generation current;
+
+    private volatile boolean ready;
+
+    // changes applied while a new index is built, applied to it again before the swap
+    private Changes changesDuringReindex;
+
+    public SearchIndexService(
+        UserApplicationRepository userApplicationRepository,
+        DealRepository dealRepository,
+        ArticleRepository articleRepository,
+        LocationRepository locationRepository,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.userApplicationRepository = userApplicationRepository;
+        this.dealRepository = dealRepository;
+        this.articleRepository = articleRepository;
+        this.locationRepository = locationRepository;
+        this.taskExecutor = taskExecutor;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.directory = applicationProperties.getSearch().getDirectory();
+        this.current = open();
+    }
+
+    /**
+     * Whether the index has been built, and can answer the searches.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexInBackground() {
+        taskExecutor.execute(() -> {
+            try {
+                reindex();
+            } catch (RuntimeException e) {
+                log.error("Search index could not be built, searches keep using the database: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Build a new index from the database, then replace the current one with it.
+     */
+    public void reindex() {
+        synchronized (reindexLock) {
+            long start = System.currentTimeMillis();
+            Generation next = open();
+            synchronized (this) {
+                changesDuringReindex = new Changes();
+            }
+            Map<Index, Integer> counts = new EnumMap<>(Index.class);
+            try {
+                counts.put(Index.USERS, addAll(next, Index.USERS, userApplicationRepository::findSearchRows));
+                counts.put(Index.DEALS, addAll(next, Index.DEALS, dealRepository::findSearchRows));
+                counts.put(Index.ARTICLES, addAll(next, Index.ARTICLES, articleRepository::findSearchRows));
+                counts.put(Index.LOCATIONS, addAll(next, Index.LOCATIONS, locationRepository::findSearchRows));
+                next.searcherManager.maybeRefreshBlocking();
+            } catch (IOException e) {
+                abandon(next);
+                throw new UncheckedIOException("Could not build the search index", e);
+            } catch (RuntimeException e) {
+                abandon(next);
+                throw e;
+            }
+
+            Changes missed;
+            Generation previous;
+            lock.writeLock().lock();
+            try {
+                synchronized (this) {
+                    missed = changesDuringReindex;
+                    changesDuringReindex = null;
+                }
+                previous = current;
+                current = next;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            apply(missed);
+            ready = true;
+            previous.close();
+            log.info("Search index rebuilt with {} in {} ms", counts, System.currentTimeMillis() - start);
+        }
+    }
+
+    private void abandon(Generation next) {
+        synchronized (this) {
+            changesDuringReindex = null;
+        }
+        next.close();
+    }
+
+    /**
+     * Re-read a row and replace it in the index, or remove it if it no longer exists. Inside a transaction, the row
+     * is read after the transaction commits.
+     */
+    public void changed(Index index, Long id) {
+        Changes changes = new Changes();
+        changes.add(index, id);
+        enqueue(changes);
+    }
+
+    /**
+     * Re-index the user application of a user, whose name or email changed.
+     */
+    public void userChanged(Long userId) {
+        Changes changes = new Changes();
+        changes.users.add(userId);
+        enqueue(changes);
+    }
+
+    /**
+     * Search an index.
+     *
+     * @param index the index to search.
+     * @param value the words to search, all of which must match.
+     * @param pageable the page to return; its sort is ignored, results are sorted by relevance then by id.
+     * @return a page of ids.
+     */
+    public Page<Long> search(Index index, String value, Pageable pageable) {
+        List<String> words = words(value);
+        if (words.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder().add(new TermQuery(new Term(INDEX, index.name())), Occur.FILTER);
+        words.forEach(word -> query.add(wordQuery(word), Occur.MUST));
+
+        lock.readLock().lock();
+        try {
+            SearcherManager searcherManager = current.searcherManager;
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int offset = pageable.isPaged() ? (int) pageable.getOffset() : 0;
+                int size = pageable.isPaged() ? pageable.getPageSize() : Math.max(1, searcher.getIndexReader().maxDoc());
+                int hits = Math.max(1, Math.min(offset + size, searcher.getIndexReader().maxDoc()));
+                TopFieldCollector collector = TopFieldCollector.create(RELEVANCE, hits, Integer.MAX_VALUE);
+                searcher.search(query.build(), collector);
+                TopDocs page = collector.topDocs(offset, size);
+                List<Long> ids = new ArrayList<>(page.scoreDocs.length);
+                for (ScoreDoc scoreDoc : page.scoreDocs) {
+                    ids.add(searcher.doc(scoreDoc.doc).getField(ID).numericValue().longValue());
+                }
+                return new PageImpl<>(ids, pageable, collector.getTotalHits());
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not search the " + index + " index", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sort rows loaded with an {@code IN} query back into the order of the ids found by {@link #search}.
+     */
+    public static <T> List<T> inOrder(List<Long> ids, Collection<T> rows, Function<T, Long> id) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            positions.put(ids.get(i), i);
+        }
+        return rows.stream().sorted(Comparator.comparing(row -> positions.get(id.apply(row)))).collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void close() {
+        current.close();
+    }
+
+    private void enqueue(Changes changes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(changes);
+            return;
+        }
+        Changes pending = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            pending.addAll(changes);
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, changes);
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        // the committed transaction still holds its connection: read with it rather than wait for
+                        // another one, which a pool busy with as many of these commits would never hand out
+                        apply(changes, () -> read(changes));
+                    } catch (RuntimeException e) {
+                        log.error("Search index could not be updated with {}: {}", changes, e.getMessage(), e);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SearchIndexService.this);
+                }
+            }
+        );
+    }
+
+    private void apply(Changes changes) {
+        apply(changes, () -> readTransaction.execute(status -> read(changes)));
+    }
+
+    private void apply(Changes changes, Supplier<Map<Index, List<SearchRow>>> reader) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            if (changesDuringReindex != null) {
+                changesDuringReindex.addAll(changes);
+            }
+        }
+        Map<Index, List<SearchRow>> rows = reader.get();
+        lock.readLock().lock();
+        try {
+            Generation generation = current;
+            for (Map.Entry<Index, List<SearchRow>> entry : rows.entrySet()) {
+                Set<Long> deleted = new HashSet<>(changes.ids.getOrDefault(entry.getKey(), Set.of()));
+                for (SearchRow row : entry.getValue()) {
+                    deleted.remove(row.getId());
+                    generation.writer.updateDocument(key(entry.getKey(), row.getId()), document(entry.getKey(), row));
+                }
+                for (Long id : deleted) {
+                    generation.writer.deleteDocuments(key(entry.getKey(), id));
+                }
+            }
+            generation.searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not update the search index", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Index, List<SearchRow>> read(Changes changes) {
+        if (!changes.users.isEmpty()) {
+            List<Long> ids = chunked(changes.users, userApplicationRepository::findIdsByUserIdIn);
+            changes.ids.computeIfAbsent(Index.USERS, index -> new HashSet<>()).addAll(ids);
+        }
+        Map<Index, List<SearchRow>> rows = new EnumMap<>(Index.class);
+        changes.ids.forEach((index, ids) -> rows.put(index, chunked(ids, finder(index))));
+        return rows;
+    }
+
+    private Function<Collection<Long>, List<SearchRow>> finder(Index index) {
+        switch (index) {
+            case USERS:
+                return userApplicationRepository::findSearchRowsByIdIn;
+            case DEALS:
+                return dealRepository::findSearchRowsByIdIn;
+            case ARTICLES:
+                return articleRepository::findSearchRowsByIdIn;
+            default:
+                return locationRepository::findSearchRowsByIdIn;
+        }
+    }
+
+    private int addAll(Generation generation, Index index, BiFunction<Long, Pageable, List<SearchRow>> rows) throws IOException {
+        int count = 0;
+        long afterId = 0;
+        List<SearchRow> batch;
+        do {
+            long after = afterId;
+            batch = readTransaction.execute(status -> rows.apply(after, PageRequest.of(0, BATCH_SIZE)));
+            for (SearchRow row : batch) {
+                generation.writer.addDocument(document(index, row));
+                afterId = row.getId();
+            }
+            count += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+        return count;
+    }
+
+    private Query wordQuery(String word) {
+        List<Query> queries = new ArrayList<>();
+        queries.add(new BoostQuery(new TermQuery(new Term(NAME, word)), 8));
+        queries.add(new BoostQuery(new TermQuery(new Term(TEXT, word)), 4));
+        queries.add(new BoostQuery(new PrefixQuery(new Term(NAME, word)), 4));
+        queries.add(new BoostQuery(new PrefixQuery(new Term(TEXT, word)), 2));
+        if (word.length() >= GRAM_SIZE) {
+            BooleanQuery.Builder grams = new BooleanQuery.Builder();
+            for (int i = 0; i + GRAM_SIZE <= word.length(); i++) {
+                grams.add(new TermQuery(new Term(GRAMS, word.substring(i, i + GRAM_SIZE))), Occur.FILTER);
+            }
+            queries.add(new ConstantScoreQuery(grams.build()));
+        }
+        if (word.length() >= 4) {
+            int maxEdits = word.length() >= 8 ? 2 : 1;
+            queries.add(new BoostQuery(new FuzzyQuery(new Term(NAME, word), maxEdits, 1), 2));
+            queries.add(new FuzzyQuery(new Term(TEXT, word), maxEdits, 1));
+        }
+        return new DisjunctionMaxQuery(queries, 0.1f);
+    }
+
+    private List<String> words(String value) {
+        List<String> words = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(NAME, Objects.toString(value, ""))) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                words.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    private static Document document(Index index, SearchRow row) {
+        Document document = new Document();
+        document.add(new StringField(KEY, key(index, row.getId()).text(), Field.Store.NO));
+        document.add(new StringField(INDEX, index.name(), Field.Store.NO));
+        document.add(new StoredField(ID, row.getId()));
+        document.add(new NumericDocValuesField(ID, row.getId()));
+        document.add(new TextField(NAME, row.getName(), Field.Store.NO));
+        document.add(new TextField(TEXT, row.getText(), Field.Store.NO));
+        document.add(new TextField(GRAMS, row.getName() + " " + row.getText(), Field.Store.NO));
+        return document;
+    }
+
+    private static Term key(Index index, Long id) {
+        return new Term(KEY, index.name() + ":" + id);
+    }
+
+    private static <T> List<T> chunked(Collection<Long> ids, Function<Collection<Long>, List<T>> finder) {
+        List<Long> all = new ArrayList<>(ids);
+        List<T> rows = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += BATCH_SIZE) {
+            rows.addAll(finder.apply(all.subList(i, Math.min(all.size(), i + BATCH_SIZE))));
+        }
+        return rows;
+    }
+
+    private Generation open() {
+        try {
+            Path path = null;
+            Directory luceneDirectory;
+            if (directory == null) {
+                luceneDirectory = new ByteBuffersDirectory();
+            } else {
+                Files.createDirectories(directory);
+                path = Files.createTempDirectory(directory, "index-");
+                luceneDirectory = FSDirectory.open(path);
+            }
+            IndexWriter writer = new IndexWriter(luceneDirectory, new IndexWriterConfig(analyzer));
+            return new Generation(path, luceneDirectory, writer, new SearcherManager(writer, null));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the search index", e);
+        }
+    }
+
+    /**
+     * An index and its writer, replaced as a whole by {@link #reindex()}. On disk, each one has its own directory.
+     */
+    private final class Generation {
+
+        private final Path path;
+
+        private final Directory directory;
+
+        private final IndexWriter writer;
+
+        private final SearcherManager searcherManager;
+
+        Generation(Path path, Directory directory, IndexWriter writer, SearcherManager searcherManager) {
+            this.path = path;
+            this.directory = directory;
+            this.writer = writer;
+            this.searcherManager = searcherManager;
+        }
+
+        void close() {
+            try {
+                IOUtils.close(searcherManager, writer, directory);
+                if (path != null) {
+                    IOUtils.rm(path);
+                }
+            } catch (IOException e) {
+                log.warn("Could not close the search index: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rows to index again, by index, and users whose user application must be indexed again.
+     */
+    private static final class Changes {
+
+        private final Map<Index, Set<Long>> ids = new EnumMap<>(Index.class);
+
+        private final Set<Long> users = new HashSet<>();
+
+        void add(Index index, Long id) {
+            ids.computeIfAbsent(index, key -> new HashSet<>()).add(id);
+        }
+
+        synchronized void addAll(Changes changes) {
+            changes.ids.forEach((index, added) -> ids.computeIfAbsent(index, key -> new HashSet<>()).addAll(added));
+            users.addAll(changes.users);
+        }
+
+        boolean isEmpty() {
+            return ids.isEmpty() && users.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return Stream
+                .concat(ids.entrySet().stream().map(Object::toString), Stream.of("USER=" + users))
+                .collect(Collectors.joining(", "));
+        }
+    }
+
+    /**
+     * Words of letters and digits, in lower case and without accents; with {@code grams}, the parts of 3 letters of
+     * these words.
+     */
+    private static final class WordAnalyzer extends Analyzer {
+
+        private final boolean grams;
+
+        WordAnalyzer(boolean grams) {
+            this.grams = grams;
+        }
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = CharTokenizer.fromTokenCharPredicate(Character::isLetterOrDigit);
+            TokenStream tokens = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+            if (grams) {
+                tokens = new NGramTokenFilter(tokens, GRAM_SIZE, GRAM_SIZE, false);
+            }
+            return new TokenStreamComponents(tokenizer, tokens);
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+}
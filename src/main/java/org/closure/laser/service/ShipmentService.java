@@ -11,12 +11,14 @@ import org.closure.laser.domain.Location;
 import org.closure.laser.domain.Shipment;
 import org.closure.laser.domain.UserApplication;
 import org.closure.laser.repository.*;
-import org.closure.laser.security.jwt.TokenProvider;
+import org.closure.laser.repository.projection.ShipmentSummary;
+import org.closure.laser.service.dto.CursorPage;
 import org.closure.laser.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,16 +37,13 @@ public class ShipmentService {
     private final ShipmentRepository shipmentRepository;
 
     @Autowired
-    private UserRepository userRepository;
-
-    @Autowired
-    private TokenProvider tokenProvider;
+    private CurrentUserService currentUserService;
 
     @Autowired
     private UserApplicationRepository userApplicationRepository;
 
     @Autowired
-    private DealStatusRepository dealStatusRepository;
+    private ReferenceDataService referenceDataService;
 
     @Autowired
     private DealRepository dealRepository;
@@ -55,6 +54,9 @@ public class ShipmentService {
     @Autowired
     private OffersRepository offersRepository;
 
+    @Autowired
+    private RouteIndexService routeIndexService;
+
     public ShipmentService(ShipmentRepository shipmentRepository) {
         this.shipmentRepository = shipmentRepository;
     }
@@ -67,59 +69,56 @@ public class ShipmentService {
         return shipmentRepository.save(shipment);
     }
 
-    public List<Shipment> saveLogic(List<Shipment> shipments, String token, Date date) {
+    public List<Shipment> saveLogic(List<Shipment> shipments, Date date) {
         log.debug("Request to save List of Shipments : ");
 
-        /* 1 - get user (owner) from token */
+        /* 1 - get current user (owner) */
 
-        UserApplication owner = userApplicationRepository
-            .findByUser(userRepository.findOneByLogin(tokenProvider.getLoginFromToken(token)).get())
-            .get();
+        UserApplication owner = currentUserService.getUserApplication();
 
-        /* 2 - save shipment *///
+        /* 2 - create deal for these shipments and make user owner */
 
         Deal deal = new Deal();
         double weights = 0;
-        List<Shipment> savedShipments = new ArrayList<>();
-        for (int i = 0; i < shipments.size(); i++) {
-            weights += shipments.get(i).getWeight();
-            shipments.get(i).setCreatedAt(new Date());
-            shipments.get(i).setImgUrl("");
-            savedShipments.add(shipmentRepository.save(shipments.get(i)));
-            deal.getShipments().add(savedShipments.get(i));
+        for (Shipment shipment : shipments) {
+            weights += shipment.getWeight();
         }
-
-        /* 3 - create deal for this shipment and make user owner */
-
         deal.setOwner(owner);
-        deal.setStatus(dealStatusRepository.findById(1L).get()); // Waiting shipments
+        deal.setStatus(referenceDataService.getDealStatus(1L)); // Waiting shipments
         deal.setFullWeight(weights);
         deal.setAvailableWeight(weights);
-        deal.setExpectedDate(date); //
-        /* */
+        deal.setExpectedDate(date);
         Deal savedDeal = dealRepository.save(deal);
 
-        /* 4 - save shipment after add deal to it */
-        /* 5 - save this shipment in from, to locations */
+        /* 3 - save shipments in the deal, and in from, to locations */
+        /* the ids are pooled: the inserts are batched at commit, one per shipment */
 
         Location from = locationRepository.findById(shipments.get(0).getFrom().getId()).get();
         Location to = locationRepository.findById(shipments.get(0).getTo().getId()).get();
 
-        for (int index = 0; index < savedShipments.size(); index++) {
-            savedShipments.get(index).setDeal(savedDeal);
-            from.getShipmentSources().add(shipmentRepository.save(savedShipments.get(index)));
-            to.getShipmentDestinations().add(shipmentRepository.save(savedShipments.get(index)));
+        List<Shipment> savedShipments = new ArrayList<>();
+        for (Shipment shipment : shipments) {
+            shipment.setCreatedAt(new Date());
+            shipment.setImgUrl("");
+            shipment.setDeal(savedDeal);
+            Shipment savedShipment = shipmentRepository.save(shipment);
+            savedDeal.getShipments().add(savedShipment);
+            from.getShipmentSources().add(savedShipment);
+            to.getShipmentDestinations().add(savedShipment);
+            savedShipments.add(savedShipment);
         }
 
         locationRepository.save(from);
         locationRepository.save(to);
 
-        /* 6 - add deal to shipment deals in user and save user */
+        /* 4 - add deal to shipment deals in user and save user */
 
         owner.getShipmentDeals().add(savedDeal);
 
         userApplicationRepository.save(owner);
 
+        routeIndexService.dealChanged(savedDeal.getId());
+
         return savedShipments;
     }
 
@@ -202,7 +201,9 @@ public class ShipmentService {
         if (shipment.getFrom() != null) edited.setFrom(shipment.getFrom());
         if (shipment.getImgUrl() != null) edited.setImgUrl(shipment.getImgUrl());
 
-        return shipmentRepository.findById(shipmentRepository.save(edited).getId());
+        Optional<Shipment> result = shipmentRepository.findById(shipmentRepository.save(edited).getId());
+        routeIndexService.dealChanged(deal.getId());
+        return result;
     }
 
     @Transactional(readOnly = true)
@@ -211,6 +212,38 @@ public class ShipmentService {
         return shipmentRepository.findAll(pageable);
     }
 
+    /**
+     * Get a page of the shipments, from the most recently created, with a cursor: pages are as fast at the end of the list
+     * as at its start, and there is no count query.
+     *
+     * @param cursor the cursor of the page, empty for the first page.
+     * @param size the size of the page.
+     * @return the page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Shipment> findAll(String cursor, int size) {
+        log.debug("Request to get Shipments after cursor {}", cursor);
+        PageCursor after = PageCursor.decode(cursor, ENTITY_NAME);
+        List<Shipment> shipments = new ArrayList<>();
+        if (after == null) {
+            shipments.addAll(shipmentRepository.findFirstByCreatedAt(PageRequest.ofSize(size + 1)));
+        } else if (after.getCreatedAt() != null) {
+            shipments.addAll(shipmentRepository.findAfterByCreatedAt(after.getCreatedAt(), after.getId(), PageRequest.ofSize(size + 1)));
+        }
+        if (shipments.size() <= size) {
+            // the shipments without creation date come last
+            long afterId = after == null || after.getCreatedAt() != null ? Long.MAX_VALUE : after.getId();
+            shipments.addAll(shipmentRepository.findAfterWithoutCreatedAt(afterId, PageRequest.ofSize(size + 1 - shipments.size())));
+        }
+        return CursorPage.of(shipments, size, shipment -> new PageCursor(shipment.getCreatedAt(), shipment.getId()).encode());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ShipmentSummary> findAllSummaries(Pageable pageable) {
+        log.debug("Request to get all Shipment summaries");
+        return shipmentRepository.findAllSummaries(pageable);
+    }
+
     @Transactional(readOnly = true)
     public Optional<Shipment> findOne(Long id) {
         log.debug("Request to get Shipment : {}", id);
@@ -258,6 +291,7 @@ public class ShipmentService {
         Deal deal = dealRepository.findById(shipments.get(0).getDeal().getId()).get();
         deal.setExpectedDate(date);
         dealRepository.save(deal);
+        routeIndexService.dealChanged(deal.getId());
         return list;
     }
 }
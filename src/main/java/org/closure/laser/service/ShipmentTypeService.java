@@ -32,6 +32,9 @@ public class ShipmentTypeService {
     @Autowired
     private ShipmentRepository shipmentRepository;
 
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
     public ShipmentTypeService(ShipmentTypeRepository shipmentTypeRepository) {
         this.shipmentTypeRepository = shipmentTypeRepository;
     }
@@ -85,10 +88,11 @@ public class ShipmentTypeService {
     }
 
     public Page<Shipment> getAllShipmentsByTypeId(Long id, Pageable pageable) {
-        if (!shipmentTypeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "id not found");
-        }
-        return shipmentRepository.findByType(shipmentTypeRepository.findById(id).get(), pageable);
+        ShipmentType shipmentType = referenceDataService
+            .getShipmentTypes()
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "id not found"));
+        return shipmentRepository.findByType(shipmentType, pageable);
     }
 
     @Transactional(readOnly = true)
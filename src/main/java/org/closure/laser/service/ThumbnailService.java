@@ -0,0 +1,145 @@
+package org.closure.laser.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Optional;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service creating the thumbnails of the uploaded images, shown by the list screens instead of the full images.
+ * <p>
+ * The thumbnail of the blob {@code hash} is the JPEG blob {@code hash-thumbnail}, no larger than
+ * {@code application.upload.thumbnail-size} pixels in width and height. Thumbnails are created on the
+ * "thumbnailExecutor", after the upload has returned.
+ */
+@Service
+public class ThumbnailService {
+
+    private static final String THUMBNAIL_SUFFIX = "-thumbnail";
+
+    private static final float JPEG_QUALITY = 0.8f;
+
+    private final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private final BlobStore blobStore;
+
+    private final int thumbnailSize;
+
+    public ThumbnailService(BlobStore blobStore, @Value("${application.upload.thumbnail-size:320}") int thumbnailSize) {
+        this.blobStore = blobStore;
+        this.thumbnailSize = thumbnailSize;
+    }
+
+    /**
+     * Create the thumbnail of an image in the background. Files which are not images get no thumbnail.
+     *
+     * @param key the key of the image blob.
+     */
+    @Async("thumbnailExecutor")
+    public void createThumbnailAsync(String key) {
+        try {
+            createThumbnail(key);
+        } catch (IOException e) {
+            log.warn("Could not create the thumbnail of {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the key of the thumbnail blob, or {@code null} if the file is not an image.
+     */
+    String createThumbnail(String key) throws IOException {
+        BufferedImage source = readSubsampled(key);
+        if (source == null) {
+            log.debug("No thumbnail for {}, not an image", key);
+            return null;
+        }
+        double scale = Math.min(1.0, (double) thumbnailSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG has no transparency: transparent pixels become white
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        String thumbnailKey = thumbnailKey(key);
+        Path temporary = blobStore.createTempFile();
+        try {
+            writeJpeg(thumbnail, temporary);
+            blobStore.put(thumbnailKey, temporary);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        log.debug("Created thumbnail {} ({}x{})", thumbnailKey, width, height);
+        return thumbnailKey;
+    }
+
+    static String thumbnailKey(String key) {
+        return key + THUMBNAIL_SUFFIX;
+    }
+
+    /**
+     * Decode only every n-th pixel of large images: a photo from a phone camera would otherwise take tens of
+     * megabytes of heap, for a thumbnail of a few hundred pixels.
+     */
+    private BufferedImage readSubsampled(String key) throws IOException {
+        Optional<Path> file = blobStore.localFile(key);
+        try (
+            InputStream stream = file.isPresent() ? null : blobStore.open(key);
+            ImageInputStream input = ImageIO.createImageInputStream(file.isPresent() ? file.get().toFile() : stream)
+        ) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int largestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, largestSide / (thumbnailSize * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static void writeJpeg(BufferedImage image, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(file.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.closure.laser.service;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
@@ -9,17 +10,17 @@ import org.closure.laser.domain.Location;
 import org.closure.laser.domain.Trip;
 import org.closure.laser.domain.UserApplication;
 import org.closure.laser.repository.DealRepository;
-import org.closure.laser.repository.DealStatusRepository;
 import org.closure.laser.repository.LocationRepository;
 import org.closure.laser.repository.TripRepository;
 import org.closure.laser.repository.UserApplicationRepository;
-import org.closure.laser.repository.UserRepository;
-import org.closure.laser.security.jwt.TokenProvider;
+import org.closure.laser.repository.projection.TripCard;
+import org.closure.laser.service.dto.CursorPage;
 import org.closure.laser.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -39,21 +40,21 @@ public class TripService {
     @Autowired
     private DealRepository dealRepository;
 
-    @Autowired
-    private TokenProvider tokenProvider;
-
     @Autowired
     private UserApplicationRepository userApplicationRepository;
 
     @Autowired
-    private DealStatusRepository dealStatusRepository;
+    private ReferenceDataService referenceDataService;
 
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserService currentUserService;
 
     @Autowired
     private LocationRepository locationRepository;
 
+    @Autowired
+    private RouteIndexService routeIndexService;
+
     public TripService(TripRepository tripRepository) {
         this.tripRepository = tripRepository;
     }
@@ -69,7 +70,7 @@ public class TripService {
         return tripRepository.save(trip);
     }
 
-    public Trip saveLogic(Trip trip, String token, Double availableWeight, Double fullWeight) {
+    public Trip saveLogic(Trip trip, Double availableWeight, Double fullWeight) {
         log.debug("Request to save Trip : {}", trip);
         if (trip.getId() != null) {
             throw new BadRequestAlertException("A new trip cannot already have an ID", ENTITY_NAME, "idexists");
@@ -78,11 +79,9 @@ public class TripService {
             throw new BadRequestAlertException("You must enter ticket image", ENTITY_NAME, "image not sent");
         }
 
-        /* 1 - get user (deliver) from token */
+        /* 1 - get current user (deliver) */
 
-        UserApplication deliver = userApplicationRepository
-            .findByUser(userRepository.findOneByLogin(tokenProvider.getLoginFromToken(token)).get())
-            .get();
+        UserApplication deliver = currentUserService.getUserApplication();
 
         /* 2 - save trip */
 
@@ -102,7 +101,7 @@ public class TripService {
             Deal deal = new Deal();
             deal.setTrip(optional.get());
             deal.setDeliver(deliver);
-            deal.setStatus(dealStatusRepository.findById(1L).get()); // Waiting shipments
+            deal.setStatus(referenceDataService.getDealStatus(1L)); // Waiting shipments
             deal.setFullWeight(fullWeight);
             deal.setAvailableWeight(availableWeight);
             deal.setArrivelDate(optional.get().getArriveTime());
@@ -117,6 +116,8 @@ public class TripService {
             tripRepository.save(optional.get());
 
             savedTrip = optional.get();
+
+            routeIndexService.dealChanged(savedDeal.getId());
         } else {
             trip.setCreatedAt(new Date());
             savedTrip = tripRepository.save(trip);
@@ -126,7 +127,7 @@ public class TripService {
             Deal deal = new Deal();
             deal.setTrip(trip);
             deal.setDeliver(deliver);
-            deal.setStatus(dealStatusRepository.findById(1L).get()); // Waiting shipments
+            deal.setStatus(referenceDataService.getDealStatus(1L)); // Waiting shipments
             deal.setFullWeight(fullWeight);
             deal.setAvailableWeight(availableWeight);
             deal.setArrivelDate(savedTrip.getArriveTime());
@@ -155,6 +156,8 @@ public class TripService {
             deliver.getTripsDeals().add(savedDeal);
 
             userApplicationRepository.save(deliver);
+
+            routeIndexService.dealChanged(savedDeal.getId());
         }
 
         return savedTrip;
@@ -206,7 +209,9 @@ public class TripService {
         deal.setFullWeight(fullWeight);
         dealRepository.save(deal);
 
-        return tripRepository.findById(tripRepository.save(edited).getId());
+        Optional<Trip> result = tripRepository.findById(tripRepository.save(edited).getId());
+        routeIndexService.dealChanged(deal.getId());
+        return result;
     }
 
     @Transactional(readOnly = true)
@@ -215,6 +220,38 @@ public class TripService {
         return tripRepository.findAll(pageable);
     }
 
+    /**
+     * Get a page of the trips, from the most recently created, with a cursor: pages are as fast at the end of the list
+     * as at its start, and there is no count query.
+     *
+     * @param cursor the cursor of the page, empty for the first page.
+     * @param size the size of the page.
+     * @return the page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Trip> findAll(String cursor, int size) {
+        log.debug("Request to get Trips after cursor {}", cursor);
+        PageCursor after = PageCursor.decode(cursor, ENTITY_NAME);
+        List<Trip> trips = new ArrayList<>();
+        if (after == null) {
+            trips.addAll(tripRepository.findFirstByCreatedAt(PageRequest.ofSize(size + 1)));
+        } else if (after.getCreatedAt() != null) {
+            trips.addAll(tripRepository.findAfterByCreatedAt(after.getCreatedAt(), after.getId(), PageRequest.ofSize(size + 1)));
+        }
+        if (trips.size() <= size) {
+            // the trips without creation date come last
+            long afterId = after == null || after.getCreatedAt() != null ? Long.MAX_VALUE : after.getId();
+            trips.addAll(tripRepository.findAfterWithoutCreatedAt(afterId, PageRequest.ofSize(size + 1 - trips.size())));
+        }
+        return CursorPage.of(trips, size, trip -> new PageCursor(trip.getCreatedAt(), trip.getId()).encode());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<TripCard> findAllCards(Pageable pageable) {
+        log.debug("Request to get all Trip cards");
+        return tripRepository.findAllCards(pageable);
+    }
+
     @Transactional(readOnly = true)
     public Optional<Trip> findOne(Long id) {
         log.debug("Request to get Trip : {}", id);
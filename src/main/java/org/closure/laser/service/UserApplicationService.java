@@ -1,23 +1,19 @@
 package org.closure.laser.service;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Random;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.BiConsumer;
-import java.util.function.Consumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 import javax.validation.Valid;
 import org.closure.laser.domain.Connection;
-import org.closure.laser.domain.Deal;
 import org.closure.laser.domain.Shipment;
 import org.closure.laser.domain.Trip;
 import org.closure.laser.domain.User;
@@ -29,6 +25,7 @@ import org.closure.laser.repository.UserApplicationRepository;
 import org.closure.laser.repository.UserRepository;
 import org.closure.laser.security.jwt.JWTFilter;
 import org.closure.laser.security.jwt.TokenProvider;
+import org.closure.laser.service.ImageStoreService.StoredImage;
 import org.closure.laser.service.dto.AdminUserDTO;
 import org.closure.laser.service.dto.ShipmentDealDTO;
 import org.closure.laser.service.dto.TripDealDTO;
@@ -38,13 +35,14 @@ import org.closure.laser.web.rest.vm.LoginVM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
@@ -52,6 +50,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -76,9 +76,29 @@ public class UserApplicationService {
     @Autowired
     private ConnectionService connectionService;
 
+    @Autowired
+    private FileIndexService fileIndexService;
+
+    @Autowired
+    private ImageStoreService imageStoreService;
+
+    @Autowired
+    @Qualifier("uploadExecutor")
+    private Executor uploadExecutor;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private Executor taskExecutor;
+
+    @Value("${application.upload.directory:assets/images}")
+    private Path imagesDirectory;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private SearchIndexService searchIndexService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -91,11 +111,14 @@ public class UserApplicationService {
     @Autowired
     private TokenProvider tokenProvider;
 
+    @Autowired
+    private CurrentUserService currentUserService;
+
     @Autowired
     private TripRepository tripRepository;
 
     @Autowired
-    private DealService dealService;
+    private DealViewService dealViewService;
 
     @Autowired
     private AuthenticationManagerBuilder authenticationManagerBuilder;
@@ -246,8 +269,9 @@ public class UserApplicationService {
     }
 
     public ResponseEntity<JWTToken> refreshToken(String token) {
+        // the refresh token is not checked by the JWT filter, so the user comes from the token itself
         UserApplication userApplication = userApplicationRepository
-            .findByUser(userRepository.findOneByLogin(tokenProvider.getLoginFromToken(token)).get())
+            .findById(currentUserService.findUserApplicationId(tokenProvider.getLoginFromToken(token)))
             .get();
 
         String jwt = tokenProvider.createRefreshToken(
@@ -276,10 +300,8 @@ public class UserApplicationService {
         return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
     }
 
-    public ResponseEntity<UserApplication> sendEmail(String token) {
-        UserApplication userApplication = userApplicationRepository
-            .findByUser(userRepository.findOneByLogin(tokenProvider.getLoginFromToken(token)).get())
-            .get();
+    public ResponseEntity<UserApplication> sendEmail() {
+        UserApplication userApplication = currentUserService.getUserApplication();
         mailService.sendActivationEmail(userApplication.getUser());
         return ResponseEntity.ok().body(userApplication);
     }
@@ -313,6 +335,7 @@ public class UserApplicationService {
         if (!userApplicationRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        currentUserService.clearCache();
         return userApplicationRepository.save(userApplication);
     }
 
@@ -334,6 +357,9 @@ public class UserApplicationService {
         if (!userApplicationRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "notfound");
         }
+        if (userApplication.getUser() != null) {
+            currentUserService.clearCache();
+        }
         return userApplicationRepository
             .findById(userApplication.getId())
             .map(existingUserApplication -> {
@@ -427,6 +453,7 @@ public class UserApplicationService {
         if (!userApplicationRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        currentUserService.clearCache();
         userApplicationRepository.deleteById(id);
     }
 
@@ -435,15 +462,7 @@ public class UserApplicationService {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "notfound");
         }
 
-        List<Deal> deals = dealRepository.findByDeliver(userApplicationRepository.findById(id).get(), pageable);
-
-        List<TripDealDTO> list = new ArrayList<>();
-
-        for (Deal deal : deals) {
-            list.add(new TripDealDTO(deal, tripRepository.findById(deal.getTrip().getId()).get(), deal.getDeliver()));
-        }
-
-        return list;
+        return dealViewService.tripDeals(dealRepository.findIdsByDeliverId(id, pageable));
     }
 
     public List<ShipmentDealDTO> getAllShipmentDealsByUserAppId(Long id, Pageable pageable) {
@@ -451,21 +470,22 @@ public class UserApplicationService {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "notfound");
         }
 
-        List<Deal> deals = dealRepository.findByOwner(userApplicationRepository.findById(id).get(), pageable);
-
-        List<ShipmentDealDTO> list = new ArrayList<>();
-
-        for (Deal deal : deals) {
-            list.add(new ShipmentDealDTO(deal, dealService.getAllShipmentsByDealId(deal.getId()), deal.getOwner()));
-        }
-
-        return list;
+        return dealViewService.shipmentDeals(dealRepository.findIdsByOwnerId(id, pageable));
     }
 
     @Transactional(readOnly = true)
     public Page<UserApplication> search(String value, Pageable pageable) {
         log.debug("Request to get all user application by value");
-        return userApplicationRepository.search(value, pageable);
+        if (!searchIndexService.isReady()) {
+            return userApplicationRepository.search(value, pageable);
+        }
+        Page<Long> ids = searchIndexService.search(SearchIndexService.Index.USERS, value, pageable);
+        List<UserApplication> users = SearchIndexService.inOrder(
+            ids.getContent(),
+            userApplicationRepository.findAllById(ids.getContent()),
+            UserApplication::getId
+        );
+        return new PageImpl<>(users, pageable, ids.getTotalElements());
     }
 
     public boolean rate(Long r, Long u_id) {
@@ -501,77 +521,199 @@ public class UserApplicationService {
     }
 
     @Transactional
-    public void updateFCM(String token, String fcmToken) {
-        UserApplication userApplication = userApplicationRepository
-            .findByUser(userRepository.findOneByLogin(tokenProvider.getLoginFromToken(token)).get())
-            .get();
+    public void updateFCM(String fcmToken) {
+        UserApplication userApplication = currentUserService.getUserApplication();
 
         userApplication.getConnection().setFcmToken(fcmToken);
 
         userApplicationRepository.save(userApplication);
     }
 
-    private static <T> Consumer<T> withCounter(BiConsumer<Integer, T> consumer) {
-        AtomicInteger counter = new AtomicInteger(0);
-        return item -> consumer.accept(counter.getAndIncrement(), item);
-    }
-
+    /**
+     * Save uploaded images and attach them to their owner, with a single update of the owner.
+     * <p>
+     * The files are stored in parallel on the "uploadExecutor" by the {@link ImageStoreService}, which moves the
+     * temporary files the multipart parts were received in where possible, and names them after their content.
+     * Each stored image is referenced at once: the references are released once the request completes, those of
+     * the new images if it rolls back, and those of the images no longer used if it commits.
+     *
+     * @param files the images.
+     * @param type the owner type: "user", "trip" or "shipment"; other types are only saved.
+     * @param id the id of the owner.
+     * @return the URLs of the images.
+     */
     public ResponseEntity<List<Object>> multiUpload(MultipartFile[] files, String type, Long id) {
-        List<Object> fileDownloadUrls = new ArrayList<>();
-        Arrays
-            .asList(files)
-            .stream()
-            .forEach(withCounter((i, file) -> fileDownloadUrls.add(uploadToLocalFileSystem(file, type, id, i).getBody())));
-        return ResponseEntity.ok(fileDownloadUrls);
+        if (imageDirectory(type).isEmpty()) {
+            throw new BadRequestAlertException("Invalid type", ENTITY_NAME, "typeinvalid");
+        }
+        if (!ownerExists(type, id)) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        // the request attributes are bound to the request thread only
+        String directoryUri = ServletUriComponentsBuilder.fromCurrentContextPath().path("/api/assets/images/").path(type).toUriString();
+
+        List<CompletableFuture<String>> uploads = new ArrayList<>();
+        for (MultipartFile file : files) {
+            uploads.add(CompletableFuture.supplyAsync(() -> storeImage(file), uploadExecutor));
+        }
+        List<String> names = new ArrayList<>();
+        RuntimeException failure = null;
+        for (CompletableFuture<String> upload : uploads) {
+            try {
+                names.add(upload.join());
+            } catch (CompletionException e) {
+                failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        List<String> fileDownloadUris = names.stream().map(name -> directoryUri + "/" + name).collect(Collectors.toList());
+        releaseImagesAfterRollback(fileDownloadUris);
+        if (failure != null) {
+            throw failure;
+        }
+
+        attachImages(type, id, fileDownloadUris);
+        return ResponseEntity.ok(new ArrayList<>(fileDownloadUris));
     }
 
-    private ResponseEntity<Object> uploadToLocalFileSystem(MultipartFile file, String type, Long id, int counter) {
-        String fileName = StringUtils.cleanPath(file.getOriginalFilename());
-        Path path = Paths.get(String.format("assets/images/%s/%d_%d%s", type, id, counter, fileName));
-        path.toFile().getParentFile().mkdirs();
+    private String storeImage(MultipartFile file) {
         try {
-            Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
+            return imageStoreService.store(file);
         } catch (IOException e) {
-            e.printStackTrace();
+            throw new UncheckedIOException("Could not save file: " + file.getOriginalFilename(), e);
         }
-        String fileDownloadUri = ServletUriComponentsBuilder
-            .fromCurrentContextPath()
-            .path("/api/assets/images/")
-            .path(String.format("%s/%d_%d%s", type, id, counter, fileName))
-            .toUriString();
+    }
 
+    /**
+     * A user or a trip has a single image: the images it no longer uses are released.
+     */
+    private void attachImages(String type, Long id, List<String> fileDownloadUris) {
+        if (fileDownloadUris.isEmpty()) {
+            return;
+        }
+        String lastUri = fileDownloadUris.get(fileDownloadUris.size() - 1);
         if (type.equals("user")) {
-            UserApplication user = userApplicationRepository.findById(id).get();
-            user.setImage(fileDownloadUri);
+            UserApplication user = userApplicationRepository.findById(id).orElseThrow(this::ownerNotFound);
+            releaseImagesAfterCommit(fileDownloadUris.subList(0, fileDownloadUris.size() - 1));
+            releaseImagesAfterCommit(user.getImage() == null ? List.of() : List.of(user.getImage()));
+            user.setImage(lastUri);
             userApplicationRepository.save(user);
         }
         if (type.equals("trip")) {
-            Trip trip = tripRepository.findById(id).get();
-            trip.setTicketImage(fileDownloadUri);
+            Trip trip = tripRepository.findById(id).orElseThrow(this::ownerNotFound);
+            releaseImagesAfterCommit(fileDownloadUris.subList(0, fileDownloadUris.size() - 1));
+            releaseImagesAfterCommit(trip.getTicketImage() == null ? List.of() : List.of(trip.getTicketImage()));
+            trip.setTicketImage(lastUri);
             tripRepository.save(trip);
         }
         if (type.equals("shipment")) {
-            Shipment shipment = shipmentRepository.findById(id).get();
-            if (shipment.getImgUrl().equals("")) shipment.setImgUrl(fileDownloadUri); else shipment.setImgUrl(
-                shipment.getImgUrl() + "," + fileDownloadUri
-            );
+            Shipment shipment = shipmentRepository.findById(id).orElseThrow(this::ownerNotFound);
+            List<String> imgUrls = new ArrayList<>();
+            if (StringUtils.hasLength(shipment.getImgUrl())) {
+                imgUrls.add(shipment.getImgUrl());
+            }
+            imgUrls.addAll(fileDownloadUris);
+            shipment.setImgUrl(String.join(",", imgUrls));
             shipmentRepository.save(shipment);
         }
-        return ResponseEntity.ok(fileDownloadUri);
     }
 
-    public ResponseEntity<Resource> downloadFileFromLocal(String type, String fileName) {
-        Path path = Paths.get(String.format("assets/images/%s/%s", type, fileName));
-        Resource resource = null;
+    private boolean ownerExists(String type, Long id) {
+        switch (type) {
+            case "user":
+                return id != null && userApplicationRepository.existsById(id);
+            case "trip":
+                return id != null && tripRepository.existsById(id);
+            case "shipment":
+                return id != null && shipmentRepository.existsById(id);
+            default:
+                return true;
+        }
+    }
+
+    private BadRequestAlertException ownerNotFound() {
+        return new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+    }
+
+    private void releaseImagesAfterCommit(List<String> fileDownloadUris) {
+        List<String> released = List.copyOf(fileDownloadUris);
+        if (released.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    releaseImages(released);
+                }
+            }
+        );
+    }
+
+    private void releaseImagesAfterRollback(List<String> fileDownloadUris) {
+        List<String> released = List.copyOf(fileDownloadUris);
+        if (released.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        releaseImages(released);
+                    }
+                }
+            }
+        );
+    }
+
+    /**
+     * Release images in the background: each release commits on a connection of its own, which the completing
+     * transaction must not wait for while it still holds its own.
+     */
+    private void releaseImages(List<String> fileDownloadUris) {
         try {
-            resource = new UrlResource(path.toUri());
-        } catch (MalformedURLException e) {
-            e.printStackTrace();
+            taskExecutor.execute(() -> {
+                for (String fileDownloadUri : fileDownloadUris) {
+                    imageStoreService.release(fileDownloadUri.substring(fileDownloadUri.lastIndexOf('/') + 1));
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("Could not release the images {}: {}", fileDownloadUris, e.getMessage());
+        }
+    }
+
+    /**
+     * Find an uploaded image.
+     *
+     * @param type the type of the image: "user", "trip", "shipment"...
+     * @param fileName the name of the image file.
+     * @return the image, if it exists.
+     */
+    public Optional<StoredImage> findImage(String type, String fileName) throws IOException {
+        if (ImageStoreService.isStoredImage(fileName)) {
+            return imageStoreService.find(fileName);
+        }
+        // uploaded before the images were stored by content
+        Optional<Path> file = imageDirectory(type).flatMap(directory -> fileIndexService.find(directory, fileName));
+        return file.isPresent() ? Optional.of(StoredImage.ofFile(file.get())) : Optional.empty();
+    }
+
+    /**
+     * Find the thumbnail of an uploaded image.
+     *
+     * @param type the type of the image: "user", "trip", "shipment"...
+     * @param fileName the name of the image file.
+     * @return the thumbnail, if it has been created.
+     */
+    public Optional<StoredImage> findThumbnail(String type, String fileName) throws IOException {
+        return imageStoreService.findThumbnail(fileName);
+    }
+
+    private Optional<Path> imageDirectory(String type) {
+        Path directory = imagesDirectory.resolve(type).normalize();
+        if (!directory.startsWith(imagesDirectory) || directory.getNameCount() != imagesDirectory.getNameCount() + 1) {
+            return Optional.empty();
         }
-        return ResponseEntity
-            .ok()
-            .contentType(MediaType.parseMediaType("multipart/form-data"))
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-            .body(resource);
+        return Optional.of(directory);
     }
 }
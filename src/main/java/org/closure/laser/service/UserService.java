@@ -8,6 +8,7 @@ import org.closure.laser.config.Constants;
 import org.closure.laser.domain.Authority;
 import org.closure.laser.domain.User;
 import org.closure.laser.repository.AuthorityRepository;
+import org.closure.laser.repository.UserApplicationRepository;
 import org.closure.laser.repository.UserRepository;
 import org.closure.laser.security.AuthoritiesConstants;
 import org.closure.laser.security.SecurityUtils;
@@ -366,6 +367,7 @@ public class UserService {
 
     private void clearUserCaches(User user) {
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
+        Objects.requireNonNull(cacheManager.getCache(UserApplicationRepository.IDS_BY_LOGIN_CACHE)).evict(user.getLogin());
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
         }
@@ -0,0 +1,48 @@
+package org.closure.laser.service.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of a list paginated with cursors: the page does not know its number nor the size of the list, which would
+ * cost a count query, only the cursor of the next page.
+ */
+public class CursorPage<T> {
+
+    private final List<T> content;
+
+    private final String nextCursor;
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @param rows the rows of the page, and one more if there is a next page.
+     * @param size the size of the page.
+     * @param cursor the cursor of the next page, after the given row.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, String> cursor) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new CursorPage<>(content, cursor.apply(content.get(size - 1)));
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return the cursor of the next page, or {@code null} on the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
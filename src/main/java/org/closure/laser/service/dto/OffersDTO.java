@@ -1,14 +1,19 @@
 package org.closure.laser.service.dto;
 
+/**
+ * An offer with the compact views of its trip and shipment deals.
+ */
 public class OffersDTO {
 
-    Long id;
-    TripDealDTO tripDealDTO;
-    ShipmentDealDTO shipmentDealDTO;
-    String status;
-    Long senderId;
+    private final Long id;
 
-    public OffersDTO() {}
+    private final TripDealDTO tripDealDTO;
+
+    private final ShipmentDealDTO shipmentDealDTO;
+
+    private final String status;
+
+    private final Long senderId;
 
     public OffersDTO(Long id, TripDealDTO tripDealDTO, ShipmentDealDTO shipmentDealDTO, String status, Long senderId) {
         this.id = id;
@@ -18,43 +23,23 @@ public class OffersDTO {
         this.senderId = senderId;
     }
 
-    public TripDealDTO getTripDealDTO() {
-        return this.tripDealDTO;
+    public Long getId() {
+        return id;
     }
 
-    public void setTripDealDTO(TripDealDTO tripDealDTO) {
-        this.tripDealDTO = tripDealDTO;
+    public TripDealDTO getTripDealDTO() {
+        return tripDealDTO;
     }
 
     public ShipmentDealDTO getShipmentDealDTO() {
-        return this.shipmentDealDTO;
-    }
-
-    public void setShipmentDealDTO(ShipmentDealDTO shipmentDealDTO) {
-        this.shipmentDealDTO = shipmentDealDTO;
+        return shipmentDealDTO;
     }
 
     public String getStatus() {
-        return this.status;
-    }
-
-    public void setStatus(String status) {
-        this.status = status;
-    }
-
-    public Long getId() {
-        return id;
-    }
-
-    public void setId(Long id) {
-        this.id = id;
+        return status;
     }
 
     public Long getSenderId() {
         return senderId;
     }
-
-    public void setSenderId(Long senderId) {
-        this.senderId = senderId;
-    }
 }
@@ -0,0 +1,69 @@
+package org.closure.laser.service.dto;
+
+import java.util.Set;
+
+/**
+ * Result of comparing the in-memory route index with the SQL search it replaces.
+ */
+public class RouteIndexCheckDTO {
+
+    String index;
+    int expectedCount;
+    int actualCount;
+    Set<Long> missing;
+    Set<Long> unexpected;
+
+    public RouteIndexCheckDTO() {}
+
+    public RouteIndexCheckDTO(String index, int expectedCount, int actualCount, Set<Long> missing, Set<Long> unexpected) {
+        this.index = index;
+        this.expectedCount = expectedCount;
+        this.actualCount = actualCount;
+        this.missing = missing;
+        this.unexpected = unexpected;
+    }
+
+    public boolean isConsistent() {
+        return missing.isEmpty() && unexpected.isEmpty();
+    }
+
+    public String getIndex() {
+        return this.index;
+    }
+
+    public void setIndex(String index) {
+        this.index = index;
+    }
+
+    public int getExpectedCount() {
+        return this.expectedCount;
+    }
+
+    public void setExpectedCount(int expectedCount) {
+        this.expectedCount = expectedCount;
+    }
+
+    public int getActualCount() {
+        return this.actualCount;
+    }
+
+    public void setActualCount(int actualCount) {
+        this.actualCount = actualCount;
+    }
+
+    public Set<Long> getMissing() {
+        return this.missing;
+    }
+
+    public void setMissing(Set<Long> missing) {
+        this.missing = missing;
+    }
+
+    public Set<Long> getUnexpected() {
+        return this.unexpected;
+    }
+
+    public void setUnexpected(Set<Long> unexpected) {
+        this.unexpected = unexpected;
+    }
+}
@@ -1,45 +1,108 @@
 package org.closure.laser.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Date;
 import java.util.List;
-import org.closure.laser.domain.Deal;
-import org.closure.laser.domain.Shipment;
-import org.closure.laser.domain.UserApplication;
+import org.closure.laser.repository.projection.ShipmentDealRow;
 
+/**
+ * A shipment deal as listed by the search, feed and offers endpoints: the deal and the public profile of its owner in
+ * one flat object, with its shipments. The {@code null} fields are left out.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ShipmentDealDTO {
 
-    Deal deal;
-    List<Shipment> shipments;
-    UserApplication owner;
+    private final Long dealId;
 
-    public ShipmentDealDTO() {}
+    private final Double fullWeight;
 
-    public ShipmentDealDTO(Deal deal, List<Shipment> shipments, UserApplication owner) {
-        this.deal = deal;
+    private final Double availableWeight;
+
+    private final Double totalPrice;
+
+    private final Date expectedDate;
+
+    private final Long statusId;
+
+    private final String statusName;
+
+    private final Long ownerId;
+
+    private final String ownerFirstName;
+
+    private final String ownerLastName;
+
+    private final String ownerImage;
+
+    private final Double ownerRate;
+
+    private final List<ShipmentItemDTO> shipments;
+
+    public ShipmentDealDTO(ShipmentDealRow row, List<ShipmentItemDTO> shipments) {
+        this.dealId = row.getDealId();
+        this.fullWeight = row.getFullWeight();
+        this.availableWeight = row.getAvailableWeight();
+        this.totalPrice = row.getTotalPrice();
+        this.expectedDate = row.getExpectedDate();
+        this.statusId = row.getStatusId();
+        this.statusName = row.getStatusName();
+        this.ownerId = row.getOwnerId();
+        this.ownerFirstName = row.getOwnerFirstName();
+        this.ownerLastName = row.getOwnerLastName();
+        this.ownerImage = row.getOwnerImage();
+        this.ownerRate = row.getOwnerRate();
         this.shipments = shipments;
-        this.owner = owner;
     }
 
-    public Deal getDeal() {
-        return this.deal;
+    public Long getDealId() {
+        return dealId;
     }
 
-    public void setDeal(Deal deal) {
-        this.deal = deal;
+    public Double getFullWeight() {
+        return fullWeight;
     }
 
-    public List<Shipment> getShipments() {
-        return this.shipments;
+    public Double getAvailableWeight() {
+        return availableWeight;
     }
 
-    public void setShipments(List<Shipment> shipments) {
-        this.shipments = shipments;
+    public Double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public Date getExpectedDate() {
+        return expectedDate;
+    }
+
+    public Long getStatusId() {
+        return statusId;
+    }
+
+    public String getStatusName() {
+        return statusName;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public String getOwnerFirstName() {
+        return ownerFirstName;
+    }
+
+    public String getOwnerLastName() {
+        return ownerLastName;
+    }
+
+    public String getOwnerImage() {
+        return ownerImage;
     }
 
-    public UserApplication getOwner() {
-        return this.owner;
+    public Double getOwnerRate() {
+        return ownerRate;
     }
 
-    public void setOwner(UserApplication owner) {
-        this.owner = owner;
+    public List<ShipmentItemDTO> getShipments() {
+        return shipments;
     }
 }
@@ -0,0 +1,120 @@
+package org.closure.laser.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Date;
+import org.closure.laser.repository.projection.ShipmentSummary;
+
+/**
+ * A shipment of a {@link ShipmentDealDTO}, with its type and route. The {@code null} fields are left out.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ShipmentItemDTO {
+
+    private final Long id;
+
+    private final Double weight;
+
+    private final String description;
+
+    private final String imgUrl;
+
+    private final Double cost;
+
+    private final Double price;
+
+    private final Date createdAt;
+
+    private final Long typeId;
+
+    private final String typeName;
+
+    private final Long fromId;
+
+    private final String fromCountry;
+
+    private final String fromCity;
+
+    private final Long toId;
+
+    private final String toCountry;
+
+    private final String toCity;
+
+    public ShipmentItemDTO(ShipmentSummary shipment) {
+        this.id = shipment.getId();
+        this.weight = shipment.getWeight();
+        this.description = shipment.getDescription();
+        this.imgUrl = shipment.getImgUrl();
+        this.cost = shipment.getCost();
+        this.price = shipment.getPrice();
+        this.createdAt = shipment.getCreatedAt();
+        this.typeId = shipment.getTypeId();
+        this.typeName = shipment.getTypeName();
+        this.fromId = shipment.getFromId();
+        this.fromCountry = shipment.getFromCountry();
+        this.fromCity = shipment.getFromCity();
+        this.toId = shipment.getToId();
+        this.toCountry = shipment.getToCountry();
+        this.toCity = shipment.getToCity();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Double getWeight() {
+        return weight;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getImgUrl() {
+        return imgUrl;
+    }
+
+    public Double getCost() {
+        return cost;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getTypeId() {
+        return typeId;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public Long getFromId() {
+        return fromId;
+    }
+
+    public String getFromCountry() {
+        return fromCountry;
+    }
+
+    public String getFromCity() {
+        return fromCity;
+    }
+
+    public Long getToId() {
+        return toId;
+    }
+
+    public String getToCountry() {
+        return toCountry;
+    }
+
+    public String getToCity() {
+        return toCity;
+    }
+}
@@ -1,44 +1,191 @@
 package org.closure.laser.service.dto;
 
-import org.closure.laser.domain.Deal;
-import org.closure.laser.domain.Trip;
-import org.closure.laser.domain.UserApplication;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Date;
+import org.closure.laser.repository.projection.TripDealRow;
 
+/**
+ * A trip deal as listed by the search, feed and offers endpoints: the deal, its trip and route, and the public profile
+ * of its deliver, in one flat object. The {@code null} fields are left out.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class TripDealDTO {
 
-    Deal deal;
-    Trip trip;
-    UserApplication deliver;
+    private final Long dealId;
 
-    public TripDealDTO() {}
+    private final Double fullWeight;
 
-    public TripDealDTO(Deal deal, Trip trip, UserApplication deliver) {
-        this.deal = deal;
-        this.trip = trip;
-        this.deliver = deliver;
+    private final Double availableWeight;
+
+    private final Date arrivelDate;
+
+    private final Long statusId;
+
+    private final String statusName;
+
+    private final Long tripId;
+
+    private final String tripIdentifier;
+
+    private final Date flyTime;
+
+    private final Date arriveTime;
+
+    private final String tripType;
+
+    private final String transit;
+
+    private final Long fromId;
+
+    private final String fromCountry;
+
+    private final String fromCity;
+
+    private final String fromAirport;
+
+    private final Long toId;
+
+    private final String toCountry;
+
+    private final String toCity;
+
+    private final String toAirport;
+
+    private final Long deliverId;
+
+    private final String deliverFirstName;
+
+    private final String deliverLastName;
+
+    private final String deliverImage;
+
+    private final Double deliverRate;
+
+    public TripDealDTO(TripDealRow row) {
+        this.dealId = row.getDealId();
+        this.fullWeight = row.getFullWeight();
+        this.availableWeight = row.getAvailableWeight();
+        this.arrivelDate = row.getArrivelDate();
+        this.statusId = row.getStatusId();
+        this.statusName = row.getStatusName();
+        this.tripId = row.getTripId();
+        this.tripIdentifier = row.getTripIdentifier();
+        this.flyTime = row.getFlyTime();
+        this.arriveTime = row.getArriveTime();
+        this.tripType = row.getTripType();
+        this.transit = row.getTransit();
+        this.fromId = row.getFromId();
+        this.fromCountry = row.getFromCountry();
+        this.fromCity = row.getFromCity();
+        this.fromAirport = row.getFromAirport();
+        this.toId = row.getToId();
+        this.toCountry = row.getToCountry();
+        this.toCity = row.getToCity();
+        this.toAirport = row.getToAirport();
+        this.deliverId = row.getDeliverId();
+        this.deliverFirstName = row.getDeliverFirstName();
+        this.deliverLastName = row.getDeliverLastName();
+        this.deliverImage = row.getDeliverImage();
+        this.deliverRate = row.getDeliverRate();
+    }
+
+    public Long getDealId() {
+        return dealId;
+    }
+
+    public Double getFullWeight() {
+        return fullWeight;
+    }
+
+    public Double getAvailableWeight() {
+        return availableWeight;
+    }
+
+    public Date getArrivelDate() {
+        return arrivelDate;
+    }
+
+    public Long getStatusId() {
+        return statusId;
+    }
+
+    public String getStatusName() {
+        return statusName;
+    }
+
+    public Long getTripId() {
+        return tripId;
+    }
+
+    public String getTripIdentifier() {
+        return tripIdentifier;
+    }
+
+    public Date getFlyTime() {
+        return flyTime;
+    }
+
+    public Date getArriveTime() {
+        return arriveTime;
+    }
+
+    public String getTripType() {
+        return tripType;
+    }
+
+    public String getTransit() {
+        return transit;
+    }
+
+    public Long getFromId() {
+        return fromId;
+    }
+
+    public String getFromCountry() {
+        return fromCountry;
+    }
+
+    public String getFromCity() {
+        return fromCity;
+    }
+
+    public String getFromAirport() {
+        return fromAirport;
+    }
+
+    public Long getToId() {
+        return toId;
+    }
+
+    public String getToCountry() {
+        return toCountry;
+    }
+
+    public String getToCity() {
+        return toCity;
     }
 
-    public Deal getDeal() {
-        return this.deal;
+    public String getToAirport() {
+        return toAirport;
     }
 
-    public void setDeal(Deal deal) {
-        this.deal = deal;
+    public Long getDeliverId() {
+        return deliverId;
     }
 
-    public Trip getTrip() {
-        return this.trip;
+    public String getDeliverFirstName() {
+        return deliverFirstName;
     }
 
-    public void setTrip(Trip trip) {
-        this.trip = trip;
+    public String getDeliverLastName() {
+        return deliverLastName;
     }
 
-    public UserApplication getDeliver() {
-        return this.deliver;
+    public String getDeliverImage() {
+        return deliverImage;
     }
 
-    public void setDeliver(UserApplication deliver) {
-        this.deliver = deliver;
+    public Double getDeliverRate() {
+        return deliverRate;
     }
 }
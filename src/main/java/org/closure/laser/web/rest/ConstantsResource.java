@@ -8,6 +8,7 @@ import java.util.Optional;
 import org.closure.laser.domain.Constants;
 import org.closure.laser.repository.ConstantsRepository;
 import org.closure.laser.service.ConstantsService;
+import org.closure.laser.service.ReferenceDataService;
 import org.closure.laser.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,9 +36,16 @@ public class ConstantsResource {
 
     private final ConstantsRepository constantsRepository;
 
-    public ConstantsResource(ConstantsService constantsService, ConstantsRepository constantsRepository) {
+    private final ReferenceDataService referenceDataService;
+
+    public ConstantsResource(
+        ConstantsService constantsService,
+        ConstantsRepository constantsRepository,
+        ReferenceDataService referenceDataService
+    ) {
         this.constantsService = constantsService;
         this.constantsRepository = constantsRepository;
+        this.referenceDataService = referenceDataService;
     }
 
     /**
@@ -133,12 +141,13 @@ public class ConstantsResource {
     /**
      * {@code GET  /constants} : get all the constants.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of constants in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, a strong ETag and the list of constants in body.
      */
     @GetMapping("/constants")
-    public List<Constants> getAllConstants() {
+    public ResponseEntity<List<Constants>> getAllConstants() {
         log.debug("REST request to get all Constants");
-        return constantsService.findAll();
+        ReferenceDataService.Table<Constants> constants = referenceDataService.getConstants();
+        return ResponseEntity.ok().eTag(constants.getETag()).body(constants.getAll());
     }
 
     /**
@@ -8,6 +8,7 @@ import java.util.Optional;
 import org.closure.laser.domain.Countries;
 import org.closure.laser.repository.CountriesRepository;
 import org.closure.laser.service.CountriesService;
+import org.closure.laser.service.ReferenceDataService;
 import org.closure.laser.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,9 +36,16 @@ public class CountriesResource {
 
     private final CountriesRepository countriesRepository;
 
-    public CountriesResource(CountriesService countriesService, CountriesRepository countriesRepository) {
+    private final ReferenceDataService referenceDataService;
+
+    public CountriesResource(
+        CountriesService countriesService,
+        CountriesRepository countriesRepository,
+        ReferenceDataService referenceDataService
+    ) {
         this.countriesService = countriesService;
         this.countriesRepository = countriesRepository;
+        this.referenceDataService = referenceDataService;
     }
 
     /**
@@ -133,12 +141,13 @@ public class CountriesResource {
     /**
      * {@code GET  /countries} : get all the countries.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of countries in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, a strong ETag and the list of countries in body.
      */
     @GetMapping("/countries")
-    public List<Countries> getAllCountries() {
+    public ResponseEntity<List<Countries>> getAllCountries() {
         log.debug("REST request to get all Countries");
-        return countriesService.findAll();
+        ReferenceDataService.Table<Countries> countries = referenceDataService.getCountries();
+        return ResponseEntity.ok().eTag(countries.getETag()).body(countries.getAll());
     }
 
     /**
@@ -0,0 +1,26 @@
+package org.closure.laser.web.rest;
+
+import org.closure.laser.service.dto.CursorPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Pagination headers of the lists paginated with cursors: the cursor of the next page in {@code X-Next-Cursor}, and
+ * its URL in a {@code Link} header, as {@code PaginationUtil} does for numbered pages. The last page has neither.
+ */
+public final class CursorPaginationUtil {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private CursorPaginationUtil() {}
+
+    public static HttpHeaders generateCursorHttpHeaders(UriComponentsBuilder uriBuilder, CursorPage<?> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            headers.add(NEXT_CURSOR_HEADER, page.getNextCursor());
+            String next = uriBuilder.replaceQueryParam("cursor", page.getNextCursor()).toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
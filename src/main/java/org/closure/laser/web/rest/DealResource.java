@@ -7,7 +7,13 @@ import java.util.List;
 import java.util.Optional;
 import org.closure.laser.domain.Deal;
 import org.closure.laser.domain.Shipment;
+import org.closure.laser.repository.projection.DealSummary;
+import org.closure.laser.repository.projection.TripCard;
+import org.closure.laser.security.AuthoritiesConstants;
 import org.closure.laser.service.DealService;
+import org.closure.laser.service.RouteIndexService;
+import org.closure.laser.service.dto.CursorPage;
+import org.closure.laser.service.dto.RouteIndexCheckDTO;
 import org.closure.laser.service.dto.ShipmentDealDTO;
 import org.closure.laser.service.dto.TripDealDTO;
 import org.slf4j.Logger;
@@ -18,6 +24,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
@@ -35,11 +42,14 @@ public class DealResource {
     private final Logger log = LoggerFactory.getLogger(DealResource.class);
     private final DealService dealService;
 
+    private final RouteIndexService routeIndexService;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
-    public DealResource(DealService dealService) {
+    public DealResource(DealService dealService, RouteIndexService routeIndexService) {
         this.dealService = dealService;
+        this.routeIndexService = routeIndexService;
     }
 
     /**
@@ -156,6 +166,21 @@ public class DealResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /deals/summaries} : get all the deals as flat summaries, with their associations reduced to ids.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of deal summaries in body.
+     */
+    @GetMapping("/deals/summaries")
+    public ResponseEntity<List<DealSummary>> getAllDealSummaries(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+        log.debug("REST request to get a page of Deal summaries");
+        Page<DealSummary> page = dealService.findAllSummaries(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
     /**
      * {@code GET  /deals/:id} : get the "id" deal.
      *
@@ -206,18 +231,50 @@ public class DealResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /deals/newShipments} : get the deals with shipments created in the last 10 days.
+     *
+     * @param pageable the pagination information.
+     * @param cursor the cursor of the page, empty for the first page: pages through the deals from the most recent,
+     *        the next cursor is sent in the {@code X-Next-Cursor} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of deals in body.
+     */
     @GetMapping("/deals/newShipments")
     public ResponseEntity<List<ShipmentDealDTO>> findLast10DaysShipmentsDeal(
-        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false) String cursor
     ) {
+        if (cursor != null) {
+            log.debug("REST request to get a page of last 10 days shipment deals after cursor {}", cursor);
+            CursorPage<ShipmentDealDTO> page = dealService.findLast10DaysShipmentsDeal(cursor, pageable.getPageSize());
+            HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
         log.debug("REST request to get a page of last 10 days shipment deals ");
         Page<ShipmentDealDTO> page = dealService.findLast10DaysShipmentsDeal(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /deals/newTrips} : get the open deals of the trips created in the last 10 days.
+     *
+     * @param pageable the pagination information.
+     * @param cursor the cursor of the page, empty for the first page: pages through the deals from the most recent,
+     *        the next cursor is sent in the {@code X-Next-Cursor} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of deals in body.
+     */
     @GetMapping("/deals/newTrips")
-    public ResponseEntity<List<TripDealDTO>> findLast10DaysTripsDeal(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<TripDealDTO>> findLast10DaysTripsDeal(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false) String cursor
+    ) {
+        if (cursor != null) {
+            log.debug("REST request to get a page of last 10 days trip deals after cursor {}", cursor);
+            CursorPage<TripDealDTO> page = dealService.findLast10DaysTripsDeal(cursor, pageable.getPageSize());
+            HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
         log.debug("REST request to get a page of last 10 days trip deals ");
         Page<TripDealDTO> page = dealService.findLast10DaysTripsDeal(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
@@ -271,4 +328,155 @@ public class DealResource {
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
+
+    /**
+     * {@code GET  /deals/searchTrips/near/:locationId/:radius/:to/:weight/:date} : same search as
+     * {@code /deals/searchTrips}, for the trips departing from an airport near a location.
+     *
+     * @param locationId the id of the location to depart near.
+     * @param radius     the largest distance to the location, in kilometers.
+     * @param to         the text to look for in the destination country.
+     * @param weight     the minimum available weight.
+     * @param date       the latest date.
+     * @param pageable   the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of trip deals in body.
+     */
+    @GetMapping("/deals/searchTrips/near/{locationId}/{radius}/{to}/{weight}/{date}")
+    public ResponseEntity<List<TripDealDTO>> searchTripsNear(
+        @PathVariable(name = "locationId") Long locationId,
+        @PathVariable(name = "radius") Double radius,
+        @PathVariable(name = "to") String to,
+        @PathVariable(name = "weight") Double weight,
+        @PathVariable(name = "date") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date date,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        Page<TripDealDTO> page = dealService.searchTripsNear(locationId, radius, to, weight, date, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /deals/searchShipments/toCity/:from/:locationId/:weight/:date} : same search as
+     * {@code /deals/searchShipments}, for the shipments going to any airport of the city of a location.
+     *
+     * @param from       the text to look for in the source country.
+     * @param locationId the id of a location of the destination city.
+     * @param weight     the minimum available weight.
+     * @param date       the latest date.
+     * @param pageable   the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of shipment deals in body.
+     */
+    @GetMapping("/deals/searchShipments/toCity/{from}/{locationId}/{weight}/{date}")
+    public ResponseEntity<List<ShipmentDealDTO>> searchShipmentsToCity(
+        @PathVariable(name = "from") String from,
+        @PathVariable(name = "locationId") Long locationId,
+        @PathVariable(name = "weight") Double weight,
+        @PathVariable(name = "date") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date date,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        Page<ShipmentDealDTO> page = dealService.searchShipmentsToCity(from, locationId, weight, date, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /deals/tripCards/searchTrips/:from/:to/:weight/:date} : same search as
+     * {@code /deals/searchTrips}, returning flat trip cards.
+     *
+     * @param from     the text to look for in the source country.
+     * @param to       the text to look for in the destination country.
+     * @param weight   the minimum available weight.
+     * @param date     the latest date.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of trip cards in body.
+     */
+    @GetMapping("/deals/tripCards/searchTrips/{from}/{to}/{weight}/{date}")
+    public ResponseEntity<List<TripCard>> searchTripCards(
+        @PathVariable(name = "from") String from,
+        @PathVariable(name = "to") String to,
+        @PathVariable(name = "weight") Double weight,
+        @PathVariable(name = "date") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date date,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        Page<TripCard> page = dealService.searchTripCards(from, to, weight, date, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /deals/summaries/searchShipments/:from/:to/:weight/:date} : same search as
+     * {@code /deals/searchShipments}, returning flat deal summaries.
+     *
+     * @param from     the text to look for in the source country.
+     * @param to       the text to look for in the destination country.
+     * @param weight   the minimum available weight.
+     * @param date     the latest date.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of deal summaries in body.
+     */
+    @GetMapping("/deals/summaries/searchShipments/{from}/{to}/{weight}/{date}")
+    public ResponseEntity<List<DealSummary>> searchShipmentSummaries(
+        @PathVariable(name = "from") String from,
+        @PathVariable(name = "to") String to,
+        @PathVariable(name = "weight") Double weight,
+        @PathVariable(name = "date") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date date,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        Page<DealSummary> page = dealService.searchShipmentSummaries(from, to, weight, date, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code POST  /deals/routeIndex/rebuild} : rebuild the in-memory route index from the database.
+     *
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @PostMapping("/deals/routeIndex/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> rebuildRouteIndex() {
+        log.debug("REST request to rebuild the route index");
+        routeIndexService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * {@code GET  /deals/routeIndex/checkTrips/:from/:to/:weight/:date} : compare the route index with the SQL trip
+     * search for the same criteria.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the comparison in body.
+     */
+    @GetMapping("/deals/routeIndex/checkTrips/{from}/{to}/{weight}/{date}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<RouteIndexCheckDTO> checkTripsRouteIndex(
+        @PathVariable(name = "from") String from,
+        @PathVariable(name = "to") String to,
+        @PathVariable(name = "weight") Double weight,
+        @PathVariable(name = "date") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date date
+    ) {
+        log.debug("REST request to check the trip route index");
+        return ResponseEntity.ok().body(routeIndexService.checkTrips(from, to, weight, date));
+    }
+
+    /**
+     * {@code GET  /deals/routeIndex/checkShipments/:from/:to/:weight/:date} : compare the route index with the SQL
+     * shipment search for the same criteria.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the comparison in body.
+     */
+    @GetMapping("/deals/routeIndex/checkShipments/{from}/{to}/{weight}/{date}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<RouteIndexCheckDTO> checkShipmentsRouteIndex(
+        @PathVariable(name = "from") String from,
+        @PathVariable(name = "to") String to,
+        @PathVariable(name = "weight") Double weight,
+        @PathVariable(name = "date") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date date
+    ) {
+        log.debug("REST request to check the shipment route index");
+        return ResponseEntity.ok().body(routeIndexService.checkShipments(from, to, weight, date));
+    }
 }
@@ -7,6 +7,7 @@ import java.util.Optional;
 import org.closure.laser.domain.Deal;
 import org.closure.laser.domain.DealStatus;
 import org.closure.laser.service.DealStatusService;
+import org.closure.laser.service.ReferenceDataService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -36,8 +37,11 @@ public class DealStatusResource {
 
     private final DealStatusService dealStatusService;
 
-    public DealStatusResource(DealStatusService dealStatusService) {
+    private final ReferenceDataService referenceDataService;
+
+    public DealStatusResource(DealStatusService dealStatusService, ReferenceDataService referenceDataService) {
         this.dealStatusService = dealStatusService;
+        this.referenceDataService = referenceDataService;
     }
 
     /**
@@ -89,13 +93,14 @@ public class DealStatusResource {
     /**
      * {@code GET  /deal-statuses} : get all the dealStatuses.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, a strong ETag and the list
      *         of dealStatuses in body.
      */
     @GetMapping("/deal-statuses")
-    public List<DealStatus> getAllDealStatuses() {
+    public ResponseEntity<List<DealStatus>> getAllDealStatuses() {
         log.debug("REST request to get all DealStatuses");
-        return dealStatusService.findAll();
+        ReferenceDataService.Table<DealStatus> dealStatuses = referenceDataService.getDealStatuses();
+        return ResponseEntity.ok().eTag(dealStatuses.getETag()).body(dealStatuses.getAll());
     }
 
     /**
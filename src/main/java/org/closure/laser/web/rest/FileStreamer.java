@@ -0,0 +1,224 @@
+package org.closure.laser.web.rest;
+
+import io.undertow.servlet.spec.ServletOutputStreamImpl;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletResponse;
+import javax.servlet.ServletResponseWrapper;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Writes a file to the response like a static resource: content type from the file name, {@code ETag} and
+ * {@code Last-Modified} validators answering conditional requests with 304, and a single {@code Range} answered
+ * with 206. Several ranges are answered with the whole file.
+ * <p>
+ * On Undertow, a file sent up to its end is written with {@link FileChannel} transfers (sendfile where the
+ * operating system supports it), without copying it through the heap.
+ */
+public final class FileStreamer {
+
+    private FileStreamer() {}
+
+    /**
+     * @param file the file to send.
+     * @param cacheControl the {@code Cache-Control} of the response.
+     * @param attachmentName the name to save the file as, or {@code null} to display it inline.
+     */
+    public static void stream(
+        Path file,
+        CacheControl cacheControl,
+        String attachmentName,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        stream(file, null, cacheControl, attachmentName, request, response);
+    }
+
+    /**
+     * @param file the file to send.
+     * @param contentType the content type of the file, or {@code null} to guess it from the name of the file.
+     * @param cacheControl the {@code Cache-Control} of the response.
+     * @param attachmentName the name to save the file as, or {@code null} to display it inline.
+     */
+    public static void stream(
+        Path file,
+        MediaType contentType,
+        CacheControl cacheControl,
+        String attachmentName,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && matchesIfRange(request, etag, lastModified)) {
+            List<HttpRange> ranges = parseRanges(range);
+            if (ranges.size() == 1) {
+                start = rangeStart(ranges.get(0), length);
+                if (start >= length) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                end = ranges.get(0).getRangeEnd(length);
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        String fileName = file.getFileName().toString();
+        if (contentType == null) {
+            contentType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        }
+        response.setContentType(contentType.toString());
+        ContentDisposition disposition = attachmentName != null
+            ? ContentDisposition.attachment().filename(attachmentName, StandardCharsets.UTF_8).build()
+            : ContentDisposition.inline().filename(fileName, StandardCharsets.UTF_8).build();
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ServletOutputStream out = unwrap(response).getOutputStream();
+            if (out instanceof ServletOutputStreamImpl && start + count == channel.size()) {
+                // commits the headers through the response wrappers, e.g. the security headers
+                response.flushBuffer();
+                channel.position(start);
+                ((ServletOutputStreamImpl) out).transferFrom(channel);
+            } else {
+                copy(channel, start, count, Channels.newChannel(response.getOutputStream()));
+            }
+        }
+    }
+
+    /**
+     * Send content which is not in a local file, without support for {@code Range} requests.
+     *
+     * @param source the content to send.
+     * @param length the length of the content.
+     * @param etag the {@code ETag} of the content.
+     * @param contentType the content type.
+     * @param cacheControl the {@code Cache-Control} of the response.
+     */
+    public static void stream(
+        InputStreamSource source,
+        long length,
+        String etag,
+        MediaType contentType,
+        CacheControl cacheControl,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "none");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+        response.setContentType(contentType.toString());
+        response.setContentLengthLong(length);
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+        try (InputStream in = source.getInputStream()) {
+            in.transferTo(response.getOutputStream());
+        }
+    }
+
+    /**
+     * A {@code Range} only applies if the {@code If-Range} validator, if any, is the current one.
+     */
+    private static boolean matchesIfRange(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static List<HttpRange> parseRanges(String range) {
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            // a Range that cannot be parsed is ignored
+            return List.of();
+        }
+    }
+
+    /**
+     * @return the first position of the range, {@code length} if there is none.
+     */
+    private static long rangeStart(HttpRange range, long length) {
+        try {
+            return range.getRangeStart(length);
+        } catch (IllegalArgumentException e) {
+            return length;
+        }
+    }
+
+    private static ServletResponse unwrap(ServletResponse response) {
+        while (response instanceof ServletResponseWrapper) {
+            response = ((ServletResponseWrapper) response).getResponse();
+        }
+        return response;
+    }
+
+    private static void copy(FileChannel channel, long position, long count, WritableByteChannel target) throws IOException {
+        long end = position + count;
+        while (position < end) {
+            long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            position += transferred;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.closure.laser.web.rest;
+
+import org.closure.laser.domain.LocationImport;
+import org.closure.laser.security.AuthoritiesConstants;
+import org.closure.laser.service.LocationImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for the imports of the airports of the flight API into the locations.
+ */
+@RestController
+@RequestMapping("/api")
+public class LocationImportResource {
+
+    private final Logger log = LoggerFactory.getLogger(LocationImportResource.class);
+
+    private final LocationImportService locationImportService;
+
+    public LocationImportResource(LocationImportService locationImportService) {
+        this.locationImportService = locationImportService;
+    }
+
+    /**
+     * {@code POST  /locations/import} : start an import of the airports in the background.
+     *
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the running import, or with
+     *         status {@code 400 (Bad Request)} if an import is already running.
+     */
+    @PostMapping("/locations/import")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<LocationImport> startImport() {
+        log.debug("REST request to import the airports");
+        return ResponseEntity.accepted().body(locationImportService.start());
+    }
+
+    /**
+     * {@code POST  /locations/import/resume} : resume the last import, when it has failed, after the last airports
+     * it saved.
+     *
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the running import, or with
+     *         status {@code 400 (Bad Request)} if the last import has not failed or an import is already running.
+     */
+    @PostMapping("/locations/import/resume")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<LocationImport> resumeImport() {
+        log.debug("REST request to resume the import of the airports");
+        return ResponseEntity.accepted().body(locationImportService.resume());
+    }
+
+    /**
+     * {@code GET  /locations/import} : get the progress of the last import.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the last import, or with status
+     *         {@code 404 (Not Found)} if there was none.
+     */
+    @GetMapping("/locations/import")
+    public ResponseEntity<LocationImport> getLastImport() {
+        log.debug("REST request to get the last import of the airports");
+        return ResponseUtil.wrapOrNotFound(locationImportService.findLast());
+    }
+
+    /**
+     * {@code GET  /locations/fly} : start an import of the airports, kept for the clients of the former synchronous
+     * import, which returned all the locations.
+     *
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the running import.
+     */
+    @GetMapping("/locations/fly")
+    public ResponseEntity<LocationImport> fly() {
+        log.debug("REST request to import the airports");
+        return ResponseEntity.accepted().body(locationImportService.start());
+    }
+}
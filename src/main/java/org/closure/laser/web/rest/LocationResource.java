@@ -5,6 +5,7 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Optional;
 import org.closure.laser.domain.Location;
+import org.closure.laser.repository.projection.LocationRef;
 import org.closure.laser.service.LocationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -132,6 +133,59 @@ public class LocationResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /locations/refs} : get all the locations as flat references, without their trips and shipments.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of location references in body.
+     */
+    @GetMapping("/locations/refs")
+    public ResponseEntity<List<LocationRef>> getAllLocationRefs(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+        log.debug("REST request to get a page of Location refs");
+        Page<LocationRef> page = locationService.findAllRefs(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /locations/refs/search/:value} : search the locations by country, city or airport, as flat references.
+     *
+     * @param value    the text to look for.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of location references in body.
+     */
+    @GetMapping("/locations/refs/search/{value}")
+    public ResponseEntity<List<LocationRef>> searchLocationRefs(
+        @PathVariable("value") String value,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search a page of Location refs");
+        Page<LocationRef> page = locationService.searchRefs(value, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /locations/nearest/:latitude/:longitude} : the airports nearest to a point, as flat references.
+     *
+     * @param latitude  the latitude of the point, in degrees.
+     * @param longitude the longitude of the point, in degrees.
+     * @param count     the number of airports, at most 100.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of location references in body, nearest first.
+     */
+    @GetMapping("/locations/nearest/{latitude}/{longitude}")
+    public ResponseEntity<List<LocationRef>> findNearest(
+        @PathVariable("latitude") Double latitude,
+        @PathVariable("longitude") Double longitude,
+        @RequestParam(defaultValue = "5") int count
+    ) {
+        log.debug("REST request to get the Locations nearest to {}, {}", latitude, longitude);
+        return ResponseEntity.ok().body(locationService.findNearest(latitude, longitude, count));
+    }
+
     /**
      * {@code GET  /locations/:id} : get the "id" location.
      *
@@ -173,9 +227,4 @@ public class LocationResource {
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
-
-    @GetMapping("/locations/fly")
-    public List<Location> fly() {
-        return locationService.getFromAPI();
-    }
 }
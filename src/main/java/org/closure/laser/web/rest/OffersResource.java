@@ -154,9 +154,9 @@ public class OffersResource {
      *         the offers, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/offers/{id}")
-    public ResponseEntity<OffersDTO> getOffers(@PathVariable Long id, @RequestHeader("Authorization") String token) {
+    public ResponseEntity<OffersDTO> getOffers(@PathVariable Long id) {
         log.debug("REST request to get Offers : {}", id);
-        OffersDTO dto = offersService.findOne(id, token.substring("Bearer ".length()));
+        OffersDTO dto = offersService.findOne(id);
         return ResponseEntity.ok(dto);
     }
 
@@ -176,14 +176,10 @@ public class OffersResource {
             .build();
     }
 
-    @PostMapping("/offers/addOffers/{shD_id}/{trD_id}") /// plus header JWT
-    public ResponseEntity<Offers> addOffers(
-        @RequestHeader("Authorization") String token,
-        @PathVariable(name = "shD_id") Long shD_id,
-        @PathVariable(name = "trD_id") Long trD_id
-    ) {
+    @PostMapping("/offers/addOffers/{shD_id}/{trD_id}")
+    public ResponseEntity<Offers> addOffers(@PathVariable(name = "shD_id") Long shD_id, @PathVariable(name = "trD_id") Long trD_id) {
         log.debug("REST request to add Offer ");
-        return offersService.addOffers(token.substring("Bearer ".length()), shD_id, trD_id);
+        return offersService.addOffers(shD_id, trD_id);
     }
 
     @GetMapping("/offers/send")
@@ -192,11 +188,8 @@ public class OffersResource {
     }
 
     @GetMapping("/offers/getAllForUser")
-    public List<OffersDTO> getAllForUser(
-        @RequestHeader("Authorization") String token,
-        @org.springdoc.api.annotations.ParameterObject Pageable pageable
-    ) {
+    public List<OffersDTO> getAllForUser(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
         log.debug("REST request to get all Offers for user");
-        return offersService.getAllForUser(token.substring("Bearer ".length()), pageable);
+        return offersService.getAllForUser(pageable);
     }
 }
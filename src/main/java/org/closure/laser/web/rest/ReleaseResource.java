@@ -0,0 +1,65 @@
+package org.closure.laser.web.rest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.closure.laser.service.ReleaseService;
+import org.closure.laser.web.rest.vm.FileUploadResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * REST controller for the releases of the mobile application, uploaded by the CI/CD pipeline.
+ */
+@RestController
+@RequestMapping("/api")
+public class ReleaseResource {
+
+    private final Logger log = LoggerFactory.getLogger(ReleaseResource.class);
+
+    private final ReleaseService releaseService;
+
+    public ReleaseResource(ReleaseService releaseService) {
+        this.releaseService = releaseService;
+    }
+
+    @PostMapping("/upload-flutter-release")
+    public ResponseEntity<FileUploadResponse> uploadFile(@RequestParam("file") MultipartFile multipartFile) throws IOException {
+        String fileName = StringUtils.cleanPath(multipartFile.getOriginalFilename());
+        log.debug("REST request to upload release : {}", fileName);
+        releaseService.save(fileName, multipartFile);
+
+        FileUploadResponse response = new FileUploadResponse();
+        response.setFileName(fileName);
+        response.setSize(multipartFile.getSize());
+        response.setDownloadUri("/download-flutter-release/" + ReleaseService.RELEASE_PREFIX);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * {@code GET /download-flutter-release/:fileCode} : download the latest release. Supports {@code Range} requests,
+     * to resume a download, and conditional requests.
+     *
+     * @param fileCode the start of the name of the release file.
+     */
+    @GetMapping("/download-flutter-release/{fileCode}")
+    public void downloadFile(@PathVariable("fileCode") String fileCode, HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+        Path release = releaseService.findLatest(fileCode).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        // a new release replaces the file under the same name: revalidate every time
+        FileStreamer.stream(release, CacheControl.noCache(), release.getFileName().toString(), request, response);
+    }
+}
@@ -0,0 +1,39 @@
+package org.closure.laser.web.rest;
+
+import org.closure.laser.security.AuthoritiesConstants;
+import org.closure.laser.service.SearchIndexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for managing the full-text index of the {@code search} endpoints.
+ */
+@RestController
+@RequestMapping("/api")
+public class SearchIndexResource {
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexResource.class);
+
+    private final SearchIndexService searchIndexService;
+
+    public SearchIndexResource(SearchIndexService searchIndexService) {
+        this.searchIndexService = searchIndexService;
+    }
+
+    /**
+     * {@code POST  /search/reindex} : rebuild the full-text index from the database. Searches keep using the current
+     * index until the new one is complete.
+     *
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @PostMapping("/search/reindex")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> reindex() {
+        log.debug("REST request to rebuild the search index");
+        searchIndexService.reindex();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -5,7 +5,9 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import org.closure.laser.domain.Shipment;
+import org.closure.laser.repository.projection.ShipmentSummary;
 import org.closure.laser.service.ShipmentService;
+import org.closure.laser.service.dto.CursorPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -63,12 +65,11 @@ public class ShipmentResource {
     @PostMapping("/shipments/createShipmentLogic/{date}")
     public ResponseEntity<List<Shipment>> createShipmentLogic(
         @RequestBody List<Shipment> shipments,
-        @RequestHeader("Authorization") String token,
         @PathVariable(name = "date") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date date
     ) throws URISyntaxException {
         log.debug("REST request to save Shipment : {}", shipments);
 
-        List<Shipment> result = shipmentService.saveLogic(shipments, token.substring("Bearer ".length()), date);
+        List<Shipment> result = shipmentService.saveLogic(shipments, date);
         return ResponseEntity.ok().body(result);
     }
 
@@ -148,17 +149,43 @@ public class ShipmentResource {
      * {@code GET  /shipments} : get all the shipments.
      *
      * @param pageable the pagination information.
+     * @param cursor the cursor of the page, empty for the first page: pages through the shipments from the most recently
+     *        created, without counting them, the next cursor is sent in the {@code X-Next-Cursor} header.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
      * of shipments in body.
      */
     @GetMapping("/shipments")
-    public ResponseEntity<List<Shipment>> getAllShipments(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<Shipment>> getAllShipments(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false) String cursor
+    ) {
+        if (cursor != null) {
+            log.debug("REST request to get a page of Shipments after cursor {}", cursor);
+            CursorPage<Shipment> page = shipmentService.findAll(cursor, pageable.getPageSize());
+            HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
         log.debug("REST request to get a page of Shipments");
         Page<Shipment> page = shipmentService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /shipments/summaries} : get all the shipments as flat summaries.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of shipment summaries in body.
+     */
+    @GetMapping("/shipments/summaries")
+    public ResponseEntity<List<ShipmentSummary>> getAllShipmentSummaries(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+        log.debug("REST request to get a page of Shipment summaries");
+        Page<ShipmentSummary> page = shipmentService.findAllSummaries(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
     /**
      * {@code GET  /shipments/:id} : get the "id" shipment.
      *
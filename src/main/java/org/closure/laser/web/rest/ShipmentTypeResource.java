@@ -7,6 +7,7 @@ import java.util.Optional;
 import org.closure.laser.domain.Shipment;
 import org.closure.laser.domain.ShipmentType;
 import org.closure.laser.service.ShipmentTypeService;
+import org.closure.laser.service.ReferenceDataService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -36,8 +37,11 @@ public class ShipmentTypeResource {
 
     private final ShipmentTypeService shipmentTypeService;
 
-    public ShipmentTypeResource(ShipmentTypeService shipmentTypeService) {
+    private final ReferenceDataService referenceDataService;
+
+    public ShipmentTypeResource(ShipmentTypeService shipmentTypeService, ReferenceDataService referenceDataService) {
         this.shipmentTypeService = shipmentTypeService;
+        this.referenceDataService = referenceDataService;
     }
 
     /**
@@ -90,13 +94,14 @@ public class ShipmentTypeResource {
     /**
      * {@code GET  /shipment-types} : get all the shipmentTypes.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, a strong ETag and the list
      *         of shipmentTypes in body.
      */
     @GetMapping("/shipment-types")
-    public List<ShipmentType> getAllShipmentTypes() {
+    public ResponseEntity<List<ShipmentType>> getAllShipmentTypes() {
         log.debug("REST request to get all ShipmentTypes");
-        return shipmentTypeService.findAll();
+        ReferenceDataService.Table<ShipmentType> shipmentTypes = referenceDataService.getShipmentTypes();
+        return ResponseEntity.ok().eTag(shipmentTypes.getETag()).body(shipmentTypes.getAll());
     }
 
     /**
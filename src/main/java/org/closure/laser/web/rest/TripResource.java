@@ -6,7 +6,9 @@ import java.util.List;
 import java.util.Optional;
 import org.closure.laser.domain.Deal;
 import org.closure.laser.domain.Trip;
+import org.closure.laser.repository.projection.TripCard;
 import org.closure.laser.service.TripService;
+import org.closure.laser.service.dto.CursorPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -62,13 +64,12 @@ public class TripResource {
     @PostMapping("/trips/createTripLogic/fw={fullWeight}/avw={availableWeight}")
     public ResponseEntity<Trip> createTripLogic(
         @RequestBody Trip trip,
-        @RequestHeader("Authorization") String token,
         @PathVariable("availableWeight") Double availableWeight,
         @PathVariable("fullWeight") Double fullWeight
     ) throws URISyntaxException {
         log.debug("REST request to save Trip : {}", trip);
 
-        Trip result = tripService.saveLogic(trip, token.substring("Bearer ".length()), availableWeight, fullWeight);
+        Trip result = tripService.saveLogic(trip, availableWeight, fullWeight);
         return ResponseEntity.ok(result);
     }
 
@@ -133,17 +134,43 @@ public class TripResource {
      * {@code GET  /trips} : get all the trips.
      *
      * @param pageable the pagination information.
+     * @param cursor the cursor of the page, empty for the first page: pages through the trips from the most recently
+     *        created, without counting them, the next cursor is sent in the {@code X-Next-Cursor} header.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
      * of trips in body.
      */
     @GetMapping("/trips")
-    public ResponseEntity<List<Trip>> getAllTrips(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<Trip>> getAllTrips(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false) String cursor
+    ) {
+        if (cursor != null) {
+            log.debug("REST request to get a page of Trips after cursor {}", cursor);
+            CursorPage<Trip> page = tripService.findAll(cursor, pageable.getPageSize());
+            HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
         log.debug("REST request to get a page of Trips");
         Page<Trip> page = tripService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /trips/cards} : get all the trips as flat cards with their route and open deal.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of trip cards in body.
+     */
+    @GetMapping("/trips/cards")
+    public ResponseEntity<List<TripCard>> getAllTripCards(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+        log.debug("REST request to get a page of Trip cards");
+        Page<TripCard> page = tripService.findAllCards(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
     /**
      * {@code GET  /trips/:id} : get the "id" trip.
      *
@@ -1,11 +1,16 @@
 package org.closure.laser.web.rest;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import org.closure.laser.domain.UserApplication;
+import org.closure.laser.service.ImageStoreService.StoredImage;
 import org.closure.laser.service.UserApplicationService;
 import org.closure.laser.service.dto.ShipmentDealDTO;
 import org.closure.laser.service.dto.TripDealDTO;
@@ -14,10 +19,11 @@ import org.closure.laser.web.rest.vm.LoginVM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -31,6 +37,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -48,6 +55,12 @@ public class UserApplicationResource {
 
     private static final String ENTITY_NAME = "userApplication";
 
+    private static final Duration IMAGE_MAX_AGE = Duration.ofDays(1);
+
+    private static final Duration STORED_IMAGE_MAX_AGE = Duration.ofDays(365);
+
+    private static final String THUMBNAIL_SIZE = "thumbnail";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -99,8 +112,8 @@ public class UserApplicationResource {
     }
 
     @PostMapping("/user-applications/sendEmail")
-    public ResponseEntity<UserApplication> sendEmail(@RequestHeader("Authorization") String token) {
-        return userApplicationService.sendEmail(token.substring("Bearer ".length()));
+    public ResponseEntity<UserApplication> sendEmail() {
+        return userApplicationService.sendEmail();
     }
 
     /**
@@ -277,8 +290,8 @@ public class UserApplicationResource {
     }
 
     @PostMapping("/user-applications/updateFCM/{fcmToken}")
-    public void updateFCM(@RequestHeader("Authorization") String token, @PathVariable(name = "fcmToken") String fcmToken) {
-        userApplicationService.updateFCM(token.substring("Bearer ".length()), fcmToken);
+    public void updateFCM(@PathVariable(name = "fcmToken") String fcmToken) {
+        userApplicationService.updateFCM(fcmToken);
     }
 
     @PostMapping(value = "/upload-files")
@@ -290,8 +303,42 @@ public class UserApplicationResource {
         return userApplicationService.multiUpload(files, type, id);
     }
 
+    /**
+     * {@code GET /assets/images/:type/:fileName} : get an uploaded image. Supports conditional and {@code Range} requests.
+     *
+     * @param type the type of the image.
+     * @param fileName the name of the image file.
+     * @param size "thumbnail" to get the thumbnail of the image, for list screens. The image itself is sent until
+     * its thumbnail has been created.
+     */
     @GetMapping(value = "/assets/images/{type}/{fileName:.+}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String type, @PathVariable String fileName) {
-        return userApplicationService.downloadFileFromLocal(type, fileName);
+    public void downloadFile(
+        @PathVariable String type,
+        @PathVariable String fileName,
+        @RequestParam(required = false) String size,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        boolean thumbnailRequested = THUMBNAIL_SIZE.equals(size);
+        Optional<StoredImage> thumbnail = thumbnailRequested ? userApplicationService.findThumbnail(type, fileName) : Optional.empty();
+        StoredImage image = thumbnail.isPresent()
+            ? thumbnail.get()
+            : userApplicationService.findImage(type, fileName).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        CacheControl cacheControl;
+        if (thumbnailRequested && thumbnail.isEmpty()) {
+            // the thumbnail will be ready soon
+            cacheControl = CacheControl.noCache();
+        } else if (image.isImmutable()) {
+            cacheControl = CacheControl.maxAge(STORED_IMAGE_MAX_AGE).cachePrivate();
+        } else {
+            // images uploaded before they were stored by content are replaced by new uploads under the same name
+            cacheControl = CacheControl.maxAge(IMAGE_MAX_AGE).cachePrivate();
+        }
+        if (image.getFile().isPresent()) {
+            FileStreamer.stream(image.getFile().get(), image.getContentType(), cacheControl, null, request, response);
+        } else {
+            String etag = "\"" + image.getKey() + "\"";
+            FileStreamer.stream(image, image.getSize(), etag, image.getContentType(), cacheControl, request, response);
+        }
     }
 }
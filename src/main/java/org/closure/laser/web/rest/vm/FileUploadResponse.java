@@ -0,0 +1,93 @@
+package org.closure.laser.web.rest.vm;
+
+import java.util.Objects;
+
+/**
+ * View Model describing an uploaded file.
+ */
+public class FileUploadResponse {
+
+    private String fileName;
+
+    private String downloadUri;
+
+    private long size;
+
+    public FileUploadResponse() {}
+
+    public FileUploadResponse(String fileName, String downloadUri, long size) {
+        this.fileName = fileName;
+        this.downloadUri = downloadUri;
+        this.size = size;
+    }
+
+    public String getFileName() {
+        return this.fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getDownloadUri() {
+        return this.downloadUri;
+    }
+
+    public void setDownloadUri(String downloadUri) {
+        this.downloadUri = downloadUri;
+    }
+
+    public long getSize() {
+        return this.size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public FileUploadResponse fileName(String fileName) {
+        setFileName(fileName);
+        return this;
+    }
+
+    public FileUploadResponse downloadUri(String downloadUri) {
+        setDownloadUri(downloadUri);
+        return this;
+    }
+
+    public FileUploadResponse size(long size) {
+        setSize(size);
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof FileUploadResponse)) {
+            return false;
+        }
+        FileUploadResponse fileUploadResponse = (FileUploadResponse) o;
+        return (
+            Objects.equals(fileName, fileUploadResponse.fileName) &&
+            Objects.equals(downloadUri, fileUploadResponse.downloadUri) &&
+            size == fileUploadResponse.size
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fileName, downloadUri, size);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "{" +
+            " fileName='" + getFileName() + "'" +
+            ", downloadUri='" + getDownloadUri() + "'" +
+            ", size='" + getSize() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,93 @@
+package org.closure.laser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.closure.laser.config.Constants;
+import org.closure.laser.domain.DealStatus;
+import org.closure.laser.repository.CountriesRepository;
+import org.closure.laser.repository.DealStatusRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.startup.StartupEndpoint;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Startup benchmark: boots the application on a new database, then restarts it on the same database, and reports
+ * how long each boot took. Reference data is seeded by Liquibase, so a restart must not write it again.
+ */
+class LaserAppStartupIT {
+
+    private static final Logger log = LoggerFactory.getLogger(LaserAppStartupIT.class);
+
+    private static final String DATASOURCE_URL = "jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.MINUTES)
+    void restartDoesNotSeedReferenceDataAgain() {
+        Boot first = boot("startup-benchmark", false);
+        Boot restart = boot("startup-benchmark", false);
+
+        log.info("Startup benchmark: first boot {} ms, restart {} ms", first.millis, restart.millis);
+        assertThat(first.countries).isGreaterThanOrEqualTo(250);
+        assertThat(restart.countries).isEqualTo(first.countries);
+        assertThat(restart.dealStatuses).isEqualTo(first.dealStatuses).isEqualTo(5);
+        assertThat(restart.waitingStatus).isEqualTo("Waiting");
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.MINUTES)
+    void fastStartPublishesTheStartupTimeline() {
+        Boot first = boot("fast-start-benchmark", true);
+        Boot restart = boot("fast-start-benchmark", true);
+
+        log.info("Startup benchmark, fast-start profile: first boot {} ms, restart {} ms", first.millis, restart.millis);
+        assertThat(restart.countries).isEqualTo(first.countries).isGreaterThanOrEqualTo(250);
+        assertThat(restart.waitingStatus).isEqualTo("Waiting");
+        assertThat(restart.startupSteps).isPositive();
+    }
+
+    private static Boot boot(String database, boolean fastStart) {
+        long start = System.nanoTime();
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(LaserApp.class);
+        if (fastStart) {
+            // as LaserApp.main does for the "fast-start" profile
+            builder
+                .profiles(Constants.SPRING_PROFILE_FAST_START)
+                .applicationStartup(new BufferingApplicationStartup(10000))
+                .properties("management.endpoints.web.exposure.include=startup");
+        }
+        try (
+            ConfigurableApplicationContext context = builder.run(
+                "--spring.datasource.url=" + String.format(DATASOURCE_URL, database),
+                "--server.port=0"
+            )
+        ) {
+            Boot boot = new Boot();
+            boot.millis = (System.nanoTime() - start) / 1_000_000;
+            boot.countries = context.getBean(CountriesRepository.class).count();
+            boot.dealStatuses = context.getBean(DealStatusRepository.class).count();
+            boot.waitingStatus = context.getBean(DealStatusRepository.class).findById(1L).map(DealStatus::getName).orElse(null);
+            boot.startupSteps =
+                context
+                    .getBeanProvider(StartupEndpoint.class)
+                    .stream()
+                    .mapToLong(endpoint -> endpoint.startupSnapshot().getTimeline().getEvents().size())
+                    .sum();
+            return boot;
+        }
+    }
+
+    private static class Boot {
+
+        long millis;
+        long countries;
+        long dealStatuses;
+        String waitingStatus;
+        long startupSteps;
+    }
+}
@@ -0,0 +1,172 @@
+package org.closure.laser.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.closure.laser.LaserApp;
+import org.closure.laser.domain.Deal;
+import org.closure.laser.domain.Trip;
+import org.closure.laser.domain.UserApplication;
+import org.closure.laser.repository.DealRepository;
+import org.closure.laser.repository.TripRepository;
+import org.closure.laser.repository.UserApplicationRepository;
+import org.closure.laser.service.CapacityReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Benchmark of the weight accounting of the offers: the {@link CapacityReservationService} of the application,
+ * started with the test configuration on an embedded H2 database, over {@link #TRIPS} trips of
+ * {@link #DEALS_PER_TRIP} deals each. The checks of the weight run in the database, so each operation is a
+ * transaction with its updates. The whole request path of the application is compiled during the warmup, which is
+ * longer than in the other suites.
+ * <p>
+ * Run {@link #main(String[])} from the IDE, or with the test classpath. The results are written to
+ * {@code target/jmh/}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CapacityReservationBenchmark {
+
+    private static final int TRIPS = 100;
+
+    private static final int DEALS_PER_TRIP = 10;
+
+    private static final double WEIGHT = 0.001;
+
+    private ConfigurableApplicationContext context;
+
+    private CapacityReservationService capacityReservationService;
+
+    private Long deliverId;
+
+    private final List<Long> tripIds = new ArrayList<>();
+
+    private final List<Long> dealIds = new ArrayList<>();
+
+    /**
+     * The reservations are unique per offer, and the benchmark does not need the offers themselves.
+     */
+    private final AtomicLong offerIds = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context =
+            new SpringApplicationBuilder(LaserApp.class)
+                .properties(
+                    "server.port=0",
+                    // the debug logs of the test configuration would dominate the measures
+                    "logging.level.ROOT=WARN",
+                    "logging.level.org.closure.laser=WARN",
+                    "spring.datasource.url=jdbc:h2:mem:capacity-benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+                )
+                .run();
+        capacityReservationService = context.getBean(CapacityReservationService.class);
+
+        DealRepository dealRepository = context.getBean(DealRepository.class);
+        TripRepository tripRepository = context.getBean(TripRepository.class);
+        UserApplication deliver = context.getBean(UserApplicationRepository.class).save(new UserApplication().phone("0999999999"));
+        deliverId = deliver.getId();
+        // enough weight for every operation of the benchmark, so that none is refused
+        for (int i = 0; i < TRIPS; i++) {
+            Trip trip = tripRepository.save(new Trip().tripIdentifier("CAPACITY-" + i));
+            tripIds.add(trip.getId());
+            List<Deal> deals = new ArrayList<>();
+            for (int j = 0; j < DEALS_PER_TRIP; j++) {
+                deals.add(new Deal().deliver(deliver).trip(trip).availableWeight(1_000_000_000D).fullWeight(0D));
+            }
+            dealRepository.saveAll(deals).forEach(deal -> dealIds.add(deal.getId()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * A pending offer on a random deal, then deleted.
+     */
+    @Benchmark
+    public void reserveAndRelease(DealState state, Blackhole blackhole) {
+        long offerId = offerIds.incrementAndGet();
+        blackhole.consume(capacityReservationService.reserve(dealIds.get(state.nextDeal()), offerId, WEIGHT));
+        capacityReservationService.release(offerId);
+    }
+
+    /**
+     * Pending offers on the same deal, which wait for each other on its row.
+     */
+    @Benchmark
+    @Threads(8)
+    public void reserveAndReleaseOneDeal(Blackhole blackhole) {
+        long offerId = offerIds.incrementAndGet();
+        blackhole.consume(capacityReservationService.reserve(dealIds.get(0), offerId, WEIGHT));
+        capacityReservationService.release(offerId);
+    }
+
+    /**
+     * An offer reserved then accepted on a random trip: the weight is taken from every deal of the trip.
+     */
+    @Benchmark
+    public void reserveAndTake(DealState state, Blackhole blackhole) {
+        long offerId = offerIds.incrementAndGet();
+        int trip = state.nextTrip();
+        capacityReservationService.reserve(dealIds.get(trip * DEALS_PER_TRIP), offerId, WEIGHT);
+        blackhole.consume(capacityReservationService.take(deliverId, tripIds.get(trip), offerId, WEIGHT));
+    }
+
+    /**
+     * Each thread picks its own sequence of random trips and deals.
+     */
+    @State(Scope.Thread)
+    public static class DealState {
+
+        private final Random random = new Random(7);
+
+        int nextDeal() {
+            return random.nextInt(TRIPS * DEALS_PER_TRIP);
+        }
+
+        int nextTrip() {
+            return random.nextInt(TRIPS);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new File("target/jmh").mkdirs();
+        new Runner(
+            new OptionsBuilder()
+                .include(CapacityReservationBenchmark.class.getName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh/capacity-reservation.json")
+                .build()
+        )
+            .run();
+    }
+}
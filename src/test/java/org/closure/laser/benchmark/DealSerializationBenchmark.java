@@ -0,0 +1,191 @@
+package org.closure.laser.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.closure.laser.repository.projection.ShipmentDealRow;
+import org.closure.laser.repository.projection.ShipmentSummary;
+import org.closure.laser.repository.projection.TripDealRow;
+import org.closure.laser.service.dto.OffersDTO;
+import org.closure.laser.service.dto.ShipmentDealDTO;
+import org.closure.laser.service.dto.ShipmentItemDTO;
+import org.closure.laser.service.dto.TripDealDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmark of the JSON serialization of the deal DTOs returned by the search and offers endpoints.
+ * <p>
+ * The DTOs are built from projections populated as the queries of {@link org.closure.laser.service.DealViewService}
+ * return them, with the values of a typical deal. The object mapper has the modules of {@code JacksonConfiguration},
+ * as configured by Spring Boot.
+ * <p>
+ * Run {@link #main(String[])} from the IDE, or with the test classpath. The results are written to
+ * {@code target/jmh/}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int SHIPMENTS_PER_DEAL = 5;
+
+    private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+    private ObjectMapper objectMapper;
+
+    private TripDealDTO tripDeal;
+
+    private ShipmentDealDTO shipmentDeal;
+
+    private List<OffersDTO> offers;
+
+    private long nextId;
+
+    @Setup
+    public void setup() {
+        objectMapper =
+            Jackson2ObjectMapperBuilder
+                .json()
+                .modules(new JavaTimeModule(), new Jdk8Module(), new Hibernate5Module())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        offers = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            TripDealDTO tripDeal = new TripDealDTO(tripDealRow());
+            long shipmentDealId = nextId++;
+            List<ShipmentItemDTO> shipments = new ArrayList<>();
+            for (int j = 0; j < SHIPMENTS_PER_DEAL; j++) {
+                shipments.add(new ShipmentItemDTO(shipment(shipmentDealId, j)));
+            }
+            ShipmentDealDTO shipmentDeal = new ShipmentDealDTO(shipmentDealRow(shipmentDealId), shipments);
+            offers.add(new OffersDTO(nextId++, tripDeal, shipmentDeal, "Pending", shipmentDeal.getOwnerId()));
+        }
+        tripDeal = offers.get(0).getTripDealDTO();
+        shipmentDeal = offers.get(0).getShipmentDealDTO();
+    }
+
+    @Benchmark
+    public byte[] tripDealDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tripDeal);
+    }
+
+    @Benchmark
+    public byte[] shipmentDealDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(shipmentDeal);
+    }
+
+    @Benchmark
+    public byte[] offersDTOPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(offers);
+    }
+
+    private TripDealRow tripDealRow() {
+        Map<String, Object> row = new HashMap<>();
+        row.put("dealId", nextId++);
+        row.put("fullWeight", 20D);
+        row.put("availableWeight", 15D);
+        row.put("arrivelDate", new Date());
+        row.put("statusId", 1L);
+        row.put("statusName", "Waiting");
+        row.put("tripId", nextId++);
+        row.put("tripIdentifier", "LS" + nextId);
+        row.put("flyTime", new Date());
+        row.put("arriveTime", new Date());
+        row.put("tripType", "Direct");
+        putRoute(row);
+        row.put("fromAirport", "Damascus International Airport");
+        row.put("toAirport", "Berlin International Airport");
+        row.put("deliverId", nextId++);
+        row.put("deliverFirstName", "First");
+        row.put("deliverLastName", "Last");
+        row.put("deliverImage", "https://laser.example/users/" + nextId + ".png");
+        row.put("deliverRate", 4.5);
+        return projections.createProjection(TripDealRow.class, row);
+    }
+
+    private ShipmentDealRow shipmentDealRow(long dealId) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("dealId", dealId);
+        row.put("fullWeight", SHIPMENTS_PER_DEAL * 1.5);
+        row.put("availableWeight", SHIPMENTS_PER_DEAL * 1.5);
+        row.put("totalPrice", 100D);
+        row.put("expectedDate", new Date());
+        row.put("statusId", 1L);
+        row.put("statusName", "Waiting");
+        row.put("ownerId", nextId++);
+        row.put("ownerFirstName", "First");
+        row.put("ownerLastName", "Last");
+        row.put("ownerImage", "https://laser.example/users/" + nextId + ".png");
+        row.put("ownerRate", 4.5);
+        return projections.createProjection(ShipmentDealRow.class, row);
+    }
+
+    private ShipmentSummary shipment(long dealId, int index) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", nextId++);
+        row.put("weight", 1.5);
+        row.put("description", "Shipment " + index);
+        row.put("imgUrl", "https://laser.example/shipments/" + index + ".png");
+        row.put("cost", 20D);
+        row.put("price", 25D);
+        row.put("createdAt", new Date());
+        row.put("typeId", 1L);
+        row.put("typeName", "Documents");
+        putRoute(row);
+        row.put("dealId", dealId);
+        return projections.createProjection(ShipmentSummary.class, row);
+    }
+
+    private static void putRoute(Map<String, Object> row) {
+        row.put("fromId", 1L);
+        row.put("fromCountry", "Syria");
+        row.put("fromCity", "Damascus");
+        row.put("toId", 2L);
+        row.put("toCountry", "Germany");
+        row.put("toCity", "Berlin");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new File("target/jmh").mkdirs();
+        new Runner(
+            new OptionsBuilder()
+                .include(DealSerializationBenchmark.class.getName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh/deal-serialization.json")
+                .build()
+        )
+            .run();
+    }
+}
@@ -0,0 +1,196 @@
+package org.closure.laser.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.closure.laser.repository.LocationRepository;
+import org.closure.laser.repository.projection.LocationPoint;
+import org.closure.laser.service.GeoIndexService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Benchmark of the nearest airports to a point, and of the airports within 300 km of an airport, over
+ * {@link #AIRPORTS} synthetic airports: the {@link GeoIndexService} against a scan of all the airports.
+ * <p>
+ * Run {@link #main(String[])} from the IDE, or with the test classpath. The results are written to
+ * {@code target/jmh/}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoIndexBenchmark {
+
+    private static final int AIRPORTS = 10_000;
+
+    private static final int NEAREST = 10;
+
+    private static final double RADIUS_KM = 300;
+
+    private GeoIndexService geoIndexService;
+
+    private long[] ids;
+
+    private double[] latitudes;
+
+    private double[] longitudes;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        ids = new long[AIRPORTS];
+        latitudes = new double[AIRPORTS];
+        longitudes = new double[AIRPORTS];
+        List<LocationPoint> points = new ArrayList<>();
+        for (int i = 0; i < AIRPORTS; i++) {
+            ids[i] = i + 1L;
+            latitudes[i] = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+            longitudes[i] = 360 * random.nextDouble() - 180;
+            points.add(new Airport(ids[i], latitudes[i], longitudes[i]));
+        }
+        LocationRepository locationRepository = mock(LocationRepository.class);
+        when(locationRepository.findAllPoints()).thenReturn(points);
+        geoIndexService = new GeoIndexService(locationRepository, Runnable::run, mock(PlatformTransactionManager.class));
+        geoIndexService.rebuild();
+    }
+
+    @Benchmark
+    public void nearestIndexed(QueryState query, Blackhole blackhole) {
+        query.next();
+        blackhole.consume(geoIndexService.nearest(query.latitude, query.longitude, NEAREST));
+    }
+
+    @Benchmark
+    public void nearestScan(QueryState query, Blackhole blackhole) {
+        query.next();
+        // the farthest of the best airports found so far on top
+        PriorityQueue<double[]> best = new PriorityQueue<>((a, b) -> Double.compare(b[1], a[1]));
+        for (int i = 0; i < AIRPORTS; i++) {
+            double distance = GeoIndexService.distanceKm(query.latitude, query.longitude, latitudes[i], longitudes[i]);
+            if (best.size() < NEAREST) {
+                best.add(new double[] { ids[i], distance });
+            } else if (distance < best.peek()[1]) {
+                best.poll();
+                best.add(new double[] { ids[i], distance });
+            }
+        }
+        blackhole.consume(best);
+    }
+
+    @Benchmark
+    public void withinIndexed(QueryState query, Blackhole blackhole) {
+        blackhole.consume(geoIndexService.within(ids[query.nextAirport()], RADIUS_KM));
+    }
+
+    @Benchmark
+    public void withinScan(QueryState query, Blackhole blackhole) {
+        int center = query.nextAirport();
+        List<Long> found = new ArrayList<>();
+        for (int i = 0; i < AIRPORTS; i++) {
+            if (GeoIndexService.distanceKm(latitudes[center], longitudes[center], latitudes[i], longitudes[i]) <= RADIUS_KM) {
+                found.add(ids[i]);
+            }
+        }
+        blackhole.consume(found);
+    }
+
+    /**
+     * Each thread queries its own sequence of random points and airports.
+     */
+    @State(Scope.Thread)
+    public static class QueryState {
+
+        private final Random random = new Random(7);
+
+        private double latitude;
+
+        private double longitude;
+
+        void next() {
+            latitude = 180 * random.nextDouble() - 90;
+            longitude = 360 * random.nextDouble() - 180;
+        }
+
+        int nextAirport() {
+            return random.nextInt(AIRPORTS);
+        }
+    }
+
+    private static final class Airport implements LocationPoint {
+
+        private final Long id;
+        private final Double latitude;
+        private final Double longitude;
+
+        Airport(Long id, Double latitude, Double longitude) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getCountry() {
+            return "Country";
+        }
+
+        @Override
+        public String getCity() {
+            return "City " + id;
+        }
+
+        @Override
+        public String getCityIataCode() {
+            return null;
+        }
+
+        @Override
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        @Override
+        public Double getLongitude() {
+            return longitude;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new File("target/jmh").mkdirs();
+        new Runner(
+            new OptionsBuilder()
+                .include(GeoIndexBenchmark.class.getName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh/geo-index.json")
+                .build()
+        )
+            .run();
+    }
+}
@@ -0,0 +1,139 @@
+package org.closure.laser.benchmark;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import org.closure.laser.management.SecurityMetersService;
+import org.closure.laser.security.AuthoritiesConstants;
+import org.closure.laser.security.jwt.JWTFilter;
+import org.closure.laser.security.jwt.TokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Benchmark of the authentication of a request by the {@link JWTFilter}, followed by a service reading the login
+ * from the token, as {@code UserApplicationService.refreshToken} does.
+ * <p>
+ * {@code parseThreeTimes} is the reference: the token verified by {@code validateToken}, {@code getAuthentication}
+ * and {@code getLoginFromToken} in turn, as before the claims were cached.
+ * <p>
+ * Run {@link #main(String[])} from the IDE, or with the test classpath, to benchmark 1, 8 and 32 threads. The
+ * results are written to {@code target/jmh/}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTFilterBenchmark {
+
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private static final int USERS = 1000;
+
+    private TokenProvider tokenProvider;
+
+    private JWTFilter jwtFilter;
+
+    private JwtParser jwtParser;
+
+    private String[] tokens;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        tokenProvider = new TokenProvider(jHipsterProperties, new SecurityMetersService(new SimpleMeterRegistry()));
+        jwtFilter = new JWTFilter(tokenProvider);
+        jwtParser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(BASE64_SECRET))).build();
+
+        tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                "user-" + i,
+                "",
+                List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+            );
+            tokens[i] = tokenProvider.createToken(authentication, TimeUnit.HOURS.toMillis(1));
+        }
+    }
+
+    @Benchmark
+    public void filter(RequestState request, Blackhole blackhole) throws IOException, ServletException {
+        String token = request.nextToken(tokens);
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+        httpRequest.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + token);
+        FilterChain service = (servletRequest, servletResponse) -> blackhole.consume(tokenProvider.getLoginFromToken(token));
+        try {
+            jwtFilter.doFilter(httpRequest, new MockHttpServletResponse(), service);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public void parseThreeTimes(RequestState request, Blackhole blackhole) {
+        String token = request.nextToken(tokens);
+        for (int i = 0; i < 3; i++) {
+            blackhole.consume(jwtParser.parseClaimsJws(token).getBody());
+        }
+    }
+
+    /**
+     * Each thread goes through all the users in turn.
+     */
+    @State(Scope.Thread)
+    public static class RequestState {
+
+        private int next;
+
+        String nextToken(String[] tokens) {
+            next = (next + 1) % tokens.length;
+            return tokens[next];
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new File("target/jmh").mkdirs();
+        for (int threads : new int[] { 1, 8, 32 }) {
+            new Runner(
+                new OptionsBuilder()
+                    .include(JWTFilterBenchmark.class.getName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh/jwt-filter-" + threads + "-threads.json")
+                    .build()
+            )
+                .run();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.closure.laser.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.closure.laser.aop.logging.LoggingAspect;
+import org.closure.laser.domain.Authority;
+import org.closure.laser.domain.User;
+import org.closure.laser.security.AuthoritiesConstants;
+import org.closure.laser.service.dto.UserDTO;
+import org.closure.laser.service.mapper.UserMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.env.MockEnvironment;
+import tech.jhipster.config.JHipsterConstants;
+
+/**
+ * Benchmark of the overhead of the {@link LoggingAspect} on a cheap service call, {@link UserMapper#userToUserDTO}.
+ * <p>
+ * {@code direct} is the reference, {@code proxied} is the cost of the CGLIB proxy alone, and
+ * {@code proxiedWithLoggingAspect} adds the aspect, as registered with the "dev" profile. With the {@code INFO} level
+ * the aspect only checks the level; with {@code DEBUG} it also builds the log messages, which are then dropped: the
+ * logger of the service has no appender during the benchmark, so no I/O is measured.
+ * <p>
+ * Run {@link #main(String[])} from the IDE, or with the test classpath. The results are written to
+ * {@code target/jmh/}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingAspectBenchmark {
+
+    @Param({ "INFO", "DEBUG" })
+    private String level;
+
+    private UserMapper userMapper;
+
+    private UserMapper proxied;
+
+    private UserMapper proxiedWithLoggingAspect;
+
+    private User user;
+
+    private Logger logger;
+
+    private Level previousLevel;
+
+    @Setup
+    public void setup() {
+        userMapper = new UserMapper();
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(userMapper);
+        proxyFactory.setProxyTargetClass(true);
+        proxied = proxyFactory.getProxy();
+
+        AspectJProxyFactory aspectProxyFactory = new AspectJProxyFactory(userMapper);
+        aspectProxyFactory.setProxyTargetClass(true);
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT);
+        aspectProxyFactory.addAspect(new LoggingAspect(environment));
+        proxiedWithLoggingAspect = aspectProxyFactory.getProxy();
+
+        logger = (Logger) LoggerFactory.getLogger(UserMapper.class);
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.toLevel(level));
+        logger.setAdditive(false);
+
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        user = new User();
+        user.setId(1L);
+        user.setLogin("user");
+        user.setAuthorities(Set.of(authority));
+    }
+
+    @TearDown
+    public void tearDown() {
+        logger.setLevel(previousLevel);
+        logger.setAdditive(true);
+    }
+
+    @Benchmark
+    public UserDTO direct() {
+        return userMapper.userToUserDTO(user);
+    }
+
+    @Benchmark
+    public UserDTO proxied() {
+        return proxied.userToUserDTO(user);
+    }
+
+    @Benchmark
+    public UserDTO proxiedWithLoggingAspect() {
+        return proxiedWithLoggingAspect.userToUserDTO(user);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new File("target/jmh").mkdirs();
+        new Runner(
+            new OptionsBuilder()
+                .include(LoggingAspectBenchmark.class.getName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh/logging-aspect.json")
+                .build()
+        )
+            .run();
+    }
+}
@@ -0,0 +1,116 @@
+package org.closure.laser.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.closure.laser.management.SecurityMetersService;
+import org.closure.laser.security.AuthoritiesConstants;
+import org.closure.laser.security.jwt.TokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Benchmark of the {@link TokenProvider}: signing a token at login, and reading it back on each request.
+ * <p>
+ * The claims of the tokens of the benchmark are verified once, then come from the claims cache of the provider, as
+ * for the users who send several requests with the same token.
+ * <p>
+ * Run {@link #main(String[])} from the IDE, or with the test classpath. The results are written to
+ * {@code target/jmh/}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenProviderBenchmark {
+
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private static final int USERS = 1000;
+
+    private TokenProvider tokenProvider;
+
+    private Authentication[] authentications;
+
+    private String[] tokens;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        tokenProvider = new TokenProvider(jHipsterProperties, new SecurityMetersService(new SimpleMeterRegistry()));
+
+        authentications = new Authentication[USERS];
+        tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            authentications[i] =
+                new UsernamePasswordAuthenticationToken(
+                    "user-" + i,
+                    "",
+                    List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))
+                );
+            tokens[i] = tokenProvider.createToken(authentications[i], TimeUnit.HOURS.toMillis(1));
+        }
+    }
+
+    @Benchmark
+    public String createToken(UserState user) {
+        return tokenProvider.createToken(authentications[user.next()], TimeUnit.HOURS.toMillis(1));
+    }
+
+    @Benchmark
+    public boolean validateToken(UserState user) {
+        return tokenProvider.validateToken(tokens[user.next()]);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication(UserState user) {
+        return tokenProvider.getAuthentication(tokens[user.next()]);
+    }
+
+    /**
+     * Each thread goes through all the users in turn.
+     */
+    @State(Scope.Thread)
+    public static class UserState {
+
+        private int next;
+
+        int next() {
+            next = (next + 1) % USERS;
+            return next;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new File("target/jmh").mkdirs();
+        new Runner(
+            new OptionsBuilder()
+                .include(TokenProviderBenchmark.class.getName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh/token-provider.json")
+                .build()
+        )
+            .run();
+    }
+}
@@ -0,0 +1,107 @@
+package org.closure.laser.benchmark;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.closure.laser.domain.Authority;
+import org.closure.laser.domain.User;
+import org.closure.laser.security.AuthoritiesConstants;
+import org.closure.laser.service.dto.AdminUserDTO;
+import org.closure.laser.service.dto.UserDTO;
+import org.closure.laser.service.mapper.UserMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark of the {@link UserMapper} conversions of a page of users, in both directions, as made by the user
+ * management endpoints.
+ * <p>
+ * Run {@link #main(String[])} from the IDE, or with the test classpath. The results are written to
+ * {@code target/jmh/}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final UserMapper userMapper = new UserMapper();
+
+    private List<User> users;
+
+    private List<AdminUserDTO> adminUsers;
+
+    @Setup
+    public void setup() {
+        Authority user = new Authority();
+        user.setName(AuthoritiesConstants.USER);
+        Authority admin = new Authority();
+        admin.setName(AuthoritiesConstants.ADMIN);
+
+        users = new ArrayList<>();
+        for (long i = 0; i < PAGE_SIZE; i++) {
+            User entity = new User();
+            entity.setId(i);
+            entity.setLogin("user-" + i);
+            entity.setFirstName("First " + i);
+            entity.setLastName("Last " + i);
+            entity.setEmail("user-" + i + "@localhost");
+            entity.setImageUrl("https://laser.example/users/" + i + ".png");
+            entity.setActivated(true);
+            entity.setLangKey("en");
+            entity.setCreatedBy("system");
+            entity.setCreatedDate(Instant.now());
+            entity.setLastModifiedBy("system");
+            entity.setLastModifiedDate(Instant.now());
+            entity.setAuthorities(i % 2 == 0 ? Set.of(user) : Set.of(user, admin));
+            users.add(entity);
+        }
+        adminUsers = userMapper.usersToAdminUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<UserDTO> usersToUserDTOs() {
+        return userMapper.usersToUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<AdminUserDTO> usersToAdminUserDTOs() {
+        return userMapper.usersToAdminUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<User> userDTOsToUsers() {
+        return userMapper.userDTOsToUsers(adminUsers);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new File("target/jmh").mkdirs();
+        new Runner(
+            new OptionsBuilder()
+                .include(UserMapperBenchmark.class.getName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh/user-mapper.json")
+                .build()
+        )
+            .run();
+    }
+}
@@ -0,0 +1,146 @@
+package org.closure.laser.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.closure.laser.management.CacheRegionMeters;
+import org.ehcache.config.ResourceType;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.util.unit.DataSize;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the per-region settings of {@link CacheConfiguration}.
+ */
+class CacheConfigurationTest {
+
+    private static final String TRIP_SOURCES = org.closure.laser.domain.Location.class.getName() + ".tripSources";
+
+    private JHipsterProperties jHipsterProperties;
+
+    private ApplicationProperties applicationProperties;
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setup() {
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxEntries(100);
+        jHipsterProperties.getCache().getEhcache().setTimeToLiveSeconds(3600);
+        applicationProperties = new ApplicationProperties();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (cacheManager != null) {
+            cacheManager.close();
+        }
+    }
+
+    @Test
+    void regionDefaultsToJHipsterSettings() {
+        org.ehcache.config.CacheConfiguration<Object, Object> configuration = regionConfiguration(new ApplicationProperties.Region());
+
+        assertThat(configuration.getResourcePools().getResourceTypeSet()).containsExactly(ResourceType.Core.HEAP);
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+        assertThat(expiry(configuration).getExpiryForCreation(1L, 1L)).isEqualTo(Duration.ofHours(1));
+    }
+
+    @Test
+    void regionCanMoveOffHeapAndExpireOnIdle() {
+        ApplicationProperties.Region region = new ApplicationProperties.Region();
+        region.setHeapEntries(10L);
+        region.setOffHeap(DataSize.ofMegabytes(4));
+        region.setTimeToIdle(Duration.ofMinutes(5));
+
+        org.ehcache.config.CacheConfiguration<Object, Object> configuration = regionConfiguration(region);
+
+        assertThat(configuration.getResourcePools().getResourceTypeSet()).contains(ResourceType.Core.HEAP, ResourceType.Core.OFFHEAP);
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(10);
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.OFFHEAP).getSize()).isEqualTo(4096);
+        assertThat(expiry(configuration).getExpiryForAccess(1L, () -> 1L)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void eternalRegionNeverExpires() {
+        ApplicationProperties.Region region = new ApplicationProperties.Region();
+        region.setEternal(true);
+
+        assertThat(expiry(regionConfiguration(region)).getExpiryForCreation(1L, 1L)).isEqualTo(ExpiryPolicy.INFINITE);
+    }
+
+    @Test
+    void invalidRegionsAreRejected() {
+        ApplicationProperties.Region bothExpiries = new ApplicationProperties.Region();
+        bothExpiries.setTimeToLive(Duration.ofMinutes(1));
+        bothExpiries.setTimeToIdle(Duration.ofMinutes(1));
+        ApplicationProperties.Region diskWithoutPath = new ApplicationProperties.Region();
+        diskWithoutPath.setDisk(DataSize.ofMegabytes(10));
+
+        assertThatThrownBy(() -> regionConfiguration(bothExpiries)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> regionConfiguration(diskWithoutPath)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void regionMetersAreRegisteredPerCacheAndTier() {
+        ApplicationProperties.Region region = new ApplicationProperties.Region();
+        region.setHeapEntries(2L);
+        region.setOffHeap(DataSize.ofMegabytes(1));
+        applicationProperties.getCache().getRegions().put("Location.tripSources", region);
+        CacheConfiguration cacheConfiguration = new CacheConfiguration(jHipsterProperties, applicationProperties);
+        cacheManager = cacheConfiguration.jCacheCacheManager(customizers(cacheConfiguration.cacheManagerCustomizer()));
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new CacheRegionMeters(cacheManager).bindTo(meterRegistry);
+
+        Cache<Object, Object> cache = cacheManager.getCache(TRIP_SOURCES);
+        for (long i = 0; i < 5; i++) {
+            cache.put(i, "location " + i);
+        }
+        cache.get(4L);
+        cache.get(42L);
+
+        assertThat(meterRegistry.get(CacheRegionMeters.SIZE_METER_NAME).tag("cache", TRIP_SOURCES).gauge().value()).isEqualTo(5);
+        assertThat(meterRegistry.get(CacheRegionMeters.HIT_RATIO_METER_NAME).tag("cache", TRIP_SOURCES).gauge().value()).isEqualTo(0.5);
+        assertThat(meterRegistry.get(CacheRegionMeters.TIER_SIZE_METER_NAME).tags("cache", TRIP_SOURCES, "tier", "OnHeap").gauge().value())
+            .isLessThanOrEqualTo(2);
+        assertThat(
+            meterRegistry.get(CacheRegionMeters.TIER_BYTES_METER_NAME).tags("cache", TRIP_SOURCES, "tier", "OffHeap").gauge().value()
+        )
+            .isPositive();
+        assertThat(meterRegistry.find(CacheRegionMeters.TIER_SIZE_METER_NAME).tags("tier", "OffHeap").gauges()).hasSize(1);
+        assertThat(meterRegistry.get(CacheRegionMeters.EVICTIONS_METER_NAME).tag("cache", TRIP_SOURCES).functionCounter().count()).isZero();
+    }
+
+    private org.ehcache.config.CacheConfiguration<Object, Object> regionConfiguration(ApplicationProperties.Region region) {
+        return CacheConfiguration.regionConfiguration(
+            "test",
+            region,
+            jHipsterProperties.getCache().getEhcache(),
+            null,
+            getClass().getClassLoader()
+        );
+    }
+
+    private static ExpiryPolicy<? super Object, ? super Object> expiry(
+        org.ehcache.config.CacheConfiguration<Object, Object> configuration
+    ) {
+        return configuration.getExpiryPolicy();
+    }
+
+    private static ObjectProvider<JCacheManagerCustomizer> customizers(JCacheManagerCustomizer customizer) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("cacheManagerCustomizer", customizer);
+        return beanFactory.getBeanProvider(JCacheManagerCustomizer.class);
+    }
+}
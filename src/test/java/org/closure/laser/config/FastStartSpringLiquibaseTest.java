@@ -0,0 +1,86 @@
+package org.closure.laser.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * Unit tests for {@link FastStartSpringLiquibase}.
+ */
+@Timeout(value = 1, unit = TimeUnit.MINUTES) // the first Liquibase run of the JVM takes a few seconds
+class FastStartSpringLiquibaseTest {
+
+    private JdbcDataSource dataSource;
+
+    private final List<Runnable> backgroundTasks = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:fast-start-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    void unchangedChangeLogIsValidatedInTheBackground() throws Exception {
+        FastStartSpringLiquibase first = liquibase("test");
+        first.afterPropertiesSet();
+
+        assertThat(backgroundTasks).isEmpty();
+        assertThat(first.getChangeLogTag()).startsWith(FastStartSpringLiquibase.TAG_PREFIX);
+        assertThat(count("SELECT COUNT(*) FROM DATABASECHANGELOG WHERE TAG = '" + first.getChangeLogTag() + "'")).isEqualTo(1);
+
+        FastStartSpringLiquibase restart = liquibase("test");
+        restart.afterPropertiesSet();
+
+        assertThat(restart.getChangeLogTag()).isEqualTo(first.getChangeLogTag());
+        assertThat(backgroundTasks).hasSize(1);
+        backgroundTasks.get(0).run();
+        assertThat(count("SELECT COUNT(*) FROM DATABASECHANGELOG")).isEqualTo(1);
+    }
+
+    @Test
+    void changedChangeLogIsAppliedBeforeStarting() throws Exception {
+        FastStartSpringLiquibase first = liquibase("test");
+        first.afterPropertiesSet();
+
+        FastStartSpringLiquibase withFaker = liquibase("test,faker");
+        withFaker.afterPropertiesSet();
+
+        assertThat(withFaker.getChangeLogTag()).isNotEqualTo(first.getChangeLogTag());
+        assertThat(backgroundTasks).isEmpty();
+        assertThat(count("SELECT COUNT(*) FROM fast_start_sample")).isEqualTo(1);
+    }
+
+    private FastStartSpringLiquibase liquibase(String contexts) {
+        FastStartSpringLiquibase liquibase = new FastStartSpringLiquibase(backgroundTasks::add, new MockEnvironment());
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.setDataSource(dataSource);
+        liquibase.setCloseDataSourceOnceMigrated(false);
+        liquibase.setChangeLog("classpath:config/liquibase-fast-start/master.xml");
+        liquibase.setContexts(contexts);
+        liquibase.setDatabaseChangeLogTable("DATABASECHANGELOG");
+        liquibase.setDatabaseChangeLogLockTable("DATABASECHANGELOGLOCK");
+        return liquibase;
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            ResultSet resultSet = statement.executeQuery(sql);
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.closure.laser.config;
+
+import org.closure.laser.service.StubPushNotificationSender;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class StubPushNotificationConfiguration {
+
+    @Bean
+    @Primary
+    public StubPushNotificationSender stubPushNotificationSender() {
+        return new StubPushNotificationSender();
+    }
+}
@@ -0,0 +1,50 @@
+package org.closure.laser.loadtest;
+
+/**
+ * The user journeys of the mobile app, with their share of the mixed workload.
+ */
+enum Flow {
+    REGISTER(3),
+    // follows each registration, as the user opens the link of the activation email
+    ACTIVATE(0),
+    LOGIN(5),
+    REFRESH_TOKEN(7),
+    CREATE_TRIP(8),
+    CREATE_SHIPMENTS(12),
+    SEARCH_TRIPS(40),
+    SEND_OFFER(12),
+    ACCEPT_OFFER(8),
+    UPLOAD_IMAGE(5);
+
+    private static final int TOTAL_WEIGHT = totalWeight();
+
+    private final int weight;
+
+    Flow(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * Pick a flow at random, by weight.
+     *
+     * @param random a number between 0 (included) and 1 (excluded).
+     */
+    static Flow pick(double random) {
+        int target = (int) (random * TOTAL_WEIGHT);
+        for (Flow flow : values()) {
+            target -= flow.weight;
+            if (target < 0) {
+                return flow;
+            }
+        }
+        return SEARCH_TRIPS;
+    }
+
+    private static int totalWeight() {
+        int total = 0;
+        for (Flow flow : values()) {
+            total += flow.weight;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,258 @@
+package org.closure.laser.loadtest;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.closure.laser.domain.Location;
+import org.closure.laser.service.LocationService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Synthetic data of a load test: airports, users, and open trip and shipment deals of these users between the
+ * airports.
+ * <p>
+ * The airports are saved with the {@link LocationService}, the users and deals with batches of plain SQL, so that a
+ * million deals take minutes rather than hours. The SQL is portable, for H2 and MySQL. The ids of the deals are reserved in
+ * the {@code id_generator} table, as Hibernate does, so that the deals created by the application during the test
+ * do not collide with them.
+ */
+class LoadTestData {
+
+    static final List<String> COUNTRIES = List.of(
+        "Syria",
+        "Lebanon",
+        "Jordan",
+        "Turkey",
+        "Egypt",
+        "Qatar",
+        "Germany",
+        "France",
+        "Sweden",
+        "Netherlands"
+    );
+
+    private static final int AIRPORTS_PER_COUNTRY = 4;
+
+    private static final int DEALS_PER_TRIP = 5;
+
+    private static final int SHIPMENTS_PER_DEAL = 2;
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String SEED_LOGIN = "load-seed-";
+
+    // the allocation size of the generators of the entities
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final long OPEN_STATUS = 1L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Random random = new Random(42);
+
+    private final List<Location> airports = new ArrayList<>();
+
+    LoadTestData(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    List<Location> createAirports(LocationService locationService) {
+        for (String country : COUNTRIES) {
+            for (int i = 1; i <= AIRPORTS_PER_COUNTRY; i++) {
+                airports.add(
+                    locationService.save(new Location().country(country).city(country + " City " + i).airport(country + " Airport " + i))
+                );
+            }
+        }
+        return airports;
+    }
+
+    /**
+     * Create activated users, with a connection to the push notifications. They cannot log in.
+     *
+     * @return the ids of their user applications.
+     */
+    List<Long> createUsers(int users) {
+        // the ids of the users, applications and connections are generated by the database
+        for (int first = 0; first < users; first += BATCH_SIZE) {
+            List<Object[]> userRows = new ArrayList<>();
+            List<Object[]> connectionRows = new ArrayList<>();
+            for (int user = first; user < Math.min(first + BATCH_SIZE, users); user++) {
+                String login = SEED_LOGIN + user;
+                userRows.add(new Object[] { login, "x".repeat(60), "Load", "User " + user, login + "@localhost" });
+                connectionRows.add(new Object[] { "fcm-" + login });
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(
+                    "INSERT INTO jhi_user (login, password_hash, first_name, last_name, email, activated, lang_key, created_by) " +
+                    "VALUES (?, ?, ?, ?, ?, TRUE, 'en', 'system')",
+                    userRows
+                );
+                jdbcTemplate.batchUpdate("INSERT INTO connection (fcm_token) VALUES (?)", connectionRows);
+            });
+        }
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update(
+                "INSERT INTO user_application " +
+                "(user_id, connection_id, phone, rate, one_star, two_star, three_star, four_satr, five_star) " +
+                "SELECT u.id, c.id, '+963' || u.id, 0, 0, 0, 0, 0, 0 " +
+                "FROM jhi_user u JOIN connection c ON c.fcm_token = 'fcm-' || u.login " +
+                "WHERE u.login LIKE ?",
+                SEED_LOGIN + "%"
+            )
+        );
+        return jdbcTemplate.queryForList(
+            "SELECT a.id FROM user_application a JOIN jhi_user u ON a.user_id = u.id WHERE u.login LIKE ? ORDER BY a.id",
+            Long.class,
+            SEED_LOGIN + "%"
+        );
+    }
+
+    /**
+     * Create open deals between the airports: two thirds of trip deals carried by the given users, one third of
+     * shipment deals owned by them.
+     *
+     * @param deals the number of deals.
+     * @param users the ids of the user applications carrying and sending the deals, from {@link #createUsers}.
+     */
+    void createDeals(int deals, List<Long> users) {
+        int tripDeals = deals * 2 / 3;
+        int trips = Math.max(1, tripDeals / DEALS_PER_TRIP);
+        int shipmentDeals = deals - tripDeals;
+        long firstTrip = reserveIds("trip", trips);
+        long firstDeal = reserveIds("deal", deals);
+        long firstShipment = reserveIds("shipment", (long) shipmentDeals * SHIPMENTS_PER_DEAL);
+        Instant now = Instant.now();
+
+        List<Object[]> tripRows = new ArrayList<>();
+        List<Object[]> dealRows = new ArrayList<>();
+        for (int trip = 0; trip < trips; trip++) {
+            long tripId = firstTrip + trip;
+            Location[] route = route();
+            Instant flyTime = now.plus(Duration.ofHours(1 + random.nextInt(30 * 24)));
+            Timestamp arriveTime = Timestamp.from(flyTime.plus(Duration.ofHours(6)));
+            tripRows.add(
+                new Object[] {
+                    tripId,
+                    Timestamp.from(now),
+                    Timestamp.from(flyTime),
+                    arriveTime,
+                    "LT-" + tripId,
+                    "ticket.png",
+                    route[0].getId(),
+                    route[1].getId(),
+                }
+            );
+            for (int deal = trip * DEALS_PER_TRIP; deal < Math.min((trip + 1) * DEALS_PER_TRIP, tripDeals); deal++) {
+                Long deliver = users.get(random.nextInt(users.size()));
+                dealRows.add(new Object[] { firstDeal + deal, 50D, 50D, arriveTime, deliver, tripId, OPEN_STATUS });
+            }
+            if (tripRows.size() == BATCH_SIZE) {
+                insertTrips(tripRows, dealRows);
+            }
+        }
+        insertTrips(tripRows, dealRows);
+
+        dealRows.clear();
+        List<Object[]> shipmentRows = new ArrayList<>();
+        for (int deal = 0; deal < shipmentDeals; deal++) {
+            long dealId = firstDeal + tripDeals + deal;
+            Location[] route = route();
+            dealRows.add(
+                new Object[] {
+                    dealId,
+                    2D * SHIPMENTS_PER_DEAL,
+                    2D * SHIPMENTS_PER_DEAL,
+                    Timestamp.from(now.plus(Duration.ofHours(1 + random.nextInt(30 * 24)))),
+                    users.get(random.nextInt(users.size())),
+                    OPEN_STATUS,
+                }
+            );
+            for (int shipment = 0; shipment < SHIPMENTS_PER_DEAL; shipment++) {
+                long shipmentId = firstShipment + (long) deal * SHIPMENTS_PER_DEAL + shipment;
+                shipmentRows.add(
+                    new Object[] {
+                        shipmentId,
+                        2D,
+                        "Shipment " + shipmentId,
+                        Timestamp.from(now),
+                        route[0].getId(),
+                        route[1].getId(),
+                        dealId,
+                    }
+                );
+            }
+            if (dealRows.size() == BATCH_SIZE) {
+                insertShipments(dealRows, shipmentRows);
+            }
+        }
+        insertShipments(dealRows, shipmentRows);
+    }
+
+    private Location[] route() {
+        Location from = airports.get(random.nextInt(airports.size()));
+        Location to;
+        do {
+            to = airports.get(random.nextInt(airports.size()));
+        } while (to.getCountry().equals(from.getCountry()));
+        return new Location[] { from, to };
+    }
+
+    private void insertTrips(List<Object[]> tripRows, List<Object[]> dealRows) {
+        // the connections of the pool do not auto-commit
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO trip (id, created_at, fly_time, arrive_time, trip_identifier, ticket_image, from_id, to_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                tripRows
+            );
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO deal (id, full_weight, available_weight, arrivel_date, deliver_id, trip_id, status_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                dealRows
+            );
+        });
+        tripRows.clear();
+        dealRows.clear();
+    }
+
+    private void insertShipments(List<Object[]> dealRows, List<Object[]> shipmentRows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO deal (id, full_weight, available_weight, expected_date, owner_id, status_id) VALUES (?, ?, ?, ?, ?, ?)",
+                dealRows
+            );
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO shipment (id, weight, description, created_at, from_id, to_id, deal_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                shipmentRows
+            );
+        });
+        dealRows.clear();
+        shipmentRows.clear();
+    }
+
+    /**
+     * Reserve ids in the {@code id_generator} table. Hibernate hands out the ids up to {@code next_val}, and the block
+     * it reads next ends at the new {@code next_val}: the reserved ids are kept out of both.
+     *
+     * @return the first reserved id.
+     */
+    private long reserveIds(String table, long count) {
+        return transactionTemplate.execute(status -> {
+            Long next = jdbcTemplate.queryForObject("SELECT next_val FROM id_generator WHERE sequence_name = ?", Long.class, table);
+            jdbcTemplate.update(
+                "UPDATE id_generator SET next_val = ? WHERE sequence_name = ?",
+                next + 1 + count + ID_ALLOCATION_SIZE,
+                table
+            );
+            return next + 1;
+        });
+    }
+}
@@ -0,0 +1,161 @@
+package org.closure.laser.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The latencies and errors of each {@link Flow} during the measured part of a load test.
+ * <p>
+ * A call is an error when it fails or returns a status other than 2xx. The latencies of the errors are recorded too,
+ * the error rate tells them apart.
+ */
+class LoadTestReport {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestReport.class);
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<Flow, FlowStatistics> flows = new EnumMap<>(Flow.class);
+
+    private volatile boolean recording;
+
+    private long startNanos;
+
+    private long stopNanos;
+
+    LoadTestReport() {
+        for (Flow flow : Flow.values()) {
+            flows.put(flow, new FlowStatistics());
+        }
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+        stopNanos = System.nanoTime();
+    }
+
+    /**
+     * Record a call, if the measurement has started.
+     *
+     * @param status the HTTP status, or 0 if the call failed without a response.
+     */
+    void record(Flow flow, long latencyNanos, int status) {
+        if (!recording) {
+            return;
+        }
+        FlowStatistics statistics = flows.get(flow);
+        statistics.latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        if (status < 200 || status >= 300) {
+            statistics.errors.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+    }
+
+    long count(Flow flow) {
+        return flows.get(flow).latencies.getTotalCount();
+    }
+
+    double errorRate(Flow flow) {
+        long count = count(flow);
+        return count == 0 ? 0 : (double) flows.get(flow).errorCount() / count;
+    }
+
+    /**
+     * Log the report, and write it as JSON.
+     *
+     * @param settings the settings of the run, written with the results.
+     * @param file the JSON file.
+     */
+    void write(Map<String, Object> settings, Path file) throws IOException {
+        Duration measured = Duration.ofNanos(stopNanos - startNanos);
+        Map<String, Object> results = new LinkedHashMap<>();
+        StringBuilder table = new StringBuilder(
+            String.format(
+                "%n%-18s %8s %9s %9s %9s %9s %9s %9s",
+                "flow",
+                "calls",
+                "calls/s",
+                "errors",
+                "p50 ms",
+                "p95 ms",
+                "p99 ms",
+                "max ms"
+            )
+        );
+        for (Map.Entry<Flow, FlowStatistics> entry : flows.entrySet()) {
+            Histogram latencies = entry.getValue().latencies.copy();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("calls", latencies.getTotalCount());
+            result.put("throughput", latencies.getTotalCount() * 1000.0 / measured.toMillis());
+            result.put("errorRate", errorRate(entry.getKey()));
+            Map<Integer, Long> errors = new TreeMap<>();
+            entry.getValue().errors.forEach((status, count) -> errors.put(status, count.sum()));
+            result.put("errorsByStatus", errors);
+            result.put("p50", millis(latencies.getValueAtPercentile(50)));
+            result.put("p95", millis(latencies.getValueAtPercentile(95)));
+            result.put("p99", millis(latencies.getValueAtPercentile(99)));
+            result.put("max", millis(latencies.getMaxValue()));
+            results.put(entry.getKey().name(), result);
+
+            table.append(
+                String.format(
+                    "%n%-18s %8d %9.1f %8.2f%% %9.1f %9.1f %9.1f %9.1f",
+                    entry.getKey(),
+                    latencies.getTotalCount(),
+                    result.get("throughput"),
+                    errorRate(entry.getKey()) * 100,
+                    result.get("p50"),
+                    result.get("p95"),
+                    result.get("p99"),
+                    result.get("max")
+                )
+            );
+        }
+        log.info("Load test: {} measured{}", measured, table);
+
+        Map<String, Object> report = new LinkedHashMap<>(settings);
+        report.put("measuredSeconds", measured.toMillis() / 1000.0);
+        report.put("flows", results);
+        Files.createDirectories(file.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        log.info("Load test report written to {}", file.toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class FlowStatistics {
+
+        private final ConcurrentHistogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+
+        private final Map<Integer, LongAdder> errors = new ConcurrentHashMap<>();
+
+        long errorCount() {
+            long count = 0;
+            for (LongAdder adder : errors.values()) {
+                count += adder.sum();
+            }
+            return count;
+        }
+    }
+}
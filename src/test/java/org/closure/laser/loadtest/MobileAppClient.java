@@ -0,0 +1,423 @@
+package org.closure.laser.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import javax.imageio.ImageIO;
+import org.closure.laser.domain.Location;
+
+/**
+ * A user of the mobile app, calling the REST API over HTTP as the app does, and recording each call in the
+ * {@link LoadTestReport}.
+ * <p>
+ * The user registers, activates the account with the key of the activation email and logs in, then runs flows
+ * picked at random by {@link Flow#pick}. A flow that needs something the user does not have yet runs the flow that
+ * creates it instead: an offer needs a shipment deal and a trip deal found by a search, an acceptance needs a
+ * pending offer.
+ */
+class MobileAppClient {
+
+    private static final String PASSWORD = "load-test-password";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper;
+
+    private final String baseUrl;
+
+    private final List<Location> airports;
+
+    private final LoadTestReport report;
+
+    private final Function<String, String> activationKeys;
+
+    private final Random random;
+
+    private final byte[] image;
+
+    private String login;
+
+    private String token;
+
+    private Long userApplicationId;
+
+    private final Deque<Deal> shipmentDeals = new ArrayDeque<>();
+
+    private final List<Deal> tripDeals = new ArrayList<>();
+
+    private final Deque<Deal[]> pendingOffers = new ArrayDeque<>();
+
+    MobileAppClient(
+        HttpClient httpClient,
+        ObjectMapper objectMapper,
+        String baseUrl,
+        List<Location> airports,
+        LoadTestReport report,
+        Function<String, String> activationKeys,
+        long seed
+    ) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.airports = airports;
+        this.report = report;
+        this.activationKeys = activationKeys;
+        this.random = new Random(seed);
+        this.image = image();
+    }
+
+    /**
+     * Run flows until {@code running} returns {@code false}, once signed up.
+     */
+    void run(BooleanSupplier running) {
+        while (running.getAsBoolean()) {
+            run(Flow.pick(random.nextDouble()));
+        }
+    }
+
+    /**
+     * Register and activate a new user, and log in as this user.
+     */
+    void signUp() {
+        login = "load-" + UUID.randomUUID();
+        JsonNode userApplication = register(login);
+        if (userApplication == null || !activate(login)) {
+            throw new IllegalStateException("Could not sign up " + login);
+        }
+        userApplicationId = userApplication.path("id").asLong();
+        login();
+    }
+
+    private void run(Flow flow) {
+        switch (flow) {
+            case REGISTER:
+                // another user installs the app
+                String newLogin = "load-" + UUID.randomUUID();
+                if (register(newLogin) != null) {
+                    activate(newLogin);
+                }
+                break;
+            case LOGIN:
+                login();
+                break;
+            case REFRESH_TOKEN:
+                refreshToken();
+                break;
+            case CREATE_TRIP:
+                createTrip();
+                break;
+            case CREATE_SHIPMENTS:
+                createShipments();
+                break;
+            case SEARCH_TRIPS:
+                searchTrips();
+                break;
+            case SEND_OFFER:
+                if (shipmentDeals.isEmpty()) {
+                    createShipments();
+                } else if (tripDeals.isEmpty()) {
+                    searchTrips();
+                } else {
+                    sendOffer();
+                }
+                break;
+            case ACCEPT_OFFER:
+                if (pendingOffers.isEmpty()) {
+                    run(Flow.SEND_OFFER);
+                } else {
+                    acceptOffer();
+                }
+                break;
+            case UPLOAD_IMAGE:
+                uploadImage();
+                break;
+        }
+    }
+
+    private JsonNode register(String newLogin) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("phone", "+963" + (100_000_000 + random.nextInt(900_000_000)));
+        ObjectNode user = body.putObject("user");
+        user.put("login", newLogin);
+        user.put("password", PASSWORD);
+        user.put("firstName", "Load");
+        user.put("lastName", "Test");
+        user.put("email", newLogin + "@localhost");
+        user.put("langKey", "en");
+        body.putObject("connection").put("fcmToken", "fcm-" + newLogin);
+        return call(Flow.REGISTER, post("/api/user-applications/register", body));
+    }
+
+    private boolean activate(String newLogin) {
+        String key;
+        try {
+            key = activationKeys.apply(newLogin);
+        } catch (RuntimeException e) {
+            // the email did not come
+            report.record(Flow.ACTIVATE, 0, 0);
+            return false;
+        }
+        String path = "/api/activate?key=" + pathSegment(key);
+        return call(Flow.ACTIVATE, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET()) != null;
+    }
+
+    private void login() {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("username", login);
+        body.put("password", PASSWORD);
+        JsonNode jwt = call(Flow.LOGIN, post("/api/user-applications/authenticate", body));
+        if (jwt != null) {
+            token = jwt.path("id_token").asText();
+        }
+    }
+
+    private void refreshToken() {
+        JsonNode jwt = call(
+            Flow.REFRESH_TOKEN,
+            authorized("/api/user-applications/refreshToken").POST(HttpRequest.BodyPublishers.noBody())
+        );
+        if (jwt != null) {
+            token = jwt.path("id_token").asText();
+        }
+    }
+
+    private void createTrip() {
+        Location[] route = route();
+        Instant flyTime = Instant.now().plus(Duration.ofHours(1 + random.nextInt(30 * 24)));
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("tripIdentifier", "LT-" + UUID.randomUUID());
+        body.put("flyTime", jsonDate(flyTime));
+        body.put("arriveTime", jsonDate(flyTime.plus(Duration.ofHours(6))));
+        body.put("ticketImage", "ticket.png");
+        body.putObject("from").put("id", route[0].getId());
+        body.putObject("to").put("id", route[1].getId());
+        call(Flow.CREATE_TRIP, post("/api/trips/createTripLogic/fw=30.0/avw=30.0", body));
+    }
+
+    private void createShipments() {
+        Location[] route = route();
+        int count = 1 + random.nextInt(3);
+        ArrayNode body = objectMapper.createArrayNode();
+        for (int i = 0; i < count; i++) {
+            ObjectNode shipment = body.addObject();
+            shipment.put("weight", 1D);
+            shipment.put("description", "Load test shipment " + i);
+            shipment.putObject("from").put("id", route[0].getId());
+            shipment.putObject("to").put("id", route[1].getId());
+        }
+        String date = pathDate(Instant.now().plus(Duration.ofDays(1 + random.nextInt(30))));
+        JsonNode shipments = call(Flow.CREATE_SHIPMENTS, post("/api/shipments/createShipmentLogic/" + date, body));
+        if (shipments != null && shipments.size() > 0) {
+            shipmentDeals.add(new Deal(shipments.get(0).path("deal").path("id").asLong(), count, route));
+        }
+    }
+
+    /**
+     * Search the trips of the route of the next shipment deal to offer, or of a random route.
+     */
+    private void searchTrips() {
+        Location[] route = shipmentDeals.isEmpty() ? route() : shipmentDeals.peek().route;
+        String path = String.format(
+            "/api/deals/searchTrips/%s/%s/%s/%s?size=20",
+            pathSegment(route[0].getCountry()),
+            pathSegment(route[1].getCountry()),
+            "1.0",
+            pathDate(Instant.now().plus(Duration.ofDays(60)))
+        );
+        JsonNode page = call(Flow.SEARCH_TRIPS, authorized(path).GET());
+        if (page == null) {
+            return;
+        }
+        tripDeals.clear();
+        for (JsonNode tripDeal : page) {
+            if (tripDeal.path("deliverId").asLong() != userApplicationId) {
+                tripDeals.add(new Deal(tripDeal.path("dealId").asLong(), tripDeal.path("availableWeight").asDouble(), null));
+            }
+        }
+    }
+
+    private void sendOffer() {
+        Deal shipmentDeal = shipmentDeals.peek();
+        Deal tripDeal = null;
+        for (Deal candidate : tripDeals) {
+            if (candidate.weight >= shipmentDeal.weight) {
+                tripDeal = candidate;
+                break;
+            }
+        }
+        if (tripDeal == null) {
+            // nothing found on this route: offer the next shipment deal
+            tripDeals.clear();
+            shipmentDeals.add(shipmentDeals.poll());
+            searchTrips();
+            return;
+        }
+        tripDeals.remove(tripDeal);
+        shipmentDeals.poll();
+        HttpRequest.Builder request = authorized("/api/offers/addOffers/" + shipmentDeal.id + "/" + tripDeal.id);
+        if (call(Flow.SEND_OFFER, request.POST(HttpRequest.BodyPublishers.noBody())) != null) {
+            pendingOffers.add(new Deal[] { shipmentDeal, tripDeal });
+        }
+    }
+
+    private void acceptOffer() {
+        Deal[] offer = pendingOffers.poll();
+        HttpRequest.Builder request = authorized("/api/deals/dealLogic/" + offer[0].id + "/" + offer[1].id);
+        call(Flow.ACCEPT_OFFER, request.POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private void uploadImage() {
+        String boundary = "load-test-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(
+            (
+                "--" +
+                boundary +
+                "\r\nContent-Disposition: form-data; name=\"files\"; filename=\"avatar.png\"\r\nContent-Type: image/png\r\n\r\n"
+            ).getBytes(StandardCharsets.UTF_8)
+        );
+        body.writeBytes(image);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        call(
+            Flow.UPLOAD_IMAGE,
+            authorized("/api/upload-files?type=user&id=" + userApplicationId)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+        );
+    }
+
+    /**
+     * Send a request, and record its latency and status.
+     *
+     * @return the JSON body of a successful response, an empty node if it has none, or {@code null} if the call failed.
+     */
+    private JsonNode call(Flow flow, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            report.record(flow, System.nanoTime() - start, 0);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        report.record(flow, System.nanoTime() - start, response.statusCode());
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            return null;
+        }
+        try {
+            return response.body().length == 0 ? objectMapper.createObjectNode() : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder post(String path, JsonNode body) {
+        try {
+            return (token != null ? authorized(path) : HttpRequest.newBuilder(URI.create(baseUrl + path)))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token);
+    }
+
+    private Location[] route() {
+        Location from = airports.get(random.nextInt(airports.size()));
+        Location to;
+        do {
+            to = airports.get(random.nextInt(airports.size()));
+        } while (to.getCountry().equals(from.getCountry()));
+        return new Location[] { from, to };
+    }
+
+    /**
+     * The dates of the JSON bodies are read in UTC by Jackson.
+     */
+    private static String jsonDate(Instant instant) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(Date.from(instant));
+    }
+
+    /**
+     * The dates of the paths are read in the time zone of the server, which runs in this JVM.
+     */
+    private static String pathDate(Instant instant) {
+        return pathSegment(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(Date.from(instant)));
+    }
+
+    private static String pathSegment(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    /**
+     * A small PNG, different for each user.
+     */
+    private byte[] image() {
+        BufferedImage avatar = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < avatar.getWidth(); x++) {
+            for (int y = 0; y < avatar.getHeight(); y++) {
+                avatar.setRGB(x, y, random.nextInt());
+            }
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(avatar, "png", png);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return png.toByteArray();
+    }
+
+    /**
+     * A deal of the user or found by a search, with its weight: the weight of the shipments of a shipment deal, the
+     * available weight of a trip deal.
+     */
+    private static final class Deal {
+
+        private final long id;
+
+        private final double weight;
+
+        private final Location[] route;
+
+        private Deal(long id, double weight, Location[] route) {
+            this.id = id;
+            this.weight = weight;
+            this.route = route;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.closure.laser.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.closure.laser.LaserApp;
+import org.closure.laser.domain.Location;
+import org.closure.laser.service.LocationService;
+import org.closure.laser.service.RouteIndexService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Load test of the journeys of the mobile app: {@link #USERS} users register, activate their account, log in, create
+ * trips and shipments, search trips, send and accept offers and upload images over HTTP for {@link #DURATION},
+ * against {@link #DEALS} synthetic deals of {@link #DEALS_PER_USER} per synthetic user. The latency percentiles and
+ * error rate of each {@link Flow} are logged, and written to {@code target/load-test/report.json}.
+ * <p>
+ * The database is an H2 file, so that the deals do not fill the heap, or MySQL in a container with
+ * {@code -Dspring.profiles.active=testcontainers}. The push notifications go to the stub sender of the tests. The
+ * test only runs when asked, and its scale is set with system properties, for example
+ * {@code ./mvnw verify -Dit.test=MobileFlowsLoadIT -Dloadtest=true -Dloadtest.deals=1000000 -Dloadtest.users=64 -Dloadtest.duration=PT5M}.
+ * It fails when a flow was not called. The flows which failed more often than {@code loadtest.max-error-rate} are
+ * logged as findings, and only fail the test with {@code -Dloadtest.gate=true}.
+ * <p>
+ * Finding on this tree, with 4 users for 30 s on H2: at 1,000 deals and more, loading a {@code Location} or a deal
+ * pulls in most of the database through the EAGER associations, so creating shipments and searching trips exceed the
+ * 30 s timeout of the client, and the gate fails at the default 10,000 deals.
+ */
+@SpringBootTest(
+    classes = LaserApp.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "application.upload.directory=target/load-test/images"
+)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class MobileFlowsLoadIT {
+
+    private static final Logger log = LoggerFactory.getLogger(MobileFlowsLoadIT.class);
+
+    private static final int DEALS = Integer.getInteger("loadtest.deals", 10_000);
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 16);
+
+    private static final Duration WARMUP = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+
+    private static final Duration DURATION = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+
+    private static final boolean GATE = Boolean.getBoolean("loadtest.gate");
+
+    // the synthetic users carrying and sending the synthetic deals, each with a few of them
+    private static final int DEALS_PER_USER = 5;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private LocationService locationService;
+
+    @Autowired
+    private RouteIndexService routeIndexService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        if (!System.getProperty("spring.profiles.active", "").contains("testcontainers")) {
+            registry.add(
+                "spring.datasource.url",
+                () -> "jdbc:h2:file:./target/h2db/load-test/laser;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+            );
+        }
+    }
+
+    @BeforeAll
+    public static void deleteDatabase() throws IOException {
+        for (Path directory : List.of(Paths.get("target/h2db/load-test"), Paths.get("target/load-test/images"))) {
+            if (Files.exists(directory)) {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                        Files.delete(file);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.HOURS)
+    void mobileFlows() throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build();
+        String baseUrl = "http://localhost:" + port;
+        LoadTestReport report = new LoadTestReport();
+        // the key sent in the activation email
+        Function<String, String> activationKeys = login ->
+            jdbcTemplate.queryForObject("SELECT activation_key FROM jhi_user WHERE login = ?", String.class, login);
+
+        long start = System.nanoTime();
+        LoadTestData data = new LoadTestData(jdbcTemplate, transactionTemplate);
+        List<Location> airports = data.createAirports(locationService);
+        data.createDeals(DEALS, data.createUsers(Math.max(1, DEALS / DEALS_PER_USER)));
+        // the deals were inserted with SQL, which the route index does not see
+        routeIndexService.rebuild();
+        log.info("Load test: {} deals created in {} ms", DEALS, (System.nanoTime() - start) / 1_000_000);
+
+        List<MobileAppClient> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            MobileAppClient user = new MobileAppClient(httpClient, objectMapper, baseUrl, airports, report, activationKeys, i);
+            user.signUp();
+            users.add(user);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(USERS);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (MobileAppClient user : users) {
+                runs.add(executor.submit(() -> user.run(running::get)));
+            }
+            Thread.sleep(WARMUP.toMillis());
+            report.start();
+            Thread.sleep(DURATION.toMillis());
+            report.stop();
+            running.set(false);
+            for (Future<?> run : runs) {
+                run.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("deals", DEALS);
+        settings.put("users", USERS);
+        settings.put("warmupSeconds", WARMUP.toSeconds());
+        settings.put("durationSeconds", DURATION.toSeconds());
+        report.write(settings, Paths.get("target/load-test/report.json"));
+
+        for (Flow flow : Flow.values()) {
+            assertThat(report.count(flow)).as("calls of %s", flow).isPositive();
+            if (report.errorRate(flow) > MAX_ERROR_RATE) {
+                log.warn("Load test: error rate of {} is {}, over {}", flow, report.errorRate(flow), MAX_ERROR_RATE);
+            }
+            if (GATE) {
+                assertThat(report.errorRate(flow)).as("error rate of %s", flow).isLessThanOrEqualTo(MAX_ERROR_RATE);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.closure.laser.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SqlMetersServiceTests {
+
+    private MeterRegistry meterRegistry;
+
+    private SqlMetersService sqlMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        sqlMetersService = new SqlMetersService(meterRegistry);
+    }
+
+    @Test
+    void testRequestStatisticsAreOnlyCountedWhileStarted() {
+        RequestSqlStatistics.statementPrepared();
+        assertThat(RequestSqlStatistics.stop()).isNull();
+
+        RequestSqlStatistics.start();
+        RequestSqlStatistics.statementPrepared();
+        RequestSqlStatistics.statementPrepared();
+        RequestSqlStatistics.entityLoaded();
+        RequestSqlStatistics.collectionLoaded();
+        RequestSqlStatistics.cacheHit();
+        RequestSqlStatistics.cacheMiss();
+        RequestSqlStatistics statistics = RequestSqlStatistics.stop();
+
+        assertThat(statistics.getStatements()).isEqualTo(2);
+        assertThat(statistics.getEntitiesLoaded()).isEqualTo(1);
+        assertThat(statistics.getCollectionsLoaded()).isEqualTo(1);
+        assertThat(statistics.getCacheHits()).isEqualTo(1);
+        assertThat(statistics.getCacheMisses()).isEqualTo(1);
+        assertThat(RequestSqlStatistics.stop()).isNull();
+    }
+
+    @Test
+    void testMetersAreTaggedByHandler() {
+        sqlMetersService.record("GET", "/api/deals", "DealResource#getAllDeals", statistics(12, 10));
+
+        assertThat(
+            meterRegistry.get(SqlMetersService.STATEMENTS_METER_NAME).tag("handler", "DealResource#getAllDeals").summary().totalAmount()
+        )
+            .isEqualTo(12);
+        assertThat(meterRegistry.get(SqlMetersService.ENTITIES_METER_NAME).tag("uri", "/api/deals").counter().count()).isEqualTo(10);
+        assertThat(meterRegistry.get(SqlMetersService.CACHE_METER_NAME).tag("result", "hit").counter().count()).isZero();
+    }
+
+    @Test
+    void testTopEndpointsAreSortedByStatementsPerRequest() {
+        sqlMetersService.record("GET", "/api/deals", "DealResource#getAllDeals", statistics(60, 50));
+        sqlMetersService.record("GET", "/api/deals", "DealResource#getAllDeals", statistics(40, 30));
+        sqlMetersService.record("GET", "/api/deals/summaries", "DealResource#getAllDealSummaries", statistics(1, 0));
+        sqlMetersService.record("GET", "/api/locations", "LocationResource#getAllLocations", statistics(83, 53));
+
+        List<SqlMetersService.EndpointSqlStatistics> top = sqlMetersService.top(2);
+
+        assertThat(top).extracting(SqlMetersService.EndpointSqlStatistics::getHandler)
+            .containsExactly("LocationResource#getAllLocations", "DealResource#getAllDeals");
+        assertThat(top.get(1).getRequests()).isEqualTo(2);
+        assertThat(top.get(1).getStatementsPerRequest()).isEqualTo(50);
+        assertThat(top.get(1).getMaxStatements()).isEqualTo(60);
+        assertThat(top.get(1).getEntitiesPerRequest()).isEqualTo(40);
+    }
+
+    private static RequestSqlStatistics statistics(int statements, int entities) {
+        RequestSqlStatistics.start();
+        for (int i = 0; i < statements; i++) {
+            RequestSqlStatistics.statementPrepared();
+        }
+        for (int i = 0; i < entities; i++) {
+            RequestSqlStatistics.entityLoaded();
+        }
+        return RequestSqlStatistics.stop();
+    }
+}
@@ -0,0 +1,226 @@
+package org.closure.laser.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import org.closure.laser.IntegrationTest;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Checks the plan of every query of the repositories, declared with {@link Query} or derived from the method name.
+ * Each query is run once, and the database must read the tables of the statements it sent through an index. The
+ * queries of {@link #TABLE_SCANS} are not checked: they read whole tables on purpose, or no index can help them.
+ * <p>
+ * The plans are read with H2 {@code EXPLAIN}; the test is skipped on other databases.
+ */
+@IntegrationTest
+@Transactional
+@TestPropertySource(
+    properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+    "org.closure.laser.repository.QueryPlanIT$RecordingStatementInspector"
+)
+class QueryPlanIT {
+
+    /**
+     * A table read without condition: H2 prints the table scan, or the index read in full, without the condition.
+     */
+    private static final Pattern SCAN = Pattern.compile("/\\* \\w+\\.(\\w+(?:\\.tableScan)?) \\*/");
+
+    private static final String CONTAINS = "search for text anywhere in the column, which no index can help";
+
+    private static final String KEY_VALUE = "compares a parameter with a constant, which matches all rows or none";
+
+    private static final String REFERENCE = "reads a reference table of a few rows";
+
+    private static final Map<String, String> TABLE_SCANS = Map.ofEntries(
+        Map.entry("AccountProviderRepository.findByName", REFERENCE),
+        Map.entry("AccountProviderRepository.search", KEY_VALUE),
+        Map.entry("ArticleRepository.search", CONTAINS),
+        Map.entry("DealRepository.findAllShipmentRoutes", "reads the routes of all the shipments"),
+        Map.entry("DealRepository.findAllSummaries", "lists all the deals"),
+        Map.entry("DealRepository.search", CONTAINS),
+        Map.entry("DealRepository.searchShipments", CONTAINS),
+        Map.entry("DealRepository.searchTrips", CONTAINS),
+        Map.entry("DealStatusRepository.findAllRefs", REFERENCE),
+        Map.entry("DealStatusRepository.findByName", REFERENCE),
+        Map.entry("DealStatusRepository.search", KEY_VALUE),
+        Map.entry("DealStatusRepository.sortedFetch", REFERENCE),
+        Map.entry("LocationImportRepository.findAllByStatus", "reads the imports of the airports, four a day"),
+        Map.entry("LocationImportRepository.findFirstByOrderByIdDesc", "reads the imports of the airports, four a day"),
+        Map.entry("LocationRepository.findAllKeys", "lists all the locations"),
+        Map.entry("LocationRepository.findAllPoints", "lists all the locations"),
+        Map.entry("LocationRepository.findAllRefs", "lists all the locations"),
+        Map.entry("LocationRepository.search", CONTAINS),
+        Map.entry("LocationRepository.searchRefs", CONTAINS),
+        Map.entry("OffersRepository.findAllByDealIds", "H2 does not merge the indexes of the two deal columns, MySQL does"),
+        Map.entry("ShipmentRepository.findAllSummaries", "lists all the shipments"),
+        Map.entry("ShipmentRepository.search", KEY_VALUE),
+        Map.entry("ShipmentRepository.searchFrom", CONTAINS),
+        Map.entry("ShipmentRepository.searchTo", CONTAINS),
+        Map.entry("ShipmentTypeRepository.findByName", REFERENCE),
+        Map.entry("ShipmentTypeRepository.search", KEY_VALUE),
+        Map.entry("TransactionRepository.search", KEY_VALUE),
+        Map.entry("TripRepository.findAllCards", "lists all the trips"),
+        Map.entry("TripRepository.search", CONTAINS),
+        Map.entry("TripRepository.searchFrom", CONTAINS),
+        Map.entry("TripRepository.searchTo", CONTAINS),
+        Map.entry("UserApplicationRepository.findAllWithToOneRelationships", "lists all the users"),
+        Map.entry("UserApplicationRepository.search", CONTAINS),
+        Map.entry("UserRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore", "daily cleanup"),
+        Map.entry("UserRepository.findAllByIdNotNullAndActivatedIsTrue", "lists all the users"),
+        Map.entry("UserRepository.findOneByEmailIgnoreCase", "compares the email in lower case, which its index cannot help"),
+        Map.entry("UserRepository.findOneWithAuthoritiesByEmailIgnoreCase", "compares the email in lower case, which its index cannot help")
+    );
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void queriesDoNotScanTables() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assumeThat(connection.getMetaData().getDatabaseProductName()).isEqualTo("H2");
+        }
+
+        List<String> scans = new ArrayList<>();
+        Set<String> queries = new TreeSet<>();
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            Class<?> repositoryInterface = repositories.getRequiredRepositoryInformation(domainType).getRepositoryInterface();
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+            for (Method method : repositoryInterface.getDeclaredMethods()) {
+                if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                String query = repositoryInterface.getSimpleName() + "." + method.getName();
+                queries.add(query);
+                if (TABLE_SCANS.containsKey(query)) {
+                    continue;
+                }
+                for (String sql : statements(repository, method)) {
+                    Set<String> tables = tableScans(sql);
+                    if (!tables.isEmpty()) {
+                        scans.add(query + " scans " + tables + ": " + sql);
+                    }
+                }
+            }
+        }
+
+        assertThat(queries).as("queries of the repositories").containsAll(TABLE_SCANS.keySet());
+        assertThat(scans).as("queries reading a whole table").isEmpty();
+    }
+
+    /**
+     * Run a query method with sample arguments, and return the statements it sent to the database.
+     */
+    private List<String> statements(Object repository, Method method) throws IllegalAccessException {
+        Object[] arguments = new Object[method.getParameterCount()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = argument(method.getParameterTypes()[i]);
+        }
+        List<String> statements = new ArrayList<>();
+        RecordingStatementInspector.statements.set(statements);
+        try {
+            method.invoke(repository, arguments);
+        } catch (InvocationTargetException e) {
+            // the statement is recorded before it is run, its plan is what matters here
+        } finally {
+            RecordingStatementInspector.statements.remove();
+        }
+        return statements;
+    }
+
+    private Object argument(Class<?> type) {
+        if (type.isAnnotationPresent(Entity.class)) {
+            return em.getReference(type, 1L);
+        } else if (type == Long.class) {
+            return 1L;
+        } else if (type == String.class) {
+            return "a";
+        } else if (type == Double.class) {
+            return 1.0;
+        } else if (type == Integer.class) {
+            return 1;
+        } else if (type == Date.class) {
+            return new Date();
+        } else if (type == Instant.class) {
+            return Instant.now();
+        } else if (Collection.class.isAssignableFrom(type)) {
+            return List.of(1L, 2L);
+        } else if (type == Pageable.class) {
+            return PageRequest.of(0, 20);
+        } else if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        throw new IllegalArgumentException("No sample argument of type " + type.getName());
+    }
+
+    private Set<String> tableScans(String sql) {
+        String plan = jdbcTemplate.query(
+            connection -> connection.prepareStatement("EXPLAIN " + sql),
+            resultSet -> resultSet.next() ? resultSet.getString(1) : ""
+        );
+        Set<String> tables = new TreeSet<>();
+        // a count of all the rows is read from the table size, and the first rows of a sorted index are read alone
+        boolean firstRows = plan != null && plan.contains("index sorted") && plan.contains("FETCH FIRST");
+        if (plan != null && !plan.contains("direct lookup") && !firstRows) {
+            Matcher matcher = SCAN.matcher(plan);
+            while (matcher.find()) {
+                tables.add(matcher.group(1));
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Records the statements of the current thread, while a query method runs.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            List<String> recorded = statements.get();
+            if (recorded != null) {
+                recorded.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.closure.laser.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
@@ -59,6 +60,8 @@ class JWTFilterTest {
         assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
         assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("test-user");
         assertThat(SecurityContextHolder.getContext().getAuthentication().getCredentials()).hasToString(jwt);
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getDetails()).isInstanceOf(Claims.class);
+        assertThat(tokenProvider.getLoginFromToken(jwt)).isEqualTo("test-user");
     }
 
     @Test
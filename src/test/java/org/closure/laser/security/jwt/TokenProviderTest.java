@@ -1,7 +1,13 @@
 package org.closure.laser.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -9,6 +15,8 @@ import io.jsonwebtoken.security.Keys;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.*;
 import org.closure.laser.management.SecurityMetersService;
 import org.closure.laser.security.AuthoritiesConstants;
@@ -18,6 +26,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.util.ReflectionTestUtils;
 import tech.jhipster.config.JHipsterProperties;
 
@@ -116,6 +125,35 @@ class TokenProviderTest {
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
     }
 
+    @Test
+    void testClaimsAreVerifiedOnce() {
+        String token = tokenProvider.createToken(createAuthentication(), ONE_MINUTE);
+        JwtParser jwtParser = mock(JwtParser.class, delegatesTo(ReflectionTestUtils.getField(tokenProvider, "jwtParser")));
+        ReflectionTestUtils.setField(tokenProvider, "jwtParser", jwtParser);
+
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+        assertThat(tokenProvider.getAuthentication(token).getName()).isEqualTo("anonymous");
+        assertThat(tokenProvider.getLoginFromToken(token)).isEqualTo("anonymous");
+
+        verify(jwtParser, times(1)).parseClaimsJws(token);
+    }
+
+    @Test
+    void testLoginIsReadFromTheAuthenticationOfTheRequest() {
+        String token = tokenProvider.createToken(createAuthentication(), ONE_MINUTE);
+        Claims claims = tokenProvider.resolveClaims(token);
+        SecurityContextHolder.getContext().setAuthentication(tokenProvider.getAuthentication(claims, token));
+        try {
+            ReflectionTestUtils.setField(tokenProvider, "jwtParser", mock(JwtParser.class));
+            ReflectionTestUtils.setField(tokenProvider, "verifiedClaims", new VerifiedClaimsCache(1, Duration.ZERO, Clock.systemUTC()));
+
+            assertThat(tokenProvider.getLoginFromToken(token)).isEqualTo("anonymous");
+            assertThat(tokenProvider.getExpirationDate(token)).isEqualTo(claims.getExpiration());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -0,0 +1,69 @@
+package org.closure.laser.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class VerifiedClaimsCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    private VerifiedClaimsCache cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new VerifiedClaimsCache(2, Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void claimsAreCachedUntilTheTokenExpires() {
+        Claims claims = claims("user", NOW.plusSeconds(60));
+        cache.put("token", claims);
+
+        assertThat(cache.get("token")).isSameAs(claims);
+        assertThat(cache.get("other-token")).isNull();
+
+        ReflectionTestUtils.setField(cache, "clock", Clock.fixed(NOW.plusSeconds(60), ZoneOffset.UTC));
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void claimsAreCachedForTheTimeToLiveAtMost() {
+        cache.put("token", claims("user", NOW.plus(Duration.ofDays(30))));
+
+        ReflectionTestUtils.setField(cache, "clock", Clock.fixed(NOW.plus(Duration.ofMinutes(5)), ZoneOffset.UTC));
+        assertThat(cache.get("token")).isNull();
+    }
+
+    @Test
+    void expiredClaimsAreNotCached() {
+        cache.put("token", claims("user", NOW.minusSeconds(1)));
+
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void cacheIsBounded() {
+        cache.put("token-1", claims("user-1", NOW.plusSeconds(60)));
+        cache.put("token-2", claims("user-2", NOW.plusSeconds(60)));
+        cache.put("token-3", claims("user-3", NOW.plusSeconds(60)));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("token-3").getSubject()).isEqualTo("user-3");
+    }
+
+    private static Claims claims(String subject, Instant expiration) {
+        return Jwts.claims().setSubject(subject).setExpiration(Date.from(expiration));
+    }
+}
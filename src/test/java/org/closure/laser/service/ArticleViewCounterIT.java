@@ -0,0 +1,122 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.closure.laser.IntegrationTest;
+import org.closure.laser.domain.Article;
+import org.closure.laser.repository.ArticleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link ArticleViewCounter}. The articles are committed, and deleted after each test.
+ */
+@IntegrationTest
+class ArticleViewCounterIT {
+
+    private static final int THREADS = 32;
+
+    private static final int VIEWS = 10_000;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleViewCounter articleViewCounter;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> articles = new ArrayList<>();
+
+    @AfterEach
+    public void deleteArticles() {
+        transactionTemplate.executeWithoutResult(status -> articleRepository.deleteAllById(articles));
+    }
+
+    @Test
+    void noViewIsLostUnderConcurrency() throws Exception {
+        Long first = saveArticle(5);
+        Long second = saveArticle(null);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean viewing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            List<Future<?>> views = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int offset = thread;
+                views.add(
+                    executor.submit(() -> {
+                        start.await();
+                        for (int view = offset; view < VIEWS; view += THREADS) {
+                            articleService.addView(view % 2 == 0 ? first : second);
+                        }
+                        return null;
+                    })
+                );
+            }
+            // flushes while the views are counted
+            Future<?> flushes = executor.submit(() -> {
+                start.await();
+                while (viewing.get()) {
+                    articleViewCounter.flush();
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> future : views) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            viewing.set(false);
+            flushes.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        articleViewCounter.flush();
+
+        assertThat(articleViewCounter.countPending()).isZero();
+        assertThat(meterRegistry.get(ArticleViewCounter.PENDING_METER_NAME).gauge().value()).isZero();
+        assertThat(articleRepository.findById(first).orElseThrow().getViewcount()).isEqualTo(5 + VIEWS / 2);
+        assertThat(articleRepository.findById(second).orElseThrow().getViewcount()).isEqualTo(VIEWS / 2);
+    }
+
+    @Test
+    void viewsAreCountedUntilTheFlush() {
+        Long id = saveArticle(1);
+
+        articleService.addView(id);
+        articleService.addView(id);
+        articleService.addView(Long.MAX_VALUE);
+
+        assertThat(meterRegistry.get(ArticleViewCounter.PENDING_METER_NAME).gauge().value()).isEqualTo(3);
+        articleViewCounter.flush();
+        assertThat(articleViewCounter.countPending()).isZero();
+        assertThat(articleRepository.findById(id).orElseThrow().getViewcount()).isEqualTo(3);
+    }
+
+    private Long saveArticle(Integer viewcount) {
+        Long id = transactionTemplate.execute(status ->
+            articleRepository.save(new Article().title("Views").content("Counted").viewcount(viewcount)).getId()
+        );
+        articles.add(id);
+        return id;
+    }
+}
@@ -0,0 +1,259 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.closure.laser.IntegrationTest;
+import org.closure.laser.domain.CapacityReservation;
+import org.closure.laser.domain.Deal;
+import org.closure.laser.domain.Offers;
+import org.closure.laser.domain.Trip;
+import org.closure.laser.domain.UserApplication;
+import org.closure.laser.repository.CapacityReservationRepository;
+import org.closure.laser.repository.DealRepository;
+import org.closure.laser.repository.OffersRepository;
+import org.closure.laser.repository.TripRepository;
+import org.closure.laser.repository.UserApplicationRepository;
+import org.closure.laser.web.rest.errors.BadRequestAlertException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link CapacityReservationService}, including a stress test of 64 threads competing for
+ * the weight of one trip.
+ */
+@IntegrationTest
+class CapacityReservationServiceIT {
+
+    private static final Logger log = LoggerFactory.getLogger(CapacityReservationServiceIT.class);
+
+    private static final int THREADS = 64;
+
+    private static final double CAPACITY = 20D;
+
+    private static final Duration MAX_LATENCY = Duration.ofSeconds(5);
+
+    @Autowired
+    private CapacityReservationService capacityReservationService;
+
+    @Autowired
+    private CapacityReservationRepository capacityReservationRepository;
+
+    @Autowired
+    private DealRepository dealRepository;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private UserApplicationRepository userApplicationRepository;
+
+    @Autowired
+    private OffersService offersService;
+
+    @Autowired
+    private OffersRepository offersRepository;
+
+    private UserApplication deliver;
+
+    private Trip trip;
+
+    private Deal tripDeal;
+
+    private Deal acceptedDeal;
+
+    private Deal shipmentDeal;
+
+    @BeforeEach
+    public void setup() {
+        deliver = userApplicationRepository.save(new UserApplication().phone("0999999999"));
+        trip = tripRepository.save(new Trip().tripIdentifier("CAPACITY"));
+        tripDeal = dealRepository.save(new Deal().deliver(deliver).trip(trip).availableWeight(CAPACITY).fullWeight(0D));
+        acceptedDeal = dealRepository.save(new Deal().deliver(deliver).trip(trip).availableWeight(CAPACITY).fullWeight(0D));
+        shipmentDeal = dealRepository.save(new Deal().owner(deliver).availableWeight(15D).fullWeight(15D));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        capacityReservationRepository.deleteAll();
+        offersRepository.deleteAll();
+        dealRepository.deleteById(shipmentDeal.getId());
+        dealRepository.deleteById(tripDeal.getId());
+        dealRepository.deleteById(acceptedDeal.getId());
+        tripRepository.deleteById(trip.getId());
+        userApplicationRepository.deleteById(deliver.getId());
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void concurrentReservationsDoNotOverbook() throws Exception {
+        List<Long> latencies = hammer(offerId -> capacityReservationService.reserve(tripDeal.getId(), offerId, 1D));
+
+        Deal deal = dealRepository.findById(tripDeal.getId()).get();
+        assertThat(deal.getReservedWeight()).isEqualTo(CAPACITY);
+        assertThat(deal.getAvailableWeight()).isEqualTo(CAPACITY);
+        assertThat(capacityReservationRepository.count()).isEqualTo((long) CAPACITY);
+        assertBoundedLatency("reserve", latencies);
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void concurrentTakesDoNotOverbook() throws Exception {
+        List<Long> latencies = hammer(offerId -> capacityReservationService.take(deliver.getId(), trip.getId(), offerId, 1D));
+
+        for (Long id : List.of(tripDeal.getId(), acceptedDeal.getId())) {
+            Deal deal = dealRepository.findById(id).get();
+            assertThat(deal.getAvailableWeight()).isZero();
+            assertThat(deal.getFullWeight()).isEqualTo(CAPACITY);
+        }
+        assertBoundedLatency("take", latencies);
+    }
+
+    @Test
+    void reservedWeightCanOnlyBeTakenByItsOffer() {
+        capacityReservationService.reserve(tripDeal.getId(), 1L, 15D);
+
+        assertThatThrownBy(() -> capacityReservationService.reserve(tripDeal.getId(), 2L, 10D))
+            .isInstanceOf(BadRequestAlertException.class);
+        assertThatThrownBy(() -> capacityReservationService.take(deliver.getId(), trip.getId(), 2L, 10D))
+            .isInstanceOf(BadRequestAlertException.class);
+
+        capacityReservationService.take(deliver.getId(), trip.getId(), 1L, 15D);
+
+        Deal deal = dealRepository.findById(tripDeal.getId()).get();
+        assertThat(deal.getAvailableWeight()).isEqualTo(5D);
+        assertThat(deal.getReservedWeight()).isZero();
+        assertThat(dealRepository.findById(acceptedDeal.getId()).get().getAvailableWeight()).isEqualTo(5D);
+        assertThat(capacityReservationRepository.findByOfferId(1L)).isEmpty();
+    }
+
+    @Test
+    void expiredReservationsAreReleased() {
+        CapacityReservation reservation = capacityReservationService.reserve(tripDeal.getId(), 1L, 15D);
+        capacityReservationService.reserve(tripDeal.getId(), 2L, 5D);
+        capacityReservationRepository.save(reservation.expiresAt(Instant.now().minusSeconds(1)));
+
+        capacityReservationService.releaseExpired();
+
+        assertThat(dealRepository.findById(tripDeal.getId()).get().getReservedWeight()).isEqualTo(5D);
+        assertThat(capacityReservationRepository.findByOfferId(1L)).isEmpty();
+        assertThat(capacityReservationRepository.findByOfferId(2L)).isPresent();
+    }
+
+    @Test
+    void deletedOfferReleasesItsWeight() {
+        Offers offer = pendingOffer();
+
+        offersService.delete(offer.getId());
+
+        assertThat(capacityReservationRepository.findByOfferId(offer.getId())).isEmpty();
+        capacityReservationService.reserve(tripDeal.getId(), 2L, 15D);
+        assertThat(dealRepository.findById(tripDeal.getId()).get().getReservedWeight()).isEqualTo(15D);
+    }
+
+    @Test
+    void rejectedOfferReleasesItsWeight() {
+        Offers offer = pendingOffer();
+
+        offersService.partialUpdate(new Offers().id(offer.getId()).status("Rejected"));
+
+        assertThat(capacityReservationRepository.findByOfferId(offer.getId())).isEmpty();
+        capacityReservationService.reserve(tripDeal.getId(), 2L, 15D);
+        assertThat(dealRepository.findById(tripDeal.getId()).get().getReservedWeight()).isEqualTo(15D);
+    }
+
+    /**
+     * A pending offer of the shipment deal, holding 15 of the {@link #CAPACITY} of the trip deal as addOffers does.
+     */
+    private Offers pendingOffer() {
+        Offers offer = offersRepository.save(
+            new Offers().shipmentDealId(shipmentDeal.getId()).tripDealId(tripDeal.getId()).status("Pending")
+        );
+        capacityReservationService.reserve(tripDeal.getId(), offer.getId(), 15D);
+        assertThatThrownBy(() -> capacityReservationService.reserve(tripDeal.getId(), 2L, 15D))
+            .isInstanceOf(BadRequestAlertException.class);
+        return offer;
+    }
+
+    /**
+     * Run the operation with one offer per thread, all starting at once. Exactly {@link #CAPACITY} of them must
+     * succeed, the others must be refused.
+     *
+     * @return the latency of each operation, in nanoseconds.
+     */
+    private List<Long> hammer(OfferOperation operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger refused = new AtomicInteger();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                long offerId = 1000L + i;
+                Callable<Boolean> task = () -> {
+                    start.await();
+                    long begin = System.nanoTime();
+                    try {
+                        operation.run(offerId);
+                        return true;
+                    } catch (BadRequestAlertException e) {
+                        refused.incrementAndGet();
+                        return false;
+                    } finally {
+                        latencies.add(System.nanoTime() - begin);
+                    }
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                succeeded += result.get(1, TimeUnit.MINUTES) ? 1 : 0;
+            }
+            assertThat(succeeded).isEqualTo((int) CAPACITY);
+            assertThat(refused.get()).isEqualTo(THREADS - (int) CAPACITY);
+        } finally {
+            executor.shutdownNow();
+        }
+        return latencies;
+    }
+
+    private static void assertBoundedLatency(String operation, List<Long> latencies) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        Duration p50 = Duration.ofNanos(sorted.get(sorted.size() / 2));
+        Duration p99 = Duration.ofNanos(sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1));
+        Duration max = Duration.ofNanos(sorted.get(sorted.size() - 1));
+        log.info(
+            "Capacity stress test, {} from {} threads: p50 {} ms, p99 {} ms, max {} ms",
+            operation,
+            THREADS,
+            p50.toMillis(),
+            p99.toMillis(),
+            max.toMillis()
+        );
+        assertThat(max).isLessThan(MAX_LATENCY);
+    }
+
+    @FunctionalInterface
+    private interface OfferOperation {
+        void run(Long offerId);
+    }
+}
@@ -0,0 +1,202 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+import javax.persistence.EntityManagerFactory;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.closure.laser.IntegrationTest;
+import org.closure.laser.domain.User;
+import org.closure.laser.domain.UserApplication;
+import org.closure.laser.management.RequestSqlStatistics;
+import org.closure.laser.repository.UserApplicationRepository;
+import org.closure.laser.repository.UserRepository;
+import org.closure.laser.service.dto.AdminUserDTO;
+import org.closure.laser.web.rest.errors.BadRequestAlertException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Integration tests for {@link CurrentUserService}, counting the SQL statements of each lookup. The user is
+ * committed, and deleted after each test.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.stats.factory=org.closure.laser.management.RequestSqlStatisticsFactory",
+    }
+)
+class CurrentUserServiceIT {
+
+    private static final String LOGIN = "current-user";
+
+    private final Logger log = LoggerFactory.getLogger(CurrentUserServiceIT.class);
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserApplicationService userApplicationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserApplicationRepository userApplicationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Long userApplicationId;
+
+    @BeforeEach
+    public void createUser() {
+        userApplicationId =
+            transactionTemplate.execute(status -> {
+                User user = new User();
+                user.setLogin(LOGIN);
+                user.setPassword(RandomStringUtils.random(60));
+                user.setActivated(true);
+                user.setEmail("current-user@localhost");
+                user.setLangKey("en");
+                return userApplicationRepository.save(new UserApplication().user(userRepository.save(user))).getId();
+            });
+        currentUserService.clearCache();
+        entityManagerFactory.getCache().evictAll();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(LOGIN, null));
+    }
+
+    @AfterEach
+    public void deleteUser() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+        transactionTemplate.executeWithoutResult(status -> {
+            userApplicationRepository.findById(userApplicationId).ifPresent(userApplicationRepository::delete);
+            userRepository.findOneByEmailIgnoreCase("current-user@localhost").ifPresent(userRepository::delete);
+        });
+        currentUserService.clearCache();
+    }
+
+    @Test
+    void userApplicationIdIsLookedUpOncePerLogin() {
+        // as the services did before, for each lookup
+        long tokenLookup = statements(() ->
+            userApplicationRepository.findByUser(userRepository.findOneByLogin(LOGIN).orElseThrow()).orElseThrow().getId()
+        );
+        // as OffersService.addOffers did before, in one transaction
+        long offerLookup = statements(() -> {
+            userRepository.findOneByLogin(LOGIN).isPresent();
+            userApplicationRepository.findByUser(userRepository.findOneByLogin(LOGIN).orElseThrow()).isPresent();
+            return userApplicationRepository.findByUser(userRepository.findOneByLogin(LOGIN).orElseThrow()).orElseThrow().getId();
+        });
+
+        newRequest();
+        long firstRequest = statements(currentUserService::getUserApplicationId);
+        long sameRequest = statements(currentUserService::getUserApplicationId);
+        newRequest();
+        long nextRequest = statements(currentUserService::getUserApplicationId);
+        long nextRequestEntity = statements(currentUserService::getUserApplication);
+        log.info(
+            "SQL statements of the current user lookup: {} by token before ({} for an offer), {} for the first request, " +
+            "{} for the rest of it, {} for the next requests and {} for their entity",
+            tokenLookup,
+            offerLookup,
+            firstRequest,
+            sameRequest,
+            nextRequest,
+            nextRequestEntity
+        );
+
+        assertThat(tokenLookup).isGreaterThanOrEqualTo(2);
+        assertThat(firstRequest).isEqualTo(1);
+        assertThat(sameRequest).isZero();
+        assertThat(nextRequest).isZero();
+        // the tests run without the second-level cache, so the entity itself is still loaded
+        assertThat(nextRequestEntity).isLessThan(tokenLookup);
+        assertThat(currentUserService.getUserApplication().getId()).isEqualTo(userApplicationId);
+    }
+
+    @Test
+    void loginChangeEvictsTheCachedId() {
+        assertThat(currentUserService.getUserApplicationId()).isEqualTo(userApplicationId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            AdminUserDTO user = new AdminUserDTO(userRepository.findOneByLogin(LOGIN).orElseThrow());
+            user.setLogin("renamed-user");
+            userService.updateUser(user);
+        });
+        newRequest();
+
+        assertThatThrownBy(() -> currentUserService.getUserApplicationId()).isInstanceOf(BadRequestAlertException.class);
+        assertThat(currentUserService.findUserApplicationId("renamed-user")).isEqualTo(userApplicationId);
+    }
+
+    @Test
+    void deletedUserApplicationIsNotFound() {
+        assertThat(currentUserService.getUserApplicationId()).isEqualTo(userApplicationId);
+
+        userApplicationService.delete(userApplicationId);
+        newRequest();
+
+        assertThatThrownBy(() -> currentUserService.getUserApplicationId()).isInstanceOf(BadRequestAlertException.class);
+    }
+
+    @Test
+    void cachedIdsAreClearedWhenTheChangeCommits() {
+        assertThat(currentUserService.getUserApplicationId()).isEqualTo(userApplicationId);
+        Cache ids = Objects.requireNonNull(cacheManager.getCache(UserApplicationRepository.IDS_BY_LOGIN_CACHE));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userApplicationService.delete(userApplicationId);
+            assertThat(ids.get(LOGIN)).isNotNull();
+            status.setRollbackOnly();
+        });
+        assertThat(ids.get(LOGIN)).isNotNull();
+
+        transactionTemplate.executeWithoutResult(status -> userApplicationService.delete(userApplicationId));
+        assertThat(ids.get(LOGIN)).isNull();
+    }
+
+    @Test
+    void anonymousRequestHasNoUserApplication() {
+        SecurityContextHolder.clearContext();
+        newRequest();
+
+        assertThatThrownBy(() -> currentUserService.getUserApplicationId()).isInstanceOf(BadRequestAlertException.class);
+    }
+
+    private void newRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private long statements(Supplier<?> lookup) {
+        RequestSqlStatistics.start();
+        transactionTemplate.execute(status -> lookup.get());
+        return RequestSqlStatistics.stop().getStatements();
+    }
+}
@@ -0,0 +1,69 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.closure.laser.IntegrationTest;
+import org.closure.laser.domain.Deal;
+import org.closure.laser.domain.Trip;
+import org.closure.laser.service.dto.CursorPage;
+import org.closure.laser.service.dto.TripDealDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the feed of new trips of {@link DealService}: the pages read with a cursor are the pages read
+ * with an offset. {@link DealFeedPaginationIT} times both on a large feed.
+ */
+@IntegrationTest
+@Transactional
+class DealFeedCursorIT {
+
+    private static final int DEALS = 45;
+
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private DealService dealService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    void cursorPagesAreTheOffsetPages() {
+        Trip trip = new Trip().tripIdentifier("CURSOR-1").createdAt(new Date());
+        em.persist(trip);
+        for (int i = 0; i < DEALS; i++) {
+            em.persist(new Deal().trip(trip).availableWeight(10D));
+        }
+        em.flush();
+        em.clear();
+
+        List<List<Long>> byCursor = new ArrayList<>();
+        CursorPage<TripDealDTO> page = dealService.findLast10DaysTripsDeal(null, PAGE_SIZE);
+        byCursor.add(ids(page.getContent()));
+        while (page.hasNext()) {
+            page = dealService.findLast10DaysTripsDeal(page.getNextCursor(), PAGE_SIZE);
+            byCursor.add(ids(page.getContent()));
+        }
+
+        List<List<Long>> byOffset = new ArrayList<>();
+        for (int number = 0; number < byCursor.size(); number++) {
+            byOffset.add(ids(dealService.findLast10DaysTripsDeal(PageRequest.of(number, PAGE_SIZE)).getContent()));
+        }
+
+        assertThat(byCursor).isEqualTo(byOffset);
+        assertThat(byCursor.stream().mapToInt(List::size).sum()).isGreaterThanOrEqualTo(DEALS);
+        assertThat(byCursor.get(byCursor.size() - 1)).isNotEmpty();
+    }
+
+    private static List<Long> ids(List<TripDealDTO> deals) {
+        return deals.stream().map(TripDealDTO::getDealId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,176 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.closure.laser.LaserApp;
+import org.closure.laser.service.dto.CursorPage;
+import org.closure.laser.service.dto.TripDealDTO;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Pagination benchmark: reads pages of the feed of new trips at increasing depths in {@link #DEALS} synthetic deals,
+ * with an offset and with a cursor. The database is an H2 file, so that the deals do not fill the heap.
+ * <p>
+ * Run with {@code -Dbenchmark=true}; {@link DealFeedCursorIT} checks the pages on a small feed.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(
+    classes = LaserApp.class,
+    properties = "spring.datasource.url=jdbc:h2:file:./target/h2db/feed-benchmark/laser;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+)
+class DealFeedPaginationIT {
+
+    private static final Logger log = LoggerFactory.getLogger(DealFeedPaginationIT.class);
+
+    private static final int DEALS = Integer.getInteger("benchmark.deals", 1_000_000);
+
+    private static final int DEALS_PER_TRIP = 10;
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private DealService dealService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    public static void deleteDatabase() throws IOException {
+        Path directory = Paths.get("target/h2db/feed-benchmark");
+        if (Files.exists(directory)) {
+            try (var files = Files.list(directory)) {
+                for (Path file : files.collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    @Timeout(value = 15, unit = TimeUnit.MINUTES)
+    void keysetPagesAreAsFastAtAnyDepth() {
+        long start = System.nanoTime();
+        // the trips of the last 5 days, and their open deals with ids 1 to DEALS
+        // SYSTEM_RANGE does not take parameters; the connections of the pool do not auto-commit
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(
+                "INSERT INTO trip (id, created_at, trip_identifier) " +
+                "SELECT X, DATEADD('SECOND', -X * 4, CURRENT_TIMESTAMP), 'BENCH-' || X FROM SYSTEM_RANGE(1, " +
+                DEALS / DEALS_PER_TRIP +
+                ")"
+            );
+            jdbcTemplate.update(
+                "INSERT INTO deal (id, trip_id, available_weight) " +
+                "SELECT X, 1 + MOD(X - 1, " +
+                DEALS / DEALS_PER_TRIP +
+                "), 10 FROM SYSTEM_RANGE(1, " +
+                DEALS +
+                ")"
+            );
+        });
+        log.info("Pagination benchmark: {} deals inserted in {} ms", DEALS, (System.nanoTime() - start) / 1_000_000);
+
+        // the deals hydrate their trip, its deals and their shipments: time the feed query, then check the service
+        Date since = Date.from(Instant.now().minus(DealService.NEW_DEALS_PERIOD));
+        long firstPageKeyset = 0;
+        long deepestPageKeyset = 0;
+        long deepestPageOffset = 0;
+        for (int depth : new int[] { 0, DEALS / 100, DEALS / 10, DEALS / 2, DEALS - 10 * PAGE_SIZE }) {
+            long offsetNanos = Long.MAX_VALUE;
+            long keysetNanos = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                // the pages before, so that the query differs from the previous one
+                int pageDepth = depth - round * PAGE_SIZE;
+                if (pageDepth < 0) {
+                    pageDepth = depth + round * PAGE_SIZE;
+                }
+
+                long offsetStart = System.nanoTime();
+                List<Long> byOffset = tripDealIds(since, Long.MAX_VALUE, pageDepth);
+                offsetNanos = Math.min(offsetNanos, System.nanoTime() - offsetStart);
+
+                // the deal before the page has the id DEALS - pageDepth + 1
+                long keysetStart = System.nanoTime();
+                List<Long> byCursor = tripDealIds(since, DEALS - pageDepth + 1L, 0);
+                keysetNanos = Math.min(keysetNanos, System.nanoTime() - keysetStart);
+
+                assertThat(byCursor).isEqualTo(byOffset).hasSize(PAGE_SIZE + 1);
+            }
+            log.info(
+                "Pagination benchmark: page at depth {} of {} deals, offset {} ms, cursor {} ms",
+                depth,
+                DEALS,
+                offsetNanos / 1_000_000,
+                keysetNanos / 1_000_000
+            );
+            if (depth == 0) {
+                firstPageKeyset = keysetNanos;
+            } else {
+                deepestPageKeyset = keysetNanos;
+                deepestPageOffset = offsetNanos;
+            }
+        }
+
+        // with a cursor, the last pages cost about as much as the first one
+        assertThat(deepestPageKeyset).isLessThan(deepestPageOffset);
+        assertThat(deepestPageKeyset).isLessThan(Math.max(firstPageKeyset * 10, TimeUnit.MILLISECONDS.toNanos(100)));
+
+        int lastPage = DEALS / PAGE_SIZE - 1;
+        String cursor = new PageCursor(null, DEALS - lastPage * PAGE_SIZE + 1L).encode();
+        CursorPage<TripDealDTO> page = dealService.findLast10DaysTripsDeal(cursor, PAGE_SIZE);
+        assertThat(ids(page.getContent()))
+            .isEqualTo(ids(dealService.findLast10DaysTripsDeal(PageRequest.of(lastPage, PAGE_SIZE)).getContent()))
+            .hasSize(PAGE_SIZE);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    /**
+     * The ids of the deals of {@link org.closure.laser.repository.DealRepository#findTripDealsSince}, one more than a page.
+     */
+    private List<Long> tripDealIds(Date since, long afterId, int offset) {
+        return em
+            .createQuery(
+                "select d.id from Deal d where coalesce(d.owner.id, 0) = 0 and d.id < :id " +
+                "and exists (select t.id from Trip t where t = d.trip and t.createdAt >= :since) " +
+                "order by d.id desc",
+                Long.class
+            )
+            .setParameter("since", since)
+            .setParameter("id", afterId)
+            .setFirstResult(offset)
+            .setMaxResults(PAGE_SIZE + 1)
+            .getResultList();
+    }
+
+    private static List<Long> ids(List<TripDealDTO> deals) {
+        return deals.stream().map(TripDealDTO::getDealId).collect(Collectors.toList());
+    }
+}
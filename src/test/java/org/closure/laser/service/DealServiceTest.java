@@ -0,0 +1,73 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.closure.laser.repository.DealRepository;
+import org.closure.laser.repository.projection.DealSummary;
+import org.closure.laser.repository.projection.TripCard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Unit tests for the projection-based reads of {@link DealService}.
+ */
+class DealServiceTest {
+
+    private static final Pageable PAGEABLE = PageRequest.of(0, 3);
+
+    private DealRepository dealRepository;
+
+    private RouteIndexService routeIndexService;
+
+    private DealService dealService;
+
+    @BeforeEach
+    public void setup() {
+        dealRepository = mock(DealRepository.class);
+        routeIndexService = mock(RouteIndexService.class);
+        dealService = new DealService(dealRepository);
+        ReflectionTestUtils.setField(dealService, "routeIndexService", routeIndexService);
+    }
+
+    @Test
+    void searchTripCardsKeepsRouteIndexOrder() {
+        List<Long> ids = List.of(7L, 3L, 5L);
+        when(routeIndexService.searchTrips(any(), any(), any(), any(), any())).thenReturn(new PageImpl<>(ids, PAGEABLE, 10));
+        TripCard card3 = mock(TripCard.class);
+        when(card3.getDealId()).thenReturn(3L);
+        TripCard card5 = mock(TripCard.class);
+        when(card5.getDealId()).thenReturn(5L);
+        TripCard card7 = mock(TripCard.class);
+        when(card7.getDealId()).thenReturn(7L);
+        when(dealRepository.findTripCardsByDealIdIn(ids)).thenReturn(List.of(card3, card5, card7));
+
+        Page<TripCard> page = dealService.searchTripCards("a", "b", 1D, new Date(), PAGEABLE);
+
+        assertThat(page.getContent().stream().map(TripCard::getDealId).collect(Collectors.toList())).containsExactly(7L, 3L, 5L);
+        assertThat(page.getTotalElements()).isEqualTo(10);
+    }
+
+    @Test
+    void searchShipmentSummariesSkipsQueryWhenNothingMatches() {
+        when(routeIndexService.searchShipments(any(), any(), any(), any(), any())).thenReturn(new PageImpl<>(List.of(), PAGEABLE, 0));
+
+        Page<DealSummary> page = dealService.searchShipmentSummaries("a", "b", 1D, new Date(), PAGEABLE);
+
+        assertThat(page.getContent()).isEmpty();
+        verify(dealRepository, never()).findSummariesByIdIn(anyCollection());
+    }
+}
@@ -0,0 +1,114 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.closure.laser.IntegrationTest;
+import org.closure.laser.domain.Deal;
+import org.closure.laser.domain.DealStatus;
+import org.closure.laser.domain.Location;
+import org.closure.laser.domain.Shipment;
+import org.closure.laser.domain.ShipmentType;
+import org.closure.laser.domain.Trip;
+import org.closure.laser.domain.User;
+import org.closure.laser.domain.UserApplication;
+import org.closure.laser.service.dto.ShipmentDealDTO;
+import org.closure.laser.service.dto.ShipmentItemDTO;
+import org.closure.laser.service.dto.TripDealDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link DealViewService}.
+ */
+@IntegrationTest
+@Transactional
+class DealViewServiceIT {
+
+    @Autowired
+    private DealViewService dealViewService;
+
+    @Autowired
+    private EntityManager em;
+
+    private Location damascus;
+
+    private Location berlin;
+
+    private DealStatus status;
+
+    @BeforeEach
+    public void setup() {
+        damascus = persist(new Location().country("Syria").city("Damascus").airport("Damascus International Airport"));
+        berlin = persist(new Location().country("Germany").city("Berlin").airport("Berlin Brandenburg Airport"));
+        status = persist(new DealStatus().name("View test").sequence(1));
+    }
+
+    @Test
+    void tripDealsAreFlatAndInTheOrderOfTheIds() {
+        UserApplication deliver = userApplication("deliver");
+        Trip trip = persist(new Trip().tripIdentifier("LS123").tripType("Direct").flyTime(new Date()).from(damascus).to(berlin));
+        Deal first = persist(new Deal().trip(trip).deliver(deliver).status(status).fullWeight(0D).availableWeight(20D));
+        Deal second = persist(new Deal().trip(trip).deliver(deliver).status(status).fullWeight(5D).availableWeight(15D));
+        em.flush();
+        em.clear();
+
+        List<TripDealDTO> deals = dealViewService.tripDeals(List.of(second.getId(), Long.MAX_VALUE, first.getId()));
+
+        assertThat(deals).extracting(TripDealDTO::getDealId).containsExactly(second.getId(), first.getId());
+        TripDealDTO deal = deals.get(0);
+        assertThat(deal.getAvailableWeight()).isEqualTo(15D);
+        assertThat(deal.getStatusName()).isEqualTo("View test");
+        assertThat(deal.getTripId()).isEqualTo(trip.getId());
+        assertThat(deal.getTripIdentifier()).isEqualTo("LS123");
+        assertThat(deal.getFromCity()).isEqualTo("Damascus");
+        assertThat(deal.getToAirport()).isEqualTo("Berlin Brandenburg Airport");
+        assertThat(deal.getDeliverId()).isEqualTo(deliver.getId());
+        assertThat(deal.getDeliverFirstName()).isEqualTo("deliver");
+        assertThat(deal.getDeliverRate()).isEqualTo(4.5);
+    }
+
+    @Test
+    void shipmentDealsHaveTheirShipments() {
+        UserApplication owner = userApplication("owner");
+        ShipmentType type = persist(new ShipmentType().name("View test").factor(1D));
+        Deal deal = persist(new Deal().owner(owner).status(status).fullWeight(3D).availableWeight(3D));
+        Deal empty = persist(new Deal().owner(owner).status(status).fullWeight(0D).availableWeight(0D));
+        for (int i = 0; i < 2; i++) {
+            persist(new Shipment().weight(1.5).description("Shipment " + i).type(type).from(damascus).to(berlin).deal(deal));
+        }
+        em.flush();
+        em.clear();
+
+        List<ShipmentDealDTO> deals = dealViewService.shipmentDeals(List.of(deal.getId(), empty.getId()));
+
+        assertThat(deals).extracting(ShipmentDealDTO::getDealId).containsExactly(deal.getId(), empty.getId());
+        assertThat(deals.get(0).getOwnerId()).isEqualTo(owner.getId());
+        assertThat(deals.get(0).getOwnerLastName()).isEqualTo("owner");
+        assertThat(deals.get(0).getShipments()).extracting(ShipmentItemDTO::getDescription).containsExactly("Shipment 0", "Shipment 1");
+        assertThat(deals.get(0).getShipments().get(0).getTypeName()).isEqualTo("View test");
+        assertThat(deals.get(0).getShipments().get(0).getToCountry()).isEqualTo("Germany");
+        assertThat(deals.get(1).getShipments()).isEmpty();
+    }
+
+    private UserApplication userApplication(String name) {
+        User user = new User();
+        user.setLogin("view-" + name);
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        user.setEmail("view-" + name + "@localhost");
+        user.setFirstName(name);
+        user.setLastName(name);
+        return persist(new UserApplication().phone("0999999999").rate(4.5).user(persist(user)));
+    }
+
+    private <T> T persist(T entity) {
+        em.persist(entity);
+        return entity;
+    }
+}
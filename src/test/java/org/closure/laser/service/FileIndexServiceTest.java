@@ -0,0 +1,66 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileIndexServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private FileIndexService fileIndexService;
+
+    @BeforeEach
+    public void setup() {
+        fileIndexService = new FileIndexService();
+    }
+
+    @Test
+    void filesAreFoundByName() throws Exception {
+        Path image = Files.writeString(directory.resolve("1_0logo.png"), "png");
+
+        assertThat(fileIndexService.find(directory, "1_0logo.png")).contains(image.toAbsolutePath());
+        assertThat(fileIndexService.find(directory, "1_1logo.png")).isEmpty();
+    }
+
+    @Test
+    void addedFilesAreFoundWithoutListingTheDirectory() throws Exception {
+        assertThat(fileIndexService.find(directory, "1_0logo.png")).isEmpty();
+
+        Path image = Files.writeString(directory.resolve("1_0logo.png"), "png");
+        fileIndexService.added(image);
+
+        assertThat(fileIndexService.find(directory, "1_0logo.png")).contains(image.toAbsolutePath());
+
+        Files.delete(image);
+        fileIndexService.removed(image);
+
+        assertThat(fileIndexService.find(directory, "1_0logo.png")).isEmpty();
+    }
+
+    @Test
+    void latestFileIsFoundByPrefix() throws Exception {
+        Path older = Files.writeString(directory.resolve("laser-release-1.0.apk"), "1.0");
+        Files.setLastModifiedTime(older, FileTime.from(Instant.parse("2026-10-01T00:00:00Z")));
+        Path latest = Files.writeString(directory.resolve("laser-release-1.1.apk"), "1.1");
+        Files.setLastModifiedTime(latest, FileTime.from(Instant.parse("2026-10-02T00:00:00Z")));
+        Files.writeString(directory.resolve("other.apk"), "other");
+
+        assertThat(fileIndexService.findLatestByPrefix(directory, "laser-release")).contains(latest.toAbsolutePath());
+        assertThat(fileIndexService.findLatestByPrefix(directory, "laser-release-1.0")).contains(older.toAbsolutePath());
+        assertThat(fileIndexService.findLatestByPrefix(directory, "flutter-release")).isEmpty();
+    }
+
+    @Test
+    void missingDirectoryHasNoFiles() {
+        assertThat(fileIndexService.find(directory.resolve("missing"), "1_0logo.png")).isEmpty();
+        assertThat(fileIndexService.findLatestByPrefix(directory.resolve("missing"), "laser-release")).isEmpty();
+    }
+}
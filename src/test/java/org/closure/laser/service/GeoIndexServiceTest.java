@@ -0,0 +1,174 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.closure.laser.repository.LocationRepository;
+import org.closure.laser.repository.projection.LocationPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for {@link GeoIndexService}, checked against a scan of all the locations.
+ */
+class GeoIndexServiceTest {
+
+    private static final int LOCATIONS = 10_000;
+
+    private final List<LocationPoint> locations = new ArrayList<>();
+
+    private final List<Runnable> rebuilds = new ArrayList<>();
+
+    private LocationRepository locationRepository;
+
+    private GeoIndexService geoIndexService;
+
+    @BeforeEach
+    public void setup() {
+        Random random = new Random(42);
+        for (long id = 1; id <= LOCATIONS; id++) {
+            // uniform on the sphere
+            double latitude = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+            double longitude = 360 * random.nextDouble() - 180;
+            locations.add(point(id, "Country", "City " + id, null, latitude, longitude));
+        }
+        locationRepository = mock(LocationRepository.class);
+        when(locationRepository.findAllPoints()).thenReturn(locations);
+        geoIndexService = new GeoIndexService(locationRepository, rebuilds::add, mock(PlatformTransactionManager.class));
+        geoIndexService.rebuild();
+    }
+
+    @Test
+    void distanceKm() {
+        // Damascus to Berlin
+        assertThat(GeoIndexService.distanceKm(33.4114, 36.5156, 52.3667, 13.5033)).isCloseTo(2796, within(1D));
+        assertThat(GeoIndexService.distanceKm(0, 179.5, 0, -179.5)).isCloseTo(111.2, within(0.1));
+        assertThat(GeoIndexService.distanceKm(90, 0, -90, 0)).isCloseTo(Math.PI * GeoIndexService.EARTH_RADIUS_KM, within(0.1));
+    }
+
+    @Test
+    void nearestMatchesAScan() {
+        Random random = new Random(7);
+        for (int i = 0; i < 50; i++) {
+            double latitude = 180 * random.nextDouble() - 90;
+            double longitude = 360 * random.nextDouble() - 180;
+            double[] distances = distances(latitude, longitude);
+            List<Long> expected = byDistance(distances).limit(10).collect(Collectors.toList());
+
+            assertThat(geoIndexService.nearest(latitude, longitude, 10)).containsExactlyElementsOf(expected);
+        }
+        assertThat(geoIndexService.nearest(0, 0, 0)).isEmpty();
+        assertThat(geoIndexService.nearest(0, 0, LOCATIONS + 1)).hasSize(LOCATIONS);
+    }
+
+    @Test
+    void withinMatchesAScan() {
+        Random random = new Random(11);
+        for (int i = 0; i < 50; i++) {
+            LocationPoint center = locations.get(random.nextInt(LOCATIONS));
+            double radius = 50 + random.nextInt(1000);
+            double[] distances = distances(center.getLatitude(), center.getLongitude());
+            List<Long> expected = byDistance(distances).filter(id -> distances[(int) (id - 1)] <= radius).collect(Collectors.toList());
+
+            assertThat(geoIndexService.within(center.getId(), radius)).containsExactlyElementsOf(expected).startsWith(center.getId());
+        }
+    }
+
+    @Test
+    void locationsWithoutCoordinatesAreOnlyKnownByTheirCity() {
+        locations.add(point(20_001L, "Syria", "Damascus", "DAM", 33.4114, 36.5156));
+        locations.add(point(20_002L, "Syria", "Damascus", "dam", null, null));
+        locations.add(point(20_003L, "Syria", " damascus ", null, null, null));
+        locations.add(point(20_004L, "syria", "Damascus", null, null, null));
+        geoIndexService.rebuild();
+
+        assertThat(geoIndexService.contains(20_002L)).isTrue();
+        assertThat(geoIndexService.contains(30_000L)).isFalse();
+        assertThat(geoIndexService.within(20_002L, 1000)).containsExactly(20_002L);
+        assertThat(geoIndexService.within(20_001L, 0)).containsExactly(20_001L);
+        assertThat(geoIndexService.nearest(33.4114, 36.5156, 1)).containsExactly(20_001L);
+        assertThat(geoIndexService.sameCity(20_001L)).containsExactlyInAnyOrder(20_001L, 20_002L);
+        assertThat(geoIndexService.sameCity(20_003L)).containsExactlyInAnyOrder(20_003L, 20_004L);
+    }
+
+    @Test
+    void aRebuildIsSkippedWhenALaterOneHasReadItsChange() {
+        locations.add(point(20_001L, "Lebanon", "Beirut", "BEY", 33.8209, 35.4884));
+        geoIndexService.locationsChanged();
+        locations.add(point(20_002L, "Jordan", "Amman", "AMM", 31.7226, 35.9932));
+        geoIndexService.locationsChanged();
+
+        assertThat(rebuilds).hasSize(2);
+        assertThat(geoIndexService.contains(20_001L)).isFalse();
+
+        // the second rebuild runs first, and reads both changes
+        rebuilds.get(1).run();
+        rebuilds.get(0).run();
+
+        assertThat(geoIndexService.contains(20_001L)).isTrue();
+        assertThat(geoIndexService.contains(20_002L)).isTrue();
+        verify(locationRepository, times(2)).findAllPoints();
+    }
+
+    /**
+     * The distances from a point to the random locations, by location id minus one.
+     */
+    private double[] distances(double latitude, double longitude) {
+        double[] distances = new double[LOCATIONS];
+        for (int i = 0; i < LOCATIONS; i++) {
+            LocationPoint location = locations.get(i);
+            distances[i] = GeoIndexService.distanceKm(location.getLatitude(), location.getLongitude(), latitude, longitude);
+        }
+        return distances;
+    }
+
+    private static Stream<Long> byDistance(double[] distances) {
+        return LongStream.rangeClosed(1, distances.length).boxed().sorted(Comparator.comparingDouble(id -> distances[(int) (id - 1)]));
+    }
+
+    static LocationPoint point(Long id, String country, String city, String cityIataCode, Double latitude, Double longitude) {
+        return new LocationPoint() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getCountry() {
+                return country;
+            }
+
+            @Override
+            public String getCity() {
+                return city;
+            }
+
+            @Override
+            public String getCityIataCode() {
+                return cityIataCode;
+            }
+
+            @Override
+            public Double getLatitude() {
+                return latitude;
+            }
+
+            @Override
+            public Double getLongitude() {
+                return longitude;
+            }
+        };
+    }
+}
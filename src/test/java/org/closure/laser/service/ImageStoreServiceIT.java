@@ -0,0 +1,138 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.closure.laser.IntegrationTest;
+import org.closure.laser.domain.ImageBlob;
+import org.closure.laser.repository.ImageBlobRepository;
+import org.closure.laser.service.ImageStoreService.StoredImage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for {@link ImageStoreService}, on the {@link InMemoryBlobStore} standing in for an S3-compatible
+ * object store.
+ */
+@IntegrationTest
+class ImageStoreServiceIT {
+
+    private static final String HASH = "6105d6cc76af400325e94d588ce511be5bfdbb73b437dc51eca43917d7a43e3d";
+
+    @Autowired
+    private ImageBlobRepository imageBlobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private InMemoryBlobStore blobStore;
+
+    private ImageStoreService imageStoreService;
+
+    @BeforeEach
+    public void setup() {
+        blobStore = new InMemoryBlobStore();
+        imageStoreService = new ImageStoreService(
+            imageBlobRepository,
+            blobStore,
+            new ThumbnailService(blobStore, 320),
+            transactionManager,
+            Duration.ZERO
+        );
+    }
+
+    @AfterEach
+    public void cleanup() {
+        imageBlobRepository.deleteAll();
+    }
+
+    @Test
+    void sameImageIsStoredOnce() throws Exception {
+        String first = imageStoreService.store(file("photo.JPG"));
+        String second = imageStoreService.store(file("other.jpg"));
+
+        assertThat(first).isEqualTo(HASH + ".jpg").isEqualTo(second);
+        assertThat(blobStore.getObjects()).containsOnlyKeys(HASH);
+        ImageBlob blob = imageBlobRepository.findByHash(HASH).orElseThrow();
+        assertThat(blob.getReferenceCount()).isEqualTo(2);
+        assertThat(blob.getSize()).isEqualTo(5);
+        assertThat(blob.getContentType()).isEqualTo("image/jpeg");
+
+        StoredImage image = imageStoreService.find(first).orElseThrow();
+        assertThat(image.isImmutable()).isTrue();
+        assertThat(image.getFile()).isEmpty();
+        try (InputStream content = image.getInputStream()) {
+            assertThat(content).hasContent("image");
+        }
+    }
+
+    @Test
+    void unreferencedImageIsDeleted() throws Exception {
+        String name = imageStoreService.store(file("photo.jpg"));
+        imageStoreService.store(file("photo.jpg"));
+
+        imageStoreService.release(name);
+        Thread.sleep(10);
+        imageStoreService.deleteUnreferenced();
+
+        assertThat(imageBlobRepository.findByHash(HASH).orElseThrow().getReferenceCount()).isEqualTo(1);
+        assertThat(imageStoreService.find(name)).isPresent();
+
+        imageStoreService.release(name);
+        Thread.sleep(10);
+        imageStoreService.deleteUnreferenced();
+
+        assertThat(imageBlobRepository.findByHash(HASH)).isEmpty();
+        assertThat(imageStoreService.find(name)).isEmpty();
+        assertThat(blobStore.getObjects()).isEmpty();
+
+        assertThat(imageStoreService.store(file("photo.jpg"))).isEqualTo(name);
+        assertThat(imageBlobRepository.findByHash(HASH).orElseThrow().getReferenceCount()).isEqualTo(1);
+    }
+
+    @Test
+    void otherFilesAreNotStoredImages() throws Exception {
+        assertThat(ImageStoreService.isStoredImage("1_0photo.jpg")).isFalse();
+        assertThat(imageStoreService.find("1_0photo.jpg")).isEmpty();
+        imageStoreService.release("1_0photo.jpg");
+    }
+
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    void concurrentUploadsOfTheSameImage() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<String>> uploads = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                uploads.add(() -> imageStoreService.store(file("photo.jpg")));
+            }
+            for (Future<String> upload : executor.invokeAll(uploads)) {
+                assertThat(upload.get()).isEqualTo(HASH + ".jpg");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(imageBlobRepository.findByHash(HASH).orElseThrow().getReferenceCount()).isEqualTo(threads);
+        assertThat(blobStore.getObjects()).containsOnlyKeys(HASH);
+    }
+
+    private static MockMultipartFile file(String name) {
+        return new MockMultipartFile("files", name, "image/jpeg", "image".getBytes(StandardCharsets.UTF_8));
+    }
+}
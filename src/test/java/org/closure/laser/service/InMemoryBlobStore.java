@@ -0,0 +1,61 @@
+package org.closure.laser.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stand-in for an S3-compatible object store, such as MinIO: the blobs are uploaded and downloaded, they are never
+ * local files.
+ */
+public class InMemoryBlobStore implements BlobStore {
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+    @Override
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile("upload-", ".tmp");
+    }
+
+    @Override
+    public void put(String key, Path file) throws IOException {
+        objects.putIfAbsent(key, Files.readAllBytes(file));
+        Files.delete(file);
+    }
+
+    @Override
+    public OptionalLong size(String key) {
+        byte[] object = objects.get(key);
+        return object == null ? OptionalLong.empty() : OptionalLong.of(object.length);
+    }
+
+    @Override
+    public Optional<Path> localFile(String key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        byte[] object = objects.get(key);
+        if (object == null) {
+            throw new NoSuchFileException(key);
+        }
+        return new ByteArrayInputStream(object);
+    }
+
+    @Override
+    public void delete(String key) {
+        objects.remove(key);
+    }
+
+    public Map<String, byte[]> getObjects() {
+        return objects;
+    }
+}
@@ -0,0 +1,69 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalBlobStoreTest {
+
+    private static final String KEY = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    @TempDir
+    Path root;
+
+    private LocalBlobStore blobStore;
+
+    @BeforeEach
+    public void setup() {
+        blobStore = new LocalBlobStore(root);
+    }
+
+    @Test
+    void blobsAreStoredInShardedDirectories() throws Exception {
+        Path file = Files.writeString(blobStore.createTempFile(), "content");
+
+        blobStore.put(KEY, file);
+
+        Path blob = root.resolve("01").resolve("23").resolve(KEY);
+        assertThat(blob).hasContent("content");
+        assertThat(file).doesNotExist();
+        assertThat(blobStore.localFile(KEY)).contains(blob);
+        assertThat(blobStore.size(KEY)).hasValue(7);
+        try (InputStream content = blobStore.open(KEY)) {
+            assertThat(content).hasContent("content");
+        }
+    }
+
+    @Test
+    void storedBlobIsNotOverwritten() throws Exception {
+        blobStore.put(KEY, Files.writeString(blobStore.createTempFile(), "content"));
+        Path duplicate = Files.writeString(blobStore.createTempFile(), "content");
+
+        blobStore.put(KEY, duplicate);
+
+        assertThat(duplicate).doesNotExist();
+        assertThat(blobStore.size(KEY)).hasValue(7);
+    }
+
+    @Test
+    void deletedBlobIsMissing() throws Exception {
+        blobStore.put(KEY, Files.writeString(blobStore.createTempFile(), "content"));
+
+        blobStore.delete(KEY);
+        blobStore.delete(KEY);
+
+        assertThat(blobStore.size(KEY)).isEmpty();
+    }
+
+    @Test
+    void keysCannotLeaveTheStore() {
+        assertThatThrownBy(() -> blobStore.localFile("../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> blobStore.localFile("ab")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
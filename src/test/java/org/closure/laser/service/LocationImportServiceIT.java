@@ -0,0 +1,176 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import javax.persistence.EntityManagerFactory;
+import org.closure.laser.IntegrationTest;
+import org.closure.laser.config.ApplicationProperties;
+import org.closure.laser.domain.Location;
+import org.closure.laser.domain.LocationImport;
+import org.closure.laser.domain.enumeration.LocationImportStatus;
+import org.closure.laser.repository.LocationRepository;
+import org.closure.laser.web.rest.errors.BadRequestAlertException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link LocationImportService}, with the airports served by a local HTTP server from
+ * {@code airports/airports.json}. The locations are committed, and deleted after each test.
+ */
+@IntegrationTest
+class LocationImportServiceIT {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Autowired
+    private LocationImportService locationImportService;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private GeoIndexService geoIndexService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private HttpServer server;
+
+    private byte[] airports;
+
+    private volatile byte[] body;
+
+    private String url;
+
+    private int batchSize;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/airports/airports.json")) {
+            airports = in.readAllBytes();
+        }
+        body = airports;
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(
+            "/airports",
+            exchange -> {
+                byte[] response = body;
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, response.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response);
+                }
+            }
+        );
+        server.start();
+
+        url = applicationProperties.getAirports().getUrl();
+        batchSize = applicationProperties.getAirports().getBatchSize();
+        applicationProperties.getAirports().setUrl("http://localhost:" + server.getAddress().getPort() + "/airports");
+        applicationProperties.getAirports().setBatchSize(BATCH_SIZE);
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+        applicationProperties.getAirports().setUrl(url);
+        applicationProperties.getAirports().setBatchSize(batchSize);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM location WHERE airport LIKE 'Fixture %'");
+            jdbcTemplate.update("DELETE FROM location_import");
+        });
+        entityManagerFactory.getCache().evict(Location.class);
+        geoIndexService.rebuild();
+    }
+
+    @Test
+    void importInsertsTheNewAirportsAndCompletesTheLocationsWithoutCoordinates() throws InterruptedException {
+        Long damascus = saveLocation("Fixture Damascus International", null);
+        Long aleppo = saveLocation("Fixture Aleppo International", 1D);
+
+        LocationImport job = awaitEnd(locationImportService.start());
+
+        assertThat(job.getStatus()).isEqualTo(LocationImportStatus.COMPLETED);
+        assertThat(job.getRowsRead()).isEqualTo(7);
+        assertThat(job.getRowsInserted()).isEqualTo(3);
+        assertThat(job.getRowsUpdated()).isEqualTo(1);
+        assertThat(job.getFinishedAt()).isNotNull();
+
+        Location beirut = locationRepository.findByAirport("Fixture Beirut Rafic Hariri").orElseThrow();
+        assertThat(beirut.getCountry()).isEqualTo("Lebanon");
+        assertThat(beirut.getCity()).isEqualTo("Beirut");
+        assertThat(beirut.getIataCode()).isEqualTo("BEY");
+        assertThat(beirut.getLatitude()).isEqualTo(33.820931);
+        assertThat(beirut.getCreatedAt()).isNotNull();
+        assertThat(locationRepository.findById(damascus).orElseThrow().getIataCode()).isEqualTo("DAM");
+        assertThat(locationRepository.findById(aleppo).orElseThrow().getIataCode()).isNull();
+        assertThat(geoIndexService.nearest(33.8, 35.5, 1)).containsExactly(beirut.getId());
+    }
+
+    @Test
+    void failedImportResumesAfterTheLastBatch() throws InterruptedException {
+        String json = new String(airports, StandardCharsets.UTF_8);
+        body = json.substring(0, json.indexOf("Fixture Berlin")).getBytes(StandardCharsets.UTF_8);
+
+        LocationImport job = awaitEnd(locationImportService.start());
+
+        assertThat(job.getStatus()).isEqualTo(LocationImportStatus.FAILED);
+        assertThat(job.getRowsRead()).isEqualTo(4);
+        assertThat(job.getRowsInserted()).isEqualTo(4);
+        assertThat(job.getLastError()).isNotBlank();
+
+        body = airports;
+        job = awaitEnd(locationImportService.resume());
+
+        assertThat(job.getStatus()).isEqualTo(LocationImportStatus.COMPLETED);
+        assertThat(job.getRowsRead()).isEqualTo(7);
+        assertThat(job.getRowsInserted()).isEqualTo(5);
+        assertThat(job.getLastError()).isNull();
+        assertThat(jdbcTemplate.queryForList("SELECT airport FROM location WHERE airport LIKE 'Fixture %' ORDER BY airport", String.class))
+            .containsExactly(
+                "Fixture Aleppo International",
+                "Fixture Beirut Rafic Hariri",
+                "Fixture Berlin Brandenburg",
+                "Fixture Damascus International",
+                "Fixture Istanbul"
+            );
+        assertThatThrownBy(() -> locationImportService.resume()).isInstanceOf(BadRequestAlertException.class);
+    }
+
+    private Long saveLocation(String airport, Double latitude) {
+        return transactionTemplate.execute(status ->
+            locationRepository.save(new Location().country("Syria").airport(airport).latitude(latitude).longitude(latitude)).getId()
+        );
+    }
+
+    private LocationImport awaitEnd(LocationImport started) throws InterruptedException {
+        assertThat(started.getStatus()).isEqualTo(LocationImportStatus.RUNNING);
+        for (int i = 0; i < 100 && locationImportService.isRunning(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(locationImportService.isRunning()).isFalse();
+        LocationImport last = locationImportService.findLast().orElseThrow();
+        assertThat(last.getId()).isEqualTo(started.getId());
+        return last;
+    }
+}
@@ -0,0 +1,149 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+import javax.persistence.EntityManager;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.closure.laser.IntegrationTest;
+import org.closure.laser.domain.Deal;
+import org.closure.laser.domain.DealStatus;
+import org.closure.laser.domain.Location;
+import org.closure.laser.domain.Offers;
+import org.closure.laser.domain.Shipment;
+import org.closure.laser.domain.ShipmentType;
+import org.closure.laser.domain.Trip;
+import org.closure.laser.domain.User;
+import org.closure.laser.domain.UserApplication;
+import org.closure.laser.management.RequestSqlStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link OffersService}, counting the SQL statements of the offers of the current user.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.stats.factory=org.closure.laser.management.RequestSqlStatisticsFactory",
+    }
+)
+@Transactional
+class OffersServiceIT {
+
+    private static final String LOGIN = "offers-user";
+
+    private static final int MAX_STATEMENTS = 6;
+
+    private static final Pageable PAGE = PageRequest.of(0, 100);
+
+    private final Logger log = LoggerFactory.getLogger(OffersServiceIT.class);
+
+    @Autowired
+    private OffersService offersService;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private EntityManager em;
+
+    private UserApplication user;
+
+    private UserApplication other;
+
+    private Trip trip;
+
+    private DealStatus status;
+
+    private ShipmentType type;
+
+    @BeforeEach
+    public void setup() {
+        user = userApplication(LOGIN);
+        other = userApplication("offers-other");
+        Location damascus = persist(new Location().country("Syria").city("Damascus").airport("Offers Damascus"));
+        Location berlin = persist(new Location().country("Germany").city("Berlin").airport("Offers Berlin"));
+        trip = persist(new Trip().tripIdentifier("LS123").tripType("Direct").flyTime(new Date()).from(damascus).to(berlin));
+        status = persist(new DealStatus().name("Offers test").sequence(1));
+        type = persist(new ShipmentType().name("Offers test").factor(1D));
+        currentUserService.clearCache();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(LOGIN, null));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        SecurityContextHolder.clearContext();
+        currentUserService.clearCache();
+    }
+
+    @Test
+    void getAllForUserStatementsDoNotDependOnTheDeals() {
+        givenDeals(1);
+        // the first call also resolves the current user
+        assertThat(offersService.getAllForUser(PAGE)).hasSize(2);
+        long oneDeal = statements();
+
+        givenDeals(49);
+        assertThat(offersService.getAllForUser(PAGE)).hasSize(100);
+        long fiftyDeals = statements();
+        log.info("SQL statements of the offers of a user: {} with 1 deal of each side, {} with 50", oneDeal, fiftyDeals);
+
+        assertThat(fiftyDeals).isEqualTo(oneDeal).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    /**
+     * The user delivers {@code count} trip deals, each with an offer from a shipment deal of the other user, and owns
+     * {@code count} shipment deals, each with an offer from a trip deal of the other user.
+     */
+    private void givenDeals(int count) {
+        for (int i = 0; i < count; i++) {
+            Deal delivered = persist(new Deal().trip(trip).deliver(user).status(status).fullWeight(0D).availableWeight(20D));
+            Deal sent = shipmentDeal(other);
+            persist(new Offers().tripDealId(delivered.getId()).shipmentDealId(sent.getId()).status("Pending"));
+            Deal owned = shipmentDeal(user);
+            Deal carrier = persist(new Deal().trip(trip).deliver(other).status(status).fullWeight(0D).availableWeight(20D));
+            persist(new Offers().tripDealId(carrier.getId()).shipmentDealId(owned.getId()).status("Pending"));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private Deal shipmentDeal(UserApplication owner) {
+        Deal deal = persist(new Deal().owner(owner).status(status).fullWeight(2D).availableWeight(2D));
+        persist(new Shipment().weight(2D).description("Offers test").type(type).from(trip.getFrom()).to(trip.getTo()).deal(deal));
+        return deal;
+    }
+
+    private long statements() {
+        RequestSqlStatistics.start();
+        offersService.getAllForUser(PAGE);
+        return RequestSqlStatistics.stop().getStatements();
+    }
+
+    private UserApplication userApplication(String login) {
+        User user = new User();
+        user.setLogin(login);
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        user.setEmail(login + "@localhost");
+        user.setLangKey("en");
+        return persist(new UserApplication().user(persist(user)));
+    }
+
+    private <T> T persist(T entity) {
+        em.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,120 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.closure.laser.domain.Offers;
+import org.closure.laser.repository.DealRepository;
+import org.closure.laser.repository.OffersRepository;
+import org.closure.laser.repository.ShipmentRepository;
+import org.closure.laser.repository.projection.ShipmentDealRow;
+import org.closure.laser.repository.projection.ShipmentSummary;
+import org.closure.laser.repository.projection.TripDealRow;
+import org.closure.laser.service.dto.OffersDTO;
+import org.closure.laser.service.dto.ShipmentItemDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Unit tests for {@link OffersService}.
+ */
+class OffersServiceTest {
+
+    private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+    private OffersRepository offersRepository;
+
+    private DealRepository dealRepository;
+
+    private ShipmentRepository shipmentRepository;
+
+    private CurrentUserService currentUserService;
+
+    private OffersService offersService;
+
+    @BeforeEach
+    public void setup() {
+        offersRepository = mock(OffersRepository.class);
+        dealRepository = mock(DealRepository.class);
+        shipmentRepository = mock(ShipmentRepository.class);
+        currentUserService = mock(CurrentUserService.class);
+
+        offersService = new OffersService(offersRepository);
+        ReflectionTestUtils.setField(offersService, "dealRepository", dealRepository);
+        ReflectionTestUtils.setField(offersService, "currentUserService", currentUserService);
+        ReflectionTestUtils.setField(offersService, "dealViewService", new DealViewService(dealRepository, shipmentRepository));
+
+        when(currentUserService.getUserApplicationId()).thenReturn(1L);
+    }
+
+    @Test
+    void getAllForUserAssemblesOffersForBothSides() {
+        givenDeals(1);
+
+        List<OffersDTO> offers = offersService.getAllForUser(PageRequest.of(0, 20));
+
+        assertThat(offers).hasSize(2);
+        assertThat(offers.get(0).getId()).isEqualTo(1000L);
+        assertThat(offers.get(0).getTripDealDTO().getDealId()).isEqualTo(100L);
+        assertThat(offers.get(0).getShipmentDealDTO().getDealId()).isEqualTo(200L);
+        assertThat(offers.get(0).getShipmentDealDTO().getShipments()).extracting(ShipmentItemDTO::getId).containsExactly(2000L);
+        assertThat(offers.get(1).getId()).isEqualTo(2000L);
+        assertThat(offers.get(1).getTripDealDTO().getDealId()).isEqualTo(400L);
+        assertThat(offers.get(1).getShipmentDealDTO().getDealId()).isEqualTo(300L);
+        assertThat(offers.get(1).getShipmentDealDTO().getShipments()).extracting(ShipmentItemDTO::getId).containsExactly(3000L);
+    }
+
+    @Test
+    void getAllForUserSkipsDealsWithoutOffers() {
+        when(dealRepository.findIdsByDeliverId(any(), any())).thenReturn(List.of(100L));
+        when(dealRepository.findIdsByOwnerId(any(), any())).thenReturn(List.of());
+        when(offersRepository.findAllByDealIds(anyCollection())).thenReturn(List.of());
+
+        assertThat(offersService.getAllForUser(PageRequest.of(0, 20))).isEmpty();
+        assertThat(mockingDetails(dealRepository).getInvocations()).hasSize(2);
+        assertThat(mockingDetails(shipmentRepository).getInvocations()).isEmpty();
+    }
+
+    /**
+     * For each i, the user delivers trip deal 100+i which has an offer from shipment deal 200+i,
+     * and owns shipment deal 300+i which has an offer from trip deal 400+i. Shipment deal d has the shipment 10*d.
+     */
+    private void givenDeals(int count) {
+        List<Long> tripDealIds = new ArrayList<>();
+        List<Long> shipmentDealIds = new ArrayList<>();
+        List<Offers> offers = new ArrayList<>();
+        for (long i = 0; i < count; i++) {
+            tripDealIds.add(100L + i);
+            shipmentDealIds.add(300L + i);
+            offers.add(new Offers().id(1000L + i).tripDealId(100L + i).shipmentDealId(200L + i).status("Pending"));
+            offers.add(new Offers().id(2000L + i).tripDealId(400L + i).shipmentDealId(300L + i).status("Pending"));
+        }
+        when(dealRepository.findIdsByDeliverId(any(), any())).thenReturn(tripDealIds);
+        when(dealRepository.findIdsByOwnerId(any(), any())).thenReturn(shipmentDealIds);
+        when(offersRepository.findAllByDealIds(anyCollection())).thenReturn(offers);
+        when(dealRepository.findTripDealRowsByIdIn(anyCollection()))
+            .thenAnswer(invocation -> rows(invocation.getArgument(0), TripDealRow.class, id -> Map.of("dealId", id)));
+        when(dealRepository.findShipmentDealRowsByIdIn(anyCollection()))
+            .thenAnswer(invocation -> rows(invocation.getArgument(0), ShipmentDealRow.class, id -> Map.of("dealId", id)));
+        when(shipmentRepository.findSummariesByDealIdIn(anyCollection()))
+            .thenAnswer(invocation -> rows(invocation.getArgument(0), ShipmentSummary.class, id -> Map.of("id", 10 * id, "dealId", id)));
+    }
+
+    private <T> List<T> rows(Collection<Long> ids, Class<T> type, Function<Long, Map<String, Object>> row) {
+        return ids.stream().map(id -> projections.createProjection(type, row.apply(id))).collect(Collectors.toList());
+    }
+}
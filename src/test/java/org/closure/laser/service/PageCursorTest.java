@@ -0,0 +1,45 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import org.closure.laser.web.rest.errors.BadRequestAlertException;
+import org.junit.jupiter.api.Test;
+
+class PageCursorTest {
+
+    @Test
+    void cursorIsDecodedWithItsNanoseconds() {
+        Timestamp createdAt = Timestamp.from(Instant.parse("2026-10-18T12:00:00.123456789Z"));
+
+        PageCursor cursor = PageCursor.decode(new PageCursor(createdAt, 42L).encode(), "trip");
+
+        assertThat(cursor.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(cursor.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void cursorWithoutCreationDate() {
+        PageCursor cursor = PageCursor.decode(new PageCursor(null, 7L).encode(), "trip");
+
+        assertThat(cursor.getCreatedAt()).isNull();
+        assertThat(cursor.getId()).isEqualTo(7L);
+    }
+
+    @Test
+    void emptyCursorDesignatesTheFirstPage() {
+        assertThat(PageCursor.decode("", "trip")).isNull();
+        assertThat(PageCursor.decode(null, "trip")).isNull();
+    }
+
+    @Test
+    void invalidCursorIsABadRequest() {
+        String notACursor = Base64.getUrlEncoder().encodeToString("42".getBytes());
+
+        assertThatThrownBy(() -> PageCursor.decode("not a cursor", "trip")).isInstanceOf(BadRequestAlertException.class);
+        assertThatThrownBy(() -> PageCursor.decode(notACursor, "trip")).isInstanceOf(BadRequestAlertException.class);
+    }
+}
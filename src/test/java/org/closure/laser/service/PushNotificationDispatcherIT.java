@@ -0,0 +1,92 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.closure.laser.IntegrationTest;
+import org.closure.laser.domain.PushNotification;
+import org.closure.laser.domain.User;
+import org.closure.laser.domain.UserApplication;
+import org.closure.laser.domain.enumeration.PushNotificationStatus;
+import org.closure.laser.repository.PushNotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link PushNotificationDispatcher}, with the queue in the database.
+ */
+@IntegrationTest
+class PushNotificationDispatcherIT {
+
+    @Autowired
+    private PushNotificationService pushNotificationService;
+
+    @Autowired
+    private PushNotificationDispatcher pushNotificationDispatcher;
+
+    @Autowired
+    private PushNotificationRepository pushNotificationRepository;
+
+    @Autowired
+    private StubPushNotificationSender sender;
+
+    private UserApplication dealer;
+
+    @BeforeEach
+    public void setup() {
+        pushNotificationRepository.deleteAll();
+        sender.reset();
+        User user = new User();
+        user.setFirstName("Alice");
+        dealer = new UserApplication().user(user);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pushNotificationRepository.deleteAll();
+        sender.reset();
+    }
+
+    @Test
+    void queuedNotificationsAreSentOnce() {
+        pushNotificationService.enqueueDealRequest(dealer, "token-1", 1L);
+        pushNotificationService.enqueueDealRequest(dealer, "token-2", 2L);
+        pushNotificationService.enqueueDealRequest(dealer, " ", 3L);
+        assertThat(pushNotificationService.countPending()).isEqualTo(2);
+
+        pushNotificationDispatcher.dispatch();
+        pushNotificationDispatcher.dispatch();
+
+        assertThat(sender.getSent()).extracting(PushNotification::getToken).containsExactlyInAnyOrder("token-1", "token-2");
+        assertThat(sender.getSent()).extracting(PushNotification::getBody).containsOnly("Alice want to make deal with you");
+        List<PushNotification> stored = pushNotificationRepository.findAll();
+        assertThat(stored).extracting(PushNotification::getStatus).containsOnly(PushNotificationStatus.SENT);
+        assertThat(stored).extracting(PushNotification::getAttempts).containsOnly(1);
+        assertThat(stored).allSatisfy(notification -> assertThat(notification.getMessageId()).isEqualTo("stub/" + notification.getId()));
+        assertThat(pushNotificationService.countPending()).isZero();
+    }
+
+    @Test
+    void failedNotificationsAreRetriedLater() {
+        pushNotificationService.enqueueDealRequest(dealer, "unavailable", 1L);
+        pushNotificationService.enqueueDealRequest(dealer, "unregistered", 2L);
+        sender.respondWith(notification ->
+            PushNotificationSender.Result.failed(notification.getToken(), "unavailable".equals(notification.getToken()))
+        );
+
+        pushNotificationDispatcher.dispatch();
+        pushNotificationDispatcher.dispatch();
+
+        assertThat(sender.getSent()).hasSize(2);
+        PushNotification unavailable = pushNotificationRepository.findAll().stream().filter(n -> n.getOfferId() == 1L).findAny().get();
+        PushNotification unregistered = pushNotificationRepository.findAll().stream().filter(n -> n.getOfferId() == 2L).findAny().get();
+        assertThat(unavailable.getStatus()).isEqualTo(PushNotificationStatus.PENDING);
+        assertThat(unavailable.getAttempts()).isEqualTo(1);
+        assertThat(unavailable.getNextAttemptAt()).isAfter(unavailable.getCreatedAt());
+        assertThat(unavailable.getLastError()).isEqualTo("unavailable");
+        assertThat(unregistered.getStatus()).isEqualTo(PushNotificationStatus.FAILED);
+        assertThat(pushNotificationService.countPending()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,147 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.closure.laser.domain.PushNotification;
+import org.closure.laser.domain.enumeration.PushNotificationStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link PushNotificationDispatcher}.
+ */
+class PushNotificationDispatcherTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private PushNotificationService pushNotificationService;
+
+    private StubPushNotificationSender sender;
+
+    private MeterRegistry meterRegistry;
+
+    private PushNotificationDispatcher dispatcher;
+
+    @BeforeEach
+    public void setup() {
+        pushNotificationService = mock(PushNotificationService.class);
+        sender = new StubPushNotificationSender();
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher =
+            new PushNotificationDispatcher(
+                pushNotificationService,
+                sender,
+                meterRegistry,
+                BATCH_SIZE,
+                MAX_ATTEMPTS,
+                Duration.ofSeconds(30),
+                Duration.ofMinutes(1),
+                Duration.ofMinutes(2)
+            );
+    }
+
+    @Test
+    void claimsBatchesUntilTheQueueIsDrained() {
+        PushNotification first = notification(1L, 1);
+        PushNotification second = notification(2L, 1);
+        PushNotification third = notification(3L, 1);
+        when(pushNotificationService.claimDue(BATCH_SIZE, Duration.ofMinutes(2)))
+            .thenReturn(List.of(first, second))
+            .thenReturn(List.of(third));
+
+        dispatcher.dispatch();
+
+        assertThat(sender.getSent()).containsExactly(first, second, third);
+        assertThat(List.of(first, second, third)).extracting(PushNotification::getStatus).containsOnly(PushNotificationStatus.SENT);
+        assertThat(third.getMessageId()).isEqualTo("stub/3");
+        assertThat(third.getSentAt()).isNotNull();
+        verify(pushNotificationService, times(2)).saveDeliveries(any());
+        assertThat(meterRegistry.get("push.notifications.batch.size").summary().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("push.notifications.batch.size").summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get("push.notifications.send.latency").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("push.notifications").tag("outcome", "sent").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void retryableFailuresAreRetriedWithBackoffThenGivenUp() {
+        PushNotification firstAttempt = notification(1L, 1);
+        PushNotification lastAttempt = notification(2L, MAX_ATTEMPTS);
+        when(pushNotificationService.claimDue(anyInt(), any())).thenReturn(List.of(firstAttempt, lastAttempt)).thenReturn(List.of());
+        sender.respondWith(notification -> PushNotificationSender.Result.failed("UNAVAILABLE", true));
+
+        Instant before = Instant.now();
+        dispatcher.dispatch();
+
+        assertThat(firstAttempt.getStatus()).isEqualTo(PushNotificationStatus.PENDING);
+        assertThat(firstAttempt.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(30));
+        assertThat(firstAttempt.getLastError()).isEqualTo("UNAVAILABLE");
+        assertThat(lastAttempt.getStatus()).isEqualTo(PushNotificationStatus.FAILED);
+        assertThat(meterRegistry.get("push.notifications").tag("outcome", "retried").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("push.notifications").tag("outcome", "failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void permanentFailuresAreGivenUp() {
+        PushNotification notification = notification(1L, 1);
+        when(pushNotificationService.claimDue(anyInt(), any())).thenReturn(List.of(notification));
+        sender.respondWith(n -> PushNotificationSender.Result.failed("UNREGISTERED", false));
+
+        dispatcher.dispatch();
+
+        assertThat(notification.getStatus()).isEqualTo(PushNotificationStatus.FAILED);
+        assertThat(notification.getLastError()).isEqualTo("UNREGISTERED");
+    }
+
+    @Test
+    void senderErrorsAreRetried() {
+        PushNotification notification = notification(1L, 2);
+        when(pushNotificationService.claimDue(anyInt(), any())).thenReturn(List.of(notification));
+        sender.respondWith(n -> {
+            throw new IllegalStateException("Firebase is down");
+        });
+
+        dispatcher.dispatch();
+
+        assertThat(notification.getStatus()).isEqualTo(PushNotificationStatus.PENDING);
+        assertThat(notification.getLastError()).contains("Firebase is down");
+        verify(pushNotificationService).saveDeliveries(List.of(notification));
+    }
+
+    @Test
+    void backoffDoublesUpToTheMaximum() {
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(dispatcher.backoff(2)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(dispatcher.backoff(3)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(dispatcher.backoff(64)).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void queueDepthIsPublished() {
+        when(pushNotificationService.countPending()).thenReturn(7L);
+
+        assertThat(meterRegistry.get("push.notifications.queue.depth").gauge().value()).isEqualTo(7);
+    }
+
+    private static PushNotification notification(Long id, int attempts) {
+        return new PushNotification()
+            .id(id)
+            .token("token-" + id)
+            .title("Deal request")
+            .status(PushNotificationStatus.PENDING)
+            .attempts(attempts)
+            .nextAttemptAt(Instant.now().plus(Duration.ofMinutes(2)));
+    }
+}
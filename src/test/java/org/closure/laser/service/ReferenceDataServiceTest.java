@@ -0,0 +1,122 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.closure.laser.domain.Countries;
+import org.closure.laser.domain.ShipmentType;
+import org.closure.laser.repository.ConstantsRepository;
+import org.closure.laser.repository.CountriesRepository;
+import org.closure.laser.repository.DealStatusRepository;
+import org.closure.laser.repository.ShipmentTypeRepository;
+import org.closure.laser.repository.projection.DealStatusRef;
+import org.closure.laser.web.rest.errors.BadRequestAlertException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit tests for {@link ReferenceDataService}.
+ */
+class ReferenceDataServiceTest {
+
+    private DealStatusRepository dealStatusRepository;
+
+    private CountriesRepository countriesRepository;
+
+    private ShipmentTypeRepository shipmentTypeRepository;
+
+    private ReferenceDataService referenceDataService;
+
+    @BeforeEach
+    public void setup() {
+        dealStatusRepository = mock(DealStatusRepository.class);
+        countriesRepository = mock(CountriesRepository.class);
+        shipmentTypeRepository = mock(ShipmentTypeRepository.class);
+        ConstantsRepository constantsRepository = mock(ConstantsRepository.class);
+        referenceDataService =
+            new ReferenceDataService(dealStatusRepository, countriesRepository, shipmentTypeRepository, constantsRepository);
+
+        DealStatusRef waiting = dealStatusRef(1L, "Waiting shipments", 1);
+        DealStatusRef agreement = dealStatusRef(3L, "agreement", 2);
+        when(dealStatusRepository.findAllRefs()).thenReturn(List.of(waiting, agreement));
+        when(countriesRepository.findAll(any(Sort.class)))
+            .thenReturn(
+                List.of(new Countries("BE", "Brussels", "32", "Belgium").id(1L), new Countries("SY", "Damascus", "963", "Syria").id(2L))
+            );
+        when(shipmentTypeRepository.findAll(any(Sort.class))).thenReturn(List.of(new ShipmentType().id(1L).name("Documents").factor(1D)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void tablesAreLoadedOnceAndIndexed() {
+        assertThat(referenceDataService.getDealStatus(3L).getName()).isEqualTo("agreement");
+        assertThat(referenceDataService.getDealStatuses().getAll()).extracting("id").containsExactly(1L, 3L);
+        assertThat(referenceDataService.findDealStatusByName("Waiting shipments")).get().extracting("id").isEqualTo(1L);
+        assertThat(referenceDataService.findCountryByCode("sy")).get().extracting("capital").isEqualTo("Damascus");
+        assertThat(referenceDataService.findShipmentTypeByName("Documents")).isPresent();
+        assertThat(referenceDataService.getShipmentTypes().getAll().get(0).getShipments()).isEmpty();
+
+        verify(dealStatusRepository, times(1)).findAllRefs();
+        verify(countriesRepository, times(1)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void unknownDealStatusIsABadRequest() {
+        assertThatThrownBy(() -> referenceDataService.getDealStatus(42L)).isInstanceOf(BadRequestAlertException.class);
+    }
+
+    @Test
+    void eTagOnlyChangesWithContent() {
+        String eTag = referenceDataService.getCountries().getETag();
+
+        referenceDataService.tableChanged();
+        assertThat(referenceDataService.getCountries().getETag()).isEqualTo(eTag).startsWith("\"");
+
+        when(countriesRepository.findAll(any(Sort.class))).thenReturn(List.of(new Countries("BE", "Bruxelles", "32", "Belgium").id(1L)));
+        referenceDataService.tableChanged();
+        assertThat(referenceDataService.getCountries().getETag()).isNotEqualTo(eTag);
+        assertThat(referenceDataService.findCountryByCode("SY")).isEmpty();
+    }
+
+    @Test
+    void snapshotIsNotSharedWhileAWriteIsPending() {
+        referenceDataService.getDealStatuses();
+        TransactionSynchronizationManager.initSynchronization();
+
+        referenceDataService.tableChanged();
+        referenceDataService.getDealStatuses();
+        referenceDataService.getDealStatuses();
+        verify(dealStatusRepository, times(3)).findAllRefs();
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(synchronizations).hasSize(1);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        referenceDataService.getDealStatuses();
+        referenceDataService.getDealStatuses();
+        verify(dealStatusRepository, times(4)).findAllRefs();
+    }
+
+    private static DealStatusRef dealStatusRef(Long id, String name, Integer sequence) {
+        DealStatusRef ref = mock(DealStatusRef.class);
+        when(ref.getId()).thenReturn(id);
+        when(ref.getName()).thenReturn(name);
+        when(ref.getSequence()).thenReturn(sequence);
+        return ref;
+    }
+}
@@ -0,0 +1,154 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import org.closure.laser.repository.DealRepository;
+import org.closure.laser.repository.projection.DealRoute;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Unit tests for {@link RouteIndexService}.
+ */
+class RouteIndexServiceTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private static final Date NOW = new Date(1_700_000_000_000L);
+
+    private DealRepository dealRepository;
+
+    private RouteIndexService routeIndexService;
+
+    @BeforeEach
+    public void setup() {
+        dealRepository = mock(DealRepository.class);
+        when(dealRepository.findAllTripRoutes())
+            .thenReturn(
+                List.of(
+                    route(1L, 10D, 1, 1L, "Syria", 2L, "Germany"),
+                    route(2L, 5D, 2, 1L, "Syria", 2L, "Germany"),
+                    route(3L, 20D, 3, 1L, "Syria", 3L, "Turkey"),
+                    route(4L, 20D, 10, 1L, "Syria", 2L, "Germany"),
+                    route(5L, null, 1, 1L, "Syria", 2L, "Germany")
+                )
+            );
+        when(dealRepository.findAllShipmentRoutes())
+            .thenReturn(
+                List.of(
+                    route(6L, 3D, 1, 1L, "Syria", 2L, "Germany"),
+                    route(6L, 3D, 1, 1L, "Syria", 4L, "Germany"),
+                    route(7L, 8D, 2, 3L, "Turkey", 2L, "Germany")
+                )
+            );
+        routeIndexService = new RouteIndexService(dealRepository);
+        routeIndexService.rebuild();
+    }
+
+    @Test
+    void searchTripsFiltersByCountryWeightAndDate() {
+        Page<Long> page = routeIndexService.searchTrips("syr", "GERM", 5D, new Date(NOW.getTime() + 5 * DAY), Pageable.unpaged());
+
+        assertThat(page.getContent()).containsExactly(1L, 2L);
+        assertThat(page.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void searchTripsSortsByDateThenAvailableWeight() {
+        when(dealRepository.findTripRoutes(anyCollection())).thenReturn(List.of(route(8L, 50D, 1, 1L, "Syria", 2L, "Germany")));
+        when(dealRepository.findShipmentRoutes(anyCollection())).thenReturn(List.of());
+        routeIndexService.dealChanged(8L);
+
+        Page<Long> page = routeIndexService.searchTrips("Syria", "Germany", 1D, new Date(NOW.getTime() + 30 * DAY), Pageable.unpaged());
+
+        assertThat(page.getContent()).containsExactly(8L, 1L, 2L, 4L);
+    }
+
+    @Test
+    void searchTripsIsPaged() {
+        Page<Long> page = routeIndexService.searchTrips("", "", 0D, new Date(NOW.getTime() + 30 * DAY), PageRequest.of(1, 2));
+
+        assertThat(page.getContent()).containsExactly(3L, 4L);
+        assertThat(page.getTotalElements()).isEqualTo(4);
+    }
+
+    @Test
+    void dealChangedReplacesAndRemovesEntries() {
+        when(dealRepository.findTripRoutes(anyCollection())).thenReturn(List.of(route(1L, 1D, 1, 1L, "Syria", 2L, "Germany")));
+        when(dealRepository.findShipmentRoutes(anyCollection())).thenReturn(List.of());
+        routeIndexService.dealsChanged(List.of(1L, 2L));
+
+        Page<Long> page = routeIndexService.searchTrips("Syria", "Germany", 1D, new Date(NOW.getTime() + 5 * DAY), Pageable.unpaged());
+
+        assertThat(page.getContent()).containsExactly(1L);
+        assertThat(routeIndexService.searchTrips("Syria", "Germany", 5D, new Date(NOW.getTime() + 5 * DAY), Pageable.unpaged()))
+            .isEmpty();
+    }
+
+    @Test
+    void searchShipmentsReturnsEachDealOnce() {
+        Page<Long> page = routeIndexService.searchShipments("", "germany", 1D, new Date(NOW.getTime() + 5 * DAY), Pageable.unpaged());
+
+        assertThat(page.getContent()).containsExactly(6L, 7L);
+    }
+
+    @Test
+    void searchByLocationsMatchesTheLocationIds() {
+        Date date = new Date(NOW.getTime() + 30 * DAY);
+
+        assertThat(routeIndexService.searchTripsFrom(List.of(1L, 9L), "germany", 1D, date, Pageable.unpaged()).getContent())
+            .containsExactly(1L, 2L, 4L);
+        assertThat(routeIndexService.searchTripsFrom(List.of(9L), "", 1D, date, Pageable.unpaged())).isEmpty();
+        assertThat(routeIndexService.searchShipmentsTo("", List.of(4L), 1D, date, Pageable.unpaged()).getContent()).containsExactly(6L);
+        assertThat(routeIndexService.searchShipmentsTo("turk", List.of(2L, 4L), 1D, date, Pageable.unpaged()).getContent())
+            .containsExactly(7L);
+    }
+
+    private static DealRoute route(Long dealId, Double weight, int days, Long fromId, String from, Long toId, String to) {
+        Date date = new Date(NOW.getTime() + days * DAY);
+        return new DealRoute() {
+            @Override
+            public Long getDealId() {
+                return dealId;
+            }
+
+            @Override
+            public Double getAvailableWeight() {
+                return weight;
+            }
+
+            @Override
+            public Date getDate() {
+                return date;
+            }
+
+            @Override
+            public Long getFromId() {
+                return fromId;
+            }
+
+            @Override
+            public String getFromCountry() {
+                return from;
+            }
+
+            @Override
+            public Long getToId() {
+                return toId;
+            }
+
+            @Override
+            public String getToCountry() {
+                return to;
+            }
+        };
+    }
+}
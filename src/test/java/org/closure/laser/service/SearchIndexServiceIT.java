@@ -0,0 +1,237 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.sql.DataSource;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.closure.laser.IntegrationTest;
+import org.closure.laser.domain.Article;
+import org.closure.laser.domain.User;
+import org.closure.laser.domain.UserApplication;
+import org.closure.laser.repository.ArticleRepository;
+import org.closure.laser.repository.UserApplicationRepository;
+import org.closure.laser.repository.UserRepository;
+import org.closure.laser.service.SearchIndexService.Index;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link SearchIndexService}. The rows are committed, as the index is only updated after
+ * commit, and deleted after each test.
+ */
+@IntegrationTest
+class SearchIndexServiceIT {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private UserApplicationService userApplicationService;
+
+    @Autowired
+    private UserApplicationRepository userApplicationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<Long> articles = new ArrayList<>();
+
+    private final List<Long> userApplications = new ArrayList<>();
+
+    private final List<Long> users = new ArrayList<>();
+
+    @BeforeEach
+    public void reindex() {
+        searchIndexService.reindex();
+    }
+
+    @AfterEach
+    public void deleteRows() {
+        transactionTemplate.executeWithoutResult(status -> {
+            articleRepository.deleteAllById(articles);
+            userApplicationRepository.deleteAllById(userApplications);
+            userRepository.deleteAllById(users);
+        });
+    }
+
+    @Test
+    void searchMatchesPrefixesTyposAndPartsOfWords() {
+        Long id = saveArticle("Shipping electronics to Damascus", "Laptops and phones");
+
+        assertThat(search(Index.ARTICLES, "damascus")).containsExactly(id);
+        assertThat(search(Index.ARTICLES, "DAMAS")).containsExactly(id);
+        assertThat(search(Index.ARTICLES, "damscus")).containsExactly(id);
+        assertThat(search(Index.ARTICLES, "tronic")).containsExactly(id);
+        assertThat(search(Index.ARTICLES, "laptops damascus")).containsExactly(id);
+        assertThat(search(Index.ARTICLES, "laptops berlin")).isEmpty();
+    }
+
+    @Test
+    void matchesOnTheNameComeFirst() {
+        Long inContent = saveArticle("Travel tips", "What to pack for Aleppo");
+        Long prefixInTitle = saveArticle("Aleppos and more", "Tips");
+        Long inTitle = saveArticle("Aleppo in spring", "Tips");
+
+        // a whole word of the title first
+        List<Long> found = search(Index.ARTICLES, "aleppo");
+        assertThat(found).containsExactlyInAnyOrder(inTitle, prefixInTitle, inContent);
+        assertThat(found.get(0)).isEqualTo(inTitle);
+
+        Page<Article> page = articleService.search("aleppo", PageRequest.of(1, 2));
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(Article::getId).containsExactly(found.get(2));
+    }
+
+    @Test
+    void indexFollowsUpdatesAndDeletes() {
+        Long id = saveArticle("Homs market", "Spices");
+
+        transactionTemplate.executeWithoutResult(status -> articleRepository.findById(id).orElseThrow().setTitle("Hama market"));
+        assertThat(search(Index.ARTICLES, "homs")).isEmpty();
+        assertThat(search(Index.ARTICLES, "hama")).containsExactly(id);
+
+        transactionTemplate.executeWithoutResult(status -> articleRepository.deleteById(id));
+        articles.remove(id);
+        assertThat(search(Index.ARTICLES, "hama")).isEmpty();
+    }
+
+    @Test
+    void userApplicationsAreFoundByTheNameOfTheirUser() {
+        Long id = saveUserApplication("Zenobia", "Palmyra", "0993123456", null);
+
+        assertThat(search(Index.USERS, "zenobia palm")).containsExactly(id);
+        assertThat(search(Index.USERS, "0993123456")).containsExactly(id);
+
+        transactionTemplate.executeWithoutResult(status -> userRepository.findById(users.get(0)).orElseThrow().setFirstName("Zaynab"));
+        assertThat(search(Index.USERS, "zenobia")).isEmpty();
+        assertThat(search(Index.USERS, "zaynab")).containsExactly(id);
+    }
+
+    @Test
+    void exactPassportsComeFirstAndNamesTolerateTypos() {
+        Long exact = saveUserApplication("Ahmad", "Haddad", "0993000001", "P0000123");
+        saveUserApplication("Ahmad", "Khoury", "0993000002", "P0000124");
+        saveUserApplication("Omar", "Haddad", "0993000003", "P0000133");
+
+        // the passports at one or two typos come after the exact one
+        assertThat(userApplicationService.search("P0000123", PAGE).getContent())
+            .extracting(UserApplication::getId)
+            .startsWith(exact);
+        assertThat(userApplicationService.search("Ahmd Hadad", PAGE).getContent())
+            .extracting(user -> user.getUser().getFirstName() + " " + user.getUser().getLastName())
+            .containsOnly("Ahmad Haddad");
+    }
+
+    @Test
+    void reindexKeepsTheRows() {
+        Long id = saveArticle("Latakia port", "Ferries");
+
+        searchIndexService.reindex();
+
+        assertThat(searchIndexService.isReady()).isTrue();
+        assertThat(search(Index.ARTICLES, "latakia")).containsExactly(id);
+    }
+
+    @Test
+    void commitsHoldingEveryConnectionOfThePoolAreIndexed() throws Exception {
+        int connections = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        CyclicBarrier allCommitted = new CyclicBarrier(connections);
+        List<String> titles = new ArrayList<>();
+        List<Callable<Long>> saves = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            String title = RandomStringUtils.randomAlphabetic(10).toLowerCase();
+            titles.add(title);
+            saves.add(() ->
+                transactionTemplate.execute(status -> {
+                    // registered before the index's own synchronization, so every commit holds its connection here
+                    TransactionSynchronizationManager.registerSynchronization(
+                        new TransactionSynchronization() {
+                            @Override
+                            public void afterCommit() {
+                                try {
+                                    allCommitted.await(5, TimeUnit.SECONDS);
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                } catch (BrokenBarrierException | TimeoutException e) {
+                                    // a connection was busy elsewhere: carry on
+                                }
+                            }
+                        }
+                    );
+                    return articleRepository.save(new Article().title(title).content("Ferries")).getId();
+                })
+            );
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(connections);
+        try {
+            for (Future<Long> save : executor.invokeAll(saves, 1, TimeUnit.MINUTES)) {
+                articles.add(save.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < connections; i++) {
+            assertThat(search(Index.ARTICLES, titles.get(i))).containsExactly(articles.get(i));
+        }
+    }
+
+    private Long saveArticle(String title, String content) {
+        Long id = transactionTemplate.execute(status -> articleRepository.save(new Article().title(title).content(content)).getId());
+        articles.add(id);
+        return id;
+    }
+
+    private Long saveUserApplication(String firstName, String lastName, String phone, String passport) {
+        Long id = transactionTemplate.execute(status -> {
+            User user = new User();
+            user.setLogin("search-" + RandomStringUtils.randomAlphabetic(5).toLowerCase());
+            user.setPassword(RandomStringUtils.random(60));
+            user.setActivated(true);
+            user.setEmail(RandomStringUtils.randomAlphabetic(5) + "@example.com");
+            user.setFirstName(firstName);
+            user.setLastName(lastName);
+            user.setLangKey("en");
+            users.add(userRepository.save(user).getId());
+            return userApplicationRepository.save(new UserApplication().phone(phone).passport(passport).user(user)).getId();
+        });
+        userApplications.add(id);
+        return id;
+    }
+
+    private List<Long> search(Index index, String value) {
+        return new ArrayList<>(searchIndexService.search(index, value, PAGE).getContent());
+    }
+}
@@ -0,0 +1,159 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.closure.laser.IntegrationTest;
+import org.closure.laser.domain.Location;
+import org.closure.laser.domain.Shipment;
+import org.closure.laser.domain.User;
+import org.closure.laser.domain.UserApplication;
+import org.closure.laser.management.RequestSqlStatistics;
+import org.closure.laser.repository.DealRepository;
+import org.closure.laser.repository.LocationRepository;
+import org.closure.laser.repository.UserApplicationRepository;
+import org.closure.laser.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link ShipmentService}, counting the SQL statements of the creation of the shipments of a
+ * deal. The rows are committed, and deleted after each test.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.stats.factory=org.closure.laser.management.RequestSqlStatisticsFactory",
+    }
+)
+class ShipmentServiceIT {
+
+    private static final String LOGIN = "shipment-owner";
+
+    private static final int BATCH_SIZE = 25;
+
+    private final Logger log = LoggerFactory.getLogger(ShipmentServiceIT.class);
+
+    @Autowired
+    private ShipmentService shipmentService;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserApplicationRepository userApplicationRepository;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private DealRepository dealRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long owner;
+
+    private Location from;
+
+    private Location to;
+
+    @BeforeEach
+    public void createOwner() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = new User();
+            user.setLogin(LOGIN);
+            user.setPassword(RandomStringUtils.random(60));
+            user.setActivated(true);
+            user.setEmail("shipment-owner@localhost");
+            user.setLangKey("en");
+            owner = userApplicationRepository.save(new UserApplication().user(userRepository.save(user))).getId();
+            from = locationRepository.save(new Location().country("Syria").city("Damascus").airport("Shipment Damascus"));
+            to = locationRepository.save(new Location().country("Germany").city("Berlin").airport("Shipment Berlin"));
+        });
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(LOGIN, null));
+    }
+
+    @AfterEach
+    public void deleteOwner() {
+        SecurityContextHolder.clearContext();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM shipment WHERE deal_id IN (SELECT id FROM deal WHERE owner_id = ?)", owner);
+            jdbcTemplate.update("DELETE FROM deal WHERE owner_id = ?", owner);
+            jdbcTemplate.update("DELETE FROM location WHERE id IN (?, ?)", from.getId(), to.getId());
+            jdbcTemplate.update("DELETE FROM user_application WHERE id = ?", owner);
+            jdbcTemplate.update("DELETE FROM jhi_user WHERE login = ?", LOGIN);
+        });
+        currentUserService.clearCache();
+    }
+
+    @Test
+    void shipmentInsertsAreBatched() {
+        // the first call also resolves the owner and reserves the ids
+        createShipments(1);
+        long oneShipment = statements(1);
+        long fullBatch = statements(BATCH_SIZE);
+        // the statement of a batch is prepared once, and reused by the next batches
+        long twoBatches = statements(BATCH_SIZE + 1);
+        log.info(
+            "SQL statements to create a deal: {} with 1 shipment, {} with {} shipments, {} with {} shipments",
+            oneShipment,
+            fullBatch,
+            BATCH_SIZE,
+            twoBatches,
+            BATCH_SIZE + 1
+        );
+
+        assertThat(fullBatch).isEqualTo(oneShipment);
+        assertThat(twoBatches).isEqualTo(oneShipment);
+    }
+
+    @Test
+    void shipmentsAreSavedWithTheirDeal() {
+        List<Shipment> shipments = createShipments(3);
+
+        assertThat(shipments).extracting(Shipment::getId).doesNotContainNull().doesNotHaveDuplicates();
+        Long deal = shipments.get(0).getDeal().getId();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM shipment WHERE deal_id = ?", Long.class, deal)).isEqualTo(3);
+        assertThat(dealRepository.findById(deal).orElseThrow().getFullWeight()).isEqualTo(6);
+    }
+
+    private long statements(int count) {
+        RequestSqlStatistics.start();
+        createShipments(count);
+        return RequestSqlStatistics.stop().getStatements();
+    }
+
+    private List<Shipment> createShipments(int count) {
+        List<Shipment> shipments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            shipments.add(
+                new Shipment()
+                    .description("Shipment " + i)
+                    .weight(2D)
+                    .from(new Location().id(from.getId()))
+                    .to(new Location().id(to.getId()))
+            );
+        }
+        return shipmentService.saveLogic(shipments, new Date());
+    }
+}
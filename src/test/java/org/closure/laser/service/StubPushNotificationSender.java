@@ -0,0 +1,42 @@
+package org.closure.laser.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.closure.laser.domain.PushNotification;
+
+/**
+ * {@link PushNotificationSender} for tests: records the notifications instead of sending them, and answers with
+ * the results of {@link #respondWith(Function)}, all sent by default.
+ */
+public class StubPushNotificationSender implements PushNotificationSender {
+
+    private final List<PushNotification> sent = new CopyOnWriteArrayList<>();
+
+    private volatile Function<PushNotification, Result> responder;
+
+    public StubPushNotificationSender() {
+        reset();
+    }
+
+    @Override
+    public List<Result> send(List<PushNotification> notifications) {
+        sent.addAll(notifications);
+        return notifications.stream().map(responder).collect(Collectors.toList());
+    }
+
+    public void respondWith(Function<PushNotification, Result> responder) {
+        this.responder = responder;
+    }
+
+    public List<PushNotification> getSent() {
+        return new ArrayList<>(sent);
+    }
+
+    public void reset() {
+        sent.clear();
+        responder = notification -> Result.sent("stub/" + notification.getId());
+    }
+}
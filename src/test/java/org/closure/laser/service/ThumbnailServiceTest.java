@@ -0,0 +1,85 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ThumbnailServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private InMemoryBlobStore blobStore;
+
+    private ThumbnailService thumbnailService;
+
+    @BeforeEach
+    public void setup() {
+        blobStore = new InMemoryBlobStore();
+        thumbnailService = new ThumbnailService(blobStore, 320);
+    }
+
+    @Test
+    void thumbnailFitsTheThumbnailSize() throws Exception {
+        BufferedImage source = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = source.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 1000, 1000);
+        graphics.dispose();
+        put("photo", source, "png");
+
+        String thumbnail = thumbnailService.createThumbnail("photo");
+
+        assertThat(thumbnail).isEqualTo("photo-thumbnail");
+        BufferedImage written = ImageIO.read(blobStore.open(thumbnail));
+        assertThat(written.getWidth()).isEqualTo(320);
+        assertThat(written.getHeight()).isEqualTo(160);
+        // the transparent half is white
+        assertThat(new Color(written.getRGB(300, 80)).getGreen()).isGreaterThan(240);
+        assertThat(new Color(written.getRGB(20, 80)).getGreen()).isLessThan(20);
+    }
+
+    @Test
+    void smallImagesAreNotEnlarged() throws Exception {
+        put("icon", new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB), "jpeg");
+
+        BufferedImage written = ImageIO.read(blobStore.open(thumbnailService.createThumbnail("icon")));
+
+        assertThat(written.getWidth()).isEqualTo(100);
+        assertThat(written.getHeight()).isEqualTo(50);
+    }
+
+    @Test
+    void filesWhichAreNotImagesHaveNoThumbnail() throws Exception {
+        blobStore.put("ticket", Files.writeString(directory.resolve("ticket.pdf"), "%PDF-1.4"));
+
+        assertThat(thumbnailService.createThumbnail("ticket")).isNull();
+        assertThat(blobStore.getObjects()).containsOnlyKeys("ticket");
+    }
+
+    @Test
+    void thumbnailsOfLocalFilesAreReadFromDisk() throws Exception {
+        LocalBlobStore localBlobStore = new LocalBlobStore(directory);
+        Path image = localBlobStore.createTempFile();
+        ImageIO.write(new BufferedImage(640, 640, BufferedImage.TYPE_INT_RGB), "png", image.toFile());
+        localBlobStore.put("0123-image", image);
+
+        String thumbnail = new ThumbnailService(localBlobStore, 320).createThumbnail("0123-image");
+
+        assertThat(ImageIO.read(localBlobStore.localFile(thumbnail).orElseThrow().toFile()).getWidth()).isEqualTo(320);
+    }
+
+    private void put(String key, BufferedImage image, String format) throws Exception {
+        Path file = directory.resolve(key);
+        ImageIO.write(image, format, file.toFile());
+        blobStore.put(key, file);
+    }
+}
@@ -0,0 +1,195 @@
+package org.closure.laser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.closure.laser.LaserApp;
+import org.closure.laser.domain.UserApplication;
+import org.closure.laser.repository.UserApplicationRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Search benchmark: searches {@link #USERS} synthetic users with the {@code LIKE} query of
+ * {@link UserApplicationRepository#search} and with the {@link SearchIndexService}. The database is an H2 file and
+ * the index is on disk, so that the users do not fill the heap.
+ * <p>
+ * Run with {@code -Dbenchmark=true}; {@link SearchIndexServiceIT} checks the relevance of the results on a few rows.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(
+    classes = LaserApp.class,
+    properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/h2db/search-benchmark/laser;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "application.search.directory=target/search-benchmark",
+    }
+)
+class UserSearchBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchBenchmarkIT.class);
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 500_000);
+
+    private static final List<String> FIRST_NAMES = List.of(
+        "Ahmad",
+        "Omar",
+        "Lina",
+        "Rami",
+        "Sara",
+        "Yousef",
+        "Maya",
+        "Karim",
+        "Nour",
+        "Hadi",
+        "Rana",
+        "Samer",
+        "Dana",
+        "Fadi",
+        "Hala",
+        "Tarek",
+        "Rasha",
+        "Bassel",
+        "Zeina",
+        "Majd"
+    );
+
+    private static final List<String> LAST_NAMES = List.of(
+        "Haddad",
+        "Khoury",
+        "Nasser",
+        "Saleh",
+        "Hamdan",
+        "Darwish",
+        "Mansour",
+        "Aziz",
+        "Hijazi",
+        "Qassem",
+        "Sabbagh",
+        "Jaber",
+        "Halabi",
+        "Shami",
+        "Issa",
+        "Rahal",
+        "Zein",
+        "Tamer",
+        "Kanaan",
+        "Barakat"
+    );
+
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20);
+
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private UserApplicationService userApplicationService;
+
+    @Autowired
+    private UserApplicationRepository userApplicationRepository;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    public static void deleteDatabase() throws IOException {
+        for (Path directory : List.of(Paths.get("target/h2db/search-benchmark"), Paths.get("target/search-benchmark"))) {
+            if (Files.exists(directory)) {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                        Files.delete(file);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @Timeout(value = 15, unit = TimeUnit.MINUTES)
+    void indexIsFasterThanLike() {
+        long start = System.nanoTime();
+        // SYSTEM_RANGE does not take parameters; the connections of the pool do not auto-commit
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(
+                "INSERT INTO jhi_user (id, login, password_hash, first_name, last_name, email, activated, created_by) " +
+                "SELECT 1000 + X, 'user' || X, REPEAT('x', 60), " +
+                pick(FIRST_NAMES, "MOD(X, " + FIRST_NAMES.size() + ")") +
+                ", " +
+                pick(LAST_NAMES, "MOD(X / " + FIRST_NAMES.size() + ", " + LAST_NAMES.size() + ")") +
+                ", 'user' || X || '@example.com', TRUE, 'system' FROM SYSTEM_RANGE(1, " +
+                USERS +
+                ")"
+            );
+            jdbcTemplate.update(
+                "INSERT INTO user_application (id, user_id, phone, passport) " +
+                "SELECT X, 1000 + X, '09' || LPAD(X, 8, '0'), 'P' || LPAD(X, 7, '0') FROM SYSTEM_RANGE(1, " +
+                USERS +
+                ")"
+            );
+        });
+        log.info("Search benchmark: {} users inserted in {} ms", USERS, (System.nanoTime() - start) / 1_000_000);
+
+        // the rows were inserted with SQL, which the index does not see
+        start = System.nanoTime();
+        searchIndexService.reindex();
+        log.info("Search benchmark: {} users indexed in {} ms", USERS, (System.nanoTime() - start) / 1_000_000);
+
+        String passport = "P" + String.format("%07d", USERS / 2);
+        for (String value : List.of(passport, "Haddad", "Ahmad Haddad", "user12345")) {
+            long likeNanos = Long.MAX_VALUE;
+            long indexNanos = Long.MAX_VALUE;
+            Page<UserApplication> byLike = null;
+            Page<UserApplication> byIndex = null;
+            for (int round = 0; round < ROUNDS; round++) {
+                long likeStart = System.nanoTime();
+                byLike = transactionTemplate.execute(status -> userApplicationRepository.search(value, FIRST_PAGE));
+                likeNanos = Math.min(likeNanos, System.nanoTime() - likeStart);
+
+                long indexStart = System.nanoTime();
+                byIndex = userApplicationService.search(value, FIRST_PAGE);
+                indexNanos = Math.min(indexNanos, System.nanoTime() - indexStart);
+            }
+            log.info(
+                "Search benchmark: '{}' in {} users, LIKE {} ms ({} found), index {} ms ({} found)",
+                value,
+                USERS,
+                likeNanos / 1_000_000,
+                byLike.getTotalElements(),
+                indexNanos / 1_000_000,
+                byIndex.getTotalElements()
+            );
+            assertThat(byIndex.getContent()).isNotEmpty();
+            assertThat(indexNanos).isLessThan(likeNanos);
+        }
+    }
+
+    private static String pick(List<String> values, String index) {
+        StringBuilder sql = new StringBuilder("CASE ").append(index);
+        for (int i = 0; i < values.size(); i++) {
+            sql.append(" WHEN ").append(i).append(" THEN '").append(values.get(i)).append("'");
+        }
+        return sql.append(" END").toString();
+    }
+}
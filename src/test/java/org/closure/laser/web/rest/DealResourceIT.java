@@ -5,12 +5,19 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
 import org.closure.laser.IntegrationTest;
 import org.closure.laser.domain.Deal;
+import org.closure.laser.domain.Shipment;
+import org.closure.laser.domain.Trip;
 import org.closure.laser.repository.DealRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +26,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -62,6 +70,9 @@ class DealResourceIT {
     @Autowired
     private MockMvc restDealMockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private Deal deal;
 
     /**
@@ -162,6 +173,70 @@ class DealResourceIT {
             .andExpect(jsonPath("$.[*].availableWeight").value(hasItem(DEFAULT_AVAILABLE_WEIGHT.doubleValue())));
     }
 
+    @Test
+    @Transactional
+    void getNewTripDealsWithCursor() throws Exception {
+        Date now = new Date();
+        Trip recentTrip = new Trip().createdAt(Date.from(now.toInstant().minus(1, ChronoUnit.DAYS)));
+        Trip latestTrip = new Trip().createdAt(now);
+        Trip oldTrip = new Trip().createdAt(Date.from(now.toInstant().minus(11, ChronoUnit.DAYS)));
+        em.persist(recentTrip);
+        em.persist(latestTrip);
+        em.persist(oldTrip);
+        Deal recent = dealRepository.saveAndFlush(createEntity(em).trip(recentTrip));
+        Deal latest = dealRepository.saveAndFlush(createEntity(em).trip(latestTrip));
+        Deal sameTrip = dealRepository.saveAndFlush(createEntity(em).trip(latestTrip));
+        Deal old = dealRepository.saveAndFlush(createEntity(em).trip(oldTrip));
+        em.clear();
+
+        List<Long> ids = getAllPages(ENTITY_API_URL + "/newTrips");
+
+        assertThat(ids).doesNotHaveDuplicates().doesNotContain(old.getId());
+        List<Long> created = List.of(sameTrip.getId(), latest.getId(), recent.getId());
+        assertThat(ids).filteredOn(created::contains).containsExactlyElementsOf(created);
+    }
+
+    @Test
+    @Transactional
+    void getNewShipmentDealsWithCursor() throws Exception {
+        Date now = new Date();
+        Deal first = dealRepository.saveAndFlush(createEntity(em));
+        Deal second = dealRepository.saveAndFlush(createEntity(em));
+        Deal old = dealRepository.saveAndFlush(createEntity(em));
+        em.persist(new Shipment().createdAt(now).deal(first));
+        em.persist(new Shipment().createdAt(now).deal(first));
+        em.persist(new Shipment().createdAt(now).deal(second));
+        em.persist(new Shipment().createdAt(Date.from(now.toInstant().minus(11, ChronoUnit.DAYS))).deal(old));
+        em.flush();
+        em.clear();
+
+        List<Long> ids = getAllPages(ENTITY_API_URL + "/newShipments");
+
+        assertThat(ids).doesNotHaveDuplicates().doesNotContain(old.getId());
+        List<Long> created = List.of(second.getId(), first.getId());
+        assertThat(ids).filteredOn(created::contains).containsExactlyElementsOf(created);
+    }
+
+    /**
+     * @return the ids of the deals of all the pages of a feed, read one deal at a time with cursors.
+     */
+    private List<Long> getAllPages(String url) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            MvcResult result = restDealMockMvc
+                .perform(get(url + "?size=1&cursor=" + cursor))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andReturn();
+            JsonNode page = objectMapper.readTree(result.getResponse().getContentAsString());
+            assertThat(page.size()).isLessThanOrEqualTo(1);
+            page.forEach(dto -> ids.add(dto.get("dealId").asLong()));
+            cursor = result.getResponse().getHeader(CursorPaginationUtil.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return ids;
+    }
+
     @Test
     @Transactional
     void getDeal() throws Exception {
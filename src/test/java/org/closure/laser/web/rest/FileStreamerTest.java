@@ -0,0 +1,158 @@
+package org.closure.laser.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+class FileStreamerTest {
+
+    private static final Instant LAST_MODIFIED = Instant.parse("2026-10-18T12:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        file = Files.writeString(directory.resolve("1_0logo.png"), "0123456789");
+        Files.setLastModifiedTime(file, FileTime.from(LAST_MODIFIED));
+        request = new MockHttpServletRequest("GET", "/api/assets/images/user/1_0logo.png");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void fileIsSentWithItsValidators() throws Exception {
+        FileStreamer.stream(file, CacheControl.noCache(), null, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentType()).isEqualTo("image/png");
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag());
+        assertThat(response.getDateHeader(HttpHeaders.LAST_MODIFIED)).isEqualTo(LAST_MODIFIED.toEpochMilli());
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).startsWith("inline;");
+    }
+
+    @Test
+    void attachmentIsSentWithItsName() throws Exception {
+        FileStreamer.stream(directory.resolve("1_0logo.png"), CacheControl.noCache(), "logo.png", request, response);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).startsWith("attachment;").contains("logo.png");
+    }
+
+    @Test
+    void unchangedFileIsNotSentAgain() throws Exception {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag());
+
+        FileStreamer.stream(file, CacheControl.noCache(), null, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void fileNotModifiedSinceIsNotSentAgain() throws Exception {
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED.toEpochMilli());
+
+        FileStreamer.stream(file, CacheControl.noCache(), null, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+    }
+
+    @Test
+    void rangeIsSent() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        FileStreamer.stream(file, CacheControl.noCache(), null, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT.value());
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+    }
+
+    @Test
+    void suffixRangeIsSent() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+
+        FileStreamer.stream(file, CacheControl.noCache(), null, request, response);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(response.getContentAsString()).isEqualTo("789");
+    }
+
+    @Test
+    void rangeOfAnotherVersionSendsTheWholeFile() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"another-version\"");
+
+        FileStreamer.stream(file, CacheControl.noCache(), null, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void rangeOfTheSameVersionIsSent() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, etag());
+
+        FileStreamer.stream(file, CacheControl.noCache(), null, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.PARTIAL_CONTENT.value());
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+    }
+
+    @Test
+    void rangeAfterTheEndIsNotSatisfiable() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-");
+
+        FileStreamer.stream(file, CacheControl.noCache(), null, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void headRequestHasNoBody() throws Exception {
+        request.setMethod("HEAD");
+
+        FileStreamer.stream(file, CacheControl.noCache(), null, request, response);
+
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEmpty();
+    }
+
+    @Test
+    void missingFileIsNotFound() {
+        assertThatThrownBy(() -> FileStreamer.stream(directory.resolve("missing.png"), CacheControl.noCache(), null, request, response))
+            .isInstanceOf(ResponseStatusException.class)
+            .extracting(e -> ((ResponseStatusException) e).getStatus())
+            .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private static String etag() {
+        return "\"" + Long.toHexString(10) + "-" + Long.toHexString(LAST_MODIFIED.toEpochMilli()) + "\"";
+    }
+}
@@ -0,0 +1,346 @@
+package org.closure.laser.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+import org.closure.laser.LaserApp;
+import org.closure.laser.domain.ImageBlob;
+import org.closure.laser.domain.Shipment;
+import org.closure.laser.domain.Trip;
+import org.closure.laser.repository.ImageBlobRepository;
+import org.closure.laser.repository.ShipmentRepository;
+import org.closure.laser.repository.TripRepository;
+import org.closure.laser.security.AuthoritiesConstants;
+import org.closure.laser.security.jwt.TokenProvider;
+import org.closure.laser.service.BlobStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Integration tests for the image uploads of the {@link UserApplicationResource} REST controller, on a running
+ * server so that the multipart requests are parsed by Undertow as in production.
+ */
+@SpringBootTest(classes = LaserApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ImageUploadIT {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageUploadIT.class);
+
+    private static final int IMAGES_PER_UPLOAD = 10;
+
+    private static final int IMAGE_SIZE = 5 * 1024 * 1024;
+
+    private static byte[] image;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${application.upload.directory}")
+    private Path imagesDirectory;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private ImageBlobRepository imageBlobRepository;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @SpyBean
+    private BlobStore blobStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private HttpClient client;
+
+    private String authorization;
+
+    /**
+     * A photo of {@link #IMAGE_SIZE}: noise does not compress, the end of the file is padding after the image.
+     */
+    @BeforeAll
+    public static void createImage() throws Exception {
+        BufferedImage photo = new BufferedImage(2000, 1500, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < photo.getHeight(); y++) {
+            for (int x = 0; x < photo.getWidth(); x++) {
+                photo.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(photo, "jpeg", jpeg);
+        assertThat(jpeg.size()).isLessThan(IMAGE_SIZE);
+        image = Arrays.copyOf(jpeg.toByteArray(), IMAGE_SIZE);
+    }
+
+    @BeforeEach
+    public void setup() {
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(30)).build();
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            "user",
+            null,
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        authorization = "Bearer " + tokenProvider.createToken(authentication, TimeUnit.HOURS.toMillis(1));
+    }
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        imageBlobRepository.deleteAll();
+        Path blobs = imagesDirectory.resolve("blobs");
+        if (Files.exists(blobs)) {
+            try (Stream<Path> files = Files.walk(blobs)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void uploadShipmentImages() throws Exception {
+        Shipment shipment = shipmentRepository.saveAndFlush(new Shipment().imgUrl("http://localhost/api/assets/images/shipment/old.jpg"));
+
+        HttpResponse<String> response = upload(shipment.getId());
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
+        List<String> urls = objectMapper.readValue(response.body(), new TypeReference<List<String>>() {});
+        assertThat(urls).hasSize(IMAGES_PER_UPLOAD);
+        // the images are identical, they are stored once
+        assertThat(urls).allMatch(url -> url.equals(urls.get(0)));
+        assertThat(urls.get(0)).matches(".*/api/assets/images/shipment/[0-9a-f]{64}\\.jpg");
+        String hash = urls.get(0).substring(urls.get(0).lastIndexOf('/') + 1, urls.get(0).length() - ".jpg".length());
+        ImageBlob blob = imageBlobRepository.findByHash(hash).orElseThrow();
+        assertThat(blob.getReferenceCount()).isEqualTo(IMAGES_PER_UPLOAD);
+        assertThat(blob.getSize()).isEqualTo(IMAGE_SIZE);
+        assertThat(imagesDirectory.resolve("blobs").resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash))
+            .hasSize(IMAGE_SIZE);
+        List<String> imgUrls = new ArrayList<>();
+        imgUrls.add("http://localhost/api/assets/images/shipment/old.jpg");
+        imgUrls.addAll(urls);
+        assertThat(shipmentRepository.findById(shipment.getId()).orElseThrow().getImgUrl()).isEqualTo(String.join(",", imgUrls));
+
+        HttpResponse<Void> original = client.send(download(urls.get(0) + "?size=original"), HttpResponse.BodyHandlers.discarding());
+        assertThat(original.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(original.headers().firstValue(HttpHeaders.CACHE_CONTROL)).contains("max-age=31536000, private");
+        assertThat(original.headers().firstValueAsLong(HttpHeaders.CONTENT_LENGTH)).hasValue(IMAGE_SIZE);
+
+        // the thumbnails are created in the background
+        HttpResponse<byte[]> thumbnail = null;
+        for (int attempt = 0; attempt < 600; attempt++) {
+            thumbnail = client.send(download(urls.get(IMAGES_PER_UPLOAD - 1) + "?size=thumbnail"), HttpResponse.BodyHandlers.ofByteArray());
+            if (thumbnail.body().length < IMAGE_SIZE) {
+                break;
+            }
+            assertThat(thumbnail.headers().firstValue(HttpHeaders.CACHE_CONTROL)).contains("no-cache");
+            Thread.sleep(100);
+        }
+        assertThat(thumbnail.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(thumbnail.headers().firstValue(HttpHeaders.CONTENT_TYPE)).contains("image/jpeg");
+        BufferedImage thumbnailImage = ImageIO.read(new ByteArrayInputStream(thumbnail.body()));
+        assertThat(thumbnailImage.getWidth()).isEqualTo(320);
+        assertThat(thumbnailImage.getHeight()).isEqualTo(240);
+    }
+
+    @Test
+    void uploadWithInvalidType() throws Exception {
+        HttpResponse<String> response = client.send(
+            uploadRequest("../../config", 1L, List.of(image)),
+            HttpResponse.BodyHandlers.ofString()
+        );
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void failedUploadReleasesTheOtherImages() throws Exception {
+        Shipment shipment = shipmentRepository.saveAndFlush(new Shipment().imgUrl(""));
+        // the first image stored fails: the thumbnails are only created after an image is stored
+        AtomicBoolean failed = new AtomicBoolean();
+        doAnswer(invocation -> {
+                if (failed.compareAndSet(false, true)) {
+                    throw new IOException("No space left on device");
+                }
+                return invocation.callRealMethod();
+            })
+            .when(blobStore)
+            .put(anyString(), any(Path.class));
+        List<byte[]> images = new ArrayList<>();
+        for (int i = 0; i < IMAGES_PER_UPLOAD; i++) {
+            images.add(("image " + i).getBytes(StandardCharsets.US_ASCII));
+        }
+
+        HttpResponse<String> response = client.send(
+            uploadRequest("shipment", shipment.getId(), images),
+            HttpResponse.BodyHandlers.ofString()
+        );
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        assertThat(failed).isTrue();
+        // the images are released in the background, once the request has rolled back
+        awaitUnreferenced(IMAGES_PER_UPLOAD);
+        assertThat(imageBlobRepository.findAll()).hasSize(IMAGES_PER_UPLOAD).allMatch(blob -> blob.getReferenceCount() == 0);
+        assertThat(shipmentRepository.findById(shipment.getId()).orElseThrow().getImgUrl()).isEmpty();
+    }
+
+    @Test
+    void replacedTicketImageIsReleased() throws Exception {
+        Trip trip = tripRepository.saveAndFlush(new Trip());
+        byte[] first = "first ticket".getBytes(StandardCharsets.US_ASCII);
+        byte[] second = "second ticket".getBytes(StandardCharsets.US_ASCII);
+        byte[] third = "third ticket".getBytes(StandardCharsets.US_ASCII);
+
+        HttpResponse<String> response = client.send(
+            uploadRequest("trip", trip.getId(), List.of(first)),
+            HttpResponse.BodyHandlers.ofString()
+        );
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
+        // the trip keeps the last image of an upload
+        response = client.send(uploadRequest("trip", trip.getId(), List.of(second, third)), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
+
+        List<String> urls = objectMapper.readValue(response.body(), new TypeReference<List<String>>() {});
+        assertThat(tripRepository.findById(trip.getId()).orElseThrow().getTicketImage()).isEqualTo(urls.get(1));
+        awaitUnreferenced(2);
+        String kept = urls.get(1).substring(urls.get(1).lastIndexOf('/') + 1, urls.get(1).length() - ".jpg".length());
+        assertThat(imageBlobRepository.findAll())
+            .hasSize(3)
+            .allMatch(blob -> blob.getReferenceCount() == (blob.getHash().equals(kept) ? 1 : 0));
+    }
+
+    @Test
+    void uploadForUnknownOwnerStoresNothing() throws Exception {
+        HttpResponse<String> response = client.send(
+            uploadRequest("shipment", Long.MAX_VALUE, List.of(image)),
+            HttpResponse.BodyHandlers.ofString()
+        );
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(imageBlobRepository.count()).isZero();
+    }
+
+    /**
+     * Latency benchmark: uploads of {@link #IMAGES_PER_UPLOAD} photos of 5 MB, one after the other.
+     */
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.MINUTES)
+    void uploadLatency() throws Exception {
+        Shipment shipment = shipmentRepository.saveAndFlush(new Shipment().imgUrl(""));
+        int warmups = 2;
+        int uploads = 20;
+        long[] latencies = new long[uploads];
+        for (int i = -warmups; i < uploads; i++) {
+            long start = System.nanoTime();
+            HttpResponse<String> response = upload(shipment.getId());
+            long elapsed = System.nanoTime() - start;
+            assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
+            if (i >= 0) {
+                latencies[i] = elapsed;
+            }
+        }
+
+        Arrays.sort(latencies);
+        log.info(
+            "Image upload benchmark: {} uploads of {} images of {} MB, p50 {} ms, p99 {} ms",
+            uploads,
+            IMAGES_PER_UPLOAD,
+            IMAGE_SIZE / (1024 * 1024),
+            latencies[uploads / 2] / 1_000_000,
+            latencies[(uploads * 99 - 1) / 100] / 1_000_000
+        );
+    }
+
+    private HttpResponse<String> upload(Long shipmentId) throws Exception {
+        return client.send(
+            uploadRequest("shipment", shipmentId, Collections.nCopies(IMAGES_PER_UPLOAD, image)),
+            HttpResponse.BodyHandlers.ofString()
+        );
+    }
+
+    private HttpRequest uploadRequest(String type, Long id, List<byte[]> images) {
+        String boundary = UUID.randomUUID().toString();
+        List<byte[]> body = new ArrayList<>();
+        for (byte[] content : images) {
+            body.add(partHeader(boundary, "form-data; name=\"files\"; filename=\"photo.jpg\"\r\nContent-Type: image/jpeg"));
+            body.add(content);
+            body.add("\r\n".getBytes(StandardCharsets.US_ASCII));
+        }
+        body.add(partHeader(boundary, "form-data; name=\"type\""));
+        body.add((type + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        body.add(partHeader(boundary, "form-data; name=\"id\""));
+        body.add((id + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        body.add(("--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return HttpRequest
+            .newBuilder(URI.create("http://localhost:" + port + "/api/upload-files"))
+            .header(HttpHeaders.AUTHORIZATION, authorization)
+            .header(HttpHeaders.CONTENT_TYPE, "multipart/form-data; boundary=" + boundary)
+            .POST(HttpRequest.BodyPublishers.ofByteArrays(body))
+            .build();
+    }
+
+    private void awaitUnreferenced(int count) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            if (imageBlobRepository.findAll().stream().filter(blob -> blob.getReferenceCount() == 0).count() >= count) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static byte[] partHeader(String boundary, String contentDisposition) {
+        return ("--" + boundary + "\r\nContent-Disposition: " + contentDisposition + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private HttpRequest download(String url) {
+        String path = URI.create(url).getRawPath() + "?" + URI.create(url).getRawQuery();
+        return HttpRequest
+            .newBuilder(URI.create("http://localhost:" + port + path))
+            .header(HttpHeaders.AUTHORIZATION, authorization)
+            .build();
+    }
+}
@@ -0,0 +1,170 @@
+package org.closure.laser.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.closure.laser.LaserApp;
+import org.closure.laser.service.ReleaseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * Integration tests for the {@link ReleaseResource} REST controller, on a running server so that the release is sent
+ * by Undertow as in production.
+ */
+@SpringBootTest(classes = LaserApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReleaseResourceIT {
+
+    private static final Logger log = LoggerFactory.getLogger(ReleaseResourceIT.class);
+
+    private static final int RELEASE_SIZE = 4 * 1024 * 1024;
+
+    private static final int CONCURRENT_CLIENTS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ReleaseService releaseService;
+
+    private byte[] content;
+
+    private Path release;
+
+    private HttpClient client;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        content = new byte[RELEASE_SIZE];
+        new Random(42).nextBytes(content);
+        release = releaseService.save("1.0.0.apk", new MockMultipartFile("file", "1.0.0.apk", null, content));
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(30)).build();
+    }
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        Files.deleteIfExists(release);
+    }
+
+    @Test
+    void downloadRelease() throws Exception {
+        HttpResponse<byte[]> response = client.send(download().build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_DISPOSITION)).hasValueSatisfying(disposition ->
+            assertThat(disposition).startsWith("attachment;").contains("laser-release-1.0.0.apk")
+        );
+        assertThat(response.headers().firstValue(HttpHeaders.CACHE_CONTROL)).contains("no-cache");
+        assertThat(response.body()).isEqualTo(content);
+
+        String etag = response.headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+        HttpResponse<byte[]> notModified = client.send(
+            download().header(HttpHeaders.IF_NONE_MATCH, etag).build(),
+            HttpResponse.BodyHandlers.ofByteArray()
+        );
+
+        assertThat(notModified.statusCode()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(notModified.body()).isEmpty();
+    }
+
+    @Test
+    void resumeDownload() throws Exception {
+        HttpResponse<byte[]> response = client.send(
+            download().header(HttpHeaders.RANGE, "bytes=1000000-").build(),
+            HttpResponse.BodyHandlers.ofByteArray()
+        );
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT.value());
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_RANGE))
+            .contains("bytes 1000000-" + (RELEASE_SIZE - 1) + "/" + RELEASE_SIZE);
+        assertThat(response.body()).isEqualTo(Arrays.copyOfRange(content, 1000000, RELEASE_SIZE));
+    }
+
+    @Test
+    void downloadMissingRelease() throws Exception {
+        HttpResponse<Void> response = client.send(
+            HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/download-flutter-release/missing")).build(),
+            HttpResponse.BodyHandlers.discarding()
+        );
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.NOT_FOUND.value());
+    }
+
+    /**
+     * Throughput benchmark: {@link #CONCURRENT_CLIENTS} devices download the release at the same time.
+     */
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.MINUTES)
+    void concurrentDownloads() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_CLIENTS);
+        try {
+            List<Callable<long[]>> downloads = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+                downloads.add(() -> {
+                    long start = System.nanoTime();
+                    HttpResponse<InputStream> response = client.send(download().build(), HttpResponse.BodyHandlers.ofInputStream());
+                    try (InputStream body = response.body()) {
+                        long length = body.transferTo(OutputStream.nullOutputStream());
+                        return new long[] { response.statusCode(), length, System.nanoTime() - start };
+                    }
+                });
+            }
+
+            long start = System.nanoTime();
+            List<long[]> results = new ArrayList<>();
+            for (Future<long[]> download : clients.invokeAll(downloads)) {
+                results.add(download.get());
+            }
+            long elapsed = System.nanoTime() - start;
+
+            assertThat(results).allSatisfy(result -> {
+                assertThat(result[0]).isEqualTo(HttpStatus.OK.value());
+                assertThat(result[1]).isEqualTo(RELEASE_SIZE);
+            });
+            long[] latencies = results.stream().mapToLong(result -> result[2]).sorted().toArray();
+            log.info(
+                "Release download benchmark: {} clients, {} MB each, {} MB/s, {} requests/s, p50 {} ms, p99 {} ms",
+                CONCURRENT_CLIENTS,
+                RELEASE_SIZE / (1024 * 1024),
+                (long) RELEASE_SIZE * CONCURRENT_CLIENTS * 1_000 / (1024 * 1024) / (elapsed / 1_000_000),
+                CONCURRENT_CLIENTS * 1_000_000_000L / elapsed,
+                latencies[latencies.length / 2] / 1_000_000,
+                latencies[latencies.length * 99 / 100] / 1_000_000
+            );
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private HttpRequest.Builder download() {
+        String uri = "http://localhost:" + port + "/api/download-flutter-release/" + ReleaseService.RELEASE_PREFIX;
+        return HttpRequest.newBuilder(URI.create(uri));
+    }
+}
@@ -5,22 +5,31 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
 import org.closure.laser.IntegrationTest;
+import org.closure.laser.domain.Deal;
 import org.closure.laser.domain.Trip;
+import org.closure.laser.domain.UserApplication;
 import org.closure.laser.repository.TripRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -70,6 +79,9 @@ class TripResourceIT {
     @Autowired
     private MockMvc restTripMockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private Trip trip;
 
     /**
@@ -172,6 +184,88 @@ class TripResourceIT {
             .andExpect(jsonPath("$.[*].transit").value(hasItem(DEFAULT_TRANSIT)));
     }
 
+    @Test
+    @Transactional
+    void getAllTripsWithCursor() throws Exception {
+        Date now = new Date();
+        Date earlier = Date.from(now.toInstant().minusSeconds(60));
+        Trip oldest = tripRepository.saveAndFlush(createEntity(em).createdAt(earlier));
+        Trip sameDate = tripRepository.saveAndFlush(createEntity(em).createdAt(earlier));
+        Trip latest = tripRepository.saveAndFlush(createEntity(em).createdAt(now));
+        Trip withoutDate = tripRepository.saveAndFlush(createEntity(em));
+        Trip lastWithoutDate = tripRepository.saveAndFlush(createEntity(em));
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            MvcResult result = restTripMockMvc
+                .perform(get(ENTITY_API_URL + "?size=2&cursor=" + cursor))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andReturn();
+            List<Trip> page = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<List<Trip>>() {});
+            assertThat(page).hasSizeLessThanOrEqualTo(2);
+            page.forEach(t -> ids.add(t.getId()));
+            cursor = result.getResponse().getHeader(CursorPaginationUtil.NEXT_CURSOR_HEADER);
+            if (cursor != null) {
+                assertThat(result.getResponse().getHeader(HttpHeaders.LINK)).contains("cursor=" + cursor).endsWith("rel=\"next\"");
+            }
+        } while (cursor != null);
+
+        assertThat(ids).doesNotHaveDuplicates();
+        // by creation date then id, descending, and the trips without creation date last
+        List<Long> created = List.of(latest.getId(), sameDate.getId(), oldest.getId(), lastWithoutDate.getId(), withoutDate.getId());
+        assertThat(ids).filteredOn(created::contains).containsExactlyElementsOf(created);
+    }
+
+    @Test
+    @Transactional
+    void getAllTripCards() throws Exception {
+        UserApplication owner = new UserApplication().phone("0999999999");
+        em.persist(owner);
+        tripRepository.saveAndFlush(trip);
+        Trip withoutDeal = tripRepository.saveAndFlush(createEntity(em));
+        Deal firstOpen = new Deal().trip(trip).availableWeight(10D);
+        Deal secondOpen = new Deal().trip(trip).availableWeight(20D);
+        Deal taken = new Deal().trip(trip).owner(owner).availableWeight(30D);
+        em.persist(firstOpen);
+        em.persist(secondOpen);
+        em.persist(taken);
+        em.flush();
+        em.clear();
+
+        MvcResult result = restTripMockMvc
+            .perform(get(ENTITY_API_URL + "/cards?size=2000"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andReturn();
+        JsonNode cards = objectMapper.readTree(result.getResponse().getContentAsString());
+
+        // one card per trip, with the first open deal of the trip
+        assertThat(result.getResponse().getHeader("X-Total-Count")).isEqualTo(String.valueOf(cards.size()));
+        assertThat(cards.size()).isEqualTo((int) tripRepository.count());
+        List<JsonNode> tripCards = new ArrayList<>();
+        List<JsonNode> withoutDealCards = new ArrayList<>();
+        for (JsonNode card : cards) {
+            if (card.get("id").asLong() == trip.getId()) {
+                tripCards.add(card);
+            } else if (card.get("id").asLong() == withoutDeal.getId()) {
+                withoutDealCards.add(card);
+            }
+        }
+        assertThat(tripCards).hasSize(1);
+        assertThat(tripCards.get(0).get("dealId").asLong()).isEqualTo(firstOpen.getId());
+        assertThat(tripCards.get(0).get("tripIdentifier").asText()).isEqualTo(DEFAULT_TRIP_IDENTIFIER);
+        assertThat(withoutDealCards).hasSize(1);
+        assertThat(withoutDealCards.get(0).get("dealId").isNull()).isTrue();
+    }
+
+    @Test
+    @Transactional
+    void getAllTripsWithInvalidCursor() throws Exception {
+        restTripMockMvc.perform(get(ENTITY_API_URL + "?cursor=not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getTrip() throws Exception {